@@ -0,0 +1,60 @@
+package com.assignment.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.utils.Utils;
+
+/**
+ * JMH benchmark of the Base64 encoding and decoding of the Utils class, which are 
+ * used on each save (decode) and on each diff in the STRING mode (encode).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+	@Param({"1024", "65536", "1048576"})
+	private int size;
+
+	private Utils utils = new Utils();
+	private byte[] data;
+	private String encoded;
+
+	/**
+	 * Creates the random data and its encoded value.
+	 */
+	@Setup
+	public void setup() {
+		data = new byte[size];
+		new Random(size).nextBytes(data);
+		encoded = utils.encodeBase64(data);
+	}
+
+	@Benchmark
+	public String encode() {
+		return utils.encodeBase64(data);
+	}
+
+	@Benchmark
+	public byte[] decode() {
+		return utils.decodeBase64(encoded);
+	}
+}
@@ -0,0 +1,82 @@
+package com.assignment.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.task.impl.GetDiffTask;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
+
+/**
+ * JMH benchmark of the GetDiffTask, the whole diff operation (read of both sides, 
+ * comparison and creation of the JSON result), for each diff mode.<br/>
+ * The payload size and the density of the differences (differences per 1000 bytes)
+ * vary, so the cost of the comparison and the cost of the result can be seen apart.<br/>
+ * The data is kept in memory and the diff cache is disabled, so each operation is 
+ * a full diff.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetDiffTaskBenchmark {
+
+	private static final String ID = "benchmark";
+
+	@Param({"1024", "65536", "1048576"})
+	private int size;
+
+	@Param({"0", "1", "100"})
+	private int density;
+
+	@Param({"STRING", "BYTE", "PARALLEL"})
+	private String mode;
+
+	private GetDiffTask task;
+
+	/**
+	 * Creates the data (random bytes, with the right side changed on random positions).
+	 */
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(size);
+		byte[] left = new byte[size];
+		random.nextBytes(left);
+		byte[] right = left.clone();
+		for (int i = 0; i < (long) size * density / 1000; i++) {
+			right[random.nextInt(size)]++;
+		}
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		dataStore.write(ID, DataEnum.LEFT, left);
+		dataStore.write(ID, DataEnum.RIGHT, right);
+
+		task = new GetDiffTask(ID, DiffModeEnum.fromValue(mode));
+		task.setDataStore(dataStore);
+		task.setDiffCache(new LruDiffCache(0, 0));
+	}
+
+	@Benchmark
+	public JSONObject diff() {
+		return task.executeTask();
+	}
+}
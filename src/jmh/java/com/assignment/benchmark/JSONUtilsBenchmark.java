@@ -0,0 +1,55 @@
+package com.assignment.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.utils.JSONUtils;
+import com.assignment.utils.Utils;
+
+/**
+ * JMH benchmark of the validation of the JSON array of the uploads (JSONUtils.isValidJSONArray),
+ * with a single Base64 value of the given size.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONUtilsBenchmark {
+
+	@Param({"1024", "65536", "1048576"})
+	private int size;
+
+	private JSONUtils jsonUtils = new JSONUtils();
+	private String inputData;
+
+	/**
+	 * Creates the JSON array with the encoded random data.
+	 */
+	@Setup
+	public void setup() {
+		byte[] data = new byte[size];
+		new Random(size).nextBytes(data);
+		inputData = "[\"" + new Utils().encodeBase64(data) + "\"]";
+	}
+
+	@Benchmark
+	public boolean isValidJSONArray() {
+		return jsonUtils.isValidJSONArray(inputData);
+	}
+}
@@ -0,0 +1,78 @@
+package com.assignment.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.diff.DifferenceList;
+import com.assignment.diff.impl.ByteDiffEngine;
+import com.assignment.diff.impl.ParallelDiffEngine;
+
+/**
+ * JMH benchmark that compares the sequential (ByteDiffEngine) and the parallel 
+ * (ParallelDiffEngine) diff engines over a range of payload sizes and chunk thresholds.<br/>
+ * The crossover point is the smallest size where the parallel engine is faster, and it is
+ * a good value for the diff.parallel.threshold configuration.<br/>
+ * The data is 99% identical, with small differences spread over the payload.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelDiffBenchmark {
+
+	@Param({"65536", "262144", "1048576", "4194304", "16777216", "67108864"})
+	private int size;
+
+	@Param({"65536", "1048576"})
+	private int threshold;
+
+	private ByteBuffer left;
+	private ByteBuffer right;
+	private ByteDiffEngine byteDiffEngine;
+	private ParallelDiffEngine parallelDiffEngine;
+
+	/**
+	 * Creates the data (1 different byte every 100 bytes on average) and the engines.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		byte[] leftBytes = new byte[size];
+		random.nextBytes(leftBytes);
+		byte[] rightBytes = leftBytes.clone();
+		for (int i = 0; i < size / 100; i++) {
+			rightBytes[random.nextInt(size)]++;
+		}
+		left = ByteBuffer.wrap(leftBytes);
+		right = ByteBuffer.wrap(rightBytes);
+		byteDiffEngine = new ByteDiffEngine();
+		parallelDiffEngine = new ParallelDiffEngine(threshold);
+	}
+
+	@Benchmark
+	public DifferenceList sequential() {
+		return byteDiffEngine.diff(left, right);
+	}
+
+	@Benchmark
+	public DifferenceList parallel() {
+		return parallelDiffEngine.diff(left, right);
+	}
+}
@@ -0,0 +1,125 @@
+package com.assignment.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.storage.DataStore;
+import com.assignment.storage.impl.H2DataStore;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.storage.impl.MappedFileDataStore;
+import com.assignment.storage.impl.PropertiesFileDataStore;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.DataStoreEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * JMH benchmark of the save/load round trip of one side of the data.<br/>
+ * The UTILS store type is the original path (properties file of the Utils class, with 
+ * the data Base64 encoded), and the other store types are the DataStore implementations.
+ * The files are created in a temporary directory.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+
+	@Param({"1024", "65536", "1048576"})
+	private int size;
+
+	@Param({"UTILS", "MAPPED_FILE", "PROPERTIES_FILE", "MEMORY", "H2"})
+	private String storeType;
+
+	private Utils utils = new Utils();
+	private Path directory;
+	private String id;
+	private byte[] data;
+	private String encoded;
+	private DataStore dataStore;
+
+	/**
+	 * Creates the random data, the temporary directory and the data store.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		data = new byte[size];
+		new Random(size).nextBytes(data);
+		encoded = utils.encodeBase64(data);
+		directory = Files.createTempDirectory("diffapi-benchmark");
+		// the properties file data store uses the id as the file name.
+		id = directory.resolve("benchmark").toString();
+
+		if ("UTILS".equals(storeType)) {
+			return;
+		}
+		switch (DataStoreEnum.fromValue(storeType)) {
+			case PROPERTIES_FILE:
+				dataStore = new PropertiesFileDataStore();
+				break;
+			case MEMORY:
+				dataStore = new InMemoryDataStore();
+				break;
+			case H2:
+				dataStore = new H2DataStore("jdbc:h2:" + directory.resolve("diffapi"));
+				break;
+			default:
+				dataStore = new MappedFileDataStore(directory.resolve("data"));
+				id = "benchmark";
+		}
+	}
+
+	/**
+	 * Deletes the temporary directory.
+	 */
+	@TearDown
+	public void tearDown() {
+		delete(directory.toFile());
+	}
+
+	@Benchmark
+	public Object roundTrip() throws IOException {
+		if (dataStore == null) {
+			Properties properties = utils.fileExists(id) ? utils.loadPropertiesFile(id) : utils.createPropertiesFile(id);
+			properties.setProperty(DataEnum.LEFT.name(), encoded);
+			utils.savePropertiesFile(id, properties);
+			return utils.getData(id, DataEnum.LEFT);
+		}
+		dataStore.write(id, DataEnum.LEFT, data);
+		return dataStore.read(id, DataEnum.LEFT);
+	}
+
+	/**
+	 * Deletes a file or a directory with its content.
+	 */
+	private void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File child : files) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
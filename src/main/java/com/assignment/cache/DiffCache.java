@@ -0,0 +1,52 @@
+package com.assignment.cache;
+
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.utils.DiffModeEnum;
+
+/**
+ * Interface that represents the cache of the diff results.<br/>
+ * A result is kept with the version of both sides (right and left) used to compute it, 
+ * so a result is only returned while the data of the id is not changed.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DiffCache {
+
+	/**
+	 * Returns the cached result of a diff.
+	 * 
+	 * @param id The id of the operation.
+	 * @param mode The mode of the diff.
+	 * @param leftVersion The current version of the left data.
+	 * @param rightVersion The current version of the right data.
+	 * @return The cached DiffResult, or null if there is no result for these versions.
+	 */
+	DiffResult get(String id, DiffModeEnum mode, long leftVersion, long rightVersion);
+
+	/**
+	 * Keeps the result of a diff.
+	 * 
+	 * @param id The id of the operation.
+	 * @param mode The mode of the diff.
+	 * @param leftVersion The version of the left data used in the diff.
+	 * @param rightVersion The version of the right data used in the diff.
+	 * @param result The result of the diff.
+	 */
+	void put(String id, DiffModeEnum mode, long leftVersion, long rightVersion, DiffResult result);
+
+	/**
+	 * Removes all the results of an id, it is called when the data of the id is saved.
+	 * 
+	 * @param id The id of the operation.
+	 */
+	void invalidate(String id);
+
+	/**
+	 * Returns the counters of the cache (hits, misses, evictions, entries and bytes).
+	 * 
+	 * @return JSONObject with the counters.
+	 */
+	JSONObject getStatistics();
+}
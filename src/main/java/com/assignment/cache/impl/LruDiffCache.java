@@ -0,0 +1,192 @@
+package com.assignment.cache.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.cache.DiffCache;
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DiffModeEnum;
+
+/**
+ * Diff cache that keeps the results in memory, evicting the least recently used ones.<br/>
+ * The cache is bounded by the number of entries and by the estimated size of the results, 
+ * both configured in the diffapi.properties file (cache.*).<br/>
+ * The results are kept as they are returned by the diff (the differences in arrays of primitives),
+ * so the size of a result is estimated by its number of differences.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class LruDiffCache implements DiffCache {
+
+	// configuration keys.
+	public static final String MAX_ENTRIES_KEY = "cache.max.entries";
+	public static final String MAX_BYTES_KEY = "cache.max.bytes";
+
+	// names of the counters.
+	public static final String HITS = "Hits";
+	public static final String MISSES = "Misses";
+	public static final String EVICTIONS = "Evictions";
+	public static final String ENTRIES = "Entries";
+	public static final String BYTES = "Bytes";
+
+	// estimated size of a result, without its differences.
+	private static final int RESULT_SIZE = 256;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.cache.impl.LruDiffCache");
+
+	// entries in access order, the first one is the least recently used.
+	private LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private int maxEntries;
+	private long maxBytes;
+	private long bytes;
+
+	private AtomicLong hits = new AtomicLong();
+	private AtomicLong misses = new AtomicLong();
+	private AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Holder of the instance shared by the application, created on the first use.
+	 */
+	private static class InstanceHolder {
+		private static final LruDiffCache INSTANCE = new LruDiffCache();
+	}
+
+	/**
+	 * Returns the diff cache shared by the application.
+	 * 
+	 * @return The DiffCache instance.
+	 */
+	public static DiffCache getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Constructor of the LruDiffCache class, the limits are read from the configuration.
+	 */
+	public LruDiffCache() {
+		this(new ConfigUtils().getInt(MAX_ENTRIES_KEY, 1000), new ConfigUtils().getLong(MAX_BYTES_KEY, 64L * 1024 * 1024));
+	}
+
+	/**
+	 * Constructor of the LruDiffCache class.
+	 * 
+	 * @param maxEntries The maximum number of results kept (0 disables the cache).
+	 * @param maxBytes The maximum estimated size of the results kept, in bytes.
+	 */
+	public LruDiffCache(int maxEntries, long maxBytes) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	public DiffResult get(String id, DiffModeEnum mode, long leftVersion, long rightVersion) {
+		synchronized (entries) {
+			Entry entry = entries.get(getKey(id, mode));
+			if (entry != null && entry.leftVersion == leftVersion && entry.rightVersion == rightVersion) {
+				hits.incrementAndGet();
+				return entry.result;
+			}
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	@Override
+	public void put(String id, DiffModeEnum mode, long leftVersion, long rightVersion, DiffResult result) {
+		Entry entry = new Entry(leftVersion, rightVersion, result, estimateSize(result));
+		if (maxEntries <= 0 || entry.size > maxBytes) {
+			return;
+		}
+		synchronized (entries) {
+			Entry previous = entries.put(getKey(id, mode), entry);
+			if (previous != null) {
+				bytes -= previous.size;
+			}
+			bytes += entry.size;
+
+			// evict the least recently used entries until the cache is within its limits.
+			Iterator<Entry> iterator = entries.values().iterator();
+			while (entries.size() > maxEntries || bytes > maxBytes) {
+				bytes -= iterator.next().size;
+				iterator.remove();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	@Override
+	public void invalidate(String id) {
+		synchronized (entries) {
+			for (DiffModeEnum mode : DiffModeEnum.values()) {
+				Entry entry = entries.remove(getKey(id, mode));
+				if (entry != null) {
+					bytes -= entry.size;
+				}
+			}
+		}
+	}
+
+	@Override
+	public JSONObject getStatistics() {
+		JSONObject jsonObject = new JSONObject();
+		try {
+			jsonObject.put(HITS, hits.get());
+			jsonObject.put(MISSES, misses.get());
+			jsonObject.put(EVICTIONS, evictions.get());
+			synchronized (entries) {
+				jsonObject.put(ENTRIES, entries.size());
+				jsonObject.put(BYTES, bytes);
+			}
+		} catch (JSONException exc) {
+			log.debug("Exception creating the statistics of the cache: {}", exc.getMessage(), exc);
+		}
+		return jsonObject;
+	}
+
+	/**
+	 * Returns the key of a result in the cache.
+	 * 
+	 * @param id The id of the operation.
+	 * @param mode The mode of the diff.
+	 * @return The key (id.MODE).
+	 */
+	private String getKey(String id, DiffModeEnum mode) {
+		return id + "." + mode.name();
+	}
+
+	/**
+	 * Estimates the size in memory of a result, based on its number of differences.
+	 * 
+	 * @param result The result of the diff.
+	 * @return The estimated size, in bytes.
+	 */
+	private long estimateSize(DiffResult result) {
+		return RESULT_SIZE + (long) DifferenceList.BYTES_PER_DIFFERENCE * result.getDifferences().size();
+	}
+
+	/**
+	 * A cached result, with the versions of the data used to compute it.
+	 */
+	private static class Entry {
+		private final long leftVersion;
+		private final long rightVersion;
+		private final DiffResult result;
+		private final long size;
+
+		private Entry(long leftVersion, long rightVersion, DiffResult result, long size) {
+			this.leftVersion = leftVersion;
+			this.rightVersion = rightVersion;
+			this.result = result;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.assignment.diff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface used to define the engines that find the differences between two binary data.<br/>
+ * The engine works over the decoded data, so offsets and lengths are in bytes.<br/>
+ * The data is read with absolute indexes from 0 to the limit of the buffers.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DiffEngine {
+
+	/**
+	 * Identifies the differences between the left and right data.<br/>
+	 * Both buffers must have the same limit.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @return DifferenceList with the differences found.
+	 */
+	DifferenceList diff(ByteBuffer left, ByteBuffer right);
+
+	/**
+	 * Identifies the differences between the left and right data, passing each difference
+	 * to the listener as soon as it is found (in order), without keeping them.<br/>
+	 * Both buffers must have the same limit.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @param listener The listener that receives the differences.
+	 * @throws IOException In case the listener fails.
+	 */
+	void diff(ByteBuffer left, ByteBuffer right, DiffListener listener) throws IOException;
+
+	/**
+	 * Identifies the differences between the left and right data, looking only inside 
+	 * the [from, to) interval, and passes each difference to the listener (in order) 
+	 * until the listener stops the comparison.<br/>
+	 * A difference that crosses the limits of the interval is cut at the limits.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @param from The first index (inclusive) to be compared.
+	 * @param to The last index (exclusive) to be compared, at most the limit of the buffers.
+	 * @param listener The listener that receives the differences.
+	 * @throws IOException In case the listener fails.
+	 */
+	void diff(ByteBuffer left, ByteBuffer right, int from, int to, DiffListener listener) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.assignment.diff;
+
+import java.io.IOException;
+
+/**
+ * Interface used to receive the differences while the engine compares the data.<br/>
+ * The differences are received in order (by offset), and the engine does not keep them,
+ * so the memory used does not depend on the number of differences.<br/>
+ * The listener can stop the comparison (e.g. when it has enough differences), so the
+ * rest of the data is not compared.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DiffListener {
+
+	/**
+	 * Receives one difference found by the engine.
+	 * 
+	 * @param offset The offset of the difference, in bytes.
+	 * @param length The length of the difference, in bytes.
+	 * @return true to continue the comparison, false to stop it.
+	 * @throws IOException In case the difference cannot be handled (the comparison is stopped).
+	 */
+	boolean difference(long offset, long length) throws IOException;
+}
@@ -0,0 +1,134 @@
+package com.assignment.diff;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.utils.Utils;
+
+/**
+ * The result of a diff: the message (one of the Utils.RESULT_* messages), the differences
+ * and the offset of the next difference, when the result is limited.<br/>
+ * The differences are kept in the DifferenceList (arrays of primitives), so the result is
+ * cached and written by the encoders (JSON included) without creating an object per difference.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class DiffResult {
+
+	// there is no next difference, the result has all the differences of the window.
+	public static final long NO_NEXT = -1;
+
+	private final String message;
+	private final DifferenceList differences;
+	private final long next;
+
+	/**
+	 * Constructor of the DiffResult class.
+	 *
+	 * @param message The message of the result.
+	 * @param differences The differences.
+	 * @param next The offset of the next difference, or NO_NEXT.
+	 */
+	private DiffResult(String message, DifferenceList differences, long next) {
+		this.message = message;
+		this.differences = differences;
+		this.next = next;
+	}
+
+	/**
+	 * Returns the result of data that are equal (or equal inside the window).
+	 *
+	 * @return The DiffResult.
+	 */
+	public static DiffResult equal() {
+		return new DiffResult(Utils.RESULT_ARE_EQUAL, new DifferenceList(), NO_NEXT);
+	}
+
+	/**
+	 * Returns the result of data that do not have the same length.
+	 *
+	 * @return The DiffResult.
+	 */
+	public static DiffResult notSameLength() {
+		return new DiffResult(Utils.RESULT_NOT_SAME_LENGTH, new DifferenceList(), NO_NEXT);
+	}
+
+	/**
+	 * Returns the result of data with the same length.
+	 *
+	 * @param differences The differences found, when there is none the data are equal.
+	 * @param next The offset of the next difference after the limit, or NO_NEXT.
+	 * @return The DiffResult.
+	 */
+	public static DiffResult of(DifferenceList differences, long next) {
+		if (differences.size() == 0) {
+			return equal();
+		}
+		return new DiffResult(Utils.RESULT_SAME_LENGTH_WITH_DIFFS, differences, next);
+	}
+
+	/**
+	 * Returns the message of the result.
+	 *
+	 * @return One of the Utils.RESULT_* messages.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Returns the differences, empty when the data are equal or do not have the same length.
+	 *
+	 * @return The DifferenceList.
+	 */
+	public DifferenceList getDifferences() {
+		return differences;
+	}
+
+	/**
+	 * Checks if the result was limited, and has the offset of the next difference.
+	 *
+	 * @return true if there is a next difference.
+	 */
+	public boolean hasNext() {
+		return next != NO_NEXT;
+	}
+
+	/**
+	 * Returns the offset of the next difference after the limit.
+	 *
+	 * @return The offset of the next difference, or NO_NEXT.
+	 */
+	public long getNext() {
+		return next;
+	}
+
+	/**
+	 * Returns the result as a JSONObject, as returned by Task.executeTask().<br/>
+	 * The responses do not use it, they are written by the encoders.
+	 *
+	 * @return JSONObject with the Result, the Differences and the Next offset.
+	 * @throws JSONException In case the JSON object cannot be built.
+	 */
+	public JSONObject toJSONObject() throws JSONException {
+		JSONObject jsonObject = new JSONObject();
+		if (differences.size() == 0) {
+			jsonObject.append(Utils.RESULT, message);
+			return jsonObject;
+		}
+		JSONArray jsonArray = new JSONArray();
+		for (int i = 0; i < differences.size(); i++) {
+			JSONObject difference = new JSONObject();
+			difference.put(Utils.OFFSET, differences.getOffset(i));
+			difference.put(Utils.LENGTH, differences.getLength(i));
+			jsonArray.put(difference);
+		}
+		jsonObject.put(Utils.RESULT, message);
+		jsonObject.put(Utils.DIFFERENCES, jsonArray);
+		if (hasNext()) {
+			jsonObject.put(Utils.NEXT, next);
+		}
+		return jsonObject;
+	}
+}
@@ -0,0 +1,106 @@
+package com.assignment.diff;
+
+import java.util.Arrays;
+
+/**
+ * List of differences (offset + length), kept in growable arrays of primitives.<br/>
+ * Adding a difference does not create any object (the arrays only grow, doubling their size,
+ * when they are full), so the comparison does not allocate per difference, and each
+ * difference uses BYTES_PER_DIFFERENCE bytes. The list is kept in the DiffResult, cached
+ * and read by the encoders as it is.<br/>
+ * It is also a DiffListener that keeps all the differences received.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class DifferenceList implements DiffListener {
+
+	// the size used by each difference, the offset and the length (64-bit, the data can be larger than 2 GB).
+	public static final int BYTES_PER_DIFFERENCE = 16;
+
+	// initial capacity of the arrays.
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] offsets = new long[INITIAL_CAPACITY];
+	private long[] lengths = new long[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Adds a difference to the end of the list.
+	 *
+	 * @param offset The offset of the difference.
+	 * @param length The length of the difference.
+	 */
+	public void add(long offset, long length) {
+		if (size == offsets.length) {
+			offsets = Arrays.copyOf(offsets, size * 2);
+			lengths = Arrays.copyOf(lengths, size * 2);
+		}
+		offsets[size] = offset;
+		lengths[size] = length;
+		size++;
+	}
+
+	@Override
+	public boolean difference(long offset, long length) {
+		add(offset, length);
+		return true;
+	}
+
+	/**
+	 * Adds the differences of the next interval to the end of the list.<br/>
+	 * When the last difference of the list ends exactly where the first difference
+	 * of the other list starts, both are the same difference and they are joined.
+	 *
+	 * @param next The differences of the next interval.
+	 */
+	public void append(DifferenceList next) {
+		append(next, 0);
+	}
+
+	/**
+	 * Adds the differences of the next interval to the end of the list, when the offsets
+	 * of the other list are relative to the start of the interval (e.g. a segment of the data).
+	 *
+	 * @param next The differences of the next interval.
+	 * @param position The offset of the start of the interval.
+	 */
+	public void append(DifferenceList next, long position) {
+		int start = 0;
+		if (size > 0 && next.size > 0 && offsets[size - 1] + lengths[size - 1] == position + next.offsets[0]) {
+			lengths[size - 1] += next.lengths[0];
+			start = 1;
+		}
+		for (int i = start; i < next.size; i++) {
+			add(position + next.offsets[i], next.lengths[i]);
+		}
+	}
+
+	/**
+	 * Returns the number of differences.
+	 *
+	 * @return The number of differences.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the offset of a difference.
+	 *
+	 * @param index The index of the difference, from 0 to size - 1.
+	 * @return The offset of the difference.
+	 */
+	public long getOffset(int index) {
+		return offsets[index];
+	}
+
+	/**
+	 * Returns the length of a difference.
+	 *
+	 * @param index The index of the difference, from 0 to size - 1.
+	 * @return The length of the difference.
+	 */
+	public long getLength(int index) {
+		return lengths[index];
+	}
+}
@@ -0,0 +1,90 @@
+package com.assignment.diff.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.assignment.diff.DiffEngine;
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DifferenceList;
+
+/**
+ * Diff engine that compares the decoded data.<br/>
+ * Equal regions are skipped a word (8 bytes) at a time by the ComparisonKernel, and 
+ * each difference is then scanned byte by byte to find its length.<br/>
+ * The offsets and lengths reported are in bytes, not in Base64 encoded characters.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ByteDiffEngine implements DiffEngine {
+
+	// kernel used to skip the equal regions and to find the end of the differences.
+	private ComparisonKernel kernel = new ComparisonKernel();
+
+	/**
+	 * Identifies the differences between the left and right data.<br/>
+	 * The kernel skips to the start of the next difference (offset), then finds the
+	 * first equal byte after it (end of the difference), and the difference 
+	 * (offset + length) is added to the list.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @return DifferenceList with the differences found.
+	 */
+	@Override
+	public DifferenceList diff(ByteBuffer left, ByteBuffer right) {
+		return diff(left, right, 0, right.limit());
+	}
+
+	/**
+	 * Identifies the differences between the left and right data, looking only inside 
+	 * the [from, to) interval. A difference that crosses the limits of the interval 
+	 * is cut at the limits.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @param from The first index (inclusive) to be compared.
+	 * @param to The last index (exclusive) to be compared.
+	 * @return DifferenceList with the differences found.
+	 */
+	public DifferenceList diff(ByteBuffer left, ByteBuffer right, int from, int to) {
+		DifferenceList differences = new DifferenceList();
+
+		int diffOffset = kernel.mismatch(left, right, from, to);
+		while (diffOffset < to) {
+			int diffEnd = kernel.match(left, right, diffOffset + 1, to);
+			differences.add(diffOffset, diffEnd - diffOffset);
+			diffOffset = kernel.mismatch(left, right, diffEnd, to);
+		}
+		return differences;
+	}
+
+	@Override
+	public void diff(ByteBuffer left, ByteBuffer right, DiffListener listener) throws IOException {
+		diff(left, right, 0, right.limit(), listener);
+	}
+
+	/**
+	 * Identifies the differences between the left and right data, looking only inside 
+	 * the [from, to) interval, and passes each difference to the listener.<br/>
+	 * The kernel starts directly at the from index, and the comparison ends as soon as 
+	 * the listener stops it, so the cost depends on the differences used by the listener.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @param from The first index (inclusive) to be compared.
+	 * @param to The last index (exclusive) to be compared.
+	 * @param listener The listener that receives the differences.
+	 * @throws IOException In case the listener fails.
+	 */
+	@Override
+	public void diff(ByteBuffer left, ByteBuffer right, int from, int to, DiffListener listener) throws IOException {
+		int diffOffset = kernel.mismatch(left, right, from, to);
+		while (diffOffset < to) {
+			int diffEnd = kernel.match(left, right, diffOffset + 1, to);
+			if (!listener.difference(diffOffset, diffEnd - diffOffset)) {
+				return;
+			}
+			diffOffset = kernel.mismatch(left, right, diffEnd, to);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.assignment.diff.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Comparison kernel used by the diff engines.<br/>
+ * Equal regions are skipped comparing 8 bytes (one long word) per iteration, the kernel
+ * only drops to byte granularity at the boundaries of a mismatch.<br/>
+ * All the methods use absolute indexes, so the position of the buffers is never changed.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ComparisonKernel {
+
+	// number of bytes compared per iteration when skipping equal regions.
+	public static final int WORD_SIZE = 8;
+
+	/**
+	 * Returns the index of the first byte that differs between left and right,
+	 * looking only inside the [from, to) interval.
+	 * 
+	 * @param left The left data.
+	 * @param right The right data.
+	 * @param from The first index (inclusive) to be compared.
+	 * @param to The last index (exclusive) to be compared.
+	 * @return The index of the first different byte, or "to" if the interval is equal.
+	 */
+	public int mismatch(ByteBuffer left, ByteBuffer right, int from, int to) {
+		int i = from;
+		int lastWord = to - WORD_SIZE;
+		for (; i <= lastWord; i += WORD_SIZE) {
+			long xor = left.getLong(i) ^ right.getLong(i);
+			if (xor != 0) {
+				// the word differs, locate the first different byte inside it.
+				return i + firstNonZeroByte(xor, left.order());
+			}
+		}
+		for (; i < to; i++) {
+			if (left.get(i) != right.get(i)) {
+				return i;
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * Returns the index of the first byte that is equal between left and right,
+	 * looking only inside the [from, to) interval.<br/>
+	 * This is used to find the end of a difference, so it works byte by byte.
+	 * 
+	 * @param left The left data.
+	 * @param right The right data.
+	 * @param from The first index (inclusive) to be compared.
+	 * @param to The last index (exclusive) to be compared.
+	 * @return The index of the first equal byte, or "to" if the whole interval differs.
+	 */
+	public int match(ByteBuffer left, ByteBuffer right, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (left.get(i) == right.get(i)) {
+				return i;
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * Returns the position, in memory order, of the first non zero byte of a word.
+	 * 
+	 * @param word The word read from the buffer (it cannot be zero).
+	 * @param order The byte order used to read the word.
+	 * @return The position (0 to 7) of the first non zero byte.
+	 */
+	private int firstNonZeroByte(long word, ByteOrder order) {
+		if (order == ByteOrder.BIG_ENDIAN) {
+			return Long.numberOfLeadingZeros(word) >>> 3;
+		}
+		return Long.numberOfTrailingZeros(word) >>> 3;
+	}
+}
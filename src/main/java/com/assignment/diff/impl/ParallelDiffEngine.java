@@ -0,0 +1,239 @@
+package com.assignment.diff.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.assignment.diff.DiffEngine;
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.ConfigUtils;
+
+/**
+ * Diff engine that splits the data in chunks and compares the chunks in parallel,
+ * using a fork/join pool shared by all the requests.<br/>
+ * Each chunk is compared by the ByteDiffEngine, and the differences that cross the
+ * limits of the chunks are merged, so the result is identical to the sequential one.<br/>
+ * The size of the chunks (diff.parallel.threshold) and the parallelism of the pool 
+ * (diff.parallel.threads) are configured in the diffapi.properties file.<br/>
+ * When the differences are passed to a listener, the chunks are compared ahead by the 
+ * pool (a few chunks per thread) and the differences are passed in order, so only the 
+ * differences of these chunks are kept in memory.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ParallelDiffEngine implements DiffEngine {
+
+	// configuration keys and default values.
+	public static final String THRESHOLD_KEY = "diff.parallel.threshold";
+	public static final String THREADS_KEY = "diff.parallel.threads";
+	public static final int DEFAULT_THRESHOLD = 1024 * 1024;
+
+	// the pool shared by all the instances of the engine.
+	private static final ForkJoinPool POOL = createPool();
+
+	// data smaller than the threshold is not split.
+	private int threshold;
+	private ByteDiffEngine byteDiffEngine = new ByteDiffEngine();
+
+	/**
+	 * Constructor of the ParallelDiffEngine class, the threshold is read from the configuration.
+	 */
+	public ParallelDiffEngine() {
+		this(new ConfigUtils().getInt(THRESHOLD_KEY, DEFAULT_THRESHOLD));
+	}
+
+	/**
+	 * Constructor of the ParallelDiffEngine class.
+	 * 
+	 * @param threshold The size (in bytes) of the chunks compared by each task.
+	 */
+	public ParallelDiffEngine(int threshold) {
+		// at least two words, so each half of a split has at least one word.
+		this.threshold = Math.max(threshold, 2 * ComparisonKernel.WORD_SIZE);
+	}
+
+	/**
+	 * Identifies the differences between the left and right data.<br/>
+	 * Data smaller than the threshold is compared in the current thread.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @return DifferenceList with the differences found.
+	 */
+	@Override
+	public DifferenceList diff(ByteBuffer left, ByteBuffer right) {
+		int length = right.limit();
+		if (length <= threshold) {
+			return byteDiffEngine.diff(left, right, 0, length);
+		}
+		return POOL.invoke(new DiffChunkTask(left, right, 0, length));
+	}
+
+	/**
+	 * Identifies the differences between the left and right data, passing them to the listener.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @param listener The listener that receives the differences.
+	 * @throws IOException In case the listener fails.
+	 */
+	@Override
+	public void diff(ByteBuffer left, ByteBuffer right, DiffListener listener) throws IOException {
+		diff(left, right, 0, right.limit(), listener);
+	}
+
+	/**
+	 * Identifies the differences inside the [from, to) interval, passing them to the listener.<br/>
+	 * An interval smaller than the threshold is compared in the current thread. A larger one
+	 * is compared in chunks (of the threshold size) by the pool, a window of chunks ahead of 
+	 * the listener, and a difference that crosses the limit of two chunks is merged before 
+	 * it is passed to the listener. When the listener stops the comparison, the chunks of 
+	 * the window are cancelled.
+	 * 
+	 * @param left The decoded left data.
+	 * @param right The decoded right data.
+	 * @param from The first index (inclusive) to be compared.
+	 * @param to The last index (exclusive) to be compared.
+	 * @param listener The listener that receives the differences.
+	 * @throws IOException In case the listener fails.
+	 */
+	@Override
+	public void diff(ByteBuffer left, ByteBuffer right, int from, int to, DiffListener listener) throws IOException {
+		if (to - from <= threshold) {
+			byteDiffEngine.diff(left, right, from, to, listener);
+			return;
+		}
+
+		int windowSize = 2 * POOL.getParallelism();
+		Deque<ForkJoinTask<DifferenceList>> window = new ArrayDeque<ForkJoinTask<DifferenceList>>(windowSize);
+		int next = from;
+		// the last difference is kept, because it can continue in the next chunk.
+		long pendingOffset = 0;
+		long pendingLength = 0;
+		try {
+			while (next < to || !window.isEmpty()) {
+				while (next < to && window.size() < windowSize) {
+					int end = (int) Math.min((long) next + threshold, to);
+					window.add(POOL.submit(new ChunkDiff(left, right, next, end)));
+					next = end;
+				}
+				DifferenceList differences = join(window.poll());
+				for (int i = 0; i < differences.size(); i++) {
+					if (pendingLength > 0 && pendingOffset + pendingLength == differences.getOffset(i)) {
+						pendingLength += differences.getLength(i);
+					} else {
+						if (pendingLength > 0 && !listener.difference(pendingOffset, pendingLength)) {
+							return;
+						}
+						pendingOffset = differences.getOffset(i);
+						pendingLength = differences.getLength(i);
+					}
+				}
+			}
+			if (pendingLength > 0) {
+				listener.difference(pendingOffset, pendingLength);
+			}
+		} finally {
+			// the listener can stop or fail in the middle (e.g. the client is gone).
+			for (ForkJoinTask<DifferenceList> task : window) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Waits for the differences of a chunk.
+	 * 
+	 * @param task The task that compares the chunk.
+	 * @return The differences of the chunk.
+	 * @throws IOException In case the comparison of the chunk failed.
+	 */
+	private DifferenceList join(ForkJoinTask<DifferenceList> task) throws IOException {
+		try {
+			return task.join();
+		} catch (RuntimeException exc) {
+			throw new IOException("Exception comparing chunk: " + exc.getMessage(), exc);
+		}
+	}
+
+	/**
+	 * Creates the fork/join pool, with the configured parallelism.
+	 * 
+	 * @return The ForkJoinPool used by the engine.
+	 */
+	private static ForkJoinPool createPool() {
+		int threads = new ConfigUtils().getInt(THREADS_KEY, 0);
+		if (threads <= 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		return new ForkJoinPool(threads);
+	}
+
+	/**
+	 * The fork/join task that compares the [from, to) interval.<br/>
+	 * The interval is split in halves until it is smaller than the threshold, and the
+	 * differences of the second half are appended to the ones of the first half 
+	 * (DifferenceList.append joins a difference that crosses the split).
+	 */
+	private class DiffChunkTask extends RecursiveTask<DifferenceList> {
+
+		private static final long serialVersionUID = 1L;
+
+		private ByteBuffer left;
+		private ByteBuffer right;
+		private int from;
+		private int to;
+
+		DiffChunkTask(ByteBuffer left, ByteBuffer right, int from, int to) {
+			this.left = left;
+			this.right = right;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected DifferenceList compute() {
+			if (to - from <= threshold) {
+				return byteDiffEngine.diff(left, right, from, to);
+			}
+			// keeps the split aligned with the words compared by the kernel.
+			int middle = from + ((to - from) / 2 & -ComparisonKernel.WORD_SIZE);
+			DiffChunkTask firstHalf = new DiffChunkTask(left, right, from, middle);
+			DiffChunkTask secondHalf = new DiffChunkTask(left, right, middle, to);
+			firstHalf.fork();
+			DifferenceList secondResult = secondHalf.compute();
+			DifferenceList firstResult = firstHalf.join();
+			firstResult.append(secondResult);
+			return firstResult;
+		}
+	}
+
+	/**
+	 * The task that compares the [from, to) interval of a chunk, keeping the differences.
+	 */
+	private class ChunkDiff implements Callable<DifferenceList> {
+
+		private ByteBuffer left;
+		private ByteBuffer right;
+		private int from;
+		private int to;
+
+		ChunkDiff(ByteBuffer left, ByteBuffer right, int from, int to) {
+			this.left = left;
+			this.right = right;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public DifferenceList call() {
+			return byteDiffEngine.diff(left, right, from, to);
+		}
+	}
+}
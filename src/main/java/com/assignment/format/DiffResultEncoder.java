@@ -0,0 +1,24 @@
+package com.assignment.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.assignment.diff.DiffResult;
+
+/**
+ * Interface used to define the encoders that write the result of the diff in one of
+ * the formats of the response (JSON, or a compact binary format).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DiffResultEncoder {
+
+	/**
+	 * Writes the result of the diff (Result, Differences and Next) to the stream.
+	 * 
+	 * @param result The result of the diff, as returned by the diff task.
+	 * @param output The stream where the result is written.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	void encode(DiffResult result, OutputStream output) throws IOException;
+}
@@ -0,0 +1,17 @@
+package com.assignment.format;
+
+import com.assignment.utils.DiffFormatEnum;
+
+/**
+ * Interface used to define the factory that gives access to the encoders of the diff result.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DiffResultEncoderFactory {
+
+	/**
+	 * Returns the encoder of the given format.
+	 * @return
+	 */
+	DiffResultEncoder getEncoder(DiffFormatEnum format);
+}
@@ -0,0 +1,66 @@
+package com.assignment.format.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.format.DiffResultEncoder;
+
+/**
+ * Base class of the encoders of the diff result.<br/>
+ * It passes the fields of the result to the format, through a buffered stream, in the order 
+ * they are written: the start (message and number of differences), each difference (read from
+ * the arrays of the DifferenceList) and the end (next offset).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public abstract class AbstractDiffResultEncoder implements DiffResultEncoder {
+
+	// size of the buffer of the output stream.
+	private static final int BUFFER_SIZE = 8192;
+
+	@Override
+	public void encode(DiffResult result, OutputStream output) throws IOException {
+		DifferenceList differences = result.getDifferences();
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+		writeStart(data, result.getMessage(), differences.size(), result.hasNext());
+		for (int i = 0; i < differences.size(); i++) {
+			writeDifference(data, differences.getOffset(i), differences.getLength(i));
+		}
+		writeEnd(data, result.getNext());
+		data.flush();
+	}
+
+	/**
+	 * Writes the start of the result, before the differences.
+	 * 
+	 * @param output The stream where the result is written.
+	 * @param message The message of the result (one of the Utils.RESULT_* messages).
+	 * @param count The number of differences.
+	 * @param hasNext true if the result has the offset of the next difference.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	protected abstract void writeStart(DataOutputStream output, String message, int count, boolean hasNext) throws IOException;
+
+	/**
+	 * Writes one difference, in the order of the offsets.
+	 * 
+	 * @param output The stream where the result is written.
+	 * @param offset The offset of the difference.
+	 * @param length The length of the difference.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	protected abstract void writeDifference(DataOutputStream output, long offset, long length) throws IOException;
+
+	/**
+	 * Writes the end of the result, after the differences.
+	 * 
+	 * @param output The stream where the result is written.
+	 * @param next The offset of the next difference, or DiffResult.NO_NEXT.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	protected abstract void writeEnd(DataOutputStream output, long next) throws IOException;
+}
@@ -0,0 +1,81 @@
+package com.assignment.format.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.utils.Utils;
+
+/**
+ * Encoder that writes the result of the diff in CBOR (RFC 7049).<br/>
+ * The result is a map with the Result message, the Differences as a flat array of 
+ * integers (offset, length, offset, length, ...) and the Next offset, if any.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class CborDiffResultEncoder extends AbstractDiffResultEncoder {
+
+	// major types used by the result.
+	private static final int UNSIGNED = 0;
+	private static final int TEXT = 3;
+	private static final int ARRAY = 4;
+	private static final int MAP = 5;
+
+	@Override
+	protected void writeStart(DataOutputStream output, String message, int count, boolean hasNext) throws IOException {
+		writeHeader(output, MAP, 1 + ((count > 0) ? 1 : 0) + (hasNext ? 1 : 0));
+		writeText(output, Utils.RESULT);
+		writeText(output, message);
+		if (count > 0) {
+			writeText(output, Utils.DIFFERENCES);
+			writeHeader(output, ARRAY, 2L * count);
+		}
+	}
+
+	@Override
+	protected void writeDifference(DataOutputStream output, long offset, long length) throws IOException {
+		writeHeader(output, UNSIGNED, offset);
+		writeHeader(output, UNSIGNED, length);
+	}
+
+	@Override
+	protected void writeEnd(DataOutputStream output, long next) throws IOException {
+		if (next != DiffResult.NO_NEXT) {
+			writeText(output, Utils.NEXT);
+			writeHeader(output, UNSIGNED, next);
+		}
+	}
+
+	/**
+	 * Writes a text string.
+	 */
+	private void writeText(DataOutputStream output, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		writeHeader(output, TEXT, bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Writes the initial byte of a major type, followed by the value (or length) in the 
+	 * smallest number of bytes.
+	 */
+	private void writeHeader(DataOutputStream output, int majorType, long value) throws IOException {
+		int type = majorType << 5;
+		if (value < 24) {
+			output.writeByte(type | (int) value);
+		} else if (value <= 0xFF) {
+			output.writeByte(type | 24);
+			output.writeByte((int) value);
+		} else if (value <= 0xFFFF) {
+			output.writeByte(type | 25);
+			output.writeShort((int) value);
+		} else if (value <= 0xFFFFFFFFL) {
+			output.writeByte(type | 26);
+			output.writeInt((int) value);
+		} else {
+			output.writeByte(type | 27);
+			output.writeLong(value);
+		}
+	}
+}
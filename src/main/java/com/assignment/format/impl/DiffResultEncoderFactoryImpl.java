@@ -0,0 +1,29 @@
+package com.assignment.format.impl;
+
+import com.assignment.format.DiffResultEncoder;
+import com.assignment.format.DiffResultEncoderFactory;
+import com.assignment.utils.DiffFormatEnum;
+
+/**
+ * Concrete class that implements the factory of the encoders of the diff result.<br/>
+ * The encoders are small, and some keep state while a result is written, so a new
+ * encoder is created for each result.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class DiffResultEncoderFactoryImpl implements DiffResultEncoderFactory {
+
+	@Override
+	public DiffResultEncoder getEncoder(DiffFormatEnum format) {
+		switch (format) {
+		case CBOR:
+			return new CborDiffResultEncoder();
+		case MESSAGE_PACK:
+			return new MessagePackDiffResultEncoder();
+		case VARINT:
+			return new VarintDiffResultEncoder();
+		default:
+			return new JsonDiffResultEncoder();
+		}
+	}
+}
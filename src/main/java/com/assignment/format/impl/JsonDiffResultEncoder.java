@@ -0,0 +1,67 @@
+package com.assignment.format.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.format.DiffResultEncoder;
+import com.assignment.utils.Utils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Encoder that writes the result of the diff as JSON, the default format of the response:<br/>
+ *  { "Result":"...", "Differences":[ { "Offset":0, "Length":1 } ], "Next":10 }<br/>
+ * When there is no difference the Result is an array with the message, and there are no
+ * Differences. The differences are written by the generator directly from the arrays of the
+ * DifferenceList, so no JSON object is created for the result.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class JsonDiffResultEncoder implements DiffResultEncoder {
+
+	// factory of the JSON generators, it is thread safe.
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	@Override
+	public void encode(DiffResult result, OutputStream output) throws IOException {
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+			// the stream belongs to the caller.
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			write(generator, result);
+		}
+	}
+
+	/**
+	 * Writes the result as a JSON object, with a generator that is already writing
+	 * (e.g. the result of each id of a batch).
+	 *
+	 * @param generator The generator where the result is written.
+	 * @param result The result of the diff.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	public void write(JsonGenerator generator, DiffResult result) throws IOException {
+		DifferenceList differences = result.getDifferences();
+		generator.writeStartObject();
+		if (differences.size() == 0) {
+			generator.writeArrayFieldStart(Utils.RESULT);
+			generator.writeString(result.getMessage());
+			generator.writeEndArray();
+		} else {
+			generator.writeStringField(Utils.RESULT, result.getMessage());
+			generator.writeArrayFieldStart(Utils.DIFFERENCES);
+			for (int i = 0; i < differences.size(); i++) {
+				generator.writeStartObject();
+				generator.writeNumberField(Utils.OFFSET, differences.getOffset(i));
+				generator.writeNumberField(Utils.LENGTH, differences.getLength(i));
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+			if (result.hasNext()) {
+				generator.writeNumberField(Utils.NEXT, result.getNext());
+			}
+		}
+		generator.writeEndObject();
+	}
+}
@@ -0,0 +1,100 @@
+package com.assignment.format.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.utils.Utils;
+
+/**
+ * Encoder that writes the result of the diff in MessagePack.<br/>
+ * The result is a map with the Result message, the Differences as a flat array of 
+ * integers (offset, length, offset, length, ...) and the Next offset, if any.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class MessagePackDiffResultEncoder extends AbstractDiffResultEncoder {
+
+	@Override
+	protected void writeStart(DataOutputStream output, String message, int count, boolean hasNext) throws IOException {
+		// fixmap, the result has 3 entries at most.
+		output.writeByte(0x80 | (1 + ((count > 0) ? 1 : 0) + (hasNext ? 1 : 0)));
+		writeString(output, Utils.RESULT);
+		writeString(output, message);
+		if (count > 0) {
+			writeString(output, Utils.DIFFERENCES);
+			writeArrayHeader(output, 2L * count);
+		}
+	}
+
+	@Override
+	protected void writeDifference(DataOutputStream output, long offset, long length) throws IOException {
+		writeInt(output, offset);
+		writeInt(output, length);
+	}
+
+	@Override
+	protected void writeEnd(DataOutputStream output, long next) throws IOException {
+		if (next != DiffResult.NO_NEXT) {
+			writeString(output, Utils.NEXT);
+			writeInt(output, next);
+		}
+	}
+
+	/**
+	 * Writes a non negative integer in the smallest format (fixint, uint8, uint16, uint32 or uint64).
+	 */
+	private void writeInt(DataOutputStream output, long value) throws IOException {
+		if (value < 0x80) {
+			output.writeByte((int) value);
+		} else if (value <= 0xFF) {
+			output.writeByte(0xCC);
+			output.writeByte((int) value);
+		} else if (value <= 0xFFFF) {
+			output.writeByte(0xCD);
+			output.writeShort((int) value);
+		} else if (value <= 0xFFFFFFFFL) {
+			output.writeByte(0xCE);
+			output.writeInt((int) value);
+		} else {
+			output.writeByte(0xCF);
+			output.writeLong(value);
+		}
+	}
+
+	/**
+	 * Writes the header of an array (fixarray, array16 or array32).
+	 */
+	private void writeArrayHeader(DataOutputStream output, long size) throws IOException {
+		if (size < 16) {
+			output.writeByte(0x90 | (int) size);
+		} else if (size <= 0xFFFF) {
+			output.writeByte(0xDC);
+			output.writeShort((int) size);
+		} else {
+			output.writeByte(0xDD);
+			output.writeInt((int) size);
+		}
+	}
+
+	/**
+	 * Writes a string (fixstr, str8, str16 or str32).
+	 */
+	private void writeString(DataOutputStream output, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length < 32) {
+			output.writeByte(0xA0 | bytes.length);
+		} else if (bytes.length <= 0xFF) {
+			output.writeByte(0xD9);
+			output.writeByte(bytes.length);
+		} else if (bytes.length <= 0xFFFF) {
+			output.writeByte(0xDA);
+			output.writeShort(bytes.length);
+		} else {
+			output.writeByte(0xDB);
+			output.writeInt(bytes.length);
+		}
+		output.write(bytes);
+	}
+}
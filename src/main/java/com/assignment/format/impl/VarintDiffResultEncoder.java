@@ -0,0 +1,66 @@
+package com.assignment.format.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.utils.Utils;
+
+/**
+ * Encoder that writes the result of the diff as a sequence of unsigned varints
+ * (7 bits per byte, least significant group first, the high bit set when more bytes follow):<br/>
+ *  the result code (0 equal, 1 not the same length, 2 differences were found),<br/>
+ *  the number of differences,<br/>
+ *  for each difference, the distance from the end of the previous difference (or from 0) and the length,<br/>
+ *  the offset of the next difference plus one (0 when there is no next difference).<br/>
+ * The differences are in the order of the offsets, so the distances are small and most 
+ * differences take 2 bytes.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class VarintDiffResultEncoder extends AbstractDiffResultEncoder {
+
+	// result codes.
+	public static final int ARE_EQUAL = 0;
+	public static final int NOT_SAME_LENGTH = 1;
+	public static final int SAME_LENGTH_WITH_DIFFS = 2;
+
+	// end of the previous difference.
+	private long end;
+
+	@Override
+	protected void writeStart(DataOutputStream output, String message, int count, boolean hasNext) throws IOException {
+		end = 0;
+		if (Utils.RESULT_ARE_EQUAL.equals(message)) {
+			writeVarint(output, ARE_EQUAL);
+		} else if (Utils.RESULT_NOT_SAME_LENGTH.equals(message)) {
+			writeVarint(output, NOT_SAME_LENGTH);
+		} else {
+			writeVarint(output, SAME_LENGTH_WITH_DIFFS);
+		}
+		writeVarint(output, count);
+	}
+
+	@Override
+	protected void writeDifference(DataOutputStream output, long offset, long length) throws IOException {
+		writeVarint(output, offset - end);
+		writeVarint(output, length);
+		end = offset + length;
+	}
+
+	@Override
+	protected void writeEnd(DataOutputStream output, long next) throws IOException {
+		writeVarint(output, (next != DiffResult.NO_NEXT) ? next + 1 : 0);
+	}
+
+	/**
+	 * Writes an unsigned varint.
+	 */
+	private void writeVarint(DataOutputStream output, long value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte((int) value);
+	}
+}
@@ -0,0 +1,150 @@
+package com.assignment.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.BufferPool;
+
+/**
+ * Decodes Base64 text incrementally, the text can be split in chunks of any size
+ * (the chunks do not need to be aligned with the 4 characters of the Base64 quantum).<br/>
+ * The decoded bytes are kept in a small buffer that is flushed to the DataWriter when full,
+ * so the memory used does not depend on the size of the data. The buffer is a direct buffer 
+ * borrowed from the BufferPool (so it is written to the files without another copy), and
+ * it is returned when the decoder is closed.<br/>
+ * Characters that are not part of the Base64 alphabet (like spaces) are ignored.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class Base64StreamDecoder implements Closeable {
+
+	// size of the buffer that holds the decoded bytes before they are written.
+	public static final int BUFFER_SIZE = 8192;
+
+	// value of each character of the Base64 alphabet, -1 for the other characters.
+	private static final int[] DECODE_TABLE = new int[128];
+	static {
+		Arrays.fill(DECODE_TABLE, -1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) {
+			DECODE_TABLE[alphabet.charAt(i)] = i;
+		}
+	}
+
+	private DataWriter writer;
+	private BufferPool bufferPool;
+	private ByteBuffer output;
+	// the bits of the current quantum and how many characters it has.
+	private int quantum = 0;
+	private int quantumSize = 0;
+	private long decodedLength = 0;
+
+	/**
+	 * Constructor of the Base64StreamDecoder class.
+	 * 
+	 * @param writer The DataWriter that receives the decoded bytes.
+	 */
+	public Base64StreamDecoder(DataWriter writer) {
+		this(writer, BufferPool.getInstance());
+	}
+
+	/**
+	 * Constructor of the Base64StreamDecoder class.
+	 * 
+	 * @param writer The DataWriter that receives the decoded bytes.
+	 * @param bufferPool The pool that lends the buffer of the decoded bytes.
+	 */
+	public Base64StreamDecoder(DataWriter writer, BufferPool bufferPool) {
+		this.writer = writer;
+		this.bufferPool = bufferPool;
+		this.output = bufferPool.acquire(BUFFER_SIZE);
+	}
+
+	/**
+	 * Decodes a chunk of Base64 text.
+	 * 
+	 * @param chars The array that holds the chunk.
+	 * @param offset The offset of the chunk in the array.
+	 * @param length The length of the chunk.
+	 * @throws IOException In case the decoded bytes cannot be written.
+	 */
+	public void decode(char[] chars, int offset, int length) throws IOException {
+		for (int i = offset; i < offset + length; i++) {
+			char c = chars[i];
+			int value = (c < DECODE_TABLE.length) ? DECODE_TABLE[c] : -1;
+			if (value >= 0) {
+				quantum = (quantum << 6) | value;
+				if (++quantumSize == 4) {
+					put(quantum >> 16);
+					put(quantum >> 8);
+					put(quantum);
+					quantum = 0;
+					quantumSize = 0;
+				}
+			} else if (c == '=') {
+				// padding, the current quantum ends here.
+				endQuantum();
+			}
+		}
+	}
+
+	/**
+	 * Decodes the last characters and writes all the decoded bytes to the DataWriter.
+	 * 
+	 * @return The number of decoded bytes.
+	 * @throws IOException In case the decoded bytes cannot be written.
+	 */
+	public long finish() throws IOException {
+		endQuantum();
+		flush();
+		return decodedLength;
+	}
+
+	/**
+	 * Returns the buffer to the pool, the decoded bytes not written by finish are lost.
+	 */
+	@Override
+	public void close() {
+		if (output != null) {
+			bufferPool.release(output);
+			output = null;
+		}
+	}
+
+	/**
+	 * Decodes an incomplete quantum (2 characters are 1 byte, 3 characters are 2 bytes).
+	 */
+	private void endQuantum() throws IOException {
+		if (quantumSize == 2) {
+			put(quantum >> 4);
+		} else if (quantumSize == 3) {
+			put(quantum >> 10);
+			put(quantum >> 2);
+		}
+		quantum = 0;
+		quantumSize = 0;
+	}
+
+	/**
+	 * Adds one decoded byte to the buffer, flushing it when full.
+	 */
+	private void put(int value) throws IOException {
+		if (!output.hasRemaining()) {
+			flush();
+		}
+		output.put((byte) value);
+		decodedLength++;
+	}
+
+	/**
+	 * Writes the decoded bytes in the buffer to the DataWriter.
+	 */
+	private void flush() throws IOException {
+		output.flip();
+		writer.write(output);
+		output.clear();
+	}
+}
@@ -0,0 +1,130 @@
+package com.assignment.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads the JSON array sent to the batch upload endpoint directly from the request stream.<br/>
+ * Each record of the array has the id, the side and the Base64 encoded data, which can be
+ * one string or an array of chunks (as in the right and left endpoints):<br/>
+ *  [ { "Id":"1", "Side":"LEFT", "Data":"AQID" }, { "Id":"1", "Side":"RIGHT", "Data":[ "AQ", "ID" ] } ]<br/>
+ * The Id and the Side must come before the Data, so the data is decoded while it is read 
+ * and written to the DataBatch, one record at a time.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class JsonBatchReader {
+
+	// the factory is thread safe and shared by all the readers.
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	/**
+	 * Reads the JSON array, and writes the decoded data of each record to the batch.<br/>
+	 * The DataBatch is not committed, this is done by the caller when the read succeeds.
+	 * 
+	 * @param input The stream with the JSON array of records.
+	 * @param batch The DataBatch that receives the decoded data.
+	 * @return The ids of the records, in the order they were read.
+	 * @throws IOException In case the JSON is not valid or the data cannot be written.
+	 */
+	public List<String> read(InputStream input, DataBatch batch) throws IOException {
+		List<String> ids = new ArrayList<String>();
+		try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "The input data is not a JSON array");
+			}
+			JsonToken token = parser.nextToken();
+			while (token != JsonToken.END_ARRAY) {
+				if (token != JsonToken.START_OBJECT) {
+					throw new JsonParseException(parser, "The JSON array must contain only records");
+				}
+				ids.add(readRecord(parser, batch));
+				token = parser.nextToken();
+			}
+			if (parser.nextToken() != null) {
+				throw new JsonParseException(parser, "Unexpected content after the JSON array");
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Reads one record, from the start of the object to its end.
+	 * 
+	 * @param parser The parser, at the start of the record.
+	 * @param batch The DataBatch that receives the decoded data.
+	 * @return The id of the record.
+	 * @throws IOException In case the record is not valid or the data cannot be written.
+	 */
+	private String readRecord(JsonParser parser, DataBatch batch) throws IOException {
+		String id = null;
+		DataEnum side = null;
+		boolean hasData = false;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (Utils.ID.equals(field) && value == JsonToken.VALUE_STRING) {
+				id = parser.getText();
+			} else if (Utils.SIDE.equals(field) && value == JsonToken.VALUE_STRING) {
+				side = getSide(parser);
+			} else if (Utils.DATA.equals(field) && id != null && !id.isEmpty() && side != null && !hasData) {
+				readData(parser, batch, id, side);
+				hasData = true;
+			} else {
+				throw new JsonParseException(parser, "Invalid field (" + field + "), a record has an Id and a Side before the Data");
+			}
+		}
+		if (!hasData) {
+			throw new JsonParseException(parser, "Record without Data");
+		}
+		return id;
+	}
+
+	/**
+	 * Reads the data of a record (a Base64 string or an array of Base64 chunks), decodes 
+	 * it and adds it to the batch.
+	 */
+	private void readData(JsonParser parser, DataBatch batch, String id, DataEnum side) throws IOException {
+		try (DataWriter writer = batch.openWriter(id, side);
+				Base64StreamDecoder decoder = new Base64StreamDecoder(writer)) {
+			if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+				decoder.decode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+			} else if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+				JsonToken token = parser.nextToken();
+				while (token != JsonToken.END_ARRAY) {
+					if (token != JsonToken.VALUE_STRING) {
+						throw new JsonParseException(parser, "The Data array must contain only Base64 chunks");
+					}
+					decoder.decode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+					token = parser.nextToken();
+				}
+			} else {
+				throw new JsonParseException(parser, "The Data must be Base64 encoded");
+			}
+			decoder.finish();
+			writer.commit();
+		}
+	}
+
+	/**
+	 * Returns the side of a record (case insensitive).
+	 */
+	private DataEnum getSide(JsonParser parser) throws IOException {
+		try {
+			return DataEnum.fromValue(parser.getText().toUpperCase());
+		} catch (IllegalArgumentException exc) {
+			throw new JsonParseException(parser, "Invalid Side (" + parser.getText() + ")");
+		}
+	}
+}
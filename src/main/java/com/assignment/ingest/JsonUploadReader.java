@@ -0,0 +1,56 @@
+package com.assignment.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.assignment.storage.DataWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads the JSON array sent to the right and left endpoints directly from the request stream.<br/>
+ * The array contains chunks of Base64 encoded binary data. The array is parsed incrementally, 
+ * each chunk is decoded as soon as it is read and the decoded bytes are written to the 
+ * DataWriter, so only one chunk is held in memory at a time.<br/>
+ * The JSON is validated while it is read, an invalid JSON fails with a JsonParseException.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class JsonUploadReader {
+
+	// the factory is thread safe and shared by all the readers.
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	/**
+	 * Reads the JSON array, decodes the chunks and writes the decoded bytes.<br/>
+	 * The DataWriter is not committed, this is done by the caller when the read succeeds.
+	 * 
+	 * @param input The stream with the JSON array of Base64 encoded chunks.
+	 * @param writer The DataWriter that receives the decoded bytes.
+	 * @return The number of decoded bytes.
+	 * @throws IOException In case the JSON is not valid or the data cannot be written.
+	 */
+	public long read(InputStream input, DataWriter writer) throws IOException {
+		try (Base64StreamDecoder decoder = new Base64StreamDecoder(writer);
+				JsonParser parser = JSON_FACTORY.createParser(input)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "The input data is not a JSON array");
+			}
+			JsonToken token = parser.nextToken();
+			while (token != JsonToken.END_ARRAY) {
+				if ((token == null) || !token.isScalarValue()) {
+					throw new JsonParseException(parser, "The JSON array must contain only Base64 chunks");
+				}
+				// the characters of the chunk are read without creating a String.
+				decoder.decode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+				token = parser.nextToken();
+			}
+			if (parser.nextToken() != null) {
+				throw new JsonParseException(parser, "Unexpected content after the JSON array");
+			}
+			return decoder.finish();
+		}
+	}
+}
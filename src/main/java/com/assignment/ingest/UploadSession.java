@@ -0,0 +1,314 @@
+package com.assignment.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the upload of one side of the data in numbered chunks.<br/>
+ * Each chunk has the same size (the last one can be smaller), so chunk N is written straight
+ * to its offset (N * chunkSize) in the file of the session, with positional writes. The chunks
+ * can arrive in any order and from parallel requests, and a chunk sent again replaces the 
+ * previous one, so a failed chunk is just sent again. The same chunk is not written by two
+ * requests at the same time, the second one fails.<br/>
+ * Once all chunks were received the session is closed, so no chunk is accepted anymore, and
+ * the file of the session is transferred to a DataWriter (commit), without copying it through
+ * the heap. Then the session is deleted, or it is opened again when the data cannot be saved,
+ * so the commit can be retried. A session without data cannot be committed.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class UploadSession {
+
+	private final String uploadId;
+	private final String id;
+	private final DataEnum side;
+	private final int chunkSize;
+	private final Path file;
+	private final FileChannel channel;
+	// the length of each received chunk.
+	private final Map<Integer, Integer> chunks = new ConcurrentSkipListMap<Integer, Integer>();
+	// the chunks being written, so the same chunk is not written twice at the same time.
+	private final Set<Integer> writing = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+	// the chunks are written under the read lock, the session is closed under the write lock,
+	// so it waits for the chunks being written.
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final JsonUploadReader uploadReader = new JsonUploadReader();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private volatile long lastAccess = System.currentTimeMillis();
+
+	/**
+	 * Constructor of the UploadSession class, it creates the file of the session.
+	 * 
+	 * @param uploadId The id of the session.
+	 * @param id The id of the data.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param chunkSize The size (in bytes, decoded) of the chunks.
+	 * @param file The file that holds the chunks.
+	 * @throws IOException In case the file cannot be created.
+	 */
+	public UploadSession(String uploadId, String id, DataEnum side, int chunkSize, Path file) throws IOException {
+		this.uploadId = uploadId;
+		this.id = id;
+		this.side = side;
+		this.chunkSize = chunkSize;
+		this.file = file;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Decodes the JSON array of Base64 chunks of the stream, and writes the bytes at the offset of the chunk.
+	 * 
+	 * @param chunk The number of the chunk, from 0.
+	 * @param input The stream with the JSON array of Base64 encoded chunks.
+	 * @return The number of decoded bytes.
+	 * @throws IOException In case the session is closed, the chunk is being written by another request,
+	 *         the stream is not valid, or the chunk is too large.
+	 */
+	public long writeChunk(int chunk, InputStream input) throws IOException {
+		if (chunk < 0) {
+			throw new IOException("Invalid chunk (" + chunk + ")");
+		}
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			checkOpen();
+			if (!writing.add(chunk)) {
+				throw new IOException("The chunk (" + chunk + ") of upload (" + uploadId + ") is being written");
+			}
+			try {
+				lastAccess = System.currentTimeMillis();
+				// the chunk is not complete until it is written again.
+				chunks.remove(chunk);
+				long length = uploadReader.read(input, new ChunkWriter((long) chunk * chunkSize));
+				chunks.put(chunk, (int) length);
+				return length;
+			} finally {
+				writing.remove(chunk);
+			}
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the session, and transfers its data to the DataWriter.<br/>
+	 * The chunks must be 0 to N, and all of them, except the last one, must have the chunk size.
+	 * The session is closed before the data is transferred, so no chunk is written meanwhile, 
+	 * and it is opened again if the data cannot be transferred (e.g. a chunk is missing).
+	 * The file is transferred as a channel, so the data stores that keep files copy it with
+	 * FileChannel.transferFrom. The DataWriter is not committed, this is done by the caller.
+	 * 
+	 * @param writer The DataWriter that receives the data.
+	 * @return The length of the data.
+	 * @throws IOException In case the session is closed, the chunks are not complete, or the data cannot be written.
+	 */
+	public long transferTo(DataWriter writer) throws IOException {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			if (!closed.compareAndSet(false, true)) {
+				throw new IOException("The upload (" + uploadId + ") is closed");
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		try {
+			long length = getLength();
+			// a chunk sent again can be shorter, its old bytes are after the data.
+			channel.truncate(length);
+			channel.position(0);
+			long transferred = writer.transferFrom(channel);
+			if (transferred != length) {
+				throw new IOException("Unexpected end of the upload file (" + file + ")");
+			}
+			return length;
+		} catch (IOException exc) {
+			reopen();
+			throw exc;
+		}
+	}
+
+	/**
+	 * Opens the session again after a failed commit, so the chunks can be sent again and the
+	 * session committed again, unless the session was deleted.
+	 */
+	public void reopen() {
+		if (channel.isOpen()) {
+			closed.set(false);
+		}
+	}
+
+	/**
+	 * Closes the session and deletes its file.
+	 * 
+	 * @throws IOException In case the file cannot be deleted.
+	 */
+	public void delete() throws IOException {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			closed.set(true);
+			channel.close();
+			Files.deleteIfExists(file);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the status of the session: the id, the chunk size and the received chunks.
+	 * 
+	 * @return The JSONObject with the status.
+	 * @throws JSONException In case the status cannot be built.
+	 */
+	public JSONObject getStatus() throws JSONException {
+		JSONObject jsonObject = new JSONObject();
+		jsonObject.put(Utils.UPLOAD, uploadId);
+		jsonObject.put(Utils.CHUNK_SIZE, chunkSize);
+		jsonObject.put(Utils.CHUNKS, new JSONArray(chunks.keySet()));
+		return jsonObject;
+	}
+
+	/**
+	 * Returns the length of the data, checking that all chunks were received.
+	 * 
+	 * @return The length of the data.
+	 * @throws IOException In case a chunk is missing or does not have the chunk size, or there is no data.
+	 */
+	private long getLength() throws IOException {
+		long length = 0;
+		int expected = 0;
+		for (Map.Entry<Integer, Integer> entry : chunks.entrySet()) {
+			if (entry.getKey() != expected) {
+				throw new IOException("The chunk (" + expected + ") of upload (" + uploadId + ") is missing");
+			}
+			if (length != (long) expected * chunkSize) {
+				throw new IOException("The chunk (" + (expected - 1) + ") of upload (" + uploadId + ") is not complete");
+			}
+			length += entry.getValue();
+			expected++;
+		}
+		if (length == 0) {
+			throw new IOException("The upload (" + uploadId + ") has no data");
+		}
+		return length;
+	}
+
+	/**
+	 * Checks that the session was not committed or deleted.
+	 * 
+	 * @throws IOException In case the session is closed.
+	 */
+	private void checkOpen() throws IOException {
+		if (closed.get()) {
+			throw new IOException("The upload (" + uploadId + ") is closed");
+		}
+	}
+
+	/**
+	 * Returns the id of the session.
+	 * 
+	 * @return The id of the session.
+	 */
+	public String getUploadId() {
+		return uploadId;
+	}
+
+	/**
+	 * Returns the id of the data.
+	 * 
+	 * @return The id of the data.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the side of the data.
+	 * 
+	 * @return The side (DataEnum.RIGHT or DataEnum.LEFT).
+	 */
+	public DataEnum getSide() {
+		return side;
+	}
+
+	/**
+	 * Returns the time of the last chunk written (or of the creation).
+	 * 
+	 * @return The time, in milliseconds.
+	 */
+	public long getLastAccess() {
+		return lastAccess;
+	}
+
+	/**
+	 * Data writer that writes the decoded bytes of a chunk at their offsets in the file,
+	 * and fails when the chunk is larger than the chunk size.
+	 */
+	private class ChunkWriter implements DataWriter {
+
+		private long position;
+		private final long end;
+
+		ChunkWriter(long position) {
+			this.position = position;
+			this.end = position + chunkSize;
+		}
+
+		@Override
+		public void write(ByteBuffer data) throws IOException {
+			if (position + data.remaining() > end) {
+				throw new IOException("The chunk is larger than the chunk size (" + chunkSize + ")");
+			}
+			while (data.hasRemaining()) {
+				position += channel.write(data, position);
+			}
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel source) throws IOException {
+			long start = position;
+			long transferred;
+			while ((transferred = channel.transferFrom(source, position, end - position)) > 0) {
+				position += transferred;
+			}
+			if (position == end && source.read(ByteBuffer.allocate(1)) > 0) {
+				throw new IOException("The chunk is larger than the chunk size (" + chunkSize + ")");
+			}
+			return position - start;
+		}
+
+		@Override
+		public void commit() {
+			// the chunk is complete once it is written.
+		}
+
+		@Override
+		public void close() {
+			// the channel belongs to the session.
+		}
+	}
+}
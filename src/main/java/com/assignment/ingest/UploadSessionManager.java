@@ -0,0 +1,42 @@
+package com.assignment.ingest;
+
+import java.io.IOException;
+
+import com.assignment.utils.DataEnum;
+
+/**
+ * Interface used to define the manager of the upload sessions, which keeps the sessions
+ * between the requests that send their chunks.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface UploadSessionManager {
+
+	/**
+	 * Opens a new upload session for one side of the data.
+	 * 
+	 * @param id The id of the data.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param chunkSize The size (in bytes, decoded) of the chunks.
+	 * @return The new UploadSession.
+	 * @throws IOException In case the session cannot be created.
+	 */
+	UploadSession open(String id, DataEnum side, int chunkSize) throws IOException;
+
+	/**
+	 * Returns an upload session.
+	 * 
+	 * @param uploadId The id of the session.
+	 * @return The UploadSession, or null if it does not exist (or expired).
+	 */
+	UploadSession get(String uploadId);
+
+	/**
+	 * Removes an upload session and deletes its file.
+	 * 
+	 * @param uploadId The id of the session.
+	 * @return true if the session existed.
+	 * @throws IOException In case the file of the session cannot be deleted.
+	 */
+	boolean remove(String uploadId) throws IOException;
+}
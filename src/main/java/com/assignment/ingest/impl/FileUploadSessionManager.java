@@ -0,0 +1,172 @@
+package com.assignment.ingest.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.assignment.ingest.UploadSession;
+import com.assignment.ingest.UploadSessionManager;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Manager of the upload sessions that keeps the chunks of each session in a file, 
+ * inside the directory configured by upload.directory.<br/>
+ * The sessions are kept in memory, so they can be resumed while the application runs.
+ * The sessions without new chunks for upload.session.timeout milliseconds are deleted
+ * when a new session is opened, and by a sweep that runs every upload.session.sweep.interval
+ * milliseconds in a daemon thread, so the files of abandoned sessions are deleted even when
+ * no session is opened.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class FileUploadSessionManager implements UploadSessionManager {
+
+	// configuration keys and default values.
+	public static final String DIRECTORY_KEY = "upload.directory";
+	public static final String DEFAULT_DIRECTORY = "uploads";
+	public static final String TIMEOUT_KEY = "upload.session.timeout";
+	public static final long DEFAULT_TIMEOUT = 3600000;
+	public static final String SWEEP_INTERVAL_KEY = "upload.session.sweep.interval";
+	public static final long DEFAULT_SWEEP_INTERVAL = 60000;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.ingest.impl.FileUploadSessionManager");
+
+	private ConcurrentMap<String, UploadSession> sessions = new ConcurrentHashMap<String, UploadSession>();
+	private Path directory;
+	private long timeout;
+	private ScheduledExecutorService sweeper;
+
+	/**
+	 * Holder of the instance shared by the application, created on the first use.
+	 */
+	private static class InstanceHolder {
+		private static final FileUploadSessionManager INSTANCE = new FileUploadSessionManager();
+	}
+
+	/**
+	 * Returns the manager shared by the application.
+	 * 
+	 * @return The UploadSessionManager instance.
+	 */
+	public static UploadSessionManager getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Constructor of the FileUploadSessionManager class, the directory, the timeout and 
+	 * the interval of the sweep are read from the configuration.
+	 */
+	public FileUploadSessionManager() {
+		this(Paths.get(new ConfigUtils().getString(DIRECTORY_KEY, DEFAULT_DIRECTORY)), 
+				new ConfigUtils().getLong(TIMEOUT_KEY, DEFAULT_TIMEOUT));
+		startSweep(new ConfigUtils().getLong(SWEEP_INTERVAL_KEY, DEFAULT_SWEEP_INTERVAL));
+	}
+
+	/**
+	 * Constructor of the FileUploadSessionManager class.
+	 * 
+	 * @param directory The directory that holds the files of the sessions.
+	 * @param timeout The time (in milliseconds) after which a session without new chunks is deleted.
+	 */
+	public FileUploadSessionManager(Path directory, long timeout) {
+		this.directory = directory;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public UploadSession open(String id, DataEnum side, int chunkSize) throws IOException {
+		removeExpired();
+		Files.createDirectories(directory);
+		String uploadId = UUID.randomUUID().toString();
+		UploadSession session = new UploadSession(uploadId, id, side, chunkSize, directory.resolve(uploadId + ".upload"));
+		sessions.put(uploadId, session);
+		log.info("Opened upload ({}) for {} data of id ({})", uploadId, side, id);
+		return session;
+	}
+
+	@Override
+	public UploadSession get(String uploadId) {
+		return sessions.get(uploadId);
+	}
+
+	@Override
+	public boolean remove(String uploadId) throws IOException {
+		UploadSession session = sessions.remove(uploadId);
+		if (session == null) {
+			return false;
+		}
+		session.delete();
+		return true;
+	}
+
+	/**
+	 * Starts the sweep that deletes the expired sessions periodically.
+	 * 
+	 * @param interval The time (in milliseconds) between the sweeps.
+	 */
+	public synchronized void startSweep(long interval) {
+		if (sweeper != null) {
+			return;
+		}
+		sweeper = Executors.newSingleThreadScheduledExecutor(new SweepThreadFactory());
+		sweeper.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				removeExpired();
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the sweep of the expired sessions.
+	 */
+	public synchronized void stopSweep() {
+		if (sweeper != null) {
+			sweeper.shutdownNow();
+			sweeper = null;
+		}
+	}
+
+	/**
+	 * Deletes the sessions without new chunks for longer than the timeout.
+	 */
+	private void removeExpired() {
+		long expiration = System.currentTimeMillis() - timeout;
+		for (UploadSession session : sessions.values()) {
+			if (session.getLastAccess() < expiration) {
+				try {
+					log.info("Removing expired upload ({})", session.getUploadId());
+					remove(session.getUploadId());
+				} catch (IOException exc) {
+					log.debug("Exception removing upload ({}): {}", session.getUploadId(), exc.getMessage(), exc);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the daemon thread of the sweep, named upload-sweeper.
+	 */
+	private static class SweepThreadFactory implements ThreadFactory {
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "upload-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.assignment.rest.v1;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONException;
+
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.utils.Metrics;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the administration endpoints of the REST API V1.<br/>
+ * The metrics of the endpoints, of the tasks and of the data store are returned by the metrics 
+ * endpoint, and the counters of the diff cache by the cache statistics endpoint.<br/>
+ * They are under /v1/admin, so they do not shadow the ids of /v1/diff/{id}.
+ *  
+ * @author lucas.reginato@gmail.com
+ */
+@Path("/v1/admin/")
+public class AdminEndpointV1 {
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.rest.v1.AdminEndpointV1");
+
+	/**
+	 * The statistics endpoint of the diff cache, which is a HTTP GET.<br/>
+	 * <br/>
+	 * It returns the counters of the cache:<br/>
+	 *  { "Hits":10, "Misses":2, "Evictions":0, "Entries":2, "Bytes":512 }<br/>
+	 * 
+	 * @return A HTTP response: 200 with the JSON counters.
+	 */
+	@Path("/cache/statistics")
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response cacheStatistics() {
+		log.info("AdminEndpointV1.cacheStatistics is executing.");
+		return Response.ok().entity(LruDiffCache.getInstance().getStatistics().toString()).build();
+	}
+
+	/**
+	 * The metrics endpoint, which is a HTTP GET.<br/>
+	 * <br/>
+	 * It returns the timers of the endpoints and of the phases of the tasks (in milliseconds), 
+	 * the histograms of the saved sizes and of the number of differences, and the meters of the
+	 * bytes read from and written to the data store:<br/>
+	 *  { "timers":{ "endpoint.diff":{ "count":10, "rate":0.1, "mean":2.5, "p50":2.1, "p95":4.8, ... } }, 
+	 *  "histograms":{ ... }, "meters":{ "storage.bytes.read":{ "count":1024, "rate":17.0 } } }<br/>
+	 * 
+	 * @return A HTTP response: 500 in case of failure, or 200 with the JSON metrics.
+	 */
+	@Path("/metrics")
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response metrics() {
+		log.info("AdminEndpointV1.metrics is executing.");
+		try {
+			return Response.ok().entity(Metrics.getInstance().getSnapshot().toString()).build();
+		} catch (JSONException exc) {
+			log.debug("Exception during AdminEndpointV1.metrics execution: {}", exc.getMessage());
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.assignment.rest.v1;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.task.TaskFactory;
+import com.assignment.task.impl.BatchDiffTask;
+import com.assignment.task.impl.TaskFactoryImpl;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DiffModeEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the batch endpoints of the REST API V1.<br/>
+ * The data of many ids can be saved at once (batch upload), and the diff of many ids can be 
+ * requested at once (batch), with the results written as they finish.<br/>
+ * They are under /v1/batch, so they do not shadow the ids of /v1/diff/{id}.
+ *  
+ * @author lucas.reginato@gmail.com
+ */
+@Path("/v1/batch/")
+public class BatchEndpointV1 {
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.rest.v1.BatchEndpointV1");
+
+	/**
+	 * The batch upload endpoint, which is a HTTP POST.<br/>
+	 * It accepts a JSON array with the data of many ids and sides, each Base64 encoded 
+	 * (a string or an array of chunks), and saves all of them together:<br/>
+	 *  [ { "Id":"1", "Side":"LEFT", "Data":"AQID" }, { "Id":"1", "Side":"RIGHT", "Data":"AQIE" } ]<br/>
+	 * Either all the records are saved, or none of them when the JSON is not valid.
+	 * 
+	 * @param inputData JSON array with the records.
+	 * @return A HTTP response: 500 in case of failure, or 200 with the number of records saved
+	 * ({ "Records":2 }).
+	 */
+	@Path("/upload")
+	@POST
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response batchUpload(InputStream inputData) {
+		log.info("BatchEndpointV1.batchUpload is executing.");
+		TaskFactory taskFactory = new TaskFactoryImpl();
+		JSONObject jsonObject = taskFactory.createBatchUploadTask(inputData).executeTask();
+		if (jsonObject == null) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		log.info("BatchEndpointV1.batchUpload execution ended with success.");
+		return Response.ok().entity(jsonObject.toString()).build();
+	}
+
+	/**
+	 * The batch diff endpoint, which is a HTTP POST.<br/>
+	 * It accepts a JSON array with the ids, executes their diffs in parallel and writes the 
+	 * result of each id as soon as it is finished (in the order they finish):<br/>
+	 *  [ { "Id":"1", "Status":"COMPLETED", "Result":{ "Result":[ "The right and left data are equals."] } },<br/>
+	 *    { "Id":"2", "Status":"FAILED" } ]<br/>
+	 * The number of ids is limited by diff.batch.max.ids.
+	 * 
+	 * @param inputData JSON array with the ids.
+	 * @param mode String that represents the diff mode (STRING, BYTE or PARALLEL).
+	 * @return A HTTP response: 500 in case of failure, or 200 in case of success with a JSON array.
+	 */
+	@POST
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response batchDiff(String inputData, @QueryParam("mode") @DefaultValue("STRING") String mode) {
+		try {
+			DiffModeEnum diffMode = DiffModeEnum.fromValue(mode);
+			JSONArray jsonArray = new JSONArray(inputData);
+			int maxIds = new ConfigUtils().getInt(BatchDiffTask.MAX_IDS_KEY, BatchDiffTask.DEFAULT_MAX_IDS);
+			if (jsonArray.length() == 0 || jsonArray.length() > maxIds) {
+				log.info("Invalid number of ids ({}), returning internal error.", jsonArray.length());
+				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			}
+			List<String> ids = new ArrayList<String>(jsonArray.length());
+			for (int i = 0; i < jsonArray.length(); i++) {
+				String id = jsonArray.getString(i);
+				if (id == null || id.isEmpty()) {
+					log.info("Invalid id, returning internal error.");
+					return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+				}
+				ids.add(id);
+			}
+			log.info("BatchEndpointV1.batchDiff is executing, {} ids and mode is ({}).", ids.size(), mode);
+
+			TaskFactory taskFactory = new TaskFactoryImpl();
+			return Response.ok(taskFactory.createBatchDiffTask(ids, diffMode).executeStreamingTask()).build();
+		} catch (JSONException | IllegalArgumentException exc) {
+			log.debug("Exception during BatchEndpointV1.batchDiff execution: {}", exc.getMessage());
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+}
@@ -1,29 +1,62 @@
 package com.assignment.rest.v1;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RejectedExecutionException;
+
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
-import org.apache.log4j.Logger;
-import org.codehaus.jettison.json.JSONArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
+import com.assignment.diff.DiffResult;
+import com.assignment.format.DiffResultEncoder;
+import com.assignment.format.impl.DiffResultEncoderFactoryImpl;
+import com.assignment.ingest.UploadSession;
+import com.assignment.ingest.impl.FileUploadSessionManager;
 import com.assignment.task.Task;
 import com.assignment.task.TaskFactory;
+import com.assignment.task.TaskRunner;
+import com.assignment.task.impl.ExecutorTaskRunner;
+import com.assignment.task.impl.GetDiffTask;
 import com.assignment.task.impl.TaskFactoryImpl;
 import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffFormatEnum;
+import com.assignment.utils.DiffModeEnum;
 import com.assignment.utils.JSONUtils;
+import com.assignment.utils.Metrics;
 import com.assignment.utils.Utils;
+import com.codahale.metrics.Timer;
 
 /**
  * Represents the REST API V1.<br/>
  * This API has 3 endpoints (right, left and diff).<br/>
+ * The metrics and the statistics of the cache are returned by AdminEndpointV1, the batch
+ * endpoints are in BatchEndpointV1, the sessions of the uploads in UploadEndpointV1, and the
+ * status of the asynchronous operations in OperationEndpointV1, so no other path is under 
+ * /v1/diff/{id}.<br/>
+ * The right and left data can also be updated in a range (HTTP PATCH), or sent in chunks
+ * through an upload session.<br/>
  * The right and left endpoints accepts a JSON base64 encoded binary data.
  * The diff endpoint returns the following information:<br/>
  *  A) If data are equals return that they are equal.<br/>
@@ -37,7 +70,7 @@ import com.assignment.utils.Utils;
 public class EndpointV1 {
 
 	// logger of the class.
-	private Logger log = Logger.getLogger("com.assignment.rest.v1.EndpointV1");
+	private Logger log = LoggerFactory.getLogger("com.assignment.rest.v1.EndpointV1");
 	
 	/**
 	 * The left endpoint, which is a HTTP POST.<br/>
@@ -46,40 +79,45 @@ public class EndpointV1 {
 	 * <br/>
 	 * @param id The id of the request. This id will be used to save a file on the disk and keep the "left" data.
 	 * @param inputData JSON base64 encoded binary data.
-	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 * @param async When true, the body is received in the request thread, then it is decoded and saved 
+	 * in a different thread, and the operation id is returned (the Location header is its status).
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success 
+	 * (202 with the operation id if async, or 429 if there are too many asynchronous operations).
 	 */
 	@Path("/{id}/left")
 	@POST
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response left(@PathParam("id") String id, String inputData) {
-		log.info("EndpointV1.left is executing, id is (" + id + ") and inputData is (" + inputData + ")");
+	public Response left(@PathParam("id") String id, InputStream inputData,
+			@QueryParam("async") @DefaultValue("false") boolean async) {
+		log.info("EndpointV1.left is executing, id is ({}) and async is ({}).", id, async);
 
+		Timer.Context timer = Metrics.getInstance().timer(Metrics.ENDPOINT_LEFT).time();
 		try {
 			// if the path param ID is null or empty then return an error
-			// if inputData is not a valid JSON array then return an error
-			if (!validInputs(id, inputData)) {
+			if (!validId(id)) {
 				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
 			}
 			
 			// the input data is a JSON array, it can contains chunks 
 			// of Base64 encoded binary data.
-			// encapsulates all data into a StringBuilder.
-			StringBuilder stringBuilder = encapsulateInputData(inputData);
-			if (stringBuilder == null) {
-				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			// the chunks are parsed, decoded and saved in the data store, under the {ID} value,
+			// while the request body is read (an invalid JSON array fails the task).
+			// the data store (files, memory or database) is selected by storage.type.
+			if (async) {
+				return saveAsync(id, DataEnum.LEFT, inputData);
 			}
-			
-			// saves the data in a file which name is the {ID} value.
-			// today this is a synchronous job, but it should be asynchronous
-			// and the data should be saved in a database.
 			TaskFactory taskFactory = new TaskFactoryImpl();
-			Task task = taskFactory.createSaveDataTask(id, DataEnum.LEFT.name(), stringBuilder.toString());
-			task.executeTask();
+			Task task = taskFactory.createSaveDataTask(id, DataEnum.LEFT.name(), inputData);
+			if (task.executeTask() == null) {
+				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			}
 		} 
 		catch (Exception exc) {
-			log.debug("Exception during EndpointV1.left execution: " + exc.getMessage());
+			log.debug("Exception during EndpointV1.left execution: {}", exc.getMessage());
 			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		} finally {
+			timer.stop();
 		}
 		log.info("EndpointV1.left execution ended with success.");
 		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
@@ -92,45 +130,92 @@ public class EndpointV1 {
 	 * <br/>
 	 * @param id The id of the request. This id will be used to save a file on the disk and keep the "right" data.
 	 * @param inputData JSON base64 encoded binary data.
-	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 * @param async When true, the body is received in the request thread, then it is decoded and saved 
+	 * in a different thread, and the operation id is returned (the Location header is its status).
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success 
+	 * (202 with the operation id if async, or 429 if there are too many asynchronous operations).
 	 */
 	@Path("/{id}/right")
 	@POST
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response right(@PathParam("id") String id, String inputData) {
-		log.info("EndpointV1.right is executing, id is (" + id + ") and inputData is (" + inputData + ")");
-		
+	public Response right(@PathParam("id") String id, InputStream inputData,
+			@QueryParam("async") @DefaultValue("false") boolean async) {
+		log.info("EndpointV1.right is executing, id is ({}) and async is ({}).", id, async);
+
+		Timer.Context timer = Metrics.getInstance().timer(Metrics.ENDPOINT_RIGHT).time();
 		try {
 			// if the path param ID is null or empty then return an error
-			// if inputData is not a valid JSON array then return an error
-			if (!validInputs(id, inputData)) {
+			if (!validId(id)) {
 				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
 			}
 			
 			// the input data is a JSON array, it can contains chunks 
 			// of Base64 encoded binary data.
-			// encapsulates all data into a StringBuilder.
-			StringBuilder stringBuilder = encapsulateInputData(inputData);
-			if (stringBuilder == null) {
-				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			// the chunks are parsed, decoded and saved in the data store, under the {ID} value,
+			// while the request body is read (an invalid JSON array fails the task).
+			// the data store (files, memory or database) is selected by storage.type.
+			if (async) {
+				return saveAsync(id, DataEnum.RIGHT, inputData);
 			}
-			
-			// saves the data in a file which name is the {ID} value
-			// today this is a synchronous job, but it should be asynchronous
-			// and the data should be saved in a database.
 			TaskFactory taskFactory = new TaskFactoryImpl();
-			Task task = taskFactory.createSaveDataTask(id, DataEnum.RIGHT.name(), stringBuilder.toString());
-			task.executeTask();
+			Task task = taskFactory.createSaveDataTask(id, DataEnum.RIGHT.name(), inputData);
+			if (task.executeTask() == null) {
+				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			}
 		} 
 		catch (Exception exc) {
-			log.debug("Exception during EndpointV1.right execution: " + exc.getMessage());
+			log.debug("Exception during EndpointV1.right execution: {}", exc.getMessage());
 			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		} finally {
+			timer.stop();
 		}
 		log.info("EndpointV1.right execution ended with success.");
 		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
 	}
 
+	/**
+	 * The left patch endpoint, which is a HTTP PATCH.<br/>
+	 * It accepts a JSON base64 encoded binary data, which replaces the bytes of the "left" 
+	 * data that start at the offset (the range must be inside the data).<br/>
+	 * The cached diff of the id is updated only around the range, so the next diff 
+	 * does not compare the whole data again.<br/>
+	 * <br/>
+	 * @param id The id of the request.
+	 * @param inputData JSON base64 encoded binary data.
+	 * @param offset The offset (in bytes) of the range updated.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{id}/left")
+	@PATCH
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response patchLeft(@PathParam("id") String id, InputStream inputData,
+			@QueryParam("offset") @DefaultValue("0") long offset) {
+		return patch(id, DataEnum.LEFT, offset, inputData);
+	}
+
+	/**
+	 * The right patch endpoint, which is a HTTP PATCH.<br/>
+	 * It accepts a JSON base64 encoded binary data, which replaces the bytes of the "right" 
+	 * data that start at the offset (the range must be inside the data).<br/>
+	 * The cached diff of the id is updated only around the range, so the next diff 
+	 * does not compare the whole data again.<br/>
+	 * <br/>
+	 * @param id The id of the request.
+	 * @param inputData JSON base64 encoded binary data.
+	 * @param offset The offset (in bytes) of the range updated.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{id}/right")
+	@PATCH
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response patchRight(@PathParam("id") String id, InputStream inputData,
+			@QueryParam("offset") @DefaultValue("0") long offset) {
+		return patch(id, DataEnum.RIGHT, offset, inputData);
+	}
+
 	/**
 	 * The diff endpoint, which is a HTTP GET.<br/>
 	 * <br/>
@@ -152,15 +237,40 @@ public class EndpointV1 {
      *    "Offset":21,
      *    "Length":5 }]
      *  }<br/>
+     *  <br/>
+     *  The mode query parameter selects how the data is compared: STRING (default) compares
+     *  the Base64 strings, BYTE compares the decoded data and reports offsets and lengths in bytes,
+     *  PARALLEL is the same as BYTE but splits the comparison of large data between several threads.<br/>
+     *  With the stream query parameter (BYTE and PARALLEL modes), each difference is written to the 
+     *  response as soon as it is found, and the Differences array comes before the Result.<br/>
+     *  The from and to query parameters limit the diff to the [from, to) window of the data (in bytes,
+     *  or in Base64 characters in the STRING mode), and the limit query parameter to the first differences.
+     *  When the limit is reached, the offset of the next difference is returned, and it is the from of 
+     *  the next page:<br/>
+     *  { "Result":"...", "Differences":[ { "Offset":0, "Length":4 } ], "Next":21 }<br/>
+     *  The Accept header selects the format of the result: JSON (default), CBOR (application/cbor),
+     *  MessagePack (application/msgpack) or varints (application/x-diff-varint), see DiffFormatEnum.
+     *  The compact formats are written at once, even with the stream query parameter.<br/>
  	 *  
 	 * @param id String that represents the ID of the request.
-	 * @return A HTTP response: 500 in case of failure, or 200 in case of success with a JSON result.
+	 * @param mode String that represents the diff mode (STRING, BYTE or PARALLEL).
+	 * @param stream true to write the differences while they are found.
+	 * @param from The first index (inclusive) compared.
+	 * @param to The last index (exclusive) compared, -1 for the end of the data.
+	 * @param limit The maximum number of differences returned, -1 for all.
+	 * @param headers The headers of the request, with the accepted formats of the result.
+	 * @return A HTTP response: 500 in case of failure, or 200 in case of success with the result.
 	 */
 	@Path("/{id}")
 	@GET
-	@Produces(MediaType.APPLICATION_JSON)
-	public Response diff(@PathParam("id") String id) {
-		log.info("EndpointV1.diff is executing, id is (" + id + ").");
+	@Produces({MediaType.APPLICATION_JSON, Utils.APPLICATION_CBOR, Utils.APPLICATION_MSGPACK, Utils.APPLICATION_DIFF_VARINT})
+	public Response diff(@PathParam("id") String id, @QueryParam("mode") @DefaultValue("STRING") String mode,
+			@QueryParam("stream") @DefaultValue("false") boolean stream, @QueryParam("from") @DefaultValue("0") long from,
+			@QueryParam("to") @DefaultValue("-1") long to, @QueryParam("limit") @DefaultValue("-1") int limit,
+			@Context HttpHeaders headers) {
+		log.info("EndpointV1.diff is executing, id is ({}) and mode is ({}).", id, mode);
+		// the streamed results are written after the method returns, so they are not in the timer.
+		Timer.Context timer = Metrics.getInstance().timer(Metrics.ENDPOINT_DIFF).time();
 		try {
 			// validating if id is not null or empty.
 			if((id == null) || (id.isEmpty())) {
@@ -168,25 +278,169 @@ public class EndpointV1 {
 				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
 			}
 
+			// validating if the mode is one of the known diff modes.
+			DiffModeEnum diffMode;
+			try {
+				diffMode = DiffModeEnum.fromValue(mode);
+			} catch (IllegalArgumentException exc) {
+				log.info("Invalid mode ({}), returning internal error.", mode);
+				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			}
+
+			// validating the window and the limit of the differences.
+			if (!validWindow(from, to, limit)) {
+				log.info("Invalid window ({}, {}) or limit ({}), returning internal error.", from, to, limit);
+				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			}
+
 			// generates the diff between the 2 data (right and left).
 			// this is a synchronous job
+			DiffFormatEnum format = getFormat(headers);
 			TaskFactory taskFactory = new TaskFactoryImpl();
-			Task task = taskFactory.createGetDiffTask(id);
-			JSONObject jsonObject = task.executeTask();
-			if (jsonObject == null) {
+			if (stream && (format == DiffFormatEnum.JSON)) {
+				StreamingOutput output = taskFactory.createStreamingDiffTask(id, diffMode, from, to, limit).executeStreamingTask();
+				if (output == null) {
+					log.info("Error while executing diff algorithm, returning internal error.");
+					return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+				}
+				return Response.ok(output, MediaType.APPLICATION_JSON_TYPE).build();
+			}
+			final DiffResult result = taskFactory.createGetDiffTask(id, diffMode, from, to, limit).executeDiff();
+			if (result == null) {
 				log.info("Error while executing diff algorithm, returning internal error.");
 				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
 			}
-			
-			log.info("Result is: " + jsonObject.toString());
-			return Response.ok().entity(jsonObject.toString()).build();
+
+			// the result is written directly by the encoder of the format (JSON included), 
+			// without building a JSON object or string.
+			final DiffResultEncoder encoder = new DiffResultEncoderFactoryImpl().getEncoder(format);
+			StreamingOutput encoded = new StreamingOutput() {
+				@Override
+				public void write(OutputStream output) throws IOException {
+					Timer.Context timer = Metrics.getInstance().timer(Metrics.DIFF_SERIALIZE).time();
+					try {
+						encoder.encode(result, output);
+					} finally {
+						timer.stop();
+					}
+				}
+			};
+			log.debug("Result of id ({}) has {} differences.", id, result.getDifferences().size());
+			return Response.ok(encoded, format.getMediaType()).build();
 		} 
 		catch(Exception exc) {
-			log.debug("Exception: " + exc.getMessage() + " returning internal error...", exc);
+			log.debug("Exception: {} returning internal error...", exc.getMessage(), exc);
 			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		} finally {
+			timer.stop();
 		}
 	}
 	
+	/**
+	 * The endpoint that opens an upload session, which is a HTTP POST.<br/>
+	 * <br/>
+	 * Large data can be sent in numbered chunks (from 0), each one a JSON base64 encoded binary data
+	 * with chunkSize decoded bytes (the last one can be smaller). The chunks can be sent in any order,
+	 * and in parallel, to the chunk endpoint, a failed chunk is just sent again, and the status of 
+	 * the session has the chunks already received. Once all chunks were sent, the commit endpoint 
+	 * saves the data, as the right and left endpoints do. The chunks, the status and the commit
+	 * of the session are in UploadEndpointV1:<br/>
+	 *  { "Upload":"a3f...", "ChunkSize":4194304, "Chunks":[] }<br/>
+	 * 
+	 * @param id The id of the request.
+	 * @param side The side of the data (left or right).
+	 * @param chunkSize The size (in bytes, decoded) of the chunks.
+	 * @return A HTTP response: 500 in case of failure, or 200 with the JSON status of the new session.
+	 */
+	@Path("/{id}/{side}/uploads")
+	@POST
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response openUpload(@PathParam("id") String id, @PathParam("side") String side,
+			@QueryParam("chunkSize") @DefaultValue("4194304") int chunkSize) {
+		log.info("EndpointV1.openUpload is executing, id is ({}), side is ({}) and chunkSize is ({}).", id, side, chunkSize);
+		try {
+			if (!validId(id) || chunkSize <= 0) {
+				return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+			}
+			UploadSession session = FileUploadSessionManager.getInstance().open(id, DataEnum.fromValue(side.toUpperCase()), chunkSize);
+			return Response.ok().entity(session.getStatus().toString()).build();
+		} catch (Exception exc) {
+			log.debug("Exception during EndpointV1.openUpload execution: {}", exc.getMessage());
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+
+	/**
+	 * Submits the save of the data to the task runner, and returns the operation id.<br/>
+	 * Only the decode and the commit of the data are asynchronous: the request body must be read
+	 * before the response is sent, so it is received in the request thread and copied to a 
+	 * temporary file (deleted when the task closes it), then the task parses, decodes and saves 
+	 * the data in a different thread. So the request takes as long as the upload of its body.<br/>
+	 * The saturation of the task runner is checked before the body is read, so a saturated
+	 * runner returns 429 without receiving the body.
+	 * 
+	 * @param id The id of the request.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param inputData JSON base64 encoded binary data.
+	 * @return A HTTP response: 202 with the operation id, or 429 in case of saturation.
+	 */
+	private Response saveAsync(String id, DataEnum side, InputStream inputData) throws IOException, JSONException {
+		TaskRunner taskRunner = ExecutorTaskRunner.getInstance();
+		// checked before the body is spooled, the runner can still reject the task once it is spooled.
+		if (taskRunner.isSaturated()) {
+			log.info("Task runner is saturated, returning too many requests.");
+			return Response.status(Utils.TOO_MANY_REQUESTS).build();
+		}
+
+		File spoolFile = File.createTempFile("diffapi-upload-", ".json");
+		InputStream spooledData;
+		try {
+			Files.copy(inputData, spoolFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			spooledData = Files.newInputStream(spoolFile.toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+		} catch (IOException exc) {
+			spoolFile.delete();
+			throw exc;
+		}
+
+		try {
+			TaskFactory taskFactory = new TaskFactoryImpl();
+			String operationId = taskRunner.submit(taskFactory.createSaveDataTask(id, side.name(), spooledData));
+			JSONObject jsonObject = new JSONObject();
+			jsonObject.put(Utils.OPERATION, operationId);
+			log.info("EndpointV1 submitted operation ({}) for id ({}).", operationId, id);
+			// the status of the operation, relative to the base URI of the application.
+			return Response.status(Utils.ACCEPTED).location(URI.create("v1/operations/" + operationId))
+					.entity(jsonObject.toString()).build();
+		} catch (RejectedExecutionException exc) {
+			spooledData.close();
+			log.info("Task runner rejected the operation, returning too many requests.");
+			return Response.status(Utils.TOO_MANY_REQUESTS).build();
+		}
+	}
+
+	/**
+	 * Updates a range of one side of the data.
+	 * 
+	 * @param id The id of the request.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param offset The offset (in bytes) of the range updated.
+	 * @param inputData JSON base64 encoded binary data.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	private Response patch(String id, DataEnum side, long offset, InputStream inputData) {
+		log.info("EndpointV1.patch is executing, id is ({}), side is ({}) and offset is ({}).", id, side, offset);
+		if (!validId(id) || offset < 0) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		TaskFactory taskFactory = new TaskFactoryImpl();
+		Task task = taskFactory.createPatchDataTask(id, side, offset, inputData);
+		if (task.executeTask() == null) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		log.info("EndpointV1.patch execution ended with success.");
+		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
+	}
+
 	/**
 	 * Validate the inputs of the endpoints right and left.<br/>
 	 * The id input is an string and cannot be null or empty.<br/>
@@ -200,8 +454,7 @@ public class EndpointV1 {
 		
 		// validates if the path param ID is null or empty then return an error
 		// path param ID is key for the execution of this assignment
-		if((id == null) || (id.isEmpty())) {
-			log.info("Invalid id, returning false.");
+		if (!validId(id)) {
 			return false;
 		}
 		
@@ -214,32 +467,53 @@ public class EndpointV1 {
 		
 		return true;
 	}
-	
+
 	/**
-	 * Encapsulate the InputData into a single String.<br/>
-	 * The nputData can be a JSONArray object, which has different values in the array.<br/>
-	 * All the values are concatenated into a unique string.<br/>
+	 * Validate the id input of the endpoints.<br/>
+	 * The id input is an string and cannot be null or empty.<br/>
+	 * The input data of the right and left endpoints is validated while it is read.
 	 * 
-	 * @param inputData The JSON string that contains base64 encoded binary data. 
-	 * @return StringBuilder Which contains all the Strings inside the JSONArray (inputdata).
+	 * @param id The id of the request.
+	 * @return True in case the id is valid, otherwise false.
 	 */
-	public StringBuilder encapsulateInputData(String inputData) {
-		log.info("Parsing inputData (" + inputData + ") into JSONArray object");
-		
-		try {
-			StringBuilder stringBuilder = new StringBuilder();
-			JSONArray jsonArray = new JSONArray(inputData);
-		
-			for(int index = 0; index < jsonArray.length(); index++) {
-				// saves the JSON into a new StringBuilder for later processing.
-				stringBuilder.append(jsonArray.get(index));
-			}
+	public boolean validId(String id) {
+		if((id == null) || (id.isEmpty())) {
+			log.info("Invalid id, returning false.");
+			return false;
+		}
+		return true;
+	}
 
-			log.info("Returning String (" + stringBuilder.toString()+ ").");	
-			return stringBuilder;
-		} catch (JSONException jsonExc) {
-			log.debug("Exception encapsulating data: " + jsonExc.getMessage(), jsonExc);
-			return null;
+	/**
+	 * Returns the first format of the diff result accepted by the user, in the order
+	 * of preference of the Accept header.
+	 * 
+	 * @param headers The headers of the request, or null.
+	 * @return The DiffFormatEnum of the result, JSON if no other format is accepted.
+	 */
+	private DiffFormatEnum getFormat(HttpHeaders headers) {
+		if (headers != null) {
+			for (MediaType mediaType : headers.getAcceptableMediaTypes()) {
+				DiffFormatEnum format = DiffFormatEnum.fromMediaType(mediaType);
+				if (format != null) {
+					return format;
+				}
+			}
 		}
+		return DiffFormatEnum.JSON;
+	}
+
+	/**
+	 * Validate the window and the limit of the diff endpoint.<br/>
+	 * The window starts at a positive index and ends after it (or at the end of the data),
+	 * and at least one difference is returned (or all of them).
+	 * 
+	 * @param from The first index (inclusive) compared.
+	 * @param to The last index (exclusive) compared, or GetDiffTask.END.
+	 * @param limit The maximum number of differences returned, or GetDiffTask.NO_LIMIT.
+	 * @return True in case the window and the limit are valid, otherwise false.
+	 */
+	public boolean validWindow(long from, long to, int limit) {
+		return from >= 0 && (to == GetDiffTask.END || to >= from) && (limit == GetDiffTask.NO_LIMIT || limit > 0);
 	}
 }
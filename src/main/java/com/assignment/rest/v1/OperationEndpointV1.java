@@ -0,0 +1,51 @@
+package com.assignment.rest.v1;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.task.impl.ExecutorTaskRunner;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the endpoint of the asynchronous operations of the REST API V1.<br/>
+ * The operations are submitted by the right and left endpoints (async), which return the 
+ * operation id and its status in the Location header.<br/>
+ * It is under /v1/operations, so it does not shadow the ids of /v1/diff/{id}.
+ *  
+ * @author lucas.reginato@gmail.com
+ */
+@Path("/v1/operations/")
+public class OperationEndpointV1 {
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.rest.v1.OperationEndpointV1");
+
+	/**
+	 * The status endpoint of the asynchronous operations, which is a HTTP GET.<br/>
+	 * <br/>
+	 * It returns the status of an operation (PENDING, RUNNING, COMPLETED or FAILED):<br/>
+	 *  { "Operation":"8f1c...", "Status":"COMPLETED", "Result":{} }<br/>
+	 * 
+	 * @param operationId String that represents the id of the operation.
+	 * @return A HTTP response: 404 in case the operation is unknown, or 200 with the JSON status.
+	 */
+	@Path("/{operationId}")
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response operation(@PathParam("operationId") String operationId) {
+		log.info("OperationEndpointV1.operation is executing, operationId is ({}).", operationId);
+		JSONObject jsonObject = ExecutorTaskRunner.getInstance().getStatus(operationId);
+		if (jsonObject == null) {
+			return Response.status(Utils.NOT_FOUND).build();
+		}
+		return Response.ok().entity(jsonObject.toString()).build();
+	}
+}
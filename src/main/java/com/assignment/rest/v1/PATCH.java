@@ -0,0 +1,21 @@
+package com.assignment.rest.v1;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.HttpMethod;
+
+/**
+ * Indicates that the method of the endpoint responds to HTTP PATCH requests.<br/>
+ * JAX-RS 2.0 (the version used by this Jersey release) defines only the annotations
+ * of the other HTTP methods.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@HttpMethod("PATCH")
+public @interface PATCH {
+}
@@ -0,0 +1,127 @@
+package com.assignment.rest.v1;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONException;
+
+import com.assignment.ingest.UploadSession;
+import com.assignment.ingest.impl.FileUploadSessionManager;
+import com.assignment.task.TaskFactory;
+import com.assignment.task.impl.TaskFactoryImpl;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the endpoints of the upload sessions of the REST API V1.<br/>
+ * A session is opened for one side of an id (/v1/diff/{id}/{side}/uploads, in EndpointV1), 
+ * then its chunks are written, its status is read, and it is committed or aborted here.<br/>
+ * They are under /v1/uploads, so they do not shadow the ids of /v1/diff/{id}.
+ *  
+ * @author lucas.reginato@gmail.com
+ */
+@Path("/v1/uploads/")
+public class UploadEndpointV1 {
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.rest.v1.UploadEndpointV1");
+
+	/**
+	 * The endpoint that writes one chunk of an upload session, which is a HTTP PUT.<br/>
+	 * It accepts a JSON base64 encoded binary data, and a chunk sent again replaces the previous one.<br/>
+	 * 
+	 * @param uploadId The id of the upload session.
+	 * @param chunk The number of the chunk, from 0.
+	 * @param inputData JSON base64 encoded binary data.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{uploadId}/chunks/{chunk}")
+	@PUT
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response uploadChunk(@PathParam("uploadId") String uploadId, @PathParam("chunk") int chunk, InputStream inputData) {
+		log.info("UploadEndpointV1.uploadChunk is executing, uploadId is ({}) and chunk is ({}).", uploadId, chunk);
+		TaskFactory taskFactory = new TaskFactoryImpl();
+		if (taskFactory.createUploadChunkTask(uploadId, chunk, inputData).executeTask() == null) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
+	}
+
+	/**
+	 * The status endpoint of an upload session, which is a HTTP GET.<br/>
+	 * It returns the chunks already received, so an interrupted upload sends only the missing ones.<br/>
+	 * 
+	 * @param uploadId The id of the upload session.
+	 * @return A HTTP response: 404 in case the session is unknown, or 200 with the JSON status.
+	 */
+	@Path("/{uploadId}")
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response uploadStatus(@PathParam("uploadId") String uploadId) {
+		log.info("UploadEndpointV1.uploadStatus is executing, uploadId is ({}).", uploadId);
+		UploadSession session = FileUploadSessionManager.getInstance().get(uploadId);
+		if (session == null) {
+			return Response.status(Utils.NOT_FOUND).build();
+		}
+		try {
+			return Response.ok().entity(session.getStatus().toString()).build();
+		} catch (JSONException exc) {
+			log.debug("Exception during UploadEndpointV1.uploadStatus execution: {}", exc.getMessage());
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+
+	/**
+	 * The endpoint that commits an upload session, which is a HTTP POST.<br/>
+	 * All chunks must have been received, the data is saved and the session is deleted.<br/>
+	 * 
+	 * @param uploadId The id of the upload session.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{uploadId}/commit")
+	@POST
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response commitUpload(@PathParam("uploadId") String uploadId) {
+		log.info("UploadEndpointV1.commitUpload is executing, uploadId is ({}).", uploadId);
+		TaskFactory taskFactory = new TaskFactoryImpl();
+		if (taskFactory.createCommitUploadTask(uploadId).executeTask() == null) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		log.info("UploadEndpointV1.commitUpload execution ended with success.");
+		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
+	}
+
+	/**
+	 * The endpoint that aborts an upload session, which is a HTTP DELETE.<br/>
+	 * 
+	 * @param uploadId The id of the upload session.
+	 * @return A HTTP response: 404 in case the session is unknown, 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{uploadId}")
+	@DELETE
+	public Response abortUpload(@PathParam("uploadId") String uploadId) {
+		log.info("UploadEndpointV1.abortUpload is executing, uploadId is ({}).", uploadId);
+		try {
+			if (!FileUploadSessionManager.getInstance().remove(uploadId)) {
+				return Response.status(Utils.NOT_FOUND).build();
+			}
+		} catch (IOException exc) {
+			log.debug("Exception during UploadEndpointV1.abortUpload execution: {}", exc.getMessage());
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
+	}
+}
@@ -0,0 +1,166 @@
+package com.assignment.rest.v2;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.assignment.rest.v1.EndpointV1;
+import com.assignment.task.Task;
+import com.assignment.task.TaskFactory;
+import com.assignment.task.impl.TaskFactoryImpl;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the REST API V2.<br/>
+ * The right and left endpoints accept and return the raw binary data (application/octet-stream),
+ * without the Base64 encoding and the JSON array of the V1 API. The data is transferred to the 
+ * data store while the request body is read.<br/>
+ * Both APIs share the data store and the diff, so the data uploaded by one API can be 
+ * compared and downloaded by the other. The diff endpoint is the diff endpoint of the V1 API,
+ * with the BYTE mode as the default mode.<br/>
+ *  
+ * @author lucas.reginato@gmail.com
+ */
+@Path("/v2/diff/")
+public class EndpointV2 {
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.rest.v2.EndpointV2");
+
+	/**
+	 * The left endpoint, which is a HTTP POST.<br/>
+	 * It accepts the raw binary data, which will be used later in the diff endpoint.<br/>
+	 * 
+	 * @param id The id of the request.
+	 * @param inputData The raw binary data.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{id}/left")
+	@POST
+	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+	public Response left(@PathParam("id") String id, InputStream inputData) {
+		return save(id, DataEnum.LEFT, inputData);
+	}
+
+	/**
+	 * The right endpoint, which is a HTTP POST.<br/>
+	 * It accepts the raw binary data, which will be used later in the diff endpoint.<br/>
+	 * 
+	 * @param id The id of the request.
+	 * @param inputData The raw binary data.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	@Path("/{id}/right")
+	@POST
+	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+	public Response right(@PathParam("id") String id, InputStream inputData) {
+		return save(id, DataEnum.RIGHT, inputData);
+	}
+
+	/**
+	 * The left download endpoint, which is a HTTP GET.<br/>
+	 * It returns the raw binary data of the left side.<br/>
+	 * 
+	 * @param id The id of the request.
+	 * @return A HTTP response: 404 in case the data was not saved, or 200 with the data.
+	 */
+	@Path("/{id}/left")
+	@GET
+	@Produces(MediaType.APPLICATION_OCTET_STREAM)
+	public Response getLeft(@PathParam("id") String id) {
+		return get(id, DataEnum.LEFT);
+	}
+
+	/**
+	 * The right download endpoint, which is a HTTP GET.<br/>
+	 * It returns the raw binary data of the right side.<br/>
+	 * 
+	 * @param id The id of the request.
+	 * @return A HTTP response: 404 in case the data was not saved, or 200 with the data.
+	 */
+	@Path("/{id}/right")
+	@GET
+	@Produces(MediaType.APPLICATION_OCTET_STREAM)
+	public Response getRight(@PathParam("id") String id) {
+		return get(id, DataEnum.RIGHT);
+	}
+
+	/**
+	 * The diff endpoint, which is a HTTP GET.<br/>
+	 * It is the same as the diff endpoint of the V1 API, but the default mode is BYTE, so 
+	 * the offsets and lengths are in bytes of the binary data.
+	 * 
+	 * @param id String that represents the ID of the request.
+	 * @param mode String that represents the diff mode (STRING, BYTE or PARALLEL).
+	 * @param stream true to write the differences while they are found.
+	 * @param from The first index (inclusive) compared.
+	 * @param to The last index (exclusive) compared, -1 for the end of the data.
+	 * @param limit The maximum number of differences returned, -1 for all.
+	 * @param headers The headers of the request, with the accepted formats of the result.
+	 * @return A HTTP response: 500 in case of failure, or 200 in case of success with the result.
+	 */
+	@Path("/{id}")
+	@GET
+	@Produces({MediaType.APPLICATION_JSON, Utils.APPLICATION_CBOR, Utils.APPLICATION_MSGPACK, Utils.APPLICATION_DIFF_VARINT})
+	public Response diff(@PathParam("id") String id, @QueryParam("mode") @DefaultValue("BYTE") String mode,
+			@QueryParam("stream") @DefaultValue("false") boolean stream, @QueryParam("from") @DefaultValue("0") long from,
+			@QueryParam("to") @DefaultValue("-1") long to, @QueryParam("limit") @DefaultValue("-1") int limit,
+			@Context HttpHeaders headers) {
+		return new EndpointV1().diff(id, mode, stream, from, to, limit, headers);
+	}
+
+	/**
+	 * Transfers the raw binary data of the request to the data store.
+	 * 
+	 * @param id The id of the request.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param inputData The raw binary data.
+	 * @return A HTTP response: 500 in case of failure, or 204 in case of success.
+	 */
+	private Response save(String id, DataEnum side, InputStream inputData) {
+		log.info("EndpointV2.save is executing, id is ({}) and side is ({}).", id, side);
+		if (!new EndpointV1().validId(id)) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		TaskFactory taskFactory = new TaskFactoryImpl();
+		Task task = taskFactory.createSaveDataTask(id, side.name(), Channels.newChannel(inputData));
+		if (task.executeTask() == null) {
+			return Response.status(Utils.INTERNAL_SERVER_ERROR).build();
+		}
+		log.info("EndpointV2.save execution ended with success.");
+		return Response.status(Utils.OK_WITH_NO_CONTENT).build();
+	}
+
+	/**
+	 * Returns the raw binary data of one side.
+	 * 
+	 * @param id The id of the request.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return A HTTP response: 404 in case the data was not saved, or 200 with the data.
+	 */
+	private Response get(String id, DataEnum side) {
+		log.info("EndpointV2.get is executing, id is ({}) and side is ({}).", id, side);
+		StreamingOutput output = new TaskFactoryImpl().createGetDataTask(id, side).executeStreamingTask();
+		if (output == null) {
+			return Response.status(Utils.NOT_FOUND).build();
+		}
+		return Response.ok(output, MediaType.APPLICATION_OCTET_STREAM).build();
+	}
+}
@@ -0,0 +1,228 @@
+package com.assignment.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Represents the index of the blocks of one side of the data: the data is split in blocks
+ * of a fixed size, and the SHA-256 hash of each block is kept (the last block can be smaller).<br/>
+ * Comparing the indexes of both sides tells which blocks have differences, so only these
+ * blocks need to be read and compared.<br/>
+ * The hashes are kept in buffers of up to 1 GB (segments), so the index of large data is
+ * read from the mapped metadata file (map) instead of being copied to the heap, and the 
+ * blocks are numbered with 64-bit numbers.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BlockIndex {
+
+	// configuration key and default value of the block size.
+	public static final String BLOCK_SIZE_KEY = "storage.block.size";
+	public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+	// size of the segments of the hashes, a multiple of the hash length.
+	private static final int SEGMENT_SIZE = 1 << 30;
+
+	private final int blockSize;
+	private final long blockCount;
+	// the hashes of all blocks, one after the other, split in segments.
+	private final ByteBuffer[] segments;
+
+	/**
+	 * Constructor of the BlockIndex class.
+	 * 
+	 * @param blockSize The size of the blocks, in bytes.
+	 * @param hashes The hashes of all blocks, one after the other.
+	 */
+	public BlockIndex(int blockSize, byte[] hashes) {
+		this(blockSize, hashes.length / DataMetadata.HASH_LENGTH, split(hashes));
+	}
+
+	/**
+	 * Constructor of the BlockIndex class.
+	 * 
+	 * @param blockSize The size of the blocks, in bytes.
+	 * @param blockCount The number of blocks.
+	 * @param segments The hashes of all blocks, in segments of SEGMENT_SIZE bytes (the last one can be smaller).
+	 */
+	private BlockIndex(int blockSize, long blockCount, ByteBuffer[] segments) {
+		this.blockSize = blockSize;
+		this.blockCount = blockCount;
+		this.segments = segments;
+	}
+
+	/**
+	 * Returns the index whose hashes are in a region of a file, which is mapped (read only).<br/>
+	 * The mapping stays valid after the channel is closed.
+	 * 
+	 * @param blockSize The size of the blocks, in bytes.
+	 * @param channel The channel of the file.
+	 * @param position The position of the hashes in the file.
+	 * @param blockCount The number of blocks.
+	 * @return The BlockIndex over the mapped file.
+	 * @throws IOException In case the file cannot be mapped.
+	 */
+	public static BlockIndex map(int blockSize, FileChannel channel, long position, long blockCount) throws IOException {
+		long length = blockCount * DataMetadata.HASH_LENGTH;
+		ByteBuffer[] segments = new ByteBuffer[(int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+		for (int i = 0; i < segments.length; i++) {
+			long start = (long) i * SEGMENT_SIZE;
+			segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + start, Math.min(SEGMENT_SIZE, length - start));
+		}
+		return new BlockIndex(blockSize, blockCount, segments);
+	}
+
+	/**
+	 * Checks if a block has the same hash in this index and in the other one.
+	 * 
+	 * @param other The index of the other side, with the same block size.
+	 * @param block The number of the block.
+	 * @return true if the block has the same hash in both indexes.
+	 */
+	public boolean sameBlock(BlockIndex other, long block) {
+		long position = block * DataMetadata.HASH_LENGTH;
+		ByteBuffer hashes = segments[(int) (position / SEGMENT_SIZE)];
+		ByteBuffer otherHashes = other.segments[(int) (position / SEGMENT_SIZE)];
+		int offset = (int) (position % SEGMENT_SIZE);
+		for (int i = offset; i < offset + DataMetadata.HASH_LENGTH; i++) {
+			if (hashes.get(i) != otherHashes.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the index can be compared with the index of the other side.
+	 * 
+	 * @param other The index of the other side.
+	 * @return true if both indexes have the same block size and number of blocks.
+	 */
+	public boolean isComparable(BlockIndex other) {
+		return other != null && blockSize == other.blockSize && blockCount == other.blockCount;
+	}
+
+	/**
+	 * Returns the size of the blocks.
+	 * 
+	 * @return The block size, in bytes.
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Returns the number of blocks.
+	 * 
+	 * @return The number of blocks in the index.
+	 */
+	public long getBlockCount() {
+		return blockCount;
+	}
+
+	/**
+	 * Splits the hashes in segments.
+	 * 
+	 * @param hashes The hashes of all blocks, one after the other.
+	 * @return The segments, which are views of the array.
+	 */
+	private static ByteBuffer[] split(byte[] hashes) {
+		ByteBuffer[] segments = new ByteBuffer[(hashes.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE];
+		for (int i = 0; i < segments.length; i++) {
+			int start = i * SEGMENT_SIZE;
+			segments[i] = ByteBuffer.wrap(hashes, start, Math.min(SEGMENT_SIZE, hashes.length - start)).slice();
+		}
+		return segments;
+	}
+
+	/**
+	 * Builds the index while the data is written, in pieces of any size.<br/>
+	 * The hashes of the finished blocks can be taken while the data is written (takeHashes), 
+	 * so the index of large data is written to a file instead of being kept in memory.
+	 */
+	public static class Builder {
+
+		private final int blockSize;
+		private final MessageDigest digest = DataMetadata.newDigest();
+		private byte[] hashes = new byte[0];
+		// the number of hashes kept (finished and not taken).
+		private int hashCount = 0;
+		// the number of bytes of the current block already hashed.
+		private int blockLength = 0;
+
+		/**
+		 * Constructor of the Builder class.
+		 * 
+		 * @param blockSize The size of the blocks, in bytes.
+		 */
+		public Builder(int blockSize) {
+			this.blockSize = blockSize;
+		}
+
+		/**
+		 * Hashes the next piece of the data. The position of the buffer is not changed.
+		 * 
+		 * @param data The buffer with the data, from its position to its limit.
+		 */
+		public void update(ByteBuffer data) {
+			ByteBuffer piece = data.duplicate();
+			while (piece.hasRemaining()) {
+				int length = Math.min(piece.remaining(), blockSize - blockLength);
+				int limit = piece.limit();
+				piece.limit(piece.position() + length);
+				digest.update(piece);
+				piece.limit(limit);
+				blockLength += length;
+				if (blockLength == blockSize) {
+					finishBlock();
+				}
+			}
+		}
+
+		/**
+		 * Returns the index of the data hashed so far.
+		 * 
+		 * @return The BlockIndex of the data.
+		 */
+		public BlockIndex build() {
+			finish();
+			return new BlockIndex(blockSize, takeHashes());
+		}
+
+		/**
+		 * Finishes the last block, when the data ends in the middle of a block.
+		 */
+		public void finish() {
+			if (blockLength > 0) {
+				finishBlock();
+			}
+		}
+
+		/**
+		 * Returns the hashes of the blocks finished since the last call, and removes them from the builder.
+		 * 
+		 * @return The hashes of the blocks, one after the other.
+		 */
+		public byte[] takeHashes() {
+			byte[] taken = Arrays.copyOf(hashes, hashCount * DataMetadata.HASH_LENGTH);
+			hashCount = 0;
+			return taken;
+		}
+
+		/**
+		 * Keeps the hash of the current block, and starts the next one.
+		 */
+		private void finishBlock() {
+			int offset = hashCount * DataMetadata.HASH_LENGTH;
+			if (offset == hashes.length) {
+				hashes = Arrays.copyOf(hashes, Math.max(DataMetadata.HASH_LENGTH * 16, hashes.length * 2));
+			}
+			System.arraycopy(digest.digest(), 0, hashes, offset, DataMetadata.HASH_LENGTH);
+			hashCount++;
+			blockLength = 0;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.assignment.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.assignment.utils.DataEnum;
+
+/**
+ * Interface used to save the data of many sides (of many ids) together.<br/>
+ * Each side is written with its own DataWriter, and committing the writer only adds the
+ * data to the batch. Nothing is visible until the batch is committed, and then the data 
+ * store saves all of them at once (one transaction, one rewrite of each file, or the 
+ * files synchronized together) instead of once per side.<br/>
+ * Closing a batch that was not committed discards everything written.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DataBatch extends Closeable {
+
+	/**
+	 * Opens a writer that adds the data of one side to the batch, when it is committed.<br/>
+	 * When the same side is written twice in the batch, the last data is saved.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The DataWriter, it must be closed by the caller.
+	 * @throws IOException In case the writer cannot be opened.
+	 */
+	DataWriter openWriter(String id, DataEnum side) throws IOException;
+
+	/**
+	 * Saves the data of all the writers committed in the batch, replacing the previous 
+	 * data of these sides.
+	 * 
+	 * @throws IOException In case the data cannot be saved.
+	 */
+	void commit() throws IOException;
+}
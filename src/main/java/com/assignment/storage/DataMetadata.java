@@ -0,0 +1,126 @@
+package com.assignment.storage;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Represents the metadata of one side of the data: its length (in bytes) and the 
+ * SHA-256 hash of its content.<br/>
+ * The metadata is computed by the data stores while the data is saved, so the diff can
+ * know if the sides are equal, or do not have the same length, without reading the data.<br/>
+ * The data stores that keep large data also keep the index of its blocks (BlockIndex),
+ * so only the blocks with differences are compared.<br/>
+ * The hash is not known (null) after a range of the data is written (PATCH), so the sides
+ * are compared by their blocks instead.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class DataMetadata {
+
+	// the algorithm of the hash, and the length of the hash in bytes.
+	public static final String HASH_ALGORITHM = "SHA-256";
+	public static final int HASH_LENGTH = 32;
+
+	private final long length;
+	private final byte[] hash;
+	private final BlockIndex blocks;
+
+	/**
+	 * Constructor of the DataMetadata class.
+	 * 
+	 * @param length The length of the data, in bytes.
+	 * @param hash The SHA-256 hash of the data.
+	 */
+	public DataMetadata(long length, byte[] hash) {
+		this(length, hash, null);
+	}
+
+	/**
+	 * Constructor of the DataMetadata class, with the index of the blocks.
+	 * 
+	 * @param length The length of the data, in bytes.
+	 * @param hash The SHA-256 hash of the data, or null if it is not known.
+	 * @param blocks The index of the blocks of the data, or null.
+	 */
+	public DataMetadata(long length, byte[] hash, BlockIndex blocks) {
+		this.length = length;
+		this.hash = hash;
+		this.blocks = blocks;
+	}
+
+	/**
+	 * Computes the metadata of the data.
+	 * 
+	 * @param data The decoded data.
+	 * @return The DataMetadata of the data.
+	 */
+	public static DataMetadata of(byte[] data) {
+		return new DataMetadata(data.length, newDigest().digest(data));
+	}
+
+	/**
+	 * Computes the metadata of the data, with the index of its blocks.
+	 * 
+	 * @param data The decoded data.
+	 * @param blockSize The size of the blocks, in bytes.
+	 * @return The DataMetadata of the data.
+	 */
+	public static DataMetadata of(byte[] data, int blockSize) {
+		BlockIndex.Builder blocks = new BlockIndex.Builder(blockSize);
+		blocks.update(ByteBuffer.wrap(data));
+		return new DataMetadata(data.length, newDigest().digest(data), blocks.build());
+	}
+
+	/**
+	 * Returns a new digest, used to compute the hash of the data incrementally.
+	 * 
+	 * @return The SHA-256 MessageDigest.
+	 */
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException exc) {
+			// every Java platform must support SHA-256.
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	/**
+	 * Checks if the data described by this metadata and by the other one have the same content.
+	 * 
+	 * @param other The metadata of the other data.
+	 * @return true if the length and the hash are the same, false if a hash is not known.
+	 */
+	public boolean sameContent(DataMetadata other) {
+		return length == other.length && hash != null && Arrays.equals(hash, other.hash);
+	}
+
+	/**
+	 * Returns the length of the data.
+	 * 
+	 * @return The length, in bytes.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the hash of the data.
+	 * 
+	 * @return The SHA-256 hash, or null if it is not known.
+	 */
+	public byte[] getHash() {
+		return hash;
+	}
+
+	/**
+	 * Returns the index of the blocks of the data.
+	 * 
+	 * @return The BlockIndex, or null if the data store does not keep it.
+	 */
+	public BlockIndex getBlocks() {
+		return blocks;
+	}
+}
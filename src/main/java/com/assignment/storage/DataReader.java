@@ -0,0 +1,35 @@
+package com.assignment.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface used to read the data of one side in regions, with 64-bit offsets.<br/>
+ * A ByteBuffer cannot hold more than 2 GB, so large data is read one region (segment)
+ * at a time, and only the region being compared needs to be in memory.<br/>
+ * The reader keeps the data that was saved when it was opened, a later save of the
+ * side does not change what it reads. It must be closed by the caller.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public interface DataReader extends Closeable {
+
+	/**
+	 * Returns the length of the data.
+	 *
+	 * @return The length, in bytes.
+	 */
+	long getLength();
+
+	/**
+	 * Returns a region of the data.<br/>
+	 * The region is read with absolute indexes, from 0 to the limit of the buffer.
+	 *
+	 * @param position The offset of the region in the data.
+	 * @param length The length of the region, the region ends at most at the end of the data.
+	 * @return The read only ByteBuffer with the region.
+	 * @throws IOException In case the region cannot be read.
+	 */
+	ByteBuffer read(long position, int length) throws IOException;
+}
@@ -0,0 +1,117 @@
+package com.assignment.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.assignment.utils.DataEnum;
+
+/**
+ * Interface used to define where the right and left data are stored.<br/>
+ * The data is stored already decoded (raw bytes), each side in its own segment, so
+ * saving one side never rewrites the other side. The data can be saved at once (write)
+ * or incrementally, while it is decoded (openWriter), a range of a side can be written over 
+ * (openRangeWriter), many sides can be saved together (openBatch), and its length and hash are kept as metadata. The data can be read at once 
+ * (read, up to 2 GB) or in regions with 64-bit offsets (openReader).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DataStore {
+
+	/**
+	 * Saves the data of one side, replacing the previous data of this side.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param data The decoded data.
+	 * @throws IOException In case the data cannot be saved.
+	 */
+	void write(String id, DataEnum side, byte[] data) throws IOException;
+
+	/**
+	 * Opens a writer that saves the data of one side incrementally.<br/>
+	 * The previous data of this side is replaced only when the writer is committed.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The DataWriter, it must be closed by the caller.
+	 * @throws IOException In case the writer cannot be opened.
+	 */
+	DataWriter openWriter(String id, DataEnum side) throws IOException;
+
+	/**
+	 * Opens a writer that writes a range of the data of one side, starting at the offset.<br/>
+	 * The bytes written are kept until the writer is committed, then they are written over the
+	 * data of the side. The range must be inside the data, so the length of the side does not change.
+	 * As a save, the range replaces the data: the data already read (or opened with openReader) 
+	 * is not changed.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param offset The offset (in bytes) of the range.
+	 * @return The DataWriter, it must be closed by the caller.
+	 * @throws IOException In case the writer cannot be opened.
+	 */
+	DataWriter openRangeWriter(String id, DataEnum side, long offset) throws IOException;
+
+	/**
+	 * Opens a batch that saves the data of many sides together, when it is committed.
+	 * 
+	 * @return The DataBatch, it must be closed by the caller.
+	 * @throws IOException In case the batch cannot be opened.
+	 */
+	DataBatch openBatch() throws IOException;
+
+	/**
+	 * Returns the data of one side.<br/>
+	 * The data is read with absolute indexes, from 0 to the limit of the buffer.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The read only ByteBuffer with the data, or null if the side was not saved.
+	 * @throws IOException In case the data cannot be read.
+	 */
+	ByteBuffer read(String id, DataEnum side) throws IOException;
+
+	/**
+	 * Opens a reader that reads the data of one side in regions.<br/>
+	 * The data stores that keep the data in files read only the requested regions,
+	 * so the data can be larger than 2 GB.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The DataReader, it must be closed by the caller, or null if the side was not saved.
+	 * @throws IOException In case the data cannot be opened.
+	 */
+	DataReader openReader(String id, DataEnum side) throws IOException;
+
+	/**
+	 * Returns the metadata (length and hash) of the data of one side, without reading the data.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The DataMetadata, or null if the side was not saved or its metadata is not known.
+	 * @throws IOException In case the metadata cannot be read.
+	 */
+	DataMetadata getMetadata(String id, DataEnum side) throws IOException;
+
+	/**
+	 * Returns the version of the data of one side.<br/>
+	 * The version changes every time the data of the side is saved, so it can be used
+	 * to know if a result computed over the data is still valid.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The version of the data, or -1 if the side was not saved.
+	 * @throws IOException In case the version cannot be read.
+	 */
+	long getVersion(String id, DataEnum side) throws IOException;
+
+	/**
+	 * Checks if the data of one side was saved.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return True if the data exists, otherwise false.
+	 */
+	boolean exists(String id, DataEnum side);
+}
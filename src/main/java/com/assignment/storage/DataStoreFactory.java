@@ -0,0 +1,23 @@
+package com.assignment.storage;
+
+import com.assignment.utils.DataStoreEnum;
+
+/**
+ * Interface used to define the factory that gives access to the data stores.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DataStoreFactory {
+
+	/**
+	 * Returns the data store selected in the configuration (storage.type).
+	 * @return
+	 */
+	DataStore getDataStore();
+
+	/**
+	 * Returns the data store of the given type.
+	 * @return
+	 */
+	DataStore getDataStore(DataStoreEnum type);
+}
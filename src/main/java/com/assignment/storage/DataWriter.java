@@ -0,0 +1,42 @@
+package com.assignment.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Interface used to save the data of one side incrementally, without holding the
+ * whole data in memory.<br/>
+ * The previous data of the side is replaced only when the writer is committed.
+ * Closing a writer that was not committed discards everything written.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DataWriter extends Closeable {
+
+	/**
+	 * Appends the remaining bytes of the buffer to the data.
+	 * 
+	 * @param data The buffer with the decoded bytes, it is fully consumed.
+	 * @throws IOException In case the data cannot be written.
+	 */
+	void write(ByteBuffer data) throws IOException;
+
+	/**
+	 * Appends all bytes of the channel to the data, until the end of the channel.<br/>
+	 * The data stores that keep the data in files transfer it without copying it to the heap.
+	 * 
+	 * @param source The channel with the decoded bytes, it is fully consumed.
+	 * @return The number of bytes transferred.
+	 * @throws IOException In case the data cannot be read or written.
+	 */
+	long transferFrom(ReadableByteChannel source) throws IOException;
+
+	/**
+	 * Makes the data written visible, replacing the previous data of the side.
+	 * 
+	 * @throws IOException In case the data cannot be saved.
+	 */
+	void commit() throws IOException;
+}
@@ -0,0 +1,96 @@
+package com.assignment.storage.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Data batch that keeps the data of the committed writers in memory, and saves them
+ * when the batch is committed.<br/>
+ * By default each side is saved with DataStore.write. The data stores that can save 
+ * many sides at once (in one transaction, or in one rewrite of a file) override write(List).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BufferedDataBatch implements DataBatch {
+
+	private DataStore dataStore;
+	// the data of each side, in the order the sides were first written.
+	private Map<String, Record> records = new LinkedHashMap<String, Record>();
+
+	/**
+	 * Constructor of the BufferedDataBatch class.
+	 * 
+	 * @param dataStore The data store where the data is saved on commit.
+	 */
+	public BufferedDataBatch(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	@Override
+	public DataWriter openWriter(String id, DataEnum side) {
+		return new BufferedDataWriter(dataStore, id, side) {
+			@Override
+			protected void save(String id, DataEnum side, byte[] data) {
+				records.put(id + "." + side.name(), new Record(id, side, data));
+			}
+		};
+	}
+
+	@Override
+	public void commit() throws IOException {
+		write(new ArrayList<Record>(records.values()));
+		records.clear();
+	}
+
+	@Override
+	public void close() {
+		records.clear();
+	}
+
+	/**
+	 * Saves the data of the batch.
+	 * 
+	 * @param records The data of each side.
+	 * @throws IOException In case the data cannot be saved.
+	 */
+	protected void write(List<Record> records) throws IOException {
+		for (Record record : records) {
+			dataStore.write(record.getId(), record.getSide(), record.getData());
+		}
+	}
+
+	/**
+	 * The data of one side of the batch.
+	 */
+	public static class Record {
+		private String id;
+		private DataEnum side;
+		private byte[] data;
+
+		Record(String id, DataEnum side, byte[] data) {
+			this.id = id;
+			this.side = side;
+			this.data = data;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public DataEnum getSide() {
+			return side;
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+	}
+}
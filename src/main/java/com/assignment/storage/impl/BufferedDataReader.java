@@ -0,0 +1,45 @@
+package com.assignment.storage.impl;
+
+import java.nio.ByteBuffer;
+
+import com.assignment.storage.DataReader;
+
+/**
+ * Data reader over data already in a buffer (read at once with DataStore.read).<br/>
+ * It is used by the data stores that keep the data in memory or that cannot read
+ * a region of the data, so their data is never larger than a ByteBuffer. The regions
+ * are views of the buffer, the data is not copied.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class BufferedDataReader implements DataReader {
+
+	private ByteBuffer data;
+
+	/**
+	 * Constructor of the BufferedDataReader class.
+	 *
+	 * @param data The buffer with the data, read from 0 to its limit.
+	 */
+	public BufferedDataReader(ByteBuffer data) {
+		this.data = data;
+	}
+
+	@Override
+	public long getLength() {
+		return data.limit();
+	}
+
+	@Override
+	public ByteBuffer read(long position, int length) {
+		ByteBuffer region = data.duplicate();
+		region.limit((int) Math.min(data.limit(), position + length));
+		region.position((int) position);
+		return region.slice().asReadOnlyBuffer();
+	}
+
+	@Override
+	public void close() {
+		// the buffer is released by the garbage collector.
+	}
+}
@@ -0,0 +1,138 @@
+package com.assignment.storage.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.BufferPool;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Data writer that keeps the data in memory until it is committed, then saves it
+ * at once with DataStore.write.<br/>
+ * It is used by the data stores that cannot save the data incrementally.<br/>
+ * The data is kept in direct buffers borrowed from the BufferPool, so the heap does not
+ * hold growing copies of the data, and it is copied to the heap only once, on commit.
+ * The buffers are returned when the writer is closed.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BufferedDataWriter implements DataWriter {
+
+	// size of the buffers that keep the data.
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	private DataStore dataStore;
+	private String id;
+	private DataEnum side;
+	private BufferPool bufferPool;
+	private List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+	private long size = 0;
+
+	/**
+	 * Constructor of the BufferedDataWriter class.
+	 * 
+	 * @param dataStore The data store where the data is saved on commit.
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 */
+	public BufferedDataWriter(DataStore dataStore, String id, DataEnum side) {
+		this(dataStore, id, side, BufferPool.getInstance());
+	}
+
+	/**
+	 * Constructor of the BufferedDataWriter class.
+	 * 
+	 * @param dataStore The data store where the data is saved on commit.
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param bufferPool The pool that lends the buffers of the data.
+	 */
+	public BufferedDataWriter(DataStore dataStore, String id, DataEnum side, BufferPool bufferPool) {
+		this.dataStore = dataStore;
+		this.id = id;
+		this.side = side;
+		this.bufferPool = bufferPool;
+	}
+
+	@Override
+	public void write(ByteBuffer data) {
+		while (data.hasRemaining()) {
+			ByteBuffer chunk = getChunk();
+			int length = Math.min(data.remaining(), chunk.remaining());
+			ByteBuffer piece = data.duplicate();
+			piece.limit(piece.position() + length);
+			chunk.put(piece);
+			data.position(data.position() + length);
+			size += length;
+		}
+	}
+
+	@Override
+	public long transferFrom(ReadableByteChannel source) throws IOException {
+		// the channel is read straight into the buffers of the data.
+		long length = 0;
+		int read;
+		while ((read = source.read(getChunk())) >= 0) {
+			length += read;
+			size += read;
+		}
+		return length;
+	}
+
+	@Override
+	public void commit() throws IOException {
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The data (" + size + " bytes) is too large for this data store");
+		}
+		byte[] data = new byte[(int) size];
+		int offset = 0;
+		for (ByteBuffer chunk : chunks) {
+			ByteBuffer written = chunk.duplicate();
+			written.flip();
+			int length = written.remaining();
+			written.get(data, offset, length);
+			offset += length;
+		}
+		save(id, side, data);
+	}
+
+	/**
+	 * Returns the buffer where the next bytes are written, a new buffer is borrowed 
+	 * when the last one is full.
+	 * 
+	 * @return The ByteBuffer with free space.
+	 */
+	private ByteBuffer getChunk() {
+		ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+		if (chunk == null || !chunk.hasRemaining()) {
+			chunk = bufferPool.acquire(CHUNK_SIZE);
+			chunks.add(chunk);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Saves the data written, when the writer is committed.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param data The data written.
+	 * @throws IOException In case the data cannot be saved.
+	 */
+	protected void save(String id, DataEnum side, byte[] data) throws IOException {
+		dataStore.write(id, side, data);
+	}
+
+	@Override
+	public void close() {
+		for (ByteBuffer chunk : chunks) {
+			bufferPool.release(chunk);
+		}
+		chunks.clear();
+	}
+}
@@ -0,0 +1,52 @@
+package com.assignment.storage.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.assignment.storage.DataStore;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Data writer that keeps a range of the data in memory until it is committed, then writes
+ * it over the data of the side, which is saved again at once with DataStore.write.<br/>
+ * It is used by the data stores that cannot write a range over a copy of a file, they keep
+ * data smaller than 2 GB, read at once.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class BufferedRangeDataWriter extends BufferedDataWriter {
+
+	private DataStore dataStore;
+	private long offset;
+
+	/**
+	 * Constructor of the BufferedRangeDataWriter class.
+	 *
+	 * @param dataStore The data store where the data is saved on commit.
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param offset The offset (in bytes) of the range.
+	 */
+	public BufferedRangeDataWriter(DataStore dataStore, String id, DataEnum side, long offset) {
+		super(dataStore, id, side);
+		this.dataStore = dataStore;
+		this.offset = offset;
+	}
+
+	@Override
+	protected void save(String id, DataEnum side, byte[] range) throws IOException {
+		ByteBuffer data = dataStore.read(id, side);
+		if (data == null) {
+			throw new IOException("There is no " + side + " data for id (" + id + ")");
+		}
+		if (offset < 0 || offset + range.length > data.limit()) {
+			throw new IOException("The range (" + offset + ", " + range.length + ") is not inside the data");
+		}
+		byte[] bytes = new byte[data.limit()];
+		ByteBuffer copy = data.duplicate();
+		copy.position(0);
+		copy.get(bytes);
+		System.arraycopy(range, 0, bytes, (int) offset, range.length);
+		dataStore.write(id, side, bytes);
+	}
+}
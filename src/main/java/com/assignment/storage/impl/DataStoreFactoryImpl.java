@@ -0,0 +1,73 @@
+package com.assignment.storage.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataStoreFactory;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DataStoreEnum;
+
+/**
+ * Concrete class that implements the factory of data stores.<br/>
+ * Each data store is created only once and shared by all the tasks, so the 
+ * in-memory store and the database connections live as long as the application.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class DataStoreFactoryImpl implements DataStoreFactory {
+
+	// configuration key and default value.
+	public static final String TYPE_KEY = "storage.type";
+	public static final String DEFAULT_TYPE = DataStoreEnum.MAPPED_FILE.name();
+
+	// the data stores already created.
+	private static final ConcurrentMap<DataStoreEnum, DataStore> DATA_STORES = new ConcurrentHashMap<DataStoreEnum, DataStore>();
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.storage.impl.DataStoreFactoryImpl");
+
+	@Override
+	public DataStore getDataStore() {
+		String type = new ConfigUtils().getString(TYPE_KEY, DEFAULT_TYPE);
+		try {
+			return getDataStore(DataStoreEnum.fromValue(type));
+		} catch (IllegalArgumentException exc) {
+			log.info("Invalid {} ({}), using {}", TYPE_KEY, type, DEFAULT_TYPE);
+			return getDataStore(DataStoreEnum.fromValue(DEFAULT_TYPE));
+		}
+	}
+
+	@Override
+	public DataStore getDataStore(DataStoreEnum type) {
+		DataStore dataStore = DATA_STORES.get(type);
+		if (dataStore == null) {
+			DATA_STORES.putIfAbsent(type, createDataStore(type));
+			dataStore = DATA_STORES.get(type);
+		}
+		return dataStore;
+	}
+
+	/**
+	 * Creates a new data store of the given type.
+	 * 
+	 * @param type The type of the data store.
+	 * @return The new DataStore instance.
+	 */
+	private DataStore createDataStore(DataStoreEnum type) {
+		log.info("Creating data store ({})", type.name());
+		switch (type) {
+		case MEMORY:
+			return new InMemoryDataStore();
+		case PROPERTIES_FILE:
+			return new PropertiesFileDataStore();
+		case H2:
+			return new H2DataStore();
+		default:
+			return new MappedFileDataStore();
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.assignment.storage.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Data store that keeps the data in an embedded H2 database.<br/>
+ * Each side is a row of the DIFF_DATA table (primary key is id + side), with its metadata
+ * (length and hash) and a version taken from a sequence on each save. The database is located by the storage.h2.url configuration.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class H2DataStore implements DataStore {
+
+	// configuration key and default value.
+	public static final String URL_KEY = "storage.h2.url";
+	public static final String DEFAULT_URL = "jdbc:h2:./data/diffapi";
+
+	// SQL statements.
+	private static final String CREATE_SEQUENCE = "CREATE SEQUENCE IF NOT EXISTS DIFF_DATA_VERSION";
+	private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS DIFF_DATA "
+			+ "(ID VARCHAR(255) NOT NULL, SIDE VARCHAR(5) NOT NULL, DATA BLOB NOT NULL, VERSION BIGINT NOT NULL, "
+			+ "PRIMARY KEY (ID, SIDE))";
+	// the metadata columns, added to the tables created without them.
+	private static final String ADD_LENGTH = "ALTER TABLE DIFF_DATA ADD COLUMN IF NOT EXISTS LENGTH BIGINT";
+	private static final String ADD_HASH = "ALTER TABLE DIFF_DATA ADD COLUMN IF NOT EXISTS HASH BINARY(32)";
+	private static final String MERGE = "MERGE INTO DIFF_DATA (ID, SIDE, DATA, LENGTH, HASH, VERSION) KEY (ID, SIDE) "
+			+ "VALUES (?, ?, ?, ?, ?, NEXT VALUE FOR DIFF_DATA_VERSION)";
+	private static final String SELECT = "SELECT DATA FROM DIFF_DATA WHERE ID = ? AND SIDE = ?";
+	private static final String SELECT_METADATA = "SELECT LENGTH, HASH FROM DIFF_DATA WHERE ID = ? AND SIDE = ?";
+	private static final String SELECT_VERSION = "SELECT VERSION FROM DIFF_DATA WHERE ID = ? AND SIDE = ?";
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.storage.impl.H2DataStore");
+
+	// the pool of connections to the database.
+	private JdbcConnectionPool connectionPool;
+
+	/**
+	 * Constructor of the H2DataStore class, the database url is read from the configuration.
+	 */
+	public H2DataStore() {
+		this(new ConfigUtils().getString(URL_KEY, DEFAULT_URL));
+	}
+
+	/**
+	 * Constructor of the H2DataStore class, it creates the table if it does not exist.
+	 * 
+	 * @param url The JDBC url of the H2 database.
+	 */
+	public H2DataStore(String url) {
+		connectionPool = JdbcConnectionPool.create(url, "", "");
+		try (Connection connection = connectionPool.getConnection();
+				Statement statement = connection.createStatement()) {
+			statement.execute(CREATE_SEQUENCE);
+			statement.execute(CREATE_TABLE);
+			statement.execute(ADD_LENGTH);
+			statement.execute(ADD_HASH);
+		} catch (SQLException exc) {
+			log.debug("Exception creating the DIFF_DATA table: {}", exc.getMessage(), exc);
+		}
+	}
+
+	@Override
+	public void write(String id, DataEnum side, byte[] data) throws IOException {
+		try (Connection connection = connectionPool.getConnection();
+				PreparedStatement statement = connection.prepareStatement(MERGE)) {
+			setParameters(statement, id, side, data);
+			statement.executeUpdate();
+		} catch (SQLException exc) {
+			throw new IOException("Exception saving data of id (" + id + "): " + exc.getMessage(), exc);
+		}
+	}
+
+	@Override
+	public DataWriter openWriter(String id, DataEnum side) {
+		return new BufferedDataWriter(this, id, side);
+	}
+
+	@Override
+	public DataWriter openRangeWriter(String id, DataEnum side, long offset) {
+		return new BufferedRangeDataWriter(this, id, side, offset);
+	}
+
+	@Override
+	public DataBatch openBatch() {
+		// all the sides are saved in one transaction.
+		return new BufferedDataBatch(this) {
+			@Override
+			protected void write(List<Record> records) throws IOException {
+				try (Connection connection = connectionPool.getConnection()) {
+					connection.setAutoCommit(false);
+					try (PreparedStatement statement = connection.prepareStatement(MERGE)) {
+						for (Record record : records) {
+							setParameters(statement, record.getId(), record.getSide(), record.getData());
+							statement.addBatch();
+						}
+						statement.executeBatch();
+						connection.commit();
+					} catch (SQLException exc) {
+						connection.rollback();
+						throw exc;
+					} finally {
+						connection.setAutoCommit(true);
+					}
+				} catch (SQLException exc) {
+					throw new IOException("Exception saving a batch of " + records.size() + " records: " + exc.getMessage(), exc);
+				}
+			}
+		};
+	}
+
+	@Override
+	public ByteBuffer read(String id, DataEnum side) throws IOException {
+		try (Connection connection = connectionPool.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SELECT)) {
+			statement.setString(1, id);
+			statement.setString(2, side.name());
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next() ? ByteBuffer.wrap(resultSet.getBytes(1)) : null;
+			}
+		} catch (SQLException exc) {
+			throw new IOException("Exception loading data of id (" + id + "): " + exc.getMessage(), exc);
+		}
+	}
+
+	@Override
+	public DataReader openReader(String id, DataEnum side) throws IOException {
+		ByteBuffer buffer = read(id, side);
+		return (buffer == null) ? null : new BufferedDataReader(buffer);
+	}
+
+	@Override
+	public DataMetadata getMetadata(String id, DataEnum side) throws IOException {
+		try (Connection connection = connectionPool.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SELECT_METADATA)) {
+			statement.setString(1, id);
+			statement.setString(2, side.name());
+			try (ResultSet resultSet = statement.executeQuery()) {
+				if (!resultSet.next() || resultSet.getBytes(2) == null) {
+					return null;
+				}
+				return new DataMetadata(resultSet.getLong(1), resultSet.getBytes(2));
+			}
+		} catch (SQLException exc) {
+			throw new IOException("Exception loading metadata of id (" + id + "): " + exc.getMessage(), exc);
+		}
+	}
+
+	@Override
+	public long getVersion(String id, DataEnum side) throws IOException {
+		try (Connection connection = connectionPool.getConnection();
+				PreparedStatement statement = connection.prepareStatement(SELECT_VERSION)) {
+			statement.setString(1, id);
+			statement.setString(2, side.name());
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next() ? resultSet.getLong(1) : -1;
+			}
+		} catch (SQLException exc) {
+			throw new IOException("Exception loading version of id (" + id + "): " + exc.getMessage(), exc);
+		}
+	}
+
+	@Override
+	public boolean exists(String id, DataEnum side) {
+		try {
+			return getVersion(id, side) >= 0;
+		} catch (IOException exc) {
+			log.debug("Exception checking data of id ({}): {}", id, exc.getMessage(), exc);
+			return false;
+		}
+	}
+
+	/**
+	 * Sets the parameters of the MERGE statement.
+	 * 
+	 * @param statement The MERGE statement.
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param data The decoded data.
+	 * @throws SQLException In case the parameters cannot be set.
+	 */
+	private void setParameters(PreparedStatement statement, String id, DataEnum side, byte[] data) throws SQLException {
+		DataMetadata metadata = DataMetadata.of(data);
+		statement.setString(1, id);
+		statement.setString(2, side.name());
+		statement.setBytes(3, data);
+		statement.setLong(4, metadata.getLength());
+		statement.setBytes(5, metadata.getHash());
+	}
+}
@@ -0,0 +1,131 @@
+package com.assignment.storage.impl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.assignment.storage.BlockIndex;
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Data store that keeps the data in memory only.<br/>
+ * It is the fastest data store, but the data is lost when the application stops.<br/>
+ * The metadata of each side has the index of its blocks (storage.block.size).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class InMemoryDataStore implements DataStore {
+
+	// the data of each side, the key is {id}.{side}.
+	private ConcurrentMap<String, byte[]> data = new ConcurrentHashMap<String, byte[]>();
+	// the version of each side, it comes from a counter incremented on each save.
+	private ConcurrentMap<String, Long> versions = new ConcurrentHashMap<String, Long>();
+	private AtomicLong nextVersion = new AtomicLong();
+	// the metadata of each side.
+	private ConcurrentMap<String, DataMetadata> metadata = new ConcurrentHashMap<String, DataMetadata>();
+	private int blockSize = new ConfigUtils().getInt(BlockIndex.BLOCK_SIZE_KEY, BlockIndex.DEFAULT_BLOCK_SIZE);
+
+	@Override
+	public void write(String id, DataEnum side, byte[] data) {
+		store(id, side, data.clone());
+	}
+
+	@Override
+	public DataWriter openWriter(String id, DataEnum side) {
+		// the array built by the writer on commit is not used by it anymore, so it is kept without a copy.
+		return new BufferedDataWriter(this, id, side) {
+			@Override
+			protected void save(String id, DataEnum side, byte[] data) {
+				store(id, side, data);
+			}
+		};
+	}
+
+	@Override
+	public DataWriter openRangeWriter(String id, DataEnum side, long offset) {
+		return new BufferedRangeDataWriter(this, id, side, offset);
+	}
+
+	@Override
+	public DataBatch openBatch() {
+		// the arrays of the batch are not used by it after the commit, so they are kept without a copy.
+		return new BufferedDataBatch(this) {
+			@Override
+			protected void write(List<Record> records) {
+				for (Record record : records) {
+					store(record.getId(), record.getSide(), record.getData());
+				}
+			}
+		};
+	}
+
+	/**
+	 * Keeps the data of one side, with its metadata and a new version.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param data The decoded data, it is kept as it is, so it must not be changed by the caller.
+	 */
+	private void store(String id, DataEnum side, byte[] data) {
+		String key = getKey(id, side);
+		metadata.put(key, DataMetadata.of(data, blockSize));
+		this.data.put(key, data);
+		versions.put(key, nextVersion.incrementAndGet());
+	}
+
+	@Override
+	public ByteBuffer read(String id, DataEnum side) {
+		byte[] bytes = data.get(getKey(id, side));
+		return (bytes == null) ? null : ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+	}
+
+	@Override
+	public DataReader openReader(String id, DataEnum side) {
+		ByteBuffer buffer = read(id, side);
+		return (buffer == null) ? null : new BufferedDataReader(buffer);
+	}
+
+	@Override
+	public DataMetadata getMetadata(String id, DataEnum side) {
+		return metadata.get(getKey(id, side));
+	}
+
+	@Override
+	public long getVersion(String id, DataEnum side) {
+		Long version = versions.get(getKey(id, side));
+		return (version == null) ? -1 : version;
+	}
+
+	@Override
+	public boolean exists(String id, DataEnum side) {
+		return data.containsKey(getKey(id, side));
+	}
+
+	/**
+	 * Set the size of the blocks indexed by the next saves.
+	 * 
+	 * @param blockSize The size of the blocks, in bytes.
+	 */
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Returns the key that holds one side of the data.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The key of the map.
+	 */
+	private String getKey(String id, DataEnum side) {
+		return id + "." + side.name();
+	}
+}
@@ -0,0 +1,856 @@
+package com.assignment.storage.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.assignment.storage.BlockIndex;
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Data store that keeps each side in its own binary file ({id}.left and {id}.right),
+ * inside the directory configured by storage.directory.<br/>
+ * The files contain the raw decoded bytes. They are written, incrementally if needed 
+ * (or transferred from a channel with FileChannel.transferFrom), in a temporary file that
+ * replaces the previous one only when committed, and they are read with FileChannel.map,
+ * so the diff works over the mapped buffers without copying the data to the heap. A file 
+ * larger than 2 GB is read with a DataReader, which maps only the region being compared.<br/>
+ * The metadata of each side (length and hash, computed while the data is written) is kept
+ * in a small file ({id}.left.meta and {id}.right.meta), followed by the index of its blocks
+ * (storage.block.size), so the diff reads only the blocks with differences from the mapped files.
+ * The index is written while the data is written, and it is mapped when the metadata is read,
+ * so it is not kept in the heap.
+ * The old metadata file is deleted before the data is replaced, so a failure in the middle 
+ * leaves no metadata instead of a wrong one.<br/>
+ * A range of a side (PATCH) is written over a copy of the data file, which replaces the file
+ * as a save does, so a diff that is reading the previous file is not changed. Only the hashes
+ * of the blocks it touches are computed again, in a copy of the metadata file. The hash of the
+ * whole data is then unknown (all zeros in the metadata file), so the sides are compared by 
+ * their blocks.<br/>
+ * The metadata file also keeps the generation of the data, a counter that grows on each save
+ * and on each range written, which is the version of the side.<br/>
+ * In a batch, the temporary files of all the sides are synchronized before any of them 
+ * replaces the file of its side. The previous files are kept as links ({file}.backup) and
+ * listed in a journal while the sides are published, so a failure in the middle restores all
+ * of them, and a journal found when the store starts (after a crash) is rolled back.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class MappedFileDataStore implements DataStore {
+
+	// configuration key and default value.
+	public static final String DIRECTORY_KEY = "storage.directory";
+	public static final String DEFAULT_DIRECTORY = "data";
+
+	// extension and size of the header of the metadata files (length + hash + block size + generation),
+	// the hashes of the blocks come after the header.
+	private static final String METADATA_EXTENSION = ".meta";
+	private static final int BLOCK_SIZE_POSITION = 8 + DataMetadata.HASH_LENGTH;
+	private static final int GENERATION_POSITION = BLOCK_SIZE_POSITION + 4;
+	private static final int METADATA_SIZE = GENERATION_POSITION + 8;
+	// hash of data that was written by range (PATCH).
+	private static final byte[] UNKNOWN_HASH = new byte[DataMetadata.HASH_LENGTH];
+	// extensions of the journal of a batch being published, and of the previous files it keeps.
+	private static final String JOURNAL_EXTENSION = ".journal";
+	private static final String BACKUP_EXTENSION = ".backup";
+	// prefixes of the files in the journal, if the previous version was kept or the file did not exist.
+	private static final String BACKUP = "+";
+	private static final String NO_BACKUP = "-";
+	// maximum number of bytes transferred (and then hashed) at once from a channel.
+	private static final long TRANSFER_SIZE = 64 * 1024 * 1024;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.storage.impl.MappedFileDataStore");
+
+	// the directory that holds the files, and the size of the indexed blocks.
+	private Path directory;
+	private int blockSize = new ConfigUtils().getInt(BlockIndex.BLOCK_SIZE_KEY, BlockIndex.DEFAULT_BLOCK_SIZE);
+	// the last generation written, it starts from the time so it also grows between restarts.
+	private AtomicLong generations = new AtomicLong(System.currentTimeMillis() * 1000);
+
+	/**
+	 * Constructor of the MappedFileDataStore class, the directory is read from the configuration.
+	 */
+	public MappedFileDataStore() {
+		this(Paths.get(new ConfigUtils().getString(DIRECTORY_KEY, DEFAULT_DIRECTORY)));
+	}
+
+	/**
+	 * Constructor of the MappedFileDataStore class.
+	 * 
+	 * @param directory The directory that holds the files.
+	 */
+	public MappedFileDataStore(Path directory) {
+		this.directory = directory;
+		recover();
+	}
+
+	@Override
+	public void write(String id, DataEnum side, byte[] data) throws IOException {
+		try (DataWriter writer = openWriter(id, side)) {
+			writer.write(ByteBuffer.wrap(data));
+			writer.commit();
+		}
+	}
+
+	@Override
+	public DataWriter openWriter(String id, DataEnum side) throws IOException {
+		Files.createDirectories(directory);
+		return new MappedFileDataWriter(getFile(id, side), null);
+	}
+
+	@Override
+	public DataWriter openRangeWriter(String id, DataEnum side, long offset) throws IOException {
+		Files.createDirectories(directory);
+		return new MappedFileRangeWriter(getFile(id, side), offset);
+	}
+
+	@Override
+	public DataBatch openBatch() throws IOException {
+		Files.createDirectories(directory);
+		return new MappedFileDataBatch();
+	}
+
+	@Override
+	public ByteBuffer read(String id, DataEnum side) throws IOException {
+		Path file = getFile(id, side);
+		if (!Files.exists(file)) {
+			return null;
+		}
+		// the mapping stays valid after the channel is closed.
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("The file (" + file + ") is larger than 2 GB, it must be read in regions");
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	@Override
+	public DataReader openReader(String id, DataEnum side) throws IOException {
+		Path file = getFile(id, side);
+		if (!Files.exists(file)) {
+			return null;
+		}
+		return new MappedFileDataReader(FileChannel.open(file, StandardOpenOption.READ));
+	}
+
+	@Override
+	public DataMetadata getMetadata(String id, DataEnum side) throws IOException {
+		Path file = getFile(id, side);
+		Path metadataFile = getMetadataFile(file);
+		if (!Files.exists(metadataFile) || !Files.exists(file)) {
+			return null;
+		}
+		// only the header is read, the index of the blocks is mapped.
+		try (FileChannel channel = FileChannel.open(metadataFile, StandardOpenOption.READ)) {
+			ByteBuffer buffer = readHeader(channel);
+			if (buffer == null) {
+				return null;
+			}
+			long length = buffer.getLong();
+			byte[] hash = new byte[DataMetadata.HASH_LENGTH];
+			buffer.get(hash);
+			if (Arrays.equals(hash, UNKNOWN_HASH)) {
+				hash = null;
+			}
+			int indexBlockSize = buffer.getInt();
+			if (indexBlockSize <= 0) {
+				return null;
+			}
+			// the metadata must describe the current data file.
+			long blockCount = (length + indexBlockSize - 1) / indexBlockSize;
+			if (length != Files.size(file) || channel.size() != METADATA_SIZE + blockCount * DataMetadata.HASH_LENGTH) {
+				return null;
+			}
+			BlockIndex blocks = BlockIndex.map(indexBlockSize, channel, METADATA_SIZE, blockCount);
+			return new DataMetadata(length, hash, blocks);
+		}
+	}
+
+	@Override
+	public long getVersion(String id, DataEnum side) throws IOException {
+		Path file = getFile(id, side);
+		if (!Files.exists(file)) {
+			return -1;
+		}
+		long generation = readGeneration(file);
+		// without valid metadata the data is not known, so the version is never the same
+		// and no result computed over the data is reused.
+		return (generation >= 0) ? generation : generations.incrementAndGet();
+	}
+
+	@Override
+	public boolean exists(String id, DataEnum side) {
+		return Files.exists(getFile(id, side));
+	}
+
+	/**
+	 * Data writer that writes the data in a temporary file, which replaces the file
+	 * of the side only when the writer is committed (or when its batch is committed).<br/>
+	 * The hashes of the blocks are written to the temporary metadata file while the data 
+	 * is written, so the index of large data is not kept in memory.
+	 */
+	private class MappedFileDataWriter implements DataWriter {
+
+		private Path file;
+		private Path tempFile;
+		private FileChannel channel;
+		private Path tempMetadataFile;
+		private FileChannel metadataChannel;
+		private long size = 0;
+		private long indexLength = 0;
+		private MessageDigest digest = DataMetadata.newDigest();
+		private BlockIndex.Builder blocks = new BlockIndex.Builder(blockSize);
+		private MappedFileDataBatch batch;
+		private boolean staged = false;
+
+		MappedFileDataWriter(Path file, MappedFileDataBatch batch) throws IOException {
+			this.file = file;
+			this.batch = batch;
+			this.tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			this.channel = FileChannel.open(tempFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.tempMetadataFile = Files.createTempFile(directory, getMetadataFile(file).getFileName().toString(), ".tmp");
+			this.metadataChannel = FileChannel.open(tempMetadataFile, StandardOpenOption.WRITE);
+		}
+
+		@Override
+		public void write(ByteBuffer data) throws IOException {
+			long position = size;
+			size += data.remaining();
+			digest.update(data.duplicate());
+			blocks.update(data);
+			writeHashes();
+			while (data.hasRemaining()) {
+				position += channel.write(data, position);
+			}
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel source) throws IOException {
+			long start = size;
+			long transferred;
+			while ((transferred = channel.transferFrom(source, size, TRANSFER_SIZE)) > 0) {
+				// the metadata is computed over the bytes just written (still in the page cache).
+				MappedByteBuffer written = channel.map(FileChannel.MapMode.READ_ONLY, size, transferred);
+				digest.update(written.duplicate());
+				blocks.update(written);
+				writeHashes();
+				size += transferred;
+			}
+			return size - start;
+		}
+
+		@Override
+		public void commit() throws IOException {
+			writeMetadata();
+			if (batch != null) {
+				// the file is synchronized and moved with the other files of the batch.
+				channel.close();
+				staged = true;
+				batch.writers.add(this);
+				return;
+			}
+			channel.force(true);
+			channel.close();
+			publish();
+		}
+
+		/**
+		 * Writes the hashes of the blocks finished so far in the temporary metadata file, after the header.
+		 * 
+		 * @throws IOException In case the hashes cannot be written.
+		 */
+		private void writeHashes() throws IOException {
+			ByteBuffer hashes = ByteBuffer.wrap(blocks.takeHashes());
+			writeFully(metadataChannel, hashes, METADATA_SIZE + indexLength);
+			indexLength += hashes.capacity();
+		}
+
+		/**
+		 * Writes the hash of the last block, and the header (length, hash, block size and
+		 * the generation after the one of the current data) in the temporary metadata file.
+		 * 
+		 * @throws IOException In case the metadata cannot be written.
+		 */
+		private void writeMetadata() throws IOException {
+			blocks.finish();
+			writeHashes();
+			ByteBuffer header = ByteBuffer.allocate(METADATA_SIZE);
+			header.putLong(size).put(digest.digest()).putInt(blockSize)
+					.putLong(nextGeneration(readGeneration(file))).flip();
+			writeFully(metadataChannel, header, 0);
+			metadataChannel.close();
+		}
+
+		/**
+		 * Replaces the file of the side (and its metadata file) with the temporary files,
+		 * the data must be already synchronized.
+		 * 
+		 * @throws IOException In case the files cannot be moved.
+		 */
+		void publish() throws IOException {
+			log.info("Writing {} bytes to file ({})", size, file.toAbsolutePath());
+			// the old metadata is deleted before the data is replaced, and the new one is moved after it.
+			Path metadataFile = getMetadataFile(file);
+			try {
+				Files.deleteIfExists(metadataFile);
+				// the previous data is replaced only when the new data is complete.
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				Files.move(tempMetadataFile, metadataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tempMetadataFile);
+			}
+		}
+
+		/**
+		 * Discards the temporary files.
+		 * 
+		 * @throws IOException In case the files cannot be deleted.
+		 */
+		void discard() throws IOException {
+			channel.close();
+			metadataChannel.close();
+			Files.deleteIfExists(tempFile);
+			Files.deleteIfExists(tempMetadataFile);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (staged) {
+				// the temporary file belongs to the batch now.
+				return;
+			}
+			discard();
+		}
+	}
+
+	/**
+	 * Data writer that keeps a range in a temporary file, and on commit writes a copy of the
+	 * file of the side with the range over it, starting at the offset, which replaces the file.<br/>
+	 * The metadata file is copied too, the hashes of the blocks touched by the range are computed
+	 * again from the new data file, and the hash of the whole data is written as unknown. So the
+	 * readers already open (and the mapped index) keep the data they were opened with.
+	 */
+	private class MappedFileRangeWriter implements DataWriter {
+
+		private Path file;
+		private long offset;
+		private Path tempFile;
+		private FileChannel channel;
+		private long size = 0;
+
+		MappedFileRangeWriter(Path file, long offset) throws IOException {
+			this.file = file;
+			this.offset = offset;
+			this.tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			this.channel = FileChannel.open(tempFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+
+		@Override
+		public void write(ByteBuffer data) throws IOException {
+			while (data.hasRemaining()) {
+				size += channel.write(data, size);
+			}
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel source) throws IOException {
+			long start = size;
+			long transferred;
+			while ((transferred = channel.transferFrom(source, size, TRANSFER_SIZE)) > 0) {
+				size += transferred;
+			}
+			return size - start;
+		}
+
+		@Override
+		public void commit() throws IOException {
+			if (!Files.exists(file)) {
+				throw new IOException("The file (" + file + ") does not exist");
+			}
+			Path dataFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			Path metadataFile = getMetadataFile(file);
+			Path tempMetadataFile = Files.createTempFile(directory, metadataFile.getFileName().toString(), ".tmp");
+			try {
+				long length;
+				try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+						FileChannel target = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+					length = source.size();
+					if (offset < 0 || offset + size > length) {
+						throw new IOException("The range (" + offset + ", " + size + ") is not inside the data");
+					}
+					log.info("Writing {} bytes at offset {} of a copy of file ({})", size, offset, file.toAbsolutePath());
+					transfer(source, 0, length, target, 0);
+					transfer(channel, 0, size, target, offset);
+					target.force(false);
+				}
+				boolean hasMetadata = copyMetadata(metadataFile, tempMetadataFile, length);
+				if (hasMetadata) {
+					try (FileChannel metadata = FileChannel.open(tempMetadataFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+							FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+						updateMetadata(metadata, data, length);
+					}
+				}
+				// the old metadata is deleted before the data is replaced, and the new one is moved after it.
+				Files.deleteIfExists(metadataFile);
+				Files.move(dataFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				if (hasMetadata) {
+					Files.move(tempMetadataFile, metadataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+			} finally {
+				Files.deleteIfExists(dataFile);
+				Files.deleteIfExists(tempMetadataFile);
+			}
+		}
+
+		/**
+		 * Copies the metadata file of the side, if it describes the data file.
+		 * 
+		 * @param metadataFile The metadata file.
+		 * @param copy The file where the metadata is copied.
+		 * @param length The length of the data file.
+		 * @return true if the metadata was copied, false if it does not exist or it is not valid
+		 * (the data is then compared without it).
+		 * @throws IOException In case the metadata file cannot be copied.
+		 */
+		private boolean copyMetadata(Path metadataFile, Path copy, long length) throws IOException {
+			if (!Files.exists(metadataFile)) {
+				return false;
+			}
+			try (FileChannel metadata = FileChannel.open(metadataFile, StandardOpenOption.READ)) {
+				ByteBuffer header = readHeader(metadata);
+				int indexBlockSize = (header != null) ? header.getInt(BLOCK_SIZE_POSITION) : 0;
+				long blockCount = (indexBlockSize > 0) ? (length + indexBlockSize - 1) / indexBlockSize : -1;
+				long metadataSize = METADATA_SIZE + blockCount * DataMetadata.HASH_LENGTH;
+				if (header == null || header.getLong(0) != length || metadata.size() != metadataSize) {
+					return false;
+				}
+				try (FileChannel target = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+					transfer(metadata, 0, metadataSize, target, 0);
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Computes again the hashes of the blocks touched by the range, and writes them in the
+		 * metadata file, then writes the header with the length, the unknown hash and the next generation.
+		 * 
+		 * @param metadata The channel of the copy of the metadata file.
+		 * @param data The channel of the copy of the data file, with the range already written.
+		 * @param length The length of the data.
+		 * @throws IOException In case the data cannot be read, or the metadata cannot be written.
+		 */
+		private void updateMetadata(FileChannel metadata, FileChannel data, long length) throws IOException {
+			ByteBuffer previous = readHeader(metadata);
+			if (previous == null) {
+				throw new IOException("The metadata of file (" + file + ") cannot be read");
+			}
+			int indexBlockSize = previous.getInt(BLOCK_SIZE_POSITION);
+			if (size > 0) {
+				MessageDigest digest = DataMetadata.newDigest();
+				for (long block = offset / indexBlockSize; block <= (offset + size - 1) / indexBlockSize; block++) {
+					long start = block * indexBlockSize;
+					digest.update(data.map(FileChannel.MapMode.READ_ONLY, start, Math.min(indexBlockSize, length - start)));
+					writeFully(metadata, ByteBuffer.wrap(digest.digest()), METADATA_SIZE + block * DataMetadata.HASH_LENGTH);
+				}
+			}
+			ByteBuffer header = ByteBuffer.allocate(METADATA_SIZE);
+			header.putLong(length).put(UNKNOWN_HASH).putInt(indexBlockSize)
+					.putLong(nextGeneration(previous.getLong(GENERATION_POSITION))).flip();
+			writeFully(metadata, header, 0);
+			metadata.force(false);
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Data reader that maps one region of the file at a time.<br/>
+	 * The channel is opened when the reader is opened, and a save replaces the file
+	 * (it does not write over it), so the reader keeps reading the data it was opened with.
+	 * A range (PATCH) replaces the file too, with a copy that has the range written over it.
+	 */
+	private class MappedFileDataReader implements DataReader {
+
+		private FileChannel channel;
+		private long length;
+
+		MappedFileDataReader(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.length = channel.size();
+		}
+
+		@Override
+		public long getLength() {
+			return length;
+		}
+
+		@Override
+		public ByteBuffer read(long position, int length) throws IOException {
+			return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(length, this.length - position));
+		}
+
+		@Override
+		public void close() throws IOException {
+			// the regions already mapped stay valid after the channel is closed.
+			channel.close();
+		}
+	}
+
+	/**
+	 * Data batch that keeps the temporary files of the committed writers, and on commit 
+	 * synchronizes all of them, one after the other, before any of them replaces the file 
+	 * of its side. So the disk is synchronized for the whole batch instead of once between 
+	 * the writes of each side.
+	 */
+	private class MappedFileDataBatch implements DataBatch {
+
+		private List<MappedFileDataWriter> writers = new ArrayList<MappedFileDataWriter>();
+
+		@Override
+		public DataWriter openWriter(String id, DataEnum side) throws IOException {
+			return new MappedFileDataWriter(getFile(id, side), this);
+		}
+
+		@Override
+		public void commit() throws IOException {
+			for (MappedFileDataWriter writer : writers) {
+				try (FileChannel channel = FileChannel.open(writer.tempFile, StandardOpenOption.WRITE)) {
+					channel.force(true);
+				}
+			}
+			// the previous files are kept until all the sides are published, and the journal lists
+			// them, so a failure in the middle (or a restart after a crash) restores all of them.
+			List<Path> files = new ArrayList<Path>();
+			List<String> entries = new ArrayList<String>();
+			Path journal;
+			try {
+				for (MappedFileDataWriter writer : writers) {
+					if (!files.contains(writer.file)) {
+						Path metadataFile = getMetadataFile(writer.file);
+						files.add(writer.file);
+						entries.add(backup(writer.file) + writer.file.getFileName());
+						entries.add(backup(metadataFile) + metadataFile.getFileName());
+					}
+				}
+				journal = writeJournal(entries);
+			} catch (IOException | RuntimeException exc) {
+				// nothing was published, only the backups are deleted.
+				try {
+					deleteBackups(entries);
+				} catch (IOException deleteExc) {
+					exc.addSuppressed(deleteExc);
+				}
+				throw exc;
+			}
+			try {
+				for (MappedFileDataWriter writer : writers) {
+					writer.publish();
+				}
+			} catch (IOException | RuntimeException exc) {
+				log.info("Rolling back the batch of journal ({}): {}", journal.toAbsolutePath(), exc.getMessage());
+				try {
+					rollback(entries);
+					Files.delete(journal);
+				} catch (IOException rollbackExc) {
+					// the journal is kept, and the batch is rolled back again on the next start.
+					exc.addSuppressed(rollbackExc);
+				}
+				throw exc;
+			}
+			// the batch is published once the journal is deleted.
+			Files.delete(journal);
+			deleteBackups(entries);
+			writers.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			for (MappedFileDataWriter writer : writers) {
+				writer.discard();
+			}
+			writers.clear();
+		}
+	}
+
+	/**
+	 * Set the size of the blocks indexed by the next saves.
+	 * 
+	 * @param blockSize The size of the blocks, in bytes.
+	 */
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Returns the file that holds one side of the data.
+	 * 
+	 * @param id The id of the operation.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The Path of the file.
+	 */
+	private Path getFile(String id, DataEnum side) {
+		return directory.resolve(id + "." + side.name().toLowerCase());
+	}
+
+	/**
+	 * Keeps the previous version of a file, as a link to it, until the batch is published.
+	 * 
+	 * @param file The file of the data, or its metadata file.
+	 * @return The prefix of the file in the journal, BACKUP or NO_BACKUP when the file does not exist.
+	 * @throws IOException In case the link cannot be created.
+	 */
+	private String backup(Path file) throws IOException {
+		Path backup = getBackupFile(file);
+		Files.deleteIfExists(backup);
+		if (!Files.isRegularFile(file)) {
+			return NO_BACKUP;
+		}
+		// the link does not copy the data, and the file is still read while the batch is published.
+		Files.createLink(backup, file);
+		return BACKUP;
+	}
+
+	/**
+	 * Writes the journal of a batch, with the names of the files it replaces.
+	 * 
+	 * @param entries The names of the files, each one after its prefix (BACKUP or NO_BACKUP).
+	 * @return The Path of the journal.
+	 * @throws IOException In case the journal cannot be written.
+	 */
+	private Path writeJournal(List<String> entries) throws IOException {
+		Path journal = Files.createTempFile(directory, "batch", JOURNAL_EXTENSION);
+		Files.write(journal, entries, StandardCharsets.UTF_8);
+		try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		return journal;
+	}
+
+	/**
+	 * Restores the previous version of the files replaced by a batch, the files that did not 
+	 * exist before the batch are deleted. A file whose backup was already restored is kept, so
+	 * a batch can be rolled back again after a failure in the middle of the rollback.<br/>
+	 * Every file is restored even when one of them fails, then the first failure is thrown.
+	 * 
+	 * @param entries The names of the files, each one after its prefix (BACKUP or NO_BACKUP).
+	 * @throws IOException In case a file cannot be restored.
+	 */
+	private void rollback(List<String> entries) throws IOException {
+		IOException failure = null;
+		// the new metadata is deleted first, so it never describes the previous data, and it is
+		// restored after the data.
+		for (int step = 0; step < 3; step++) {
+			for (String entry : entries) {
+				Path file = directory.resolve(entry.substring(1));
+				boolean metadata = entry.endsWith(METADATA_EXTENSION);
+				boolean backedUp = entry.startsWith(BACKUP);
+				try {
+					if (step == 0 && metadata && (!backedUp || Files.exists(getBackupFile(file)))) {
+						Files.deleteIfExists(file);
+					} else if ((step == 1 && !metadata) || (step == 2 && metadata)) {
+						restore(file, backedUp);
+					}
+				} catch (IOException exc) {
+					if (failure == null) {
+						failure = exc;
+					}
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Replaces a file by its backup, or deletes it when it did not exist before the batch.
+	 * 
+	 * @param file The file of the data, or its metadata file.
+	 * @param backedUp If the file existed before the batch.
+	 * @throws IOException In case the file cannot be restored.
+	 */
+	private void restore(Path file, boolean backedUp) throws IOException {
+		Path backup = getBackupFile(file);
+		if (!backedUp) {
+			Files.deleteIfExists(file);
+		} else if (Files.exists(backup)) {
+			Files.move(backup, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+	}
+
+	/**
+	 * Deletes the backups of the files of a batch.
+	 * 
+	 * @param entries The names of the files, each one after its prefix (BACKUP or NO_BACKUP).
+	 * @throws IOException In case a backup cannot be deleted.
+	 */
+	private void deleteBackups(List<String> entries) throws IOException {
+		for (String entry : entries) {
+			Files.deleteIfExists(getBackupFile(directory.resolve(entry.substring(1))));
+		}
+	}
+
+	/**
+	 * Rolls back the batches that were being published when the application stopped, and 
+	 * deletes the backups of the batches that were published.
+	 */
+	private void recover() {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try {
+			try (DirectoryStream<Path> journals = Files.newDirectoryStream(directory, "*" + JOURNAL_EXTENSION)) {
+				for (Path journal : journals) {
+					log.info("Rolling back the batch of journal ({})", journal.toAbsolutePath());
+					rollback(Files.readAllLines(journal, StandardCharsets.UTF_8));
+					Files.delete(journal);
+				}
+			}
+			try (DirectoryStream<Path> backups = Files.newDirectoryStream(directory, "*" + BACKUP_EXTENSION)) {
+				for (Path backup : backups) {
+					Files.delete(backup);
+				}
+			}
+		} catch (IOException exc) {
+			log.info("The batches in directory ({}) cannot be rolled back: {}", directory.toAbsolutePath(), exc.getMessage());
+			log.debug("Exception rolling back the batches", exc);
+		}
+	}
+
+	/**
+	 * Reads the generation of the data file from its metadata file.<br/>
+	 * The generation changes every time the data is saved, or a range of it is written.
+	 * 
+	 * @param file The file of the data.
+	 * @return The generation, or -1 if the metadata file does not exist or does not describe the data file.
+	 * @throws IOException In case the metadata file cannot be read.
+	 */
+	private long readGeneration(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(getMetadataFile(file), StandardOpenOption.READ)) {
+			ByteBuffer header = readHeader(channel);
+			if (header == null || header.getLong(0) != Files.size(file)) {
+				return -1;
+			}
+			return header.getLong(GENERATION_POSITION);
+		} catch (NoSuchFileException exc) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns a generation larger than the previous one, and than any generation returned before.
+	 * 
+	 * @param previous The generation of the current data, or -1.
+	 * @return The next generation.
+	 */
+	private long nextGeneration(long previous) {
+		long current;
+		long generation;
+		do {
+			current = generations.get();
+			generation = Math.max(current, previous) + 1;
+		} while (!generations.compareAndSet(current, generation));
+		return generation;
+	}
+
+	/**
+	 * Reads the header of a metadata file.
+	 * 
+	 * @param channel The channel of the metadata file.
+	 * @return The ByteBuffer with the header (absolute positions), or null if the file is shorter than the header.
+	 * @throws IOException In case the file cannot be read.
+	 */
+	private ByteBuffer readHeader(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(METADATA_SIZE);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				return null;
+			}
+		}
+		header.flip();
+		return header;
+	}
+
+	/**
+	 * Transfers a region of a channel to another channel, at a position.
+	 * 
+	 * @param source The channel read.
+	 * @param position The position of the region in the source.
+	 * @param count The number of bytes of the region.
+	 * @param target The channel written.
+	 * @param targetPosition The position where the region is written in the target.
+	 * @throws IOException In case the region cannot be transferred.
+	 */
+	private void transfer(FileChannel source, long position, long count, FileChannel target, long targetPosition) throws IOException {
+		target.position(targetPosition);
+		long transferred = 0;
+		while (transferred < count) {
+			transferred += source.transferTo(position + transferred, count - transferred, target);
+		}
+	}
+
+	/**
+	 * Writes the whole buffer in the channel, starting at the position.
+	 * 
+	 * @param channel The channel.
+	 * @param buffer The buffer, from its position to its limit.
+	 * @param position The position in the channel.
+	 * @throws IOException In case the buffer cannot be written.
+	 */
+	private void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Returns the file that holds the metadata of one side of the data.
+	 * 
+	 * @param file The file of the data.
+	 * @return The Path of the metadata file.
+	 */
+	private Path getMetadataFile(Path file) {
+		return file.resolveSibling(file.getFileName() + METADATA_EXTENSION);
+	}
+
+	/**
+	 * Returns the file that keeps the previous version of a file while a batch is published.
+	 * 
+	 * @param file The file of the data, or its metadata file.
+	 * @return The Path of the backup file.
+	 */
+	private Path getBackupFile(Path file) {
+		return file.resolveSibling(file.getFileName() + BACKUP_EXTENSION);
+	}
+}
@@ -0,0 +1,268 @@
+package com.assignment.storage.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Data store that keeps both sides in a properties file named with the id.<br/>
+ * The data is kept Base64 encoded, and the whole file is rewritten on each save.
+ * This is the original file format of the application.<br/>
+ * The metadata of each side ({side}_LENGTH and {side}_HASH), and its version ({side}_VERSION, 
+ * a counter that grows on each save of the side), are kept in a small properties file with the
+ * same name in the .meta directory, so they are read without loading the data of both sides.
+ * The metadata file is deleted before the data is saved, and written after it, so a failure
+ * in the middle leaves no metadata (the data is then compared) instead of a wrong one.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class PropertiesFileDataStore implements DataStore {
+
+	// suffixes of the metadata properties.
+	private static final String LENGTH_SUFFIX = "_LENGTH";
+	private static final String HASH_SUFFIX = "_HASH";
+	private static final String VERSION_SUFFIX = "_VERSION";
+	// directory of the metadata files.
+	private static final String METADATA_DIRECTORY = ".meta";
+
+	private Utils utils = new Utils();
+	// the last version written, it starts from the time so it also grows between restarts.
+	private AtomicLong versions = new AtomicLong(System.currentTimeMillis() * 1000);
+
+	@Override
+	public void write(String id, DataEnum side, byte[] data) throws IOException {
+		Properties properties = loadProperties(id);
+		Properties metadata = loadMetadataForUpdate(id);
+		setData(properties, metadata, side, data);
+		saveProperties(id, properties, metadata);
+	}
+
+	@Override
+	public DataWriter openWriter(String id, DataEnum side) {
+		return new BufferedDataWriter(this, id, side);
+	}
+
+	@Override
+	public DataWriter openRangeWriter(String id, DataEnum side, long offset) {
+		return new BufferedRangeDataWriter(this, id, side, offset);
+	}
+
+	@Override
+	public DataBatch openBatch() {
+		// the sides of the same id are saved with one rewrite of its file.
+		return new BufferedDataBatch(this) {
+			@Override
+			protected void write(List<Record> records) throws IOException {
+				Map<String, Properties> files = new LinkedHashMap<String, Properties>();
+				Map<String, Properties> metadataFiles = new LinkedHashMap<String, Properties>();
+				for (Record record : records) {
+					Properties properties = files.get(record.getId());
+					if (properties == null) {
+						properties = loadProperties(record.getId());
+						files.put(record.getId(), properties);
+						metadataFiles.put(record.getId(), loadMetadataForUpdate(record.getId()));
+					}
+					setData(properties, metadataFiles.get(record.getId()), record.getSide(), record.getData());
+				}
+				for (Map.Entry<String, Properties> file : files.entrySet()) {
+					saveProperties(file.getKey(), file.getValue(), metadataFiles.get(file.getKey()));
+				}
+			}
+		};
+	}
+
+	@Override
+	public ByteBuffer read(String id, DataEnum side) throws IOException {
+		if (!utils.fileExists(id)) {
+			return null;
+		}
+		String value = utils.getData(id, side);
+		if (value == null) {
+			throw new IOException("Properties file (" + id + ") cannot be loaded");
+		}
+		return ByteBuffer.wrap(utils.decodeBase64(value));
+	}
+
+	@Override
+	public DataReader openReader(String id, DataEnum side) throws IOException {
+		ByteBuffer buffer = read(id, side);
+		return (buffer == null) ? null : new BufferedDataReader(buffer);
+	}
+
+	@Override
+	public DataMetadata getMetadata(String id, DataEnum side) throws IOException {
+		if (!utils.fileExists(id)) {
+			return null;
+		}
+		// only the metadata file is read, the data of both sides is not loaded.
+		Properties metadata = loadMetadata(id);
+		String length = (metadata != null) ? metadata.getProperty(side.name() + LENGTH_SUFFIX) : null;
+		String hash = (metadata != null) ? metadata.getProperty(side.name() + HASH_SUFFIX) : null;
+		if (length == null || hash == null) {
+			return null;
+		}
+		return new DataMetadata(Long.parseLong(length), utils.decodeBase64(hash));
+	}
+
+	@Override
+	public long getVersion(String id, DataEnum side) throws IOException {
+		if (!utils.fileExists(id)) {
+			return -1;
+		}
+		Properties metadata = loadMetadata(id);
+		String version = (metadata != null) ? metadata.getProperty(side.name() + VERSION_SUFFIX) : null;
+		// a file without metadata is not known, so the version is never the same
+		// and no result computed over the data is reused.
+		return (version != null) ? Long.parseLong(version) : versions.incrementAndGet();
+	}
+
+	@Override
+	public boolean exists(String id, DataEnum side) {
+		return utils.fileExists(id);
+	}
+
+	/**
+	 * Loads the properties file of an id, or creates it if it does not exist.
+	 * 
+	 * @param id The id of the operation.
+	 * @return The Properties of the file.
+	 * @throws IOException In case the file cannot be loaded.
+	 */
+	private Properties loadProperties(String id) throws IOException {
+		// check if file exists, if does not, create one
+		Properties properties = utils.fileExists(id) ? utils.loadPropertiesFile(id) : utils.createPropertiesFile(id);
+		if (properties == null) {
+			throw new IOException("Properties file (" + id + ") cannot be loaded");
+		}
+		return properties;
+	}
+
+	/**
+	 * Loads the metadata file of an id.
+	 * 
+	 * @param id The id of the operation.
+	 * @return The Properties of the metadata file, or null if it does not exist.
+	 * @throws IOException In case the file cannot be loaded.
+	 */
+	private Properties loadMetadata(String id) throws IOException {
+		File file = getMetadataFile(id);
+		if (!file.exists()) {
+			return null;
+		}
+		Properties metadata = utils.loadPropertiesFile(file.getPath());
+		if (metadata == null) {
+			throw new IOException("Metadata file (" + id + ") cannot be loaded");
+		}
+		return metadata;
+	}
+
+	/**
+	 * Loads the metadata file of an id to be updated, or creates new metadata if it does not 
+	 * exist, or if the data file does not exist.
+	 * 
+	 * @param id The id of the operation.
+	 * @return The Properties of the metadata.
+	 * @throws IOException In case the file cannot be loaded.
+	 */
+	private Properties loadMetadataForUpdate(String id) throws IOException {
+		Properties metadata = utils.fileExists(id) ? loadMetadata(id) : null;
+		return (metadata != null) ? metadata : new Properties();
+	}
+
+	/**
+	 * Sets the data of one side in the properties, and its metadata in the metadata properties.
+	 * 
+	 * @param properties The Properties of the file.
+	 * @param metadata The Properties of the metadata file.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param data The decoded data.
+	 */
+	private void setData(Properties properties, Properties metadata, DataEnum side, byte[] data) {
+		DataMetadata dataMetadata = DataMetadata.of(data);
+		properties.setProperty(side.name(), utils.encodeBase64(data));
+		// the metadata of the previous format is not kept in the data file.
+		properties.remove(side.name() + LENGTH_SUFFIX);
+		properties.remove(side.name() + HASH_SUFFIX);
+		metadata.setProperty(side.name() + LENGTH_SUFFIX, String.valueOf(dataMetadata.getLength()));
+		metadata.setProperty(side.name() + HASH_SUFFIX, utils.encodeBase64(dataMetadata.getHash()));
+		String previous = metadata.getProperty(side.name() + VERSION_SUFFIX);
+		long version = nextVersion((previous != null) ? Long.parseLong(previous) : -1);
+		metadata.setProperty(side.name() + VERSION_SUFFIX, String.valueOf(version));
+	}
+
+	/**
+	 * Returns a version larger than the previous one, and than any version returned before.
+	 * 
+	 * @param previous The version of the current data, or -1.
+	 * @return The next version.
+	 */
+	private long nextVersion(long previous) {
+		long current;
+		long version;
+		do {
+			current = versions.get();
+			version = Math.max(current, previous) + 1;
+		} while (!versions.compareAndSet(current, version));
+		return version;
+	}
+
+	/**
+	 * Rewrites the properties file of an id, and then its metadata file.
+	 * 
+	 * @param id The id of the operation.
+	 * @param properties The Properties of the file.
+	 * @param metadata The Properties of the metadata file.
+	 * @throws IOException In case the files cannot be saved.
+	 */
+	private void saveProperties(String id, Properties properties, Properties metadata) throws IOException {
+		// the side not saved yet (empty) gets its version too, so it does not change until it is saved.
+		for (DataEnum side : DataEnum.values()) {
+			if (metadata.getProperty(side.name() + VERSION_SUFFIX) == null) {
+				metadata.setProperty(side.name() + VERSION_SUFFIX, String.valueOf(nextVersion(-1)));
+			}
+		}
+		File metadataFile = getMetadataFile(id);
+		if (metadataFile.exists() && !metadataFile.delete()) {
+			throw new IOException("Metadata file (" + id + ") cannot be deleted");
+		}
+		if (utils.savePropertiesFile(id, properties) == null) {
+			throw new IOException("Properties file (" + id + ") cannot be saved");
+		}
+		metadataFile.getParentFile().mkdirs();
+		if (utils.savePropertiesFile(metadataFile.getPath(), metadata) == null) {
+			throw new IOException("Metadata file (" + id + ") cannot be saved");
+		}
+	}
+
+	/**
+	 * Returns the metadata file of an id.
+	 * 
+	 * @param id The id of the operation.
+	 * @return The File of the metadata.
+	 */
+	private File getMetadataFile(String id) {
+		return new File(METADATA_DIRECTORY, id);
+	}
+
+	/**
+	 * Set the Utils instance to be used in this class.
+	 * 
+	 * @param utils An instance of the Utils class.
+	 */
+	public void setUtils(Utils utils) {
+		this.utils = utils;
+	}
+}
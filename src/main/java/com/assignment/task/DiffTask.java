@@ -0,0 +1,20 @@
+package com.assignment.task;
+
+import com.assignment.diff.DiffResult;
+
+/**
+ * Interface used as an abstraction of the diff tasks, whose result is returned as it is
+ * kept by the diff (DiffResult), so it is written by the encoder of the format of the 
+ * response instead of being built as a JSONObject.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface DiffTask extends Task {
+	/**
+	 * Executes the diff and returns its result.
+	 * 
+	 * @return The DiffResult, or null in case of failure.
+	 */
+	DiffResult executeDiff();
+
+}
@@ -0,0 +1,19 @@
+package com.assignment.task;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Interface used as an abstraction of tasks whose result is written directly to 
+ * the response, while it is produced, instead of being returned as a JSONObject.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface StreamingTask {
+	/**
+	 * Prepares the task and returns the output that writes the result.
+	 * 
+	 * @return The StreamingOutput that writes the result, or null in case of failure.
+	 */
+	StreamingOutput executeStreamingTask();
+
+}
@@ -1,5 +1,12 @@
 package com.assignment.task;
 
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
+
 /**
  * Interface used to define the factory that creates new tasks.
  * 
@@ -11,10 +18,87 @@ public interface TaskFactory {
 	 * @return
 	 */
 	Task createSaveDataTask(String id, String key, String value);
+
+	/**
+	 * Creates the task that saves the data, read from a stream, in the data store.
+	 * @return
+	 */
+	Task createSaveDataTask(String id, String key, InputStream inputStream);
+
+	/**
+	 * Creates the task that saves the raw data, read from a channel, in the data store.
+	 * @return
+	 */
+	Task createSaveDataTask(String id, String key, ReadableByteChannel channel);
+
+	/**
+	 * Creates the task that saves the data of many ids and sides, read from a stream, in the data store.
+	 * @return
+	 */
+	Task createBatchUploadTask(InputStream inputStream);
+
+	/**
+	 * Creates the task that writes one side of the data, as raw bytes, to the user.
+	 * @return
+	 */
+	StreamingTask createGetDataTask(String id, DataEnum side);
+
+	/**
+	 * Creates the task that updates a range of one side of the data, read from a stream.
+	 * @return
+	 */
+	Task createPatchDataTask(String id, DataEnum side, long offset, InputStream inputStream);
+
+	/**
+	 * Creates the task that writes one chunk, read from a stream, of an upload session.
+	 * @return
+	 */
+	Task createUploadChunkTask(String uploadId, int chunk, InputStream inputStream);
+
+	/**
+	 * Creates the task that saves the data of an upload session in the data store.
+	 * @return
+	 */
+	Task createCommitUploadTask(String uploadId);
 	
 	/**
 	 * Creates the task that executes the diff and return to the user.
 	 * @return
 	 */
-	Task createGetDiffTask(String id);
+	DiffTask createGetDiffTask(String id);
+
+	/**
+	 * Creates the task that executes the diff, in the given mode, and return to the user.
+	 * @return
+	 */
+	DiffTask createGetDiffTask(String id, DiffModeEnum mode);
+
+	/**
+	 * Creates the task that executes the diff, in the given mode, limited to the [from, to)
+	 * window and to a number of differences, and return to the user.
+	 * @return
+	 */
+	DiffTask createGetDiffTask(String id, DiffModeEnum mode, long from, long to, int limit);
+
+	/**
+	 * Creates the task that executes the diff, in the given mode, and writes the result
+	 * to the user while the differences are found.
+	 * @return
+	 */
+	StreamingTask createStreamingDiffTask(String id, DiffModeEnum mode);
+
+	/**
+	 * Creates the task that executes the diff, in the given mode, limited to the [from, to)
+	 * window and to a number of differences, and writes the result to the user while the 
+	 * differences are found.
+	 * @return
+	 */
+	StreamingTask createStreamingDiffTask(String id, DiffModeEnum mode, long from, long to, int limit);
+
+	/**
+	 * Creates the task that executes the diffs of many ids, in the given mode, and writes 
+	 * the result of each id to the user when it is finished.
+	 * @return
+	 */
+	StreamingTask createBatchDiffTask(List<String> ids, DiffModeEnum mode);
 }
@@ -0,0 +1,39 @@
+package com.assignment.task;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.codehaus.jettison.json.JSONObject;
+
+/**
+ * Interface used to define the runner that executes tasks asynchronously.<br/>
+ * Each submitted task is an operation, identified by an operation id that can be
+ * used later to check the status (and the result) of the task.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public interface TaskRunner {
+
+	/**
+	 * Submits the task to be executed in a different thread.
+	 * 
+	 * @param task The task to be executed.
+	 * @return The id of the operation.
+	 * @throws RejectedExecutionException In case the runner is saturated.
+	 */
+	String submit(Task task);
+
+	/**
+	 * Returns the status of an operation.
+	 * 
+	 * @param operationId The id of the operation.
+	 * @return JSONObject with the status (and the result, when finished), or null if the operation is unknown.
+	 */
+	JSONObject getStatus(String operationId);
+
+	/**
+	 * Checks if the runner can accept new tasks.
+	 * 
+	 * @return True in case all threads are busy and the queue is full, otherwise false.
+	 */
+	boolean isSaturated();
+}
@@ -0,0 +1,241 @@
+package com.assignment.task.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.format.impl.JsonDiffResultEncoder;
+import com.assignment.task.StreamingTask;
+import com.assignment.task.TaskFactory;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.DiffModeEnum;
+import com.assignment.utils.TaskStatusEnum;
+import com.assignment.utils.Utils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Represents the task that executes the diff of many ids, and writes the result of each id 
+ * to the response as soon as it is finished.<br/>
+ * The diffs are executed by a pool shared by all the batches (diff.batch.threads), and each 
+ * batch keeps only a few diffs (two per thread) submitted at once, so a large batch neither 
+ * fills the pool queue nor delays the other batches, and only the results not yet written 
+ * are kept in memory.<br/>
+ * The response is a JSON array, in the order the diffs finish:<br/>
+ *  [ { "Id":"1", "Status":"COMPLETED", "Result":{ ...the result of the diff endpoint... } },<br/>
+ *    { "Id":"2", "Status":"FAILED" } ]
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BatchDiffTask implements StreamingTask {
+
+	// configuration keys and default values.
+	public static final String THREADS_KEY = "diff.batch.threads";
+	public static final String MAX_IDS_KEY = "diff.batch.max.ids";
+	public static final int DEFAULT_MAX_IDS = 10000;
+
+	// the pool shared by all the batches.
+	private static final ThreadPoolExecutor POOL = createPool();
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	// internal variables (used in constructor).
+	private List<String> ids;
+	private DiffModeEnum mode;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.BatchDiffTask");
+
+	// other variables
+	private TaskFactory taskFactory = new TaskFactoryImpl();
+	private JsonDiffResultEncoder encoder = new JsonDiffResultEncoder();
+	private ExecutorService executor = POOL;
+	private int window = 2 * POOL.getMaximumPoolSize();
+
+	/**
+	 * Constructor of the BatchDiffTask class.
+	 *
+	 * @param ids The ids of the requests.
+	 * @param mode The mode of the diffs.
+	 */
+	public BatchDiffTask(List<String> ids, DiffModeEnum mode) {
+		this.ids = new ArrayList<String>(ids);
+		this.mode = mode;
+	}
+
+	/**
+	 * Returns the output that executes the diffs and writes their results.<br/>
+	 * The diffs start only when the response is written.
+	 * 
+	 * @return The StreamingOutput that writes the results.
+	 */
+	@Override
+	public StreamingOutput executeStreamingTask() {
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				writeResults(output);
+			}
+		};
+	}
+
+	/**
+	 * Executes the diffs, keeping at most window diffs submitted, and writes each result when it finishes.
+	 * 
+	 * @param output The stream of the response.
+	 * @throws IOException In case the results cannot be written (the diffs not finished are cancelled).
+	 */
+	private void writeResults(OutputStream output) throws IOException {
+		CompletionService<IdResult> completionService = new ExecutorCompletionService<IdResult>(executor);
+		Set<Future<IdResult>> pending = new HashSet<Future<IdResult>>();
+		int submitted = 0;
+		int written = 0;
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+			generator.writeStartArray();
+			while (written < ids.size()) {
+				while (submitted < ids.size() && submitted - written < window) {
+					pending.add(completionService.submit(new DiffCallable(ids.get(submitted++))));
+				}
+				Future<IdResult> finished = completionService.take();
+				pending.remove(finished);
+				writeResult(generator, finished.get());
+				written++;
+				// sends each result as soon as it is written.
+				generator.flush();
+			}
+			generator.writeEndArray();
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Batch diff interrupted", exc);
+		} catch (ExecutionException exc) {
+			throw new IOException("Batch diff failed: " + exc.getMessage(), exc);
+		} finally {
+			for (Future<IdResult> future : pending) {
+				future.cancel(true);
+			}
+		}
+		log.info("Batch diff of {} ids written.", ids.size());
+	}
+
+	/**
+	 * Writes the result of one id.
+	 * 
+	 * @param generator The generator of the response.
+	 * @param result The result of the diff of the id.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	private void writeResult(JsonGenerator generator, IdResult result) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField(Utils.ID, result.id);
+		if (result.result == null) {
+			generator.writeStringField(Utils.STATUS, TaskStatusEnum.FAILED.name());
+		} else {
+			generator.writeStringField(Utils.STATUS, TaskStatusEnum.COMPLETED.name());
+			generator.writeFieldName(Utils.RESULT);
+			encoder.write(generator, result.result);
+		}
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Creates the pool of the batches, with the configured number of threads (the number of cores by default).
+	 * 
+	 * @return The ThreadPoolExecutor shared by all the batches.
+	 */
+	private static ThreadPoolExecutor createPool() {
+		int threads = new ConfigUtils().getInt(THREADS_KEY, 0);
+		if (threads <= 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new BatchThreadFactory());
+	}
+
+	/**
+	 * Set the factory that creates the diff task of each id.
+	 * 
+	 * @param taskFactory The TaskFactory object.
+	 */
+	public void setTaskFactory(TaskFactory taskFactory) {
+		this.taskFactory = taskFactory;
+	}
+
+	/**
+	 * Set the executor of the diffs, and how many diffs of the batch are submitted at once.
+	 * 
+	 * @param executor The ExecutorService object.
+	 * @param window The maximum number of diffs submitted and not written.
+	 */
+	public void setExecutor(ExecutorService executor, int window) {
+		this.executor = executor;
+		this.window = Math.max(1, window);
+	}
+
+	/**
+	 * The id and the result of its diff (null in case of failure).
+	 */
+	private static class IdResult {
+		private String id;
+		private DiffResult result;
+
+		IdResult(String id, DiffResult result) {
+			this.id = id;
+			this.result = result;
+		}
+	}
+
+	/**
+	 * Executes the diff of one id.
+	 */
+	private class DiffCallable implements Callable<IdResult> {
+		private String id;
+
+		DiffCallable(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public IdResult call() {
+			DiffResult result = null;
+			try {
+				result = taskFactory.createGetDiffTask(id, mode).executeDiff();
+			} catch (RuntimeException exc) {
+				log.debug("Exception executing the diff of id ({}): {}", id, exc.getMessage(), exc);
+			}
+			return new IdResult(id, result);
+		}
+	}
+
+	/**
+	 * Creates the daemon threads of the pool, named batch-diff-N.
+	 */
+	private static class BatchThreadFactory implements ThreadFactory {
+		private AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "batch-diff-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
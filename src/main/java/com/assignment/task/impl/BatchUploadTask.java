@@ -0,0 +1,119 @@
+package com.assignment.task.impl;
+
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.cache.DiffCache;
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.ingest.JsonBatchReader;
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.impl.DataStoreFactoryImpl;
+import com.assignment.task.Task;
+import com.assignment.utils.StripedLock;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the task that saves the data of many ids and sides, read from one stream.<br/>
+ * The records are decoded while they are read and written to a DataBatch, and the batch is
+ * committed once, after the whole stream is valid: the data store saves all the records 
+ * together (group commit) instead of once per record. So either all the records are saved,
+ * or none of them when the stream is not valid.<br/>
+ * The batch is committed under the write locks of all its ids (taken in the order of the 
+ * stripes), and then the cached diff results of these ids are removed.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class BatchUploadTask implements Task {
+
+	// internal variables (used in constructor).
+	private InputStream inputStream;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.BatchUploadTask");
+
+	// other variables
+	private DataStore dataStore = new DataStoreFactoryImpl().getDataStore();
+	private JsonBatchReader batchReader = new JsonBatchReader();
+	private DiffCache diffCache = LruDiffCache.getInstance();
+	private StripedLock stripedLock = StripedLock.getInstance();
+
+	/**
+	 * Constructor of the BatchUploadTask class.
+	 *
+	 * @param inputStream The stream with a JSON array of records (Id, Side and Base64 encoded Data).
+	 */
+	public BatchUploadTask(InputStream inputStream) {
+		this.inputStream = inputStream;
+	}
+
+	/**
+	 * Saves the records of the stream in the data store.
+	 *
+	 * @return JSONObject JSONObject with the number of records saved, or null in case of failure.
+	 */
+	@Override
+	public JSONObject executeTask() {
+		try (InputStream input = inputStream; DataBatch batch = dataStore.openBatch()) {
+			List<String> records = batchReader.read(input, batch);
+			Set<String> ids = new LinkedHashSet<String>(records);
+
+			List<Lock> locks = stripedLock.getWriteLocks(ids);
+			for (Lock lock : locks) {
+				lock.lock();
+			}
+			try {
+				batch.commit();
+				for (String id : ids) {
+					diffCache.invalidate(id);
+				}
+			} finally {
+				for (Lock lock : locks) {
+					lock.unlock();
+				}
+			}
+			log.info("Saved a batch of {} records of {} ids", records.size(), ids.size());
+
+			JSONObject jsonObject = new JSONObject();
+			jsonObject.put(Utils.RECORDS, records.size());
+			return jsonObject;
+		} catch (Exception exc) {
+			log.debug("Exception in the execution of BatchUploadTask: {}", exc.getMessage(), exc);
+			return null;
+		}
+	}
+
+	/**
+	 * Set the DataStore instance to be used in this class.
+	 *
+	 * @param dataStore An instance of a DataStore implementation.
+	 */
+	public void setDataStore(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	/**
+	 * Set the StripedLock instance to be used in this class.
+	 *
+	 * @param stripedLock An instance of the StripedLock class.
+	 */
+	public void setStripedLock(StripedLock stripedLock) {
+		this.stripedLock = stripedLock;
+	}
+
+	/**
+	 * Set the DiffCache instance to be used in this class.
+	 *
+	 * @param diffCache An instance of a DiffCache implementation.
+	 */
+	public void setDiffCache(DiffCache diffCache) {
+		this.diffCache = diffCache;
+	}
+}
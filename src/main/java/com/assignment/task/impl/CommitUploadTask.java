@@ -0,0 +1,130 @@
+package com.assignment.task.impl;
+
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.cache.DiffCache;
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.ingest.UploadSession;
+import com.assignment.ingest.UploadSessionManager;
+import com.assignment.ingest.impl.FileUploadSessionManager;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.DataStoreFactoryImpl;
+import com.assignment.task.Task;
+import com.assignment.utils.StripedLock;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the task that commits an upload session.<br/>
+ * Once all chunks were received, the session is closed and its file is transferred to 
+ * the data store, then the data replaces the side of the data (as in SaveDataTask), and 
+ * the session is deleted. When the data cannot be saved, the session is opened again, so
+ * the commit can be retried (or the session aborted).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class CommitUploadTask implements Task {
+
+	// internal variables (used in constructor).
+	private String uploadId;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.CommitUploadTask");
+
+	// other variables
+	private UploadSessionManager sessionManager = FileUploadSessionManager.getInstance();
+	private DataStore dataStore = new DataStoreFactoryImpl().getDataStore();
+	private DiffCache diffCache = LruDiffCache.getInstance();
+	private StripedLock stripedLock = StripedLock.getInstance();
+
+	/**
+	 * Constructor of the CommitUploadTask class.
+	 *
+	 * @param uploadId The id of the upload session.
+	 */
+	public CommitUploadTask(String uploadId) {
+		this.uploadId = uploadId;
+	}
+
+	/**
+	 * Saves the data of the upload session in the data store.
+	 *
+	 * @return JSONObject JSONObject with the length of the data, or null in case of failure.
+	 */
+	@Override
+	public JSONObject executeTask() {
+		try {
+			UploadSession session = sessionManager.get(uploadId);
+			if (session == null) {
+				log.info("Upload ({}) not found", uploadId);
+				return null;
+			}
+			String id = session.getId();
+			long length;
+			try (DataWriter writer = dataStore.openWriter(id, session.getSide())) {
+				length = session.transferTo(writer);
+				Lock lock = stripedLock.get(id).writeLock();
+				lock.lock();
+				try {
+					writer.commit();
+					diffCache.invalidate(id);
+				} finally {
+					lock.unlock();
+				}
+			} catch (IOException | RuntimeException exc) {
+				// the file of the session is kept, the commit can be retried.
+				session.reopen();
+				throw exc;
+			}
+			sessionManager.remove(uploadId);
+			log.info("Saved {} bytes of {} data of id ({}) from upload ({})", length, session.getSide(), id, uploadId);
+			JSONObject jsonObject = new JSONObject();
+			jsonObject.put(Utils.LENGTH, length);
+			return jsonObject;
+		} catch (Exception exc) {
+			log.debug("Exception in the execution of CommitUploadTask: {}", exc.getMessage(), exc);
+			return null;
+		}
+	}
+
+	/**
+	 * Set the UploadSessionManager instance to be used in this class.
+	 *
+	 * @param sessionManager An instance of an UploadSessionManager implementation.
+	 */
+	public void setSessionManager(UploadSessionManager sessionManager) {
+		this.sessionManager = sessionManager;
+	}
+
+	/**
+	 * Set the DataStore instance to be used in this class.
+	 *
+	 * @param dataStore An instance of a DataStore implementation.
+	 */
+	public void setDataStore(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	/**
+	 * Set the StripedLock instance to be used in this class.
+	 *
+	 * @param stripedLock An instance of the StripedLock class.
+	 */
+	public void setStripedLock(StripedLock stripedLock) {
+		this.stripedLock = stripedLock;
+	}
+
+	/**
+	 * Set the DiffCache instance to be used in this class.
+	 *
+	 * @param diffCache An instance of a DiffCache implementation.
+	 */
+	public void setDiffCache(DiffCache diffCache) {
+		this.diffCache = diffCache;
+	}
+}
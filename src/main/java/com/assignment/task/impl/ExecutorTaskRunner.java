@@ -0,0 +1,178 @@
+package com.assignment.task.impl;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.task.Task;
+import com.assignment.task.TaskRunner;
+import com.assignment.utils.ConfigUtils;
+import com.assignment.utils.TaskStatusEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Task runner backed by a thread pool with a bounded queue.<br/>
+ * When all the threads are busy and the queue is full, new tasks are rejected, so the
+ * caller can apply back-pressure (HTTP 429) instead of accumulating work.<br/>
+ * The pool sizes, the queue capacity and how many finished operations are kept for status
+ * checks are configured in the diffapi.properties file (task.runner.*).
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ExecutorTaskRunner implements TaskRunner {
+
+	// configuration keys and default values.
+	public static final String CORE_THREADS_KEY = "task.runner.threads.core";
+	public static final String MAX_THREADS_KEY = "task.runner.threads.max";
+	public static final String QUEUE_CAPACITY_KEY = "task.runner.queue.capacity";
+	public static final String HISTORY_KEY = "task.runner.history";
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.ExecutorTaskRunner");
+
+	private ThreadPoolExecutor executor;
+	// the operations (pending, running and the last finished ones).
+	private ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<String, Operation>();
+	private Queue<String> finishedOperations = new ConcurrentLinkedQueue<String>();
+	private int history;
+
+	/**
+	 * Holder of the instance shared by the application, created on the first use.
+	 */
+	private static class InstanceHolder {
+		private static final ExecutorTaskRunner INSTANCE = new ExecutorTaskRunner();
+	}
+
+	/**
+	 * Returns the task runner shared by the application.
+	 * 
+	 * @return The TaskRunner instance.
+	 */
+	public static TaskRunner getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Constructor of the ExecutorTaskRunner class, the sizes are read from the configuration.
+	 */
+	public ExecutorTaskRunner() {
+		this(new ConfigUtils().getInt(CORE_THREADS_KEY, 4), new ConfigUtils().getInt(MAX_THREADS_KEY, 16),
+				new ConfigUtils().getInt(QUEUE_CAPACITY_KEY, 100), new ConfigUtils().getInt(HISTORY_KEY, 1000));
+	}
+
+	/**
+	 * Constructor of the ExecutorTaskRunner class.
+	 * 
+	 * @param coreThreads The number of threads kept in the pool.
+	 * @param maxThreads The maximum number of threads, used when the queue is full.
+	 * @param queueCapacity The number of tasks that can wait for a thread.
+	 * @param history The number of finished operations kept for status checks.
+	 */
+	public ExecutorTaskRunner(int coreThreads, int maxThreads, int queueCapacity, int history) {
+		this.history = history;
+		this.executor = new ThreadPoolExecutor(coreThreads, Math.max(coreThreads, maxThreads), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), new RunnerThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public String submit(final Task task) {
+		final String operationId = UUID.randomUUID().toString();
+		final Operation operation = new Operation();
+		operations.put(operationId, operation);
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					operation.status = TaskStatusEnum.RUNNING;
+					try {
+						operation.result = task.executeTask();
+					} catch (RuntimeException exc) {
+						log.debug("Exception executing operation ({}): {}", operationId, exc.getMessage(), exc);
+					}
+					operation.status = (operation.result == null) ? TaskStatusEnum.FAILED : TaskStatusEnum.COMPLETED;
+					finished(operationId);
+				}
+			});
+		} catch (RuntimeException exc) {
+			operations.remove(operationId);
+			throw exc;
+		}
+		return operationId;
+	}
+
+	@Override
+	public JSONObject getStatus(String operationId) {
+		Operation operation = operations.get(operationId);
+		if (operation == null) {
+			return null;
+		}
+		try {
+			JSONObject jsonObject = new JSONObject();
+			jsonObject.put(Utils.OPERATION, operationId);
+			jsonObject.put(Utils.STATUS, operation.status.name());
+			if (operation.result != null) {
+				jsonObject.put(Utils.RESULT, operation.result);
+			}
+			return jsonObject;
+		} catch (JSONException jsonExc) {
+			log.debug("Exception building the status of operation ({}): {}", operationId, jsonExc.getMessage(), jsonExc);
+			return null;
+		}
+	}
+
+	@Override
+	public boolean isSaturated() {
+		return (executor.getQueue().remainingCapacity() == 0)
+				&& (executor.getActiveCount() >= executor.getMaximumPoolSize());
+	}
+
+	/**
+	 * Keeps the finished operation for status checks, forgetting the oldest ones.
+	 * 
+	 * @param operationId The id of the finished operation.
+	 */
+	private void finished(String operationId) {
+		finishedOperations.add(operationId);
+		while (finishedOperations.size() > history) {
+			String oldest = finishedOperations.poll();
+			if (oldest != null) {
+				operations.remove(oldest);
+			}
+		}
+	}
+
+	/**
+	 * The status and the result of an operation.
+	 */
+	private static class Operation {
+		private volatile TaskStatusEnum status = TaskStatusEnum.PENDING;
+		private volatile JSONObject result;
+	}
+
+	/**
+	 * Creates the daemon threads of the pool, named task-runner-N.
+	 */
+	private static class RunnerThreadFactory implements ThreadFactory {
+		private AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "task-runner-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.assignment.task.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.Lock;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.assignment.storage.DataStore;
+import com.assignment.storage.impl.DataStoreFactoryImpl;
+import com.assignment.task.StreamingTask;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.StripedLock;
+
+/**
+ * Represents the task that writes one side of the data, as raw bytes, to the response.<br/>
+ * The data is read under the read lock of the id, and the buffer returned by the data store
+ * (mapped from the file, in the MAPPED_FILE data store) is written to the response channel
+ * without being copied to a byte array.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class GetDataTask implements StreamingTask {
+
+	// internal variables (used in constructor).
+	private String id;
+	private DataEnum side;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.GetDataTask");
+
+	// other variables
+	private DataStore dataStore = new DataStoreFactoryImpl().getDataStore();
+	private StripedLock stripedLock = StripedLock.getInstance();
+
+	/**
+	 * Constructor of the GetDataTask class.
+	 *
+	 * @param id The id of the request.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 */
+	public GetDataTask(String id, DataEnum side) {
+		this.id = id;
+		this.side = side;
+	}
+
+	/**
+	 * Reads the side of the data, and returns the output that writes it.
+	 * 
+	 * @return The StreamingOutput that writes the data, or null if the side was not saved or cannot be read.
+	 */
+	@Override
+	public StreamingOutput executeStreamingTask() {
+		final ByteBuffer data;
+		Lock lock = stripedLock.get(id).readLock();
+		lock.lock();
+		try {
+			data = dataStore.read(id, side);
+		} catch (IOException exc) {
+			log.debug("Exception while reading the data: {}", exc.getMessage(), exc);
+			return null;
+		} finally {
+			lock.unlock();
+		}
+		if (data == null) {
+			log.info("There is no {} data for id ({})", side, id);
+			return null;
+		}
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				WritableByteChannel channel = Channels.newChannel(output);
+				ByteBuffer buffer = data.duplicate();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Set the DataStore instance to be used in this class.
+	 *
+	 * @param dataStore An instance of a DataStore implementation.
+	 */
+	public void setDataStore(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	/**
+	 * Set the StripedLock instance to be used in this class.
+	 *
+	 * @param stripedLock An instance of the StripedLock class.
+	 */
+	public void setStripedLock(StripedLock stripedLock) {
+		this.stripedLock = stripedLock;
+	}
+}
@@ -1,30 +1,111 @@
 package com.assignment.task.impl;
 
-import org.apache.log4j.Logger;
-import org.codehaus.jettison.json.JSONArray;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Lock;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
-import com.assignment.task.Task;
+import com.assignment.cache.DiffCache;
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.diff.DiffEngine;
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.diff.impl.ByteDiffEngine;
+import com.assignment.diff.impl.ParallelDiffEngine;
+import com.assignment.format.impl.JsonDiffResultEncoder;
+import com.assignment.storage.BlockIndex;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.impl.BufferedDataReader;
+import com.assignment.storage.impl.DataStoreFactoryImpl;
+import com.assignment.task.DiffTask;
+import com.assignment.task.StreamingTask;
+import com.assignment.utils.ConfigUtils;
 import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
+import com.assignment.utils.Metrics;
+import com.assignment.utils.StripedLock;
 import com.assignment.utils.Utils;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 /**
  * Represents the task that executes the diff between the two data values (right and left).<br/>
- * This task does a diff over the String value, not over the byte[] values.<br/>
- * But in order to achieve that, a small change needs to be done at the code level.<br/> 
+ * The data store keeps the decoded data (raw bytes) of both sides.<br/>
+ * In the STRING mode the data is encoded to Base64 again and this task does a diff over the String value.<br/>
+ * In the BYTE mode the diff is done directly over the stored bytes (no copy to the heap),
+ * so offsets and lengths are reported in bytes.<br/> 
+ * The PARALLEL mode is the same as the BYTE mode, but the comparison is split between several threads.<br/>
+ * The results are kept in the diff cache with the version of both sides, so a repeated diff
+ * of unchanged data does not read the data again. The result (DiffResult) keeps the differences
+ * in arrays of primitives, and it is written by the encoder of the format of the response.<br/>
+ * The length and the hash of each side are kept by the data store, so when the data are equal
+ * or do not have the same length the result is known without reading the data. When the data store
+ * also keeps the index of the blocks, only the blocks with different hashes are compared 
+ * in the BYTE and PARALLEL modes.<br/>
+ * The result can also be written to a stream while the differences are found (executeStreamingTask).<br/>
+ * The diff can be limited to a window of the data (from/to) and to a number of differences (limit).
+ * The comparison starts at the window and stops once the limit is reached, and the offset of 
+ * the next difference (Next) is returned, so it can be used as the from of the next page.<br/>
+ * In the BYTE and PARALLEL modes the offsets are 64-bit, and the data is read and compared in
+ * segments (diff.segment.size), so sides larger than 2 GB are compared without holding them 
+ * in memory. A difference that crosses the end of a segment is reported only once.<br/>
  * 
  * @author lucas.reginato@gmail.com
  */
-public class GetDiffTask implements Task {
+public class GetDiffTask implements DiffTask, StreamingTask {
+
+	// the window goes to the end of the data, and the number of differences is not limited.
+	public static final int END = -1;
+	public static final int NO_LIMIT = -1;
+
+	// configuration key and default value of the size of the segments compared at once.
+	public static final String SEGMENT_SIZE_KEY = "diff.segment.size";
+	public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+	// factory of the JSON generators used to stream the result.
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
 	// the id of the operation
 	private String id;
+	// the mode of the diff (over the Base64 String or over the decoded bytes)
+	private DiffModeEnum mode;
+	// the window [from, to) that is compared, and the maximum number of differences returned
+	private long from = 0;
+	private long to = END;
+	private int limit = NO_LIMIT;
+	private int segmentSize = new ConfigUtils().getInt(SEGMENT_SIZE_KEY, DEFAULT_SEGMENT_SIZE);
 	// other internal variables
 	private Utils utils = new Utils();
+	private DataStore dataStore = new DataStoreFactoryImpl().getDataStore();
+	private DiffEngine diffEngine;
+	private DiffCache diffCache = LruDiffCache.getInstance();
+	private StripedLock stripedLock = StripedLock.getInstance();
+	private Metrics metrics = Metrics.getInstance();
+	// the loaded data (or the result already known), and the version of each side.
+	// the STRING mode reads the data at once, the other modes read it in segments.
+	private ByteBuffer left;
+	private ByteBuffer right;
+	private DataReader leftData;
+	private DataReader rightData;
+	private long leftVersion;
+	private long rightVersion;
+	private DiffResult knownResult;
+	private DataMetadata leftMetadata;
+	private DataMetadata rightMetadata;
 	
 	// logger of the class.
-	private Logger log = Logger.getLogger("com.assignment.task.impl.GetDiffTask");
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.GetDiffTask");
 
 	/**
 	 * Constructor of the GetDiffTask class.
@@ -32,7 +113,36 @@ public class GetDiffTask implements Task {
 	 * @param id The id of the operation.
 	 */
 	public GetDiffTask(String id) {
+		this(id, DiffModeEnum.STRING);
+	}
+
+	/**
+	 * Constructor of the GetDiffTask class.
+	 * 
+	 * @param id The id of the operation.
+	 * @param mode The mode of the diff (STRING, BYTE or PARALLEL).
+	 */
+	public GetDiffTask(String id, DiffModeEnum mode) {
 		this.id = id;
+		this.mode = mode;
+		this.diffEngine = (mode == DiffModeEnum.PARALLEL) ? new ParallelDiffEngine() : new ByteDiffEngine();
+	}
+
+	/**
+	 * Constructor of the GetDiffTask class, for a diff limited to a window and a number of differences.<br/>
+	 * In the STRING mode the window is in Base64 characters, in the other modes it is in bytes.
+	 * 
+	 * @param id The id of the operation.
+	 * @param mode The mode of the diff (STRING, BYTE or PARALLEL).
+	 * @param from The first index (inclusive) compared.
+	 * @param to The last index (exclusive) compared, or END.
+	 * @param limit The maximum number of differences returned, or NO_LIMIT.
+	 */
+	public GetDiffTask(String id, DiffModeEnum mode, long from, long to, int limit) {
+		this(id, mode);
+		this.from = from;
+		this.to = to;
+		this.limit = limit;
 	}
 	
 	/**
@@ -43,73 +153,573 @@ public class GetDiffTask implements Task {
 	 */
 	@Override
 	public JSONObject executeTask() {
+		DiffResult result = executeDiff();
+		if (result == null) {
+			return null;
+		}
+		try {
+			return result.toJSONObject();
+		} catch (JSONException exc) {
+			log.debug("Exception while building the diff result: {}", exc.getMessage(), exc);
+			return null;
+		}
+	}
+
+	/**
+	 * Performs the diff operation over the right and left data.
+	 * 
+	 * @return The DiffResult with the result of the diff operation, or null in case of failure.
+	 */
+	@Override
+	public DiffResult executeDiff() {
+		if (!loadData()) {
+			return null;
+		}
+		if (knownResult != null) {
+			return knownResult;
+		}
+
+		Timer.Context timer = metrics.timer(Metrics.DIFF_COMPARE).time();
+		DiffResult result;
+		try {
+			result = (mode == DiffModeEnum.STRING) ? executeStringDiff(left, right) : executeByteDiff();
+		} finally {
+			closeData();
+			timer.stop();
+		}
+		if (result != null) {
+			metrics.histogram(Metrics.DIFF_DIFFERENCES).update(result.getDifferences().size());
+		}
+		if (result != null && !isPartial()) {
+			diffCache.put(id, mode, leftVersion, rightVersion, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Performs the diff operation over the right and left data, writing the result
+	 * while the differences are found.<br/>
+	 * The data is loaded before the output is returned, so a failure is known before
+	 * the response is sent. In the BYTE and PARALLEL modes the differences are written
+	 * as they are found (the Differences array comes before the Result), so the memory 
+	 * used does not depend on the number of differences, and the result is not cached.
+	 * The window and the limit are used as in executeTask().
+	 * The STRING mode and the results already known are written as in executeDiff().
+	 * 
+	 * @return The StreamingOutput that writes the result, or null in case of failure.
+	 */
+	@Override
+	public StreamingOutput executeStreamingTask() {
+		if (mode == DiffModeEnum.STRING) {
+			return getOutput(executeDiff());
+		}
+		if (!loadData()) {
+			return null;
+		}
+		if (knownResult != null) {
+			return getOutput(knownResult);
+		}
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				try {
+					writeByteDiff(output);
+				} finally {
+					closeData();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Loads both sides of the data, or the result of the diff when it is already known
+	 * (from the cache, or from the metadata of both sides).<br/>
+	 * The data is read (or opened, in the BYTE and PARALLEL modes) under the read lock of 
+	 * the id, so both sides and their versions are consistent. The data stores replace the 
+	 * data on each save and on each range written (PATCH), they never write over the data
+	 * already read or opened, so the buffers and the readers are not changed and the diff 
+	 * itself is done after the lock is released.
+	 * 
+	 * @return true if the data (or the known result) was loaded, false in case of failure.
+	 */
+	private boolean loadData() {
+		Timer.Context timer = metrics.timer(Metrics.DIFF_LOAD).time();
+		Lock lock = stripedLock.get(id).readLock();
+		lock.lock();
 		try {
-			log.info("Loading data (right and left) from file system...");
-			String right = utils.getData(id, DataEnum.RIGHT);
-			String left = utils.getData(id, DataEnum.LEFT);
-			
-			// if data have the same length, they could be equal
-			if (right.length() == left.length()) {
-				// if equals, return that
-				if (right.equals(left)) {
-					JSONObject jsonObject = new JSONObject();
-					jsonObject.append(Utils.RESULT, Utils.RESULT_ARE_EQUAL);
-					return jsonObject;
+			leftVersion = dataStore.getVersion(id, DataEnum.LEFT);
+			rightVersion = dataStore.getVersion(id, DataEnum.RIGHT);
+
+			// only the full diffs are cached.
+			knownResult = isPartial() ? null : diffCache.get(id, mode, leftVersion, rightVersion);
+			if (knownResult != null) {
+				log.info("Diff of id ({}) found in cache", id);
+				return true;
+			}
+
+			knownResult = getResultFromMetadata();
+			if (knownResult != null) {
+				log.info("Diff of id ({}) found from metadata", id);
+				return true;
+			}
+
+			log.info("Loading data (right and left) from data store...");
+			if (mode == DiffModeEnum.STRING) {
+				right = readData(DataEnum.RIGHT);
+				left = readData(DataEnum.LEFT);
+				metrics.meter(Metrics.STORAGE_BYTES_READ).mark((long) right.limit() + left.limit());
+			} else {
+				// the segments are read (and metered) while they are compared.
+				rightData = openData(DataEnum.RIGHT);
+				leftData = openData(DataEnum.LEFT);
+			}
+			return true;
+		} catch (IOException exc) {
+			log.debug("Exception while loading the data: {}", exc.getMessage(), exc);
+			closeData();
+			return false;
+		} finally {
+			lock.unlock();
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Returns the result of the diff when it can be known from the metadata of both sides:
+	 * the data do not have the same length, or they have the same length and hash.<br/>
+	 * In the STRING mode the lengths are compared after the Base64 encoding, as the diff does.
+	 * 
+	 * @return The DiffResult, or null if the data must be compared.
+	 * @throws IOException In case the metadata cannot be read.
+	 */
+	private DiffResult getResultFromMetadata() throws IOException {
+		leftMetadata = dataStore.getMetadata(id, DataEnum.LEFT);
+		rightMetadata = dataStore.getMetadata(id, DataEnum.RIGHT);
+		if (leftMetadata == null || rightMetadata == null) {
+			return null;
+		}
+		if (getLength(leftMetadata) != getLength(rightMetadata)) {
+			return DiffResult.notSameLength();
+		}
+		if (leftMetadata.sameContent(rightMetadata)) {
+			return DiffResult.equal();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the length of the data that is compared in the mode of the diff.
+	 * 
+	 * @param metadata The metadata of one side.
+	 * @return The length in bytes, or in Base64 characters in the STRING mode.
+	 */
+	private long getLength(DataMetadata metadata) {
+		long length = metadata.getLength();
+		return (mode == DiffModeEnum.STRING) ? 4 * ((length + 2) / 3) : length;
+	}
+
+	/**
+	 * Writes the differences between the loaded data as they are found by the engine.
+	 * 
+	 * @param output The stream of the response.
+	 * @throws IOException In case the result cannot be written.
+	 */
+	private void writeByteDiff(OutputStream output) throws IOException {
+		// the differences are compared and serialized together, the time is recorded as compare.
+		Timer.Context timer = metrics.timer(Metrics.DIFF_COMPARE).time();
+		try (final JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+			generator.writeStartObject();
+			long length = rightData.getLength();
+			if (length != leftData.getLength()) {
+				// if data does not have the same length, just state that.
+				generator.writeArrayFieldStart(Utils.RESULT);
+				generator.writeString(Utils.RESULT_NOT_SAME_LENGTH);
+				generator.writeEndArray();
+			} else {
+				generator.writeArrayFieldStart(Utils.DIFFERENCES);
+				// sends the start of the response before the comparison.
+				generator.flush();
+				LimitedListener listener = new LimitedListener() {
+					@Override
+					protected void write(long offset, long length) throws IOException {
+						generator.writeStartObject();
+						generator.writeNumberField(Utils.OFFSET, offset);
+						generator.writeNumberField(Utils.LENGTH, length);
+						generator.writeEndObject();
+					}
+				};
+				diff(getStart(length), getEnd(length), listener);
+				metrics.histogram(Metrics.DIFF_DIFFERENCES).update(listener.numberOfDiffs);
+				generator.writeEndArray();
+				if (listener.next != DiffResult.NO_NEXT) {
+					generator.writeNumberField(Utils.NEXT, listener.next);
+				}
+				if (listener.numberOfDiffs == 0) {
+					generator.writeArrayFieldStart(Utils.RESULT);
+					generator.writeString(Utils.RESULT_ARE_EQUAL);
+					generator.writeEndArray();
 				} else {
-					// Not equal, but the same size, so need to look for the differences.
-					// Identify the differences between the 2 base64 encoded binary strings.
-					// It assumes that there are no differences in the start of the execution.
-					// Once a difference is recognized, a JSON object (with the offset of the difference) is added to the JSON array. 
-					// Once the difference ends, the object is updated one last time (with the length of the difference).
-					// In the end, all differences will be in the JSONArray, ready to be presented to the user.
-					JSONObject resultJsonObject = new JSONObject();
-					JSONArray jsonArrayDiff = new JSONArray();
-					boolean diffRecognized = false;
-					int diffSize = 0;
-					int numberOfDiffs = 0;
-					
-					for (int i=0; i<right.length(); i++) {
-						if ((right.charAt(i) == left.charAt(i))) {
-							if (diffRecognized) {
-								// mark the difference
-								JSONObject jsonObject = (JSONObject)jsonArrayDiff.get(numberOfDiffs);
-								jsonObject.put(Utils.LENGTH, diffSize);
-								diffRecognized = false;
-								diffSize = 0;	
-								numberOfDiffs++;
-							}
-						} else {
-							if (!diffRecognized) {
-								// mark the offset, just the first time that the difference is recognized.
-								jsonArrayDiff.put(numberOfDiffs, getJSON(Utils.OFFSET, i));
-								diffRecognized = true;
-							}
-							diffSize++;
+					generator.writeStringField(Utils.RESULT, Utils.RESULT_SAME_LENGTH_WITH_DIFFS);
+				}
+			}
+			generator.writeEndObject();
+		} finally {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Returns the output that writes a result already known, as JSON.
+	 * 
+	 * @param result The result of the diff.
+	 * @return The StreamingOutput that writes the result, or null if there is no result.
+	 */
+	private StreamingOutput getOutput(final DiffResult result) {
+		if (result == null) {
+			return null;
+		}
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				Timer.Context timer = metrics.timer(Metrics.DIFF_SERIALIZE).time();
+				try {
+					new JsonDiffResultEncoder().encode(result, output);
+				} finally {
+					timer.stop();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Performs the diff operation over the Base64 encoded right and left data.
+	 * 
+	 * @param leftData The left data.
+	 * @param rightData The right data.
+	 * @return The DiffResult with the result of the diff operation.
+	 */
+	private DiffResult executeStringDiff(ByteBuffer leftData, ByteBuffer rightData) {
+		String right = utils.encodeBase64(toByteArray(rightData));
+		String left = utils.encodeBase64(toByteArray(leftData));
+		
+		// if data have the same length, they could be equal
+		if (right.length() == left.length()) {
+			// if equals, return that
+			if (right.equals(left)) {
+				return DiffResult.equal();
+			} else {
+				// Not equal, but the same size, so need to look for the differences.
+				// Identify the differences between the 2 base64 encoded binary strings.
+				// It assumes that there are no differences in the start of the execution.
+				// Once a difference is recognized, its offset is kept, and once the difference
+				// ends, the offset and the length are added to the list (no object is created).
+				// In the end, the list is kept in the result, and written by the encoder.
+				DifferenceList differences = new DifferenceList();
+				int diffOffset = -1;
+				
+				long next = DiffResult.NO_NEXT;
+				
+				int end = (int) getEnd(right.length());
+				for (int i=(int) getStart(right.length()); i<end; i++) {
+					if ((right.charAt(i) == left.charAt(i))) {
+						if (diffOffset >= 0) {
+							// mark the difference
+							differences.add(diffOffset, i - diffOffset);
+							diffOffset = -1;
 						}
+					} else if (diffOffset < 0) {
+						if (differences.size() == limit) {
+							// stop at the limit, this is where the next page starts.
+							next = i;
+							break;
+						}
+						// mark the offset, just the first time that the difference is recognized.
+						diffOffset = i;
 					}
-					if (diffRecognized) {
-						// mark the difference (as a last step)
-						JSONObject jsonObject = (JSONObject)jsonArrayDiff.get(numberOfDiffs);
-						jsonObject.put(Utils.LENGTH, diffSize);
-					}
-					// add the last difference to the JSONArray
-					resultJsonObject.put(Utils.RESULT, Utils.RESULT_SAME_LENGTH_WITH_DIFFS);
-					resultJsonObject.put(Utils.DIFFERENCES, jsonArrayDiff);
-					return resultJsonObject;
 				}
-			} else {
+				if (diffOffset >= 0) {
+					// mark the difference (as a last step)
+					differences.add(diffOffset, end - diffOffset);
+				}
+				return DiffResult.of(differences, next);
+			}
+		} else {
+			// if data does not have the same length, just state that.
+			return DiffResult.notSameLength();
+		}
+	}
+	
+	/**
+	 * Performs the diff operation over the decoded right and left data.<br/>
+	 * The data is compared directly over the segments returned by the data store, and the 
+	 * offsets and lengths of the differences are reported in bytes.<br/>
+	 * When the comparison finds no difference, the data are equal.
+	 * 
+	 * @return The DiffResult with the result of the diff operation, or null in case of failure.
+	 */
+	private DiffResult executeByteDiff() {
+		try {
+			long length = rightData.getLength();
+			if (length != leftData.getLength()) {
 				// if data does not have the same length, just state that.
-				JSONObject jsonObject = new JSONObject();
-				jsonObject.append(Utils.RESULT, Utils.RESULT_NOT_SAME_LENGTH);
-				return jsonObject;
+				return DiffResult.notSameLength();
 			}
-		} catch (JSONException jsonExc) {
-			log.debug("Exception while getting the diff: " + jsonExc.getMessage(), jsonExc);
+
+			if (isPartial() || getComparableBlocks() != null) {
+				final DifferenceList differences = new DifferenceList();
+				LimitedListener listener = new LimitedListener() {
+					@Override
+					protected void write(long offset, long length) {
+						differences.add(offset, length);
+					}
+				};
+				diff(getStart(length), getEnd(length), listener);
+				return DiffResult.of(differences, listener.next);
+			}
+			// the whole data is compared by the engine, one segment at a time.
+			DifferenceList differences = new DifferenceList();
+			for (long position = 0; position < length; position += segmentSize) {
+				int segmentLength = (int) Math.min(segmentSize, length - position);
+				differences.append(diffEngine.diff(read(leftData, position, segmentLength), read(rightData, position, segmentLength)), position);
+			}
+			return DiffResult.of(differences, DiffResult.NO_NEXT);
+		} catch (IOException exc) {
+			log.debug("Exception while getting the byte diff: {}", exc.getMessage(), exc);
 			// return null in case of failure.
 			return null;
 		}
 	}
-	
+
+	/**
+	 * Compares the loaded data (with the same length) inside the window, passing the 
+	 * differences to the listener until its limit is reached.<br/>
+	 * When both sides have the index of the blocks, the blocks with the same hash are skipped,
+	 * so only the blocks with differences are read. The consecutive blocks with differences 
+	 * are compared at once, so a difference that crosses blocks is reported only once.
+	 * 
+	 * @param start The first index (inclusive) compared.
+	 * @param end The last index (exclusive) compared.
+	 * @param listener The listener of the differences.
+	 * @throws IOException In case the data cannot be read or the listener fails.
+	 */
+	private void diff(long start, long end, LimitedListener listener) throws IOException {
+		BlockIndex leftBlocks = getComparableBlocks();
+		if (leftBlocks == null) {
+			compare(start, end, listener);
+			listener.finish();
+			return;
+		}
+		BlockIndex rightBlocks = rightMetadata.getBlocks();
+		long blockSize = leftBlocks.getBlockSize();
+		long block = start / blockSize;
+		while (block * blockSize < end && listener.next == DiffResult.NO_NEXT) {
+			if (leftBlocks.sameBlock(rightBlocks, block)) {
+				block++;
+				continue;
+			}
+			long last = block + 1;
+			while (last * blockSize < end && !leftBlocks.sameBlock(rightBlocks, last)) {
+				last++;
+			}
+			compare(Math.max(start, block * blockSize), Math.min(end, last * blockSize), listener);
+			block = last;
+		}
+		listener.finish();
+	}
+
+	/**
+	 * Compares an interval of the loaded data, one segment at a time, passing the 
+	 * differences to the listener until its limit is reached.
+	 * 
+	 * @param start The first index (inclusive) compared.
+	 * @param end The last index (exclusive) compared.
+	 * @param listener The listener of the differences.
+	 * @throws IOException In case the data cannot be read or the listener fails.
+	 */
+	private void compare(long start, long end, LimitedListener listener) throws IOException {
+		for (long position = start; position < end && listener.next == DiffResult.NO_NEXT; position += segmentSize) {
+			int length = (int) Math.min(segmentSize, end - position);
+			listener.position = position;
+			diffEngine.diff(read(leftData, position, length), read(rightData, position, length), 0, length, listener);
+		}
+	}
+
+	/**
+	 * Reads one segment of the data.
+	 * 
+	 * @param data The reader of one side.
+	 * @param position The offset of the segment.
+	 * @param length The length of the segment.
+	 * @return The ByteBuffer with the segment.
+	 * @throws IOException In case the segment cannot be read.
+	 */
+	private ByteBuffer read(DataReader data, long position, int length) throws IOException {
+		ByteBuffer segment = data.read(position, length);
+		metrics.meter(Metrics.STORAGE_BYTES_READ).mark(segment.limit());
+		return segment;
+	}
+
+	/**
+	 * Returns the index of the blocks of the left data, when it can be compared with the
+	 * index of the right data.
+	 * 
+	 * @return The BlockIndex of the left data, or null if the blocks cannot be compared.
+	 */
+	private BlockIndex getComparableBlocks() {
+		if (leftMetadata == null || rightMetadata == null || leftMetadata.getBlocks() == null) {
+			return null;
+		}
+		return leftMetadata.getBlocks().isComparable(rightMetadata.getBlocks()) ? leftMetadata.getBlocks() : null;
+	}
+
+	/**
+	 * Checks if the diff is limited to a window or to a number of differences.
+	 * 
+	 * @return true if only a part of the differences is returned.
+	 */
+	private boolean isPartial() {
+		return from > 0 || to != END || limit != NO_LIMIT;
+	}
+
+	/**
+	 * Returns the first index compared, inside the data.
+	 * 
+	 * @param length The length of the data.
+	 * @return The first index (inclusive) of the window.
+	 */
+	private long getStart(long length) {
+		return Math.min(from, length);
+	}
+
+	/**
+	 * Returns the last index compared, inside the data.
+	 * 
+	 * @param length The length of the data.
+	 * @return The last index (exclusive) of the window.
+	 */
+	private long getEnd(long length) {
+		long end = (to == END) ? length : Math.min(to, length);
+		return Math.max(end, getStart(length));
+	}
+
+	/**
+	 * Reads one side of the data from the data store.<br/>
+	 * Like when the id is created, a side that was not saved yet is empty, but at
+	 * least one of the sides must have been saved.
+	 * 
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The ByteBuffer with the data.
+	 * @throws IOException In case the data cannot be read or the id does not exist.
+	 */
+	private ByteBuffer readData(DataEnum side) throws IOException {
+		ByteBuffer data = dataStore.read(id, side);
+		if (data == null) {
+			DataEnum otherSide = (side == DataEnum.RIGHT) ? DataEnum.LEFT : DataEnum.RIGHT;
+			if (!dataStore.exists(id, otherSide)) {
+				throw new IOException("There is no data for id (" + id + ")");
+			}
+			data = ByteBuffer.allocate(0);
+		}
+		return data;
+	}
+
+	/**
+	 * Opens one side of the data in the data store, to be read in segments.<br/>
+	 * Like when the id is created, a side that was not saved yet is empty, but at
+	 * least one of the sides must have been saved.
+	 * 
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @return The DataReader of the data.
+	 * @throws IOException In case the data cannot be opened or the id does not exist.
+	 */
+	private DataReader openData(DataEnum side) throws IOException {
+		DataReader data = dataStore.openReader(id, side);
+		if (data == null) {
+			DataEnum otherSide = (side == DataEnum.RIGHT) ? DataEnum.LEFT : DataEnum.RIGHT;
+			if (!dataStore.exists(id, otherSide)) {
+				throw new IOException("There is no data for id (" + id + ")");
+			}
+			data = new BufferedDataReader(ByteBuffer.allocate(0));
+		}
+		return data;
+	}
+
+	/**
+	 * Closes the readers of both sides, if they were opened.
+	 */
+	private void closeData() {
+		close(leftData);
+		close(rightData);
+		leftData = null;
+		rightData = null;
+	}
+
+	/**
+	 * Closes the reader of one side.
+	 * 
+	 * @param data The reader, or null.
+	 */
+	private void close(DataReader data) {
+		if (data == null) {
+			return;
+		}
+		try {
+			data.close();
+		} catch (IOException exc) {
+			log.debug("Exception while closing the data: {}", exc.getMessage(), exc);
+		}
+	}
+
+	/**
+	 * Copies the content of a buffer to a new byte array.
+	 * 
+	 * @param buffer The buffer, read from 0 to its limit.
+	 * @return The byte array with the content of the buffer.
+	 */
+	private byte[] toByteArray(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.limit()];
+		ByteBuffer copy = buffer.duplicate();
+		copy.rewind();
+		copy.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Set the DiffEngine instance to be used in the BYTE and PARALLEL modes.
+	 * 
+	 * @param diffEngine An instance of a DiffEngine implementation.
+	 */
+	public void setDiffEngine(DiffEngine diffEngine) {
+		this.diffEngine = diffEngine;
+	}
+
+	/**
+	 * Set the StripedLock instance to be used in this class.
+	 * 
+	 * @param stripedLock An instance of the StripedLock class.
+	 */
+	public void setStripedLock(StripedLock stripedLock) {
+		this.stripedLock = stripedLock;
+	}
+
+	/**
+	 * Set the DiffCache instance to be used in this class.
+	 * 
+	 * @param diffCache An instance of a DiffCache implementation.
+	 */
+	public void setDiffCache(DiffCache diffCache) {
+		this.diffCache = diffCache;
+	}
+
+	/**
+	 * Set the DataStore instance to be used in this class.
+	 * 
+	 * @param dataStore An instance of a DataStore implementation.
+	 */
+	public void setDataStore(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
 	/**
 	 * Set the Utils instance to be used in this class.
 	 * 
@@ -118,21 +728,82 @@ public class GetDiffTask implements Task {
 	public void setUtils(Utils utils) {
 		this.utils = utils;	
 	}
-	
+
 	/**
-	 * Returns JSON object with the key and value already populated.
+	 * Set the size of the segments of the data compared at once, in the BYTE and PARALLEL modes.
 	 * 
-	 * @param key The key of the JSONObject
-	 * @param value The value of the JSONObject.
-	 * @return The JSONObject object with the key and value.
+	 * @param segmentSize The size of the segments, in bytes.
 	 */
-	private JSONObject getJSON(String key, int value) {
-		try {
-			JSONObject jsonObject = new JSONObject();
-			jsonObject.put(key, value);
-			return jsonObject;
-		} catch (JSONException jsonExc) {}
-		return null;
+	public void setSegmentSize(int segmentSize) {
+		this.segmentSize = segmentSize;
 	}
 
+	/**
+	 * Set the Metrics instance to be used in this class.
+	 * 
+	 * @param metrics An instance of the Metrics class.
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Listener that passes the differences to the result until the limit is reached.<br/>
+	 * The engine reports the offsets inside the segment being compared, so they are moved
+	 * by the position of the segment. The last difference is written only when the next one
+	 * is found (or by finish), because it can continue in the next segment.<br/>
+	 * The difference after the limit is not written, its offset is kept as the next one, 
+	 * and the comparison is stopped.
+	 */
+	private abstract class LimitedListener implements DiffListener {
+
+		// the number of differences written, and the offset of the next one (after the limit).
+		protected long numberOfDiffs;
+		protected long next = DiffResult.NO_NEXT;
+		// the offset of the segment being compared.
+		protected long position;
+		// the last difference found, not written yet.
+		private long pendingOffset;
+		private long pendingLength;
+
+		@Override
+		public boolean difference(long offset, long length) throws IOException {
+			offset += position;
+			if (pendingLength > 0 && pendingOffset + pendingLength == offset) {
+				// the difference continues from the previous segment.
+				pendingLength += length;
+				return true;
+			}
+			finish();
+			if (numberOfDiffs == limit) {
+				next = offset;
+				return false;
+			}
+			pendingOffset = offset;
+			pendingLength = length;
+			return true;
+		}
+
+		/**
+		 * Writes the last difference found, once the comparison is over.
+		 * 
+		 * @throws IOException In case the difference cannot be written.
+		 */
+		protected void finish() throws IOException {
+			if (pendingLength > 0) {
+				write(pendingOffset, pendingLength);
+				numberOfDiffs++;
+				pendingLength = 0;
+			}
+		}
+
+		/**
+		 * Writes one difference to the result.
+		 * 
+		 * @param offset The offset of the difference.
+		 * @param length The length of the difference.
+		 * @throws IOException In case the difference cannot be written.
+		 */
+		protected abstract void write(long offset, long length) throws IOException;
+	}
 }
@@ -0,0 +1,235 @@
+package com.assignment.task.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.cache.DiffCache;
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.diff.DiffEngine;
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.diff.impl.ByteDiffEngine;
+import com.assignment.ingest.JsonUploadReader;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.DataStoreFactoryImpl;
+import com.assignment.task.Task;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
+import com.assignment.utils.StripedLock;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the task that updates a range of one side of the data.<br/>
+ * The stream of the request has a JSON array of Base64 chunks (as in SaveDataTask), and the
+ * decoded bytes replace the bytes of the side that start at the offset. The range must be 
+ * inside the data, so the length of the side does not change.<br/>
+ * The stream is decoded into a range writer (DataStore.openRangeWriter) before the write lock
+ * of the id is taken, so a slow client does not block the id. The lock is held only to commit
+ * the range, which replaces the side (the data stores that keep files hash again only the
+ * blocks touched by the range), and to update the cache.<br/>
+ * When the diff of the id in the BYTE (or PARALLEL) mode is in the cache, it is updated
+ * instead of removed: the differences that touch the range are compared again, together
+ * with the range, and the other differences are kept. So the next diff after a small update
+ * of large data does not compare the whole data again.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class PatchDataTask implements Task {
+
+	// internal variables (used in constructor).
+	private String id;
+	private DataEnum side;
+	private long offset;
+	private InputStream inputStream;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.PatchDataTask");
+
+	// other variables
+	private DataStore dataStore = new DataStoreFactoryImpl().getDataStore();
+	private JsonUploadReader uploadReader = new JsonUploadReader();
+	private DiffEngine diffEngine = new ByteDiffEngine();
+	private DiffCache diffCache = LruDiffCache.getInstance();
+	private StripedLock stripedLock = StripedLock.getInstance();
+
+	/**
+	 * Constructor of the PatchDataTask class.
+	 *
+	 * @param id The id of the request.
+	 * @param side The side of the data (DataEnum.RIGHT or DataEnum.LEFT).
+	 * @param offset The offset (in bytes) of the range updated.
+	 * @param inputStream The stream with a JSON array of base64 encoded binary data chunks.
+	 */
+	public PatchDataTask(String id, DataEnum side, long offset, InputStream inputStream) {
+		this.id = id;
+		this.side = side;
+		this.offset = offset;
+		this.inputStream = inputStream;
+	}
+
+	/**
+	 * Updates the range of the data, and the cached diff of the id.
+	 *
+	 * @return JSONObject JSONObject with the result of the operation, or null in case of failure.
+	 */
+	@Override
+	public JSONObject executeTask() {
+		try (InputStream input = inputStream; DataWriter writer = dataStore.openRangeWriter(id, side, offset)) {
+			if (!dataStore.exists(id, side)) {
+				throw new IOException("There is no " + side + " data for id (" + id + ")");
+			}
+			long length = uploadReader.read(input, writer);
+
+			Lock lock = stripedLock.get(id).writeLock();
+			lock.lock();
+			try {
+				long leftVersion = dataStore.getVersion(id, DataEnum.LEFT);
+				long rightVersion = dataStore.getVersion(id, DataEnum.RIGHT);
+				DiffResult cachedResult = diffCache.get(id, DiffModeEnum.BYTE, leftVersion, rightVersion);
+				if (cachedResult == null) {
+					cachedResult = diffCache.get(id, DiffModeEnum.PARALLEL, leftVersion, rightVersion);
+				}
+
+				writer.commit();
+				diffCache.invalidate(id);
+				log.info("Updated {} bytes of {} data of id ({}) at offset {}", length, side, id, offset);
+
+				if (cachedResult != null) {
+					updateCache(cachedResult, offset, offset + length);
+				}
+			} finally {
+				lock.unlock();
+			}
+			return new JSONObject();
+		} catch (Exception exc) {
+			log.debug("Exception in the execution of PatchDataTask: {}", exc.getMessage(), exc);
+			return null;
+		}
+	}
+
+	/**
+	 * Puts in the cache the diff updated after the range [start, end) was changed.<br/>
+	 * The range is already saved, so a failure here is only a cache miss: the diff is not put
+	 * in the cache, and the next diff of the id compares the data again.
+	 * 
+	 * @param cachedResult The result of the diff before the update.
+	 * @param start The first index (inclusive) of the range.
+	 * @param end The last index (exclusive) of the range.
+	 */
+	private void updateCache(DiffResult cachedResult, long start, long end) {
+		try {
+			DiffResult result = updateDiff(cachedResult, start, end);
+			long leftVersion = dataStore.getVersion(id, DataEnum.LEFT);
+			long rightVersion = dataStore.getVersion(id, DataEnum.RIGHT);
+			diffCache.put(id, DiffModeEnum.BYTE, leftVersion, rightVersion, result);
+			diffCache.put(id, DiffModeEnum.PARALLEL, leftVersion, rightVersion, result);
+		} catch (IOException | RuntimeException exc) {
+			log.info("The cached diff of id ({}) was not updated: {}", id, exc.getMessage());
+			log.debug("Exception updating the cached diff of id ({})", id, exc);
+		}
+	}
+
+	/**
+	 * Updates the result of the diff after the range [start, end) was changed.<br/>
+	 * The differences that overlap or touch the range are compared again, together with the range,
+	 * and the differences before and after it are kept.
+	 * 
+	 * @param cachedResult The result of the diff before the update.
+	 * @param start The first index (inclusive) of the range.
+	 * @param end The last index (exclusive) of the range.
+	 * @return The result of the diff after the update.
+	 * @throws IOException In case the data cannot be read.
+	 */
+	private DiffResult updateDiff(DiffResult cachedResult, long start, long end) throws IOException {
+		if (Utils.RESULT_NOT_SAME_LENGTH.equals(cachedResult.getMessage())) {
+			// the update does not change the length.
+			return cachedResult;
+		}
+
+		// the differences are in the order of the offsets.
+		DifferenceList previous = cachedResult.getDifferences();
+		final DifferenceList differences = new DifferenceList();
+		int after = previous.size();
+		for (int i = 0; i < previous.size(); i++) {
+			long differenceStart = previous.getOffset(i);
+			long differenceEnd = differenceStart + previous.getLength(i);
+			if (differenceEnd < start) {
+				differences.add(differenceStart, previous.getLength(i));
+			} else if (differenceStart > end) {
+				after = i;
+				break;
+			} else {
+				start = Math.min(start, differenceStart);
+				end = Math.max(end, differenceEnd);
+			}
+		}
+
+		if (end - start > Integer.MAX_VALUE) {
+			throw new IOException("The range (" + start + ", " + end + ") is too large to be compared at once");
+		}
+		// only the range is read, and the differences found are moved to its offset.
+		final int length = (int) (end - start);
+		final long position = start;
+		try (DataReader left = dataStore.openReader(id, DataEnum.LEFT);
+				DataReader right = dataStore.openReader(id, DataEnum.RIGHT)) {
+			if (left == null || right == null) {
+				throw new IOException("There is no data for id (" + id + ")");
+			}
+			diffEngine.diff(left.read(position, length), right.read(position, length), 0, length, new DiffListener() {
+				@Override
+				public boolean difference(long offset, long length) {
+					differences.add(position + offset, length);
+					return true;
+				}
+			});
+		}
+		for (int i = after; i < previous.size(); i++) {
+			differences.add(previous.getOffset(i), previous.getLength(i));
+		}
+		return DiffResult.of(differences, DiffResult.NO_NEXT);
+	}
+
+	/**
+	 * Set the DataStore instance to be used in this class.
+	 *
+	 * @param dataStore An instance of a DataStore implementation.
+	 */
+	public void setDataStore(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	/**
+	 * Set the DiffEngine instance used to compare the updated range.
+	 *
+	 * @param diffEngine An instance of a DiffEngine implementation.
+	 */
+	public void setDiffEngine(DiffEngine diffEngine) {
+		this.diffEngine = diffEngine;
+	}
+
+	/**
+	 * Set the StripedLock instance to be used in this class.
+	 *
+	 * @param stripedLock An instance of the StripedLock class.
+	 */
+	public void setStripedLock(StripedLock stripedLock) {
+		this.stripedLock = stripedLock;
+	}
+
+	/**
+	 * Set the DiffCache instance to be used in this class.
+	 *
+	 * @param diffCache An instance of a DiffCache implementation.
+	 */
+	public void setDiffCache(DiffCache diffCache) {
+		this.diffCache = diffCache;
+	}
+}
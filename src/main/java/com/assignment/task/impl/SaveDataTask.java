@@ -1,19 +1,38 @@
 package com.assignment.task.impl;
 
-import java.io.File;
-import java.util.Properties;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.locks.Lock;
 
-import org.apache.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.codehaus.jettison.json.JSONObject;
 
+import com.assignment.cache.DiffCache;
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.ingest.JsonUploadReader;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.DataStoreFactoryImpl;
 import com.assignment.task.Task;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Metrics;
+import com.assignment.utils.StripedLock;
 import com.assignment.utils.Utils;
+import com.codahale.metrics.Timer;
 
 /**
- * Represents the task that saves the data in the file system.<br/>
- * It saves the "right" and also the "left" data on the file system in a filename 
- * named with the value of the id variable.<br/>
- * 
+ * Represents the task that saves the data in the data store.<br/>
+ * It decodes the "right" or the "left" data from Base64 and saves the raw bytes
+ * in the data store, under the value of the id variable.<br/>
+ * The data can be a Base64 String, or the stream of the request with a JSON array of 
+ * Base64 chunks, which is decoded and saved while it is read, or a channel with the raw
+ * bytes (binary uploads), which is transferred to the data store without decoding.<br/>
+ * The saves of the same id are serialized by the write lock of the id (only while the data
+ * is stored, not while it is read), and once the data is saved the cached diff results 
+ * of the id are removed.<br/>
+ * The time to read and decode the data, the time to store it and its size are recorded in the metrics.<br/>
+ *
  * @author lucas.reginato@gmail.com
  */
 public class SaveDataTask implements Task {
@@ -22,18 +41,24 @@ public class SaveDataTask implements Task {
 	private String id;
 	private String key;
 	private String value;
-	
+	private InputStream inputStream;
+	private ReadableByteChannel channel;
+
 	// logger of the class.
-	private Logger log = Logger.getLogger("com.assignment.task.impl.SaveDataTask");
-	
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.SaveDataTask");
+
 	// other variables
-	private Properties properties = null;
 	private Utils utils = new Utils();
+	private DataStore dataStore = new DataStoreFactoryImpl().getDataStore();
+	private JsonUploadReader uploadReader = new JsonUploadReader();
+	private DiffCache diffCache = LruDiffCache.getInstance();
+	private StripedLock stripedLock = StripedLock.getInstance();
+	private Metrics metrics = Metrics.getInstance();
 
 	/**
 	 * Constructor of the SaveDiskTask class.
-	 * 
-	 * @param id The id of the request. It is also used as a filename to hold the right/left data.
+	 *
+	 * @param id The id of the request. It is also used to identify the right/left data in the data store.
 	 * @param key The name of the key, which can be RIGHT or LEFT (from DataEnum enum).
 	 * @param value The value to be saved, a JSON base64 encoded binary data.
 	 */
@@ -42,49 +67,158 @@ public class SaveDataTask implements Task {
 		this.key = key;
 		this.value = value;
 	}
-	
+
+	/**
+	 * Constructor of the SaveDiskTask class, for data read from a stream.
+	 *
+	 * @param id The id of the request. It is also used to identify the right/left data in the data store.
+	 * @param key The name of the key, which can be RIGHT or LEFT (from DataEnum enum).
+	 * @param inputStream The stream with a JSON array of base64 encoded binary data chunks.
+	 */
+	public SaveDataTask(String id, String key, InputStream inputStream) {
+		this.id = id;
+		this.key = key;
+		this.inputStream = inputStream;
+	}
+
 	/**
-	 * Saves the data in the file system.<br/>
-	 * This class is executed in a synchronized way (no threads).<br/>
-	 * 
+	 * Constructor of the SaveDiskTask class, for raw data read from a channel.
+	 *
+	 * @param id The id of the request. It is also used to identify the right/left data in the data store.
+	 * @param key The name of the key, which can be RIGHT or LEFT (from DataEnum enum).
+	 * @param channel The channel with the raw binary data.
+	 */
+	public SaveDataTask(String id, String key, ReadableByteChannel channel) {
+		this.id = id;
+		this.key = key;
+		this.channel = channel;
+	}
+
+	/**
+	 * Saves the data in the data store.<br/>
+	 * This class is executed in the request thread, or by the TaskRunner (asynchronously).<br/>
+	 *
 	 * @return JSONObject JSONObject with the result of the save data operation.
 	 */
 	@Override
 	public JSONObject executeTask() {
 		try {
-			// check if file exists, if does not, create one
-			if (!utils.fileExists(id)) {
-				log.info("Creating file (" + id + ") at " + new File(".").getAbsolutePath());
-				properties = utils.createPropertiesFile(id);
-			} else {
-				// if it already exists, loads properties file from disk 
-				log.info("Loading file (" + id + ") at " + new File(".").getAbsolutePath());
-				properties = utils.loadPropertiesFile(id);
+			if (inputStream != null || channel != null) {
+				return saveStream();
 			}
-			
-			// set the new property value
-			log.info("Setting property (" + key + " = " + value + ") to property file (" + id + ") at "
-					+ new File(".").getAbsolutePath());
-			properties.setProperty(key, value);
 
-			// save properties file to root folder
-			properties = utils.savePropertiesFile(id, properties);
+			// decode the value only once, the data store keeps the raw bytes
+			log.info("Decoding {} characters of {} data of id ({})", value.length(), key, id);
+			Timer.Context decodeTimer = metrics.timer(Metrics.SAVE_DECODE).time();
+			byte[] data = utils.decodeBase64(value);
+			decodeTimer.stop();
+
+			// save the data, replacing the previous data of this side
+			Timer.Context storeTimer = metrics.timer(Metrics.SAVE_STORE).time();
+			Lock lock = stripedLock.get(id).writeLock();
+			lock.lock();
+			try {
+				dataStore.write(id, DataEnum.fromValue(key), data);
+				diffCache.invalidate(id);
+			} finally {
+				lock.unlock();
+				storeTimer.stop();
+			}
+			recordSize(data.length);
 
 			// return a result to the user, it could have an UUID that represents the operation.
 			// today the result is an empty JSONObejct(), because it will not be checked/returned to the user.
 			return new JSONObject();
 		} catch (Exception exc) {
-			log.debug("Exception in the execution of SaveDataTask: " + exc.getMessage(), exc);
+			log.debug("Exception in the execution of SaveDataTask: {}", exc.getMessage(), exc);
 			return null;
 		}
 	}
 
+	/**
+	 * Parses and decodes the stream while it is read (or transfers the raw bytes of the channel),
+	 * writing the decoded bytes to the data store.<br/>
+	 * The data is replaced only if the whole stream is valid, and the stream is always closed.
+	 *
+	 * @return JSONObject JSONObject with the result of the save data operation.
+	 * @throws Exception In case the stream is not valid or the data cannot be saved.
+	 */
+	private JSONObject saveStream() throws Exception {
+		log.info("Saving {} data of id ({}) from stream", key, id);
+		// only one of the stream and the channel is set, a null resource is not closed.
+		try (InputStream in = inputStream; ReadableByteChannel source = channel;
+				DataWriter writer = dataStore.openWriter(id, DataEnum.fromValue(key))) {
+			Timer.Context decodeTimer = metrics.timer(Metrics.SAVE_DECODE).time();
+			long length = (source != null) ? writer.transferFrom(source) : uploadReader.read(in, writer);
+			decodeTimer.stop();
+			Timer.Context storeTimer = metrics.timer(Metrics.SAVE_STORE).time();
+			Lock lock = stripedLock.get(id).writeLock();
+			lock.lock();
+			try {
+				writer.commit();
+				diffCache.invalidate(id);
+			} finally {
+				lock.unlock();
+				storeTimer.stop();
+			}
+			recordSize(length);
+			log.info("Saved {} bytes of {} data of id ({})", length, key, id);
+		}
+		return new JSONObject();
+	}
+
+	/**
+	 * Records the size of the saved data in the metrics.
+	 *
+	 * @param length The number of decoded bytes saved.
+	 */
+	private void recordSize(long length) {
+		metrics.histogram(Metrics.SAVE_BYTES).update(length);
+		metrics.meter(Metrics.STORAGE_BYTES_WRITTEN).mark(length);
+	}
+
 	/**
 	 * Set the Utils instance to be used in this class.
-	 * 
+	 *
 	 * @param utils An instance of the Utils class.
 	 */
 	public void setUtils(Utils utils) {
-		this.utils = utils;	
+		this.utils = utils;
+	}
+
+	/**
+	 * Set the DataStore instance to be used in this class.
+	 *
+	 * @param dataStore An instance of a DataStore implementation.
+	 */
+	public void setDataStore(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	/**
+	 * Set the StripedLock instance to be used in this class.
+	 *
+	 * @param stripedLock An instance of the StripedLock class.
+	 */
+	public void setStripedLock(StripedLock stripedLock) {
+		this.stripedLock = stripedLock;
+	}
+
+	/**
+	 * Set the DiffCache instance to be used in this class.
+	 *
+	 * @param diffCache An instance of a DiffCache implementation.
+	 */
+	public void setDiffCache(DiffCache diffCache) {
+		this.diffCache = diffCache;
+	}
+
+	/**
+	 * Set the Metrics instance to be used in this class.
+	 *
+	 * @param metrics An instance of the Metrics class.
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
 	}
 }
@@ -1,7 +1,15 @@
 package com.assignment.task.impl;
 
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+import com.assignment.task.DiffTask;
+import com.assignment.task.StreamingTask;
 import com.assignment.task.Task;
 import com.assignment.task.TaskFactory;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
 
 /**
  * Concrete class that implements the factory of tasks.
@@ -18,8 +26,80 @@ public class TaskFactoryImpl implements TaskFactory {
 	}
 
 	@Override
-	public Task createGetDiffTask(String id) {
+	public Task createSaveDataTask(String id, String key, InputStream inputStream) {
+		SaveDataTask task = new SaveDataTask(id, key, inputStream);
+		return task;
+	}
+
+	@Override
+	public Task createSaveDataTask(String id, String key, ReadableByteChannel channel) {
+		SaveDataTask task = new SaveDataTask(id, key, channel);
+		return task;
+	}
+
+	@Override
+	public Task createBatchUploadTask(InputStream inputStream) {
+		BatchUploadTask task = new BatchUploadTask(inputStream);
+		return task;
+	}
+
+	@Override
+	public StreamingTask createGetDataTask(String id, DataEnum side) {
+		GetDataTask task = new GetDataTask(id, side);
+		return task;
+	}
+
+	@Override
+	public Task createPatchDataTask(String id, DataEnum side, long offset, InputStream inputStream) {
+		PatchDataTask task = new PatchDataTask(id, side, offset, inputStream);
+		return task;
+	}
+
+	@Override
+	public Task createUploadChunkTask(String uploadId, int chunk, InputStream inputStream) {
+		UploadChunkTask task = new UploadChunkTask(uploadId, chunk, inputStream);
+		return task;
+	}
+
+	@Override
+	public Task createCommitUploadTask(String uploadId) {
+		CommitUploadTask task = new CommitUploadTask(uploadId);
+		return task;
+	}
+
+	@Override
+	public DiffTask createGetDiffTask(String id) {
             GetDiffTask task = new GetDiffTask(id);
             return task;
 	}
+
+	@Override
+	public DiffTask createGetDiffTask(String id, DiffModeEnum mode) {
+		GetDiffTask task = new GetDiffTask(id, mode);
+		return task;
+	}
+
+	@Override
+	public StreamingTask createStreamingDiffTask(String id, DiffModeEnum mode) {
+		GetDiffTask task = new GetDiffTask(id, mode);
+		return task;
+	}
+
+	@Override
+	public DiffTask createGetDiffTask(String id, DiffModeEnum mode, long from, long to, int limit) {
+		GetDiffTask task = new GetDiffTask(id, mode, from, to, limit);
+		return task;
+	}
+
+	@Override
+	public StreamingTask createStreamingDiffTask(String id, DiffModeEnum mode, long from, long to, int limit) {
+		GetDiffTask task = new GetDiffTask(id, mode, from, to, limit);
+		return task;
+	}
+
+	@Override
+	public StreamingTask createBatchDiffTask(List<String> ids, DiffModeEnum mode) {
+		BatchDiffTask task = new BatchDiffTask(ids, mode);
+		return task;
+	}
 }
@@ -0,0 +1,80 @@
+package com.assignment.task.impl;
+
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.assignment.ingest.UploadSession;
+import com.assignment.ingest.UploadSessionManager;
+import com.assignment.ingest.impl.FileUploadSessionManager;
+import com.assignment.task.Task;
+import com.assignment.utils.Utils;
+
+/**
+ * Represents the task that writes one chunk of an upload session.<br/>
+ * The stream of the request has a JSON array of Base64 chunks (as in SaveDataTask), and the
+ * decoded bytes are written at the offset of the chunk in the file of the session.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class UploadChunkTask implements Task {
+
+	// internal variables (used in constructor).
+	private String uploadId;
+	private int chunk;
+	private InputStream inputStream;
+
+	// logger of the class.
+	private Logger log = LoggerFactory.getLogger("com.assignment.task.impl.UploadChunkTask");
+
+	// other variables
+	private UploadSessionManager sessionManager = FileUploadSessionManager.getInstance();
+
+	/**
+	 * Constructor of the UploadChunkTask class.
+	 *
+	 * @param uploadId The id of the upload session.
+	 * @param chunk The number of the chunk, from 0.
+	 * @param inputStream The stream with a JSON array of base64 encoded binary data chunks.
+	 */
+	public UploadChunkTask(String uploadId, int chunk, InputStream inputStream) {
+		this.uploadId = uploadId;
+		this.chunk = chunk;
+		this.inputStream = inputStream;
+	}
+
+	/**
+	 * Writes the chunk in the upload session.
+	 *
+	 * @return JSONObject JSONObject with the length of the chunk, or null in case of failure.
+	 */
+	@Override
+	public JSONObject executeTask() {
+		try (InputStream input = inputStream) {
+			UploadSession session = sessionManager.get(uploadId);
+			if (session == null) {
+				log.info("Upload ({}) not found", uploadId);
+				return null;
+			}
+			long length = session.writeChunk(chunk, input);
+			log.info("Written chunk {} ({} bytes) of upload ({})", chunk, length, uploadId);
+			JSONObject jsonObject = new JSONObject();
+			jsonObject.put(Utils.LENGTH, length);
+			return jsonObject;
+		} catch (Exception exc) {
+			log.debug("Exception in the execution of UploadChunkTask: {}", exc.getMessage(), exc);
+			return null;
+		}
+	}
+
+	/**
+	 * Set the UploadSessionManager instance to be used in this class.
+	 *
+	 * @param sessionManager An instance of an UploadSessionManager implementation.
+	 */
+	public void setSessionManager(UploadSessionManager sessionManager) {
+		this.sessionManager = sessionManager;
+	}
+}
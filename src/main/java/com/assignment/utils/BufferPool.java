@@ -0,0 +1,222 @@
+package com.assignment.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.codahale.metrics.Gauge;
+
+/**
+ * Pool of direct (off-heap) ByteBuffers, shared by the upload, storage and diff paths.<br/>
+ * The buffers are grouped in size classes (powers of two, from MIN_SIZE to MAX_SIZE),
+ * a request gets a buffer of the smallest class that fits it, and returns it with release.
+ * Requests larger than MAX_SIZE get a buffer that is not kept by the pool.<br/>
+ * The pool keeps at most buffer.pool.max.bytes in released buffers, the other released
+ * buffers are left to the garbage collector.<br/>
+ * When buffer.pool.leak.detection is true (it is in the tests), the pool keeps where each
+ * borrowed buffer was acquired, so the buffers that were never released can be found, and
+ * a buffer released twice fails.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class BufferPool {
+
+	// configuration keys and default values.
+	public static final String MAX_BYTES_KEY = "buffer.pool.max.bytes";
+	public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+	public static final String LEAK_DETECTION_KEY = "buffer.pool.leak.detection";
+
+	// the smallest and the largest size classes.
+	public static final int MIN_SIZE = 4 * 1024;
+	public static final int MAX_SIZE = 4 * 1024 * 1024;
+
+	// the released buffers of each size class.
+	private final List<Queue<ByteBuffer>> classes;
+	private final long maxBytes;
+	private final AtomicLong pooledBytes = new AtomicLong();
+	private final AtomicLong borrowedBytes = new AtomicLong();
+	private final AtomicLong borrowed = new AtomicLong();
+	// where each borrowed buffer was acquired, only with leak detection (ByteBuffer.equals compares the content).
+	private final Map<ByteBuffer, Throwable> leaks;
+
+	/**
+	 * Holder of the instance shared by the application, created on the first use.
+	 */
+	private static class InstanceHolder {
+		private static final BufferPool INSTANCE = create();
+
+		private static BufferPool create() {
+			ConfigUtils config = new ConfigUtils();
+			BufferPool pool = new BufferPool(config.getLong(MAX_BYTES_KEY, DEFAULT_MAX_BYTES),
+					Boolean.parseBoolean(config.getString(LEAK_DETECTION_KEY, "false")));
+			pool.registerMetrics(Metrics.getInstance());
+			return pool;
+		}
+	}
+
+	/**
+	 * Returns the pool shared by the application.
+	 *
+	 * @return The BufferPool instance.
+	 */
+	public static BufferPool getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Constructor of the BufferPool class.
+	 *
+	 * @param maxBytes The maximum number of bytes kept in released buffers.
+	 * @param leakDetection true to keep where each borrowed buffer was acquired.
+	 */
+	public BufferPool(long maxBytes, boolean leakDetection) {
+		this.maxBytes = maxBytes;
+		this.leaks = leakDetection ? Collections.synchronizedMap(new IdentityHashMap<ByteBuffer, Throwable>()) : null;
+		this.classes = new ArrayList<Queue<ByteBuffer>>(getSizeClass(MAX_SIZE) + 1);
+		for (int i = 0; i <= getSizeClass(MAX_SIZE); i++) {
+			classes.add(new ConcurrentLinkedQueue<ByteBuffer>());
+		}
+	}
+
+	/**
+	 * Returns a direct buffer with at least the given size, its position is 0 and its limit is the size.<br/>
+	 * The buffer must be returned with release.
+	 *
+	 * @param size The number of bytes needed.
+	 * @return The ByteBuffer.
+	 */
+	public ByteBuffer acquire(int size) {
+		ByteBuffer buffer = null;
+		if (size <= MAX_SIZE) {
+			int sizeClass = getSizeClass(size);
+			buffer = classes.get(sizeClass).poll();
+			if (buffer != null) {
+				pooledBytes.addAndGet(-buffer.capacity());
+			} else {
+				buffer = ByteBuffer.allocateDirect(MIN_SIZE << sizeClass);
+			}
+		} else {
+			buffer = ByteBuffer.allocateDirect(size);
+		}
+		buffer.clear();
+		buffer.limit(size);
+		borrowed.incrementAndGet();
+		borrowedBytes.addAndGet(buffer.capacity());
+		if (leaks != null) {
+			leaks.put(buffer, new Throwable("Buffer of " + size + " bytes acquired here"));
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns a buffer to the pool, the buffer must not be used after that.
+	 *
+	 * @param buffer The ByteBuffer returned by acquire, null is ignored.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer == null) {
+			return;
+		}
+		if (leaks != null && leaks.remove(buffer) == null) {
+			throw new IllegalStateException("The buffer was not acquired from the pool, or it was already released");
+		}
+		borrowed.decrementAndGet();
+		borrowedBytes.addAndGet(-buffer.capacity());
+		int capacity = buffer.capacity();
+		if (capacity > MAX_SIZE || capacity != (MIN_SIZE << getSizeClass(capacity))) {
+			return;
+		}
+		if (pooledBytes.addAndGet(capacity) > maxBytes) {
+			pooledBytes.addAndGet(-capacity);
+			return;
+		}
+		classes.get(getSizeClass(capacity)).offer(buffer);
+	}
+
+	/**
+	 * Returns the number of buffers acquired and not released yet.
+	 *
+	 * @return The number of borrowed buffers.
+	 */
+	public long getBorrowed() {
+		return borrowed.get();
+	}
+
+	/**
+	 * Returns the number of bytes of the buffers acquired and not released yet.
+	 *
+	 * @return The number of borrowed bytes.
+	 */
+	public long getBorrowedBytes() {
+		return borrowedBytes.get();
+	}
+
+	/**
+	 * Returns the number of bytes kept in released buffers.
+	 *
+	 * @return The number of pooled bytes.
+	 */
+	public long getPooledBytes() {
+		return pooledBytes.get();
+	}
+
+	/**
+	 * Returns where the borrowed buffers were acquired, only with leak detection.
+	 *
+	 * @return The list with one Throwable (with the stack trace) per borrowed buffer,
+	 * empty without leak detection.
+	 */
+	public List<Throwable> getLeaks() {
+		if (leaks == null) {
+			return new ArrayList<Throwable>();
+		}
+		synchronized (leaks) {
+			return new ArrayList<Throwable>(leaks.values());
+		}
+	}
+
+	/**
+	 * Adds the gauges of the pool (borrowed buffers, borrowed bytes and pooled bytes) to the metrics.
+	 *
+	 * @param metrics The metrics of the application.
+	 */
+	public void registerMetrics(Metrics metrics) {
+		metrics.gauge(Metrics.BUFFER_POOL_BORROWED, new Gauge<Long>() {
+			@Override
+			public Long getValue() {
+				return getBorrowed();
+			}
+		});
+		metrics.gauge(Metrics.BUFFER_POOL_BORROWED_BYTES, new Gauge<Long>() {
+			@Override
+			public Long getValue() {
+				return getBorrowedBytes();
+			}
+		});
+		metrics.gauge(Metrics.BUFFER_POOL_POOLED_BYTES, new Gauge<Long>() {
+			@Override
+			public Long getValue() {
+				return getPooledBytes();
+			}
+		});
+	}
+
+	/**
+	 * Returns the index of the smallest size class that fits the size.
+	 *
+	 * @param size The number of bytes, up to MAX_SIZE.
+	 * @return The index of the size class, 0 is MIN_SIZE.
+	 */
+	private static int getSizeClass(int size) {
+		if (size <= MIN_SIZE) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros((size - 1) / MIN_SIZE);
+	}
+}
@@ -0,0 +1,85 @@
+package com.assignment.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class that gives access to the configuration of the application.<br/>
+ * The values are loaded from the diffapi.properties file (in the classpath), and 
+ * each value can be overridden by a system property with the same name (-Dkey=value).<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ConfigUtils {
+
+	// name of the configuration file, loaded from the classpath.
+	public static final String CONFIG_FILE = "diffapi.properties";
+
+	// logger of the class.
+	private static Logger log = LoggerFactory.getLogger("com.assignment.utils.ConfigUtils");
+
+	// the configuration is loaded only once.
+	private static final Properties PROPERTIES = loadConfigFile();
+
+	/**
+	 * Returns the String value of a configuration key.
+	 * 
+	 * @param key The name of the configuration key.
+	 * @param defaultValue The value returned when the key is not configured.
+	 * @return The configured value, or the default value.
+	 */
+	public String getString(String key, String defaultValue) {
+		return System.getProperty(key, PROPERTIES.getProperty(key, defaultValue)).trim();
+	}
+
+	/**
+	 * Returns the int value of a configuration key.
+	 * 
+	 * @param key The name of the configuration key.
+	 * @param defaultValue The value returned when the key is not configured or is not a number.
+	 * @return The configured value, or the default value.
+	 */
+	public int getInt(String key, int defaultValue) {
+		return (int) getLong(key, defaultValue);
+	}
+
+	/**
+	 * Returns the long value of a configuration key.
+	 * 
+	 * @param key The name of the configuration key.
+	 * @param defaultValue The value returned when the key is not configured or is not a number.
+	 * @return The configured value, or the default value.
+	 */
+	public long getLong(String key, long defaultValue) {
+		String value = getString(key, String.valueOf(defaultValue));
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException exc) {
+			log.info("Invalid value ({}) for {}, using {}", value, key, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Loads the configuration file from the classpath.
+	 * 
+	 * @return The Properties object with the configuration (empty if the file does not exist).
+	 */
+	private static Properties loadConfigFile() {
+		Properties properties = new Properties();
+		InputStream input = ConfigUtils.class.getClassLoader().getResourceAsStream(CONFIG_FILE);
+		if (input != null) {
+			try {
+				properties.load(input);
+				input.close();
+			} catch (IOException exc) {
+				log.debug("Exception loading configuration file: {}", exc.getMessage(), exc);
+			}
+		}
+		return properties;
+	}
+}
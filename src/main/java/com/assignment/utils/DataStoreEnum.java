@@ -0,0 +1,37 @@
+package com.assignment.utils;
+
+/**
+ * The enumeration that contains the data stores that can be configured (storage.type).<br/>
+ * MAPPED_FILE keeps each side in a binary file read with FileChannel.map (default).<br/>
+ * PROPERTIES_FILE keeps both sides Base64 encoded in a properties file named with the id.<br/>
+ * MEMORY keeps the data in memory only (fast, but lost on restart).<br/>
+ * H2 keeps the data in an embedded H2 database.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public enum DataStoreEnum {
+
+	MAPPED_FILE,
+	PROPERTIES_FILE,
+	MEMORY,
+	H2;
+
+	/**
+	 * Returns the name of the enumeration value.
+	 * 
+	 * @return A String that represents the name of the enumeration value.
+	 */
+	public String value() {
+		return name();
+	}
+
+	/**
+	 * Returns the DataStoreEnum value from a String value (case insensitive).
+	 * 
+	 * @param v The String object that represents the DataStoreEnum value.
+	 * @return The DataStoreEnum value.
+	 */
+	public static DataStoreEnum fromValue(String v) {
+		return valueOf(v.toUpperCase());
+	}
+}
@@ -0,0 +1,51 @@
+package com.assignment.utils;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * The enumeration that contains the formats of the diff result, selected by the Accept header.<br/>
+ * JSON is the default format, with the Offset and Length keys in each difference.<br/>
+ * CBOR and MESSAGE_PACK have the same fields, but the differences are a flat array of integers
+ * (offset, length, offset, length, ...).<br/>
+ * VARINT is a sequence of unsigned varints: the result code, the number of differences, the 
+ * differences (the distance from the end of the previous difference and the length) and the next offset.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public enum DiffFormatEnum {
+
+	JSON(MediaType.APPLICATION_JSON),
+	CBOR(Utils.APPLICATION_CBOR),
+	MESSAGE_PACK(Utils.APPLICATION_MSGPACK),
+	VARINT(Utils.APPLICATION_DIFF_VARINT);
+
+	private final MediaType mediaType;
+
+	DiffFormatEnum(String mediaType) {
+		this.mediaType = MediaType.valueOf(mediaType);
+	}
+
+	/**
+	 * Returns the media type of the format.
+	 * 
+	 * @return The MediaType of the format.
+	 */
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * Returns the first DiffFormatEnum value accepted by the media type (wildcards accept JSON).
+	 * 
+	 * @param mediaType The media type accepted by the user.
+	 * @return The DiffFormatEnum value, or null if no format is accepted.
+	 */
+	public static DiffFormatEnum fromMediaType(MediaType mediaType) {
+		for (DiffFormatEnum format : values()) {
+			if (format.mediaType.isCompatible(mediaType)) {
+				return format;
+			}
+		}
+		return null;
+	}
+}
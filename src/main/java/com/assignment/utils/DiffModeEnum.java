@@ -0,0 +1,35 @@
+package com.assignment.utils;
+
+/**
+ * The enumeration that contains the modes supported by the diff operation.<br/>
+ * STRING compares the Base64 encoded strings (offsets and lengths are in encoded characters).<br/>
+ * BYTE compares the decoded binary data (offsets and lengths are in bytes).<br/>
+ * PARALLEL is the same as BYTE, but large data is split in chunks compared by several threads.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public enum DiffModeEnum {
+
+	STRING,
+	BYTE,
+	PARALLEL;
+
+	/**
+	 * Returns the name of the enumeration value.
+	 * 
+	 * @return A String that represents the name of the enumeration value.
+	 */
+	public String value() {
+		return name();
+	}
+
+	/**
+	 * Returns the DiffModeEnum value from a String value (case insensitive).
+	 * 
+	 * @param v The String object that represents the DiffModeEnum value.
+	 * @return The DiffModeEnum value.
+	 */
+	public static DiffModeEnum fromValue(String v) {
+		return valueOf(v.toUpperCase());
+	}
+}
@@ -0,0 +1,183 @@
+package com.assignment.utils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+/**
+ * Utility class that keeps the metrics of the application (Dropwizard Metrics).<br/>
+ * The timers measure the endpoints and the phases of the tasks, the histograms measure 
+ * the sizes of the data and the number of differences, the meters count the bytes
+ * read from and written to the data store, and the gauges report the usage of the buffer pool.<br/>
+ * Recording a value only updates a sample of the metric, and the percentiles are computed
+ * only when the metrics are read (getSnapshot), so the requests do not pay for the reports.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class Metrics {
+
+	// timers of the endpoints.
+	public static final String ENDPOINT_LEFT = "endpoint.left";
+	public static final String ENDPOINT_RIGHT = "endpoint.right";
+	public static final String ENDPOINT_DIFF = "endpoint.diff";
+	// timers of the phases of the save (decode includes reading the request) and of the diff.
+	public static final String SAVE_DECODE = "save.decode";
+	public static final String SAVE_STORE = "save.store";
+	public static final String DIFF_LOAD = "diff.load";
+	public static final String DIFF_COMPARE = "diff.compare";
+	public static final String DIFF_SERIALIZE = "diff.serialize";
+	// histograms of the decoded size of the saved data and of the number of differences.
+	public static final String SAVE_BYTES = "save.bytes";
+	public static final String DIFF_DIFFERENCES = "diff.differences";
+	// meters of the bytes read and written by the data store.
+	public static final String STORAGE_BYTES_READ = "storage.bytes.read";
+	public static final String STORAGE_BYTES_WRITTEN = "storage.bytes.written";
+	// gauges of the buffer pool.
+	public static final String BUFFER_POOL_BORROWED = "buffer.pool.borrowed";
+	public static final String BUFFER_POOL_BORROWED_BYTES = "buffer.pool.borrowed.bytes";
+	public static final String BUFFER_POOL_POOLED_BYTES = "buffer.pool.pooled.bytes";
+
+	// keys of the snapshot.
+	private static final String TIMERS = "timers";
+	private static final String HISTOGRAMS = "histograms";
+	private static final String METERS = "meters";
+	private static final String GAUGES = "gauges";
+
+	private final MetricRegistry registry;
+
+	/**
+	 * Holder of the instance shared by the application, created on the first use.
+	 */
+	private static class InstanceHolder {
+		private static final Metrics INSTANCE = new Metrics(new MetricRegistry());
+	}
+
+	/**
+	 * Returns the metrics shared by the application.
+	 * 
+	 * @return The Metrics instance.
+	 */
+	public static Metrics getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Constructor of the Metrics class.
+	 * 
+	 * @param registry The registry that keeps the metrics.
+	 */
+	public Metrics(MetricRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Returns the timer with the name, it is created on the first use.
+	 * 
+	 * @param name The name of the timer.
+	 * @return The Timer.
+	 */
+	public Timer timer(String name) {
+		return registry.timer(name);
+	}
+
+	/**
+	 * Returns the histogram with the name, it is created on the first use.
+	 * 
+	 * @param name The name of the histogram.
+	 * @return The Histogram.
+	 */
+	public Histogram histogram(String name) {
+		return registry.histogram(name);
+	}
+
+	/**
+	 * Returns the meter with the name, it is created on the first use.
+	 * 
+	 * @param name The name of the meter.
+	 * @return The Meter.
+	 */
+	public Meter meter(String name) {
+		return registry.meter(name);
+	}
+
+	/**
+	 * Adds a gauge, its value is read only when the metrics are read.
+	 * 
+	 * @param name The name of the gauge.
+	 * @param gauge The Gauge.
+	 */
+	public void gauge(String name, Gauge<?> gauge) {
+		registry.remove(name);
+		registry.register(name, gauge);
+	}
+
+	/**
+	 * Returns the current values of all the metrics.<br/>
+	 * The times are in milliseconds, and the rates are per second (in the last minute).
+	 * 
+	 * @return JSONObject with the timers, the histograms, the meters and the gauges.
+	 * @throws JSONException In case the snapshot cannot be built.
+	 */
+	public JSONObject getSnapshot() throws JSONException {
+		JSONObject timers = new JSONObject();
+		for (Map.Entry<String, Timer> timer : registry.getTimers().entrySet()) {
+			JSONObject jsonObject = getJSON(timer.getValue().getSnapshot(), TimeUnit.MILLISECONDS.toNanos(1));
+			jsonObject.put("count", timer.getValue().getCount());
+			jsonObject.put("rate", timer.getValue().getOneMinuteRate());
+			timers.put(timer.getKey(), jsonObject);
+		}
+		JSONObject histograms = new JSONObject();
+		for (Map.Entry<String, Histogram> histogram : registry.getHistograms().entrySet()) {
+			JSONObject jsonObject = getJSON(histogram.getValue().getSnapshot(), 1);
+			jsonObject.put("count", histogram.getValue().getCount());
+			histograms.put(histogram.getKey(), jsonObject);
+		}
+		JSONObject meters = new JSONObject();
+		for (Map.Entry<String, Meter> meter : registry.getMeters().entrySet()) {
+			JSONObject jsonObject = new JSONObject();
+			jsonObject.put("count", meter.getValue().getCount());
+			jsonObject.put("rate", meter.getValue().getOneMinuteRate());
+			meters.put(meter.getKey(), jsonObject);
+		}
+		JSONObject gauges = new JSONObject();
+		// the registry returns the gauges as a raw type, they are read as gauges of any type.
+		for (Map.Entry<String, ?> entry : registry.getGauges().entrySet()) {
+			Gauge<?> gauge = (Gauge<?>) entry.getValue();
+			gauges.put(entry.getKey(), gauge.getValue());
+		}
+		JSONObject jsonObject = new JSONObject();
+		jsonObject.put(TIMERS, timers);
+		jsonObject.put(HISTOGRAMS, histograms);
+		jsonObject.put(METERS, meters);
+		jsonObject.put(GAUGES, gauges);
+		return jsonObject;
+	}
+
+	/**
+	 * Returns the distribution of the values of a snapshot.
+	 * 
+	 * @param snapshot The snapshot of a timer or of a histogram.
+	 * @param unit The value of one unit of the result (e.g. the nanoseconds of a millisecond).
+	 * @return JSONObject with the mean, the median, the percentiles and the maximum.
+	 * @throws JSONException In case the result cannot be built.
+	 */
+	private JSONObject getJSON(Snapshot snapshot, double unit) throws JSONException {
+		JSONObject jsonObject = new JSONObject();
+		jsonObject.put("mean", snapshot.getMean() / unit);
+		jsonObject.put("p50", snapshot.getMedian() / unit);
+		jsonObject.put("p95", snapshot.get95thPercentile() / unit);
+		jsonObject.put("p99", snapshot.get99thPercentile() / unit);
+		jsonObject.put("p999", snapshot.get999thPercentile() / unit);
+		jsonObject.put("max", snapshot.getMax() / unit);
+		return jsonObject;
+	}
+}
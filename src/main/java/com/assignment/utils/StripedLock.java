@@ -0,0 +1,103 @@
+package com.assignment.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Utility class that gives a read/write lock for each id.<br/>
+ * The locks are kept in a fixed array (stripes) indexed by the hash of the id, so 
+ * the same id always gets the same lock, and different ids are only serialized when 
+ * they share a stripe. The number of stripes is configured in the diffapi.properties 
+ * file (lock.stripes).<br/>
+ * The saves of an id take the write lock, and the diffs take the read lock while they
+ * read the data, so a diff never reads a side that is being saved.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class StripedLock {
+
+	// configuration key.
+	public static final String STRIPES_KEY = "lock.stripes";
+
+	private final ReadWriteLock[] locks;
+	private final int mask;
+
+	/**
+	 * Holder of the instance shared by the application, created on the first use.
+	 */
+	private static class InstanceHolder {
+		private static final StripedLock INSTANCE = new StripedLock(new ConfigUtils().getInt(STRIPES_KEY, 64));
+	}
+
+	/**
+	 * Returns the locks shared by the application.
+	 * 
+	 * @return The StripedLock instance.
+	 */
+	public static StripedLock getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Constructor of the StripedLock class.
+	 * 
+	 * @param stripes The number of locks, rounded up to a power of two.
+	 */
+	public StripedLock(int stripes) {
+		int size = 1;
+		while (size < stripes) {
+			size <<= 1;
+		}
+		locks = new ReadWriteLock[size];
+		for (int i = 0; i < size; i++) {
+			locks[i] = new ReentrantReadWriteLock();
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 * Returns the lock of an id.
+	 * 
+	 * @param id The id of the operation.
+	 * @return The ReadWriteLock of the id.
+	 */
+	public ReadWriteLock get(String id) {
+		return locks[getStripe(id)];
+	}
+
+	/**
+	 * Returns the write locks of many ids, each stripe only once.<br/>
+	 * The locks are in the order of the stripes, so the callers that lock all of them in 
+	 * this order never wait for each other in a cycle.
+	 * 
+	 * @param ids The ids of the operations.
+	 * @return The write locks, to be locked in the order of the list.
+	 */
+	public List<Lock> getWriteLocks(Collection<String> ids) {
+		SortedMap<Integer, Lock> stripes = new TreeMap<Integer, Lock>();
+		for (String id : ids) {
+			int stripe = getStripe(id);
+			stripes.put(stripe, locks[stripe].writeLock());
+		}
+		return new ArrayList<Lock>(stripes.values());
+	}
+
+	/**
+	 * Returns the index of the stripe of an id.
+	 * 
+	 * @param id The id of the operation.
+	 * @return The index of the lock of the id.
+	 */
+	private int getStripe(String id) {
+		int hash = id.hashCode();
+		// spread the high bits, so ids that differ only in the end do not share a stripe.
+		hash ^= (hash >>> 16);
+		return hash & mask;
+	}
+}
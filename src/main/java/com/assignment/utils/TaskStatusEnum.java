@@ -0,0 +1,35 @@
+package com.assignment.utils;
+
+/**
+ * The enumeration that contains the status of a task executed asynchronously.<br/>
+ * PENDING tasks are waiting in the queue, RUNNING tasks are being executed, and
+ * COMPLETED or FAILED tasks have finished (FAILED when the task returned no result).<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public enum TaskStatusEnum {
+
+	PENDING,
+	RUNNING,
+	COMPLETED,
+	FAILED;
+
+	/**
+	 * Returns the name of the enumeration value.
+	 * 
+	 * @return A String that represents the name of the enumeration value.
+	 */
+	public String value() {
+		return name();
+	}
+
+	/**
+	 * Returns the TaskStatusEnum value from a String value.
+	 * 
+	 * @param v The String object that represents the TaskStatusEnum value.
+	 * @return The TaskStatusEnum value.
+	 */
+	public static TaskStatusEnum fromValue(String v) {
+		return valueOf(v);
+	}
+}
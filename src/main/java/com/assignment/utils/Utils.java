@@ -10,7 +10,8 @@ import java.util.Properties;
 
 import javax.xml.bind.DatatypeConverter;
 
-import org.apache.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Utility class that contains:<br/><br/>
@@ -24,7 +25,10 @@ public class Utils {
 
 	// possible return codes of the HTTP access.
 	public static final int OK = 200;
+	public static final int ACCEPTED = 202;
 	public static final int OK_WITH_NO_CONTENT = 204;
+	public static final int NOT_FOUND = 404;
+	public static final int TOO_MANY_REQUESTS = 429;
 	public static final int INTERNAL_SERVER_ERROR = 500;
 	
 	// this should be a properties file, where
@@ -37,9 +41,24 @@ public class Utils {
 	public  static final String DIFFERENCES = "Differences";
 	public  static final String OFFSET = "Offset";
 	public  static final String LENGTH = "Length";
+	public  static final String NEXT = "Next";
+	public  static final String OPERATION = "Operation";
+	public  static final String STATUS = "Status";
+	public  static final String UPLOAD = "Upload";
+	public  static final String CHUNK_SIZE = "ChunkSize";
+	public  static final String CHUNKS = "Chunks";
+	public  static final String ID = "Id";
+	public  static final String SIDE = "Side";
+	public  static final String DATA = "Data";
+	public  static final String RECORDS = "Records";
+
+	// media types of the compact formats of the diff result.
+	public static final String APPLICATION_CBOR = "application/cbor";
+	public static final String APPLICATION_MSGPACK = "application/msgpack";
+	public static final String APPLICATION_DIFF_VARINT = "application/x-diff-varint";
 	
 	// logger of the class.
-	private Logger log = Logger.getLogger("com.assignment.utils.Utils");
+	private Logger log = LoggerFactory.getLogger("com.assignment.utils.Utils");
 
 	/** 
 	 * Transforms a byte array to String using printBase64Binary method from DatatypeConverter. 
@@ -78,7 +97,7 @@ public class Utils {
 			input.close();
 			return properties.getProperty(data.name());
 		} catch (IOException exc) {
-			log.debug("Exception loading data from file: " + exc.getMessage(), exc);
+			log.debug("Exception loading data from file: {}", exc.getMessage(), exc);
 			return null;
 		}		
 	}
@@ -97,7 +116,7 @@ public class Utils {
 			output.close();
 			return properties;
 		} catch (Exception exc) {
-			log.debug("Exception saving properties file: " + exc.getMessage());
+			log.debug("Exception saving properties file: {}", exc.getMessage());
 			return null;
 		}
 	}
@@ -116,7 +135,7 @@ public class Utils {
 			input.close();
 			return properties;
 		} catch (IOException exc) {
-			log.debug("Exception loading properties file: " + exc.getMessage());
+			log.debug("Exception loading properties file: {}", exc.getMessage());
 			return null;
 		}
 	}
@@ -137,7 +156,7 @@ public class Utils {
 			output.close();
 			return properties;
 		} catch (Exception exc) {
-			log.debug("Exception creating properties file: " + exc.getMessage());
+			log.debug("Exception creating properties file: {}", exc.getMessage());
 			return null;
 		}
 	}	
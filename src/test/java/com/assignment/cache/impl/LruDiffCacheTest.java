@@ -0,0 +1,111 @@
+package com.assignment.cache.impl;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.DiffModeEnum;
+
+/**
+ * Unit Test class for LruDiffCache class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class LruDiffCacheTest {
+
+	/**
+	 * Test that a result is returned only for the same mode and versions, and the counters.
+	 */
+	@Test
+	public void testGetPositive() throws JSONException {
+		LruDiffCache cache = new LruDiffCache(10, 1024 * 1024);
+		DiffResult result = DiffResult.equal();
+		cache.put("1", DiffModeEnum.BYTE, 1, 2, result);
+
+		Assert.assertSame(result, cache.get("1", DiffModeEnum.BYTE, 1, 2));
+		Assert.assertNull(cache.get("1", DiffModeEnum.STRING, 1, 2));
+		Assert.assertNull(cache.get("1", DiffModeEnum.BYTE, 1, 3));
+
+		JSONObject statistics = cache.getStatistics();
+		Assert.assertEquals(1, statistics.getLong(LruDiffCache.HITS));
+		Assert.assertEquals(2, statistics.getLong(LruDiffCache.MISSES));
+		Assert.assertEquals(1, statistics.getInt(LruDiffCache.ENTRIES));
+	}
+
+	/**
+	 * Test that the results of an id are removed by the invalidation.
+	 */
+	@Test
+	public void testInvalidateNegative() {
+		LruDiffCache cache = new LruDiffCache(10, 1024 * 1024);
+		cache.put("1", DiffModeEnum.BYTE, 1, 1, DiffResult.equal());
+		cache.put("1", DiffModeEnum.STRING, 1, 1, DiffResult.equal());
+		cache.put("2", DiffModeEnum.BYTE, 1, 1, DiffResult.equal());
+		cache.invalidate("1");
+
+		Assert.assertNull(cache.get("1", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertNull(cache.get("1", DiffModeEnum.STRING, 1, 1));
+		Assert.assertNotNull(cache.get("2", DiffModeEnum.BYTE, 1, 1));
+	}
+
+	/**
+	 * Test that the least recently used result is evicted when there are too many entries.
+	 */
+	@Test
+	public void testEvictionByEntriesPositive() throws JSONException {
+		LruDiffCache cache = new LruDiffCache(2, 1024 * 1024);
+		cache.put("1", DiffModeEnum.BYTE, 1, 1, DiffResult.equal());
+		cache.put("2", DiffModeEnum.BYTE, 1, 1, DiffResult.equal());
+		// "1" is used, so "2" is the least recently used
+		cache.get("1", DiffModeEnum.BYTE, 1, 1);
+		cache.put("3", DiffModeEnum.BYTE, 1, 1, DiffResult.equal());
+
+		Assert.assertNotNull(cache.get("1", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertNull(cache.get("2", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertNotNull(cache.get("3", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertEquals(1, cache.getStatistics().getLong(LruDiffCache.EVICTIONS));
+	}
+
+	/**
+	 * Test that results are evicted when the size limit is reached, and that a result 
+	 * bigger than the limit is not cached.
+	 */
+	@Test
+	public void testEvictionBySizeNegative() throws JSONException {
+		LruDiffCache cache = new LruDiffCache(10, 1024);
+		cache.put("1", DiffModeEnum.BYTE, 1, 1, getResult(30));
+		cache.put("2", DiffModeEnum.BYTE, 1, 1, getResult(30));
+		cache.put("3", DiffModeEnum.BYTE, 1, 1, getResult(100));
+
+		Assert.assertNull(cache.get("1", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertNotNull(cache.get("2", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertNull(cache.get("3", DiffModeEnum.BYTE, 1, 1));
+		Assert.assertTrue(cache.getStatistics().getLong(LruDiffCache.BYTES) <= 1024);
+	}
+
+	/**
+	 * Test that nothing is cached when the cache is disabled (no entries).
+	 */
+	@Test
+	public void testDisabledNegative() {
+		LruDiffCache cache = new LruDiffCache(0, 1024);
+		cache.put("1", DiffModeEnum.BYTE, 1, 1, DiffResult.equal());
+
+		Assert.assertNull(cache.get("1", DiffModeEnum.BYTE, 1, 1));
+	}
+
+	/**
+	 * Returns a result with the given number of differences.
+	 */
+	private DiffResult getResult(int differences) {
+		DifferenceList differenceList = new DifferenceList();
+		for (int i = 0; i < differences; i++) {
+			differenceList.add(2 * i, 1);
+		}
+		return DiffResult.of(differenceList, DiffResult.NO_NEXT);
+	}
+}
@@ -0,0 +1,53 @@
+package com.assignment.diff;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for DiffResult class.<br/>
+ * Test all methods, positive and negative scenarios.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class DiffResultTest {
+
+	/**
+	 * Test that the result with differences keeps the list and the next offset, and is built as JSON.
+	 */
+	@Test
+	public void testDifferencesPositive() throws JSONException {
+		DifferenceList differences = new DifferenceList();
+		differences.add(3, 5);
+		DiffResult result = DiffResult.of(differences, 10);
+
+		Assert.assertEquals(Utils.RESULT_SAME_LENGTH_WITH_DIFFS, result.getMessage());
+		Assert.assertSame(differences, result.getDifferences());
+		Assert.assertTrue(result.hasNext());
+
+		JSONObject jsonObject = result.toJSONObject();
+		Assert.assertEquals(Utils.RESULT_SAME_LENGTH_WITH_DIFFS, jsonObject.getString(Utils.RESULT));
+		Assert.assertEquals(1, jsonObject.getJSONArray(Utils.DIFFERENCES).length());
+		Assert.assertEquals(3, jsonObject.getJSONArray(Utils.DIFFERENCES).getJSONObject(0).getLong(Utils.OFFSET));
+		Assert.assertEquals(5, jsonObject.getJSONArray(Utils.DIFFERENCES).getJSONObject(0).getLong(Utils.LENGTH));
+		Assert.assertEquals(10, jsonObject.getLong(Utils.NEXT));
+	}
+
+	/**
+	 * Test that the result without differences is the equal result, with only the message.
+	 */
+	@Test
+	public void testWithoutDifferencesNegative() throws JSONException {
+		DiffResult result = DiffResult.of(new DifferenceList(), DiffResult.NO_NEXT);
+
+		Assert.assertEquals(Utils.RESULT_ARE_EQUAL, result.getMessage());
+		Assert.assertFalse(result.hasNext());
+		JSONObject jsonObject = result.toJSONObject();
+		Assert.assertEquals(Utils.RESULT_ARE_EQUAL, jsonObject.getJSONArray(Utils.RESULT).getString(0));
+		Assert.assertFalse(jsonObject.has(Utils.DIFFERENCES));
+		Assert.assertEquals(Utils.RESULT_NOT_SAME_LENGTH, DiffResult.notSameLength().getMessage());
+	}
+}
@@ -0,0 +1,65 @@
+package com.assignment.diff;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Test class for DifferenceList class.<br/>
+ * Test all methods, positive and negative scenarios.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class DifferenceListTest {
+
+	/**
+	 * Test that the list grows past its initial capacity and keeps the differences in order.
+	 */
+	@Test
+	public void testAddPositive() {
+		DifferenceList differences = new DifferenceList();
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue(differences.difference(i * 10, i + 1));
+		}
+		Assert.assertEquals(100, differences.size());
+		Assert.assertEquals(0, differences.getOffset(0));
+		Assert.assertEquals(1, differences.getLength(0));
+		Assert.assertEquals(990, differences.getOffset(99));
+		Assert.assertEquals(100, differences.getLength(99));
+	}
+
+	/**
+	 * Test that the last difference of the list is joined with the first one of the
+	 * next list when they are consecutive.
+	 */
+	@Test
+	public void testAppendConsecutivePositive() {
+		DifferenceList first = new DifferenceList();
+		first.add(0, 2);
+		first.add(6, 4);
+		DifferenceList second = new DifferenceList();
+		second.add(10, 3);
+		second.add(20, 1);
+
+		first.append(second);
+		Assert.assertEquals(3, first.size());
+		Assert.assertEquals(6, first.getOffset(1));
+		Assert.assertEquals(7, first.getLength(1));
+		Assert.assertEquals(20, first.getOffset(2));
+	}
+
+	/**
+	 * Test that the differences are not joined when there is an equal byte between them.
+	 */
+	@Test
+	public void testAppendNotConsecutiveNegative() {
+		DifferenceList first = new DifferenceList();
+		first.add(0, 4);
+		DifferenceList second = new DifferenceList();
+		second.add(5, 2);
+
+		first.append(second);
+		Assert.assertEquals(2, first.size());
+		Assert.assertEquals(4, first.getLength(0));
+		Assert.assertEquals(5, first.getOffset(1));
+	}
+}
@@ -0,0 +1,148 @@
+package com.assignment.diff.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for ByteDiffEngine class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ByteDiffEngineTest {
+
+	/**
+	 * Test for when the data have differences in the start, middle and end.
+	 */
+	@Test
+	public void testDiffWithDifferencesPositive() throws JSONException {
+		byte[] left  = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+		byte[] right = {9, 9, 2, 3, 9, 5, 6, 7, 9, 0};
+
+		int[] expectedOffsets = {0, 4, 8};
+		int[] expectedLength = {2, 1, 2};
+
+		JSONArray jsonArray = toJSONArray(new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		Assert.assertEquals(expectedOffsets.length, jsonArray.length());
+		for (int i = 0; i < jsonArray.length(); i++) {
+			JSONObject jsonObject = jsonArray.getJSONObject(i);
+			Assert.assertEquals(expectedOffsets[i], jsonObject.getInt(Utils.OFFSET));
+			Assert.assertEquals(expectedLength[i], jsonObject.getInt(Utils.LENGTH));
+		}
+	}
+
+	/**
+	 * Test for when the data are equal, no difference is expected.
+	 */
+	@Test
+	public void testDiffWithoutDifferencesNegative() throws JSONException {
+		byte[] left  = {0, 1, 2, 3};
+		byte[] right = {0, 1, 2, 3};
+
+		JSONArray jsonArray = toJSONArray(new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		Assert.assertEquals(0, jsonArray.length());
+	}
+
+	/**
+	 * Test that the word at a time comparison finds the same differences as a
+	 * byte by byte comparison, for random data with a few differences.
+	 */
+	@Test
+	public void testDiffSameAsByteByBytePositive() throws JSONException {
+		Random random = new Random(42);
+		byte[] left = new byte[1003];
+		random.nextBytes(left);
+		byte[] right = left.clone();
+		for (int i = 0; i < 40; i++) {
+			right[random.nextInt(right.length)]++;
+		}
+
+		// the expected result, byte by byte
+		StringBuilder expected = new StringBuilder();
+		int diffOffset = -1;
+		for (int i = 0; i <= left.length; i++) {
+			boolean equal = (i == left.length) || (left[i] == right[i]);
+			if (!equal && diffOffset < 0) {
+				diffOffset = i;
+			} else if (equal && diffOffset >= 0) {
+				expected.append(diffOffset).append(':').append(i - diffOffset).append(' ');
+				diffOffset = -1;
+			}
+		}
+
+		JSONArray jsonArray = toJSONArray(new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		StringBuilder actual = new StringBuilder();
+		for (int i = 0; i < jsonArray.length(); i++) {
+			JSONObject jsonObject = jsonArray.getJSONObject(i);
+			actual.append(jsonObject.getInt(Utils.OFFSET)).append(':').append(jsonObject.getInt(Utils.LENGTH)).append(' ');
+		}
+		Assert.assertEquals(expected.toString(), actual.toString());
+	}
+
+	/**
+	 * Test that the differences are passed to the listener in order.
+	 */
+	@Test
+	public void testDiffWithListenerPositive() throws IOException {
+		byte[] left  = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+		byte[] right = {9, 9, 2, 3, 9, 5, 6, 7, 9, 0};
+
+		final List<Long> differences = new ArrayList<Long>();
+		new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right), new DiffListener() {
+			@Override
+			public boolean difference(long offset, long length) {
+				differences.add(offset);
+				differences.add(length);
+				return true;
+			}
+		});
+		Assert.assertEquals(Arrays.asList(0L, 2L, 4L, 1L, 8L, 2L), differences);
+	}
+
+	/**
+	 * Test that only the [from, to) window is compared, and that the comparison 
+	 * stops when the listener returns false.
+	 */
+	@Test
+	public void testDiffWithWindowAndStopPositive() throws IOException {
+		byte[] left  = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+		byte[] right = {9, 9, 2, 3, 9, 5, 6, 7, 9, 0};
+
+		final List<Long> differences = new ArrayList<Long>();
+		new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right), 1, 10, new DiffListener() {
+			@Override
+			public boolean difference(long offset, long length) {
+				differences.add(offset);
+				differences.add(length);
+				return differences.size() < 4;
+			}
+		});
+		// the first difference is cut at the window, and the last one is not compared.
+		Assert.assertEquals(Arrays.asList(1L, 1L, 4L, 1L), differences);
+	}
+
+	/**
+	 * Returns the differences as a JSON array, to compare them as text.
+	 */
+	private JSONArray toJSONArray(DifferenceList differences) throws JSONException {
+		JSONArray jsonArray = new JSONArray();
+		for (int i = 0; i < differences.size(); i++) {
+			jsonArray.put(new JSONObject().put(Utils.OFFSET, differences.getOffset(i)).put(Utils.LENGTH, differences.getLength(i)));
+		}
+		return jsonArray;
+	}
+}
@@ -0,0 +1,57 @@
+package com.assignment.diff.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Test class for ComparisonKernel class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ComparisonKernelTest {
+
+	private ComparisonKernel kernel = new ComparisonKernel();
+
+	/**
+	 * Test that every position of a mismatch is found, inside the words and in the tail,
+	 * for both byte orders.
+	 */
+	@Test
+	public void testMismatchEveryPositionPositive() {
+		for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+			for (int position = 0; position < 21; position++) {
+				ByteBuffer left = ByteBuffer.allocate(21).order(order);
+				ByteBuffer right = ByteBuffer.allocate(21).order(order);
+				right.put(position, (byte) 1);
+				Assert.assertEquals(position, kernel.mismatch(left, right, 0, 21));
+			}
+		}
+	}
+
+	/**
+	 * Test that the interval limits are respected and that "to" is returned when equal.
+	 */
+	@Test
+	public void testMismatchOutsideIntervalNegative() {
+		ByteBuffer left = ByteBuffer.allocate(32);
+		ByteBuffer right = ByteBuffer.allocate(32);
+		right.put(2, (byte) 1);
+		right.put(30, (byte) 1);
+		Assert.assertEquals(29, kernel.mismatch(left, right, 3, 29));
+	}
+
+	/**
+	 * Test that the end of a difference is found.
+	 */
+	@Test
+	public void testMatchPositive() {
+		ByteBuffer left = ByteBuffer.wrap(new byte[] {0, 0, 0, 0, 0});
+		ByteBuffer right = ByteBuffer.wrap(new byte[] {1, 1, 1, 0, 1});
+		Assert.assertEquals(3, kernel.match(left, right, 0, 5));
+		Assert.assertEquals(5, kernel.match(left, right, 4, 5));
+	}
+}
@@ -0,0 +1,152 @@
+package com.assignment.diff.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for ParallelDiffEngine class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * The results of the parallel engine are compared with the sequential ByteDiffEngine.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ParallelDiffEngineTest {
+
+	/**
+	 * Test that the parallel result is identical to the sequential one, for random data 
+	 * with differences that cross the limits of the chunks.
+	 */
+	@Test
+	public void testDiffSameAsSequentialPositive() throws JSONException {
+		Random random = new Random(7);
+		byte[] left = new byte[10000];
+		random.nextBytes(left);
+		byte[] right = left.clone();
+		for (int i = 0; i < 300; i++) {
+			int offset = random.nextInt(right.length - 50);
+			int length = random.nextInt(50);
+			for (int j = offset; j < offset + length; j++) {
+				right[j]++;
+			}
+		}
+
+		JSONArray expected = toJSONArray(new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		JSONArray actual = toJSONArray(new ParallelDiffEngine(64).diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		Assert.assertEquals(expected.toString(), actual.toString());
+	}
+
+	/**
+	 * Test that a difference covering all the chunks is reported as a single difference.
+	 */
+	@Test
+	public void testDiffAllDifferentPositive() throws JSONException {
+		byte[] left = new byte[1000];
+		byte[] right = new byte[1000];
+		Arrays.fill(right, (byte) 1);
+
+		JSONArray actual = toJSONArray(new ParallelDiffEngine(16).diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		Assert.assertEquals(1, actual.length());
+		JSONObject jsonObject = actual.getJSONObject(0);
+		Assert.assertEquals(0, jsonObject.getInt(Utils.OFFSET));
+		Assert.assertEquals(1000, jsonObject.getInt(Utils.LENGTH));
+	}
+
+	/**
+	 * Test that the differences passed to the listener are identical to the sequential 
+	 * result, in order, with the differences that cross the limits of the chunks merged.
+	 */
+	@Test
+	public void testDiffWithListenerSameAsSequentialPositive() throws JSONException, IOException {
+		Random random = new Random(11);
+		byte[] left = new byte[10000];
+		random.nextBytes(left);
+		byte[] right = left.clone();
+		for (int i = 0; i < 300; i++) {
+			int offset = random.nextInt(right.length - 50);
+			int length = random.nextInt(50);
+			for (int j = offset; j < offset + length; j++) {
+				right[j]++;
+			}
+		}
+
+		final JSONArray actual = new JSONArray();
+		new ParallelDiffEngine(64).diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right), new DiffListener() {
+			@Override
+			public boolean difference(long offset, long length) {
+				try {
+					actual.put(new JSONObject().put(Utils.OFFSET, offset).put(Utils.LENGTH, length));
+				} catch (JSONException exc) {
+					Assert.fail();
+				}
+				return true;
+			}
+		});
+		JSONArray expected = toJSONArray(new ByteDiffEngine().diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right)));
+		Assert.assertEquals(expected.toString(), actual.toString());
+	}
+
+	/**
+	 * Test that the comparison stops when the listener fails.
+	 */
+	@Test(expected = IOException.class)
+	public void testDiffWithFailingListenerNegative() throws IOException {
+		byte[] left = new byte[1000];
+		byte[] right = new byte[1000];
+		for (int i = 0; i < right.length; i += 2) {
+			right[i] = 1;
+		}
+
+		new ParallelDiffEngine(16).diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right), new DiffListener() {
+			@Override
+			public boolean difference(long offset, long length) throws IOException {
+				throw new IOException("connection reset");
+			}
+		});
+	}
+
+	/**
+	 * Test that the comparison of a window stops when the listener returns false, and the 
+	 * differences received are the first ones of the sequential result for the same window.
+	 */
+	@Test
+	public void testDiffWithWindowAndStopPositive() throws JSONException, IOException {
+		byte[] left = new byte[10000];
+		byte[] right = new byte[10000];
+		for (int i = 0; i < right.length; i += 10) {
+			right[i] = 1;
+		}
+
+		final JSONArray actual = new JSONArray();
+		new ParallelDiffEngine(64).diff(ByteBuffer.wrap(left), ByteBuffer.wrap(right), 1005, 9000, new DiffListener() {
+			@Override
+			public boolean difference(long offset, long length) {
+				actual.put(offset);
+				return actual.length() < 5;
+			}
+		});
+		Assert.assertEquals("[1010,1020,1030,1040,1050]", actual.toString());
+	}
+
+	/**
+	 * Returns the differences as a JSON array, to compare them as text.
+	 */
+	private JSONArray toJSONArray(DifferenceList differences) throws JSONException {
+		JSONArray jsonArray = new JSONArray();
+		for (int i = 0; i < differences.size(); i++) {
+			jsonArray.put(new JSONObject().put(Utils.OFFSET, differences.getOffset(i)).put(Utils.LENGTH, differences.getLength(i)));
+		}
+		return jsonArray;
+	}
+}
@@ -0,0 +1,77 @@
+package com.assignment.format.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for CborDiffResultEncoder class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class CborDiffResultEncoderTest {
+
+	/**
+	 * Test that the result is a map with the message, the flat array of differences and the next offset.
+	 */
+	@Test
+	public void testEncodeDifferencesPositive() throws IOException {
+		DifferenceList differences = new DifferenceList();
+		differences.add(1, 2);
+		differences.add(300, 70000);
+		DiffResult result = DiffResult.of(differences, 100);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(expected);
+		data.writeByte(0xA3);
+		writeText(data, Utils.RESULT);
+		writeText(data, Utils.RESULT_SAME_LENGTH_WITH_DIFFS);
+		writeText(data, Utils.DIFFERENCES);
+		data.write(new byte[] {(byte) 0x84, 1, 2, 0x19, 0x01, 0x2C, 0x1A, 0x00, 0x01, 0x11, 0x70});
+		writeText(data, Utils.NEXT);
+		data.write(new byte[] {0x18, 100});
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new CborDiffResultEncoder().encode(result, output);
+		Assert.assertArrayEquals(expected.toByteArray(), output.toByteArray());
+	}
+
+	/**
+	 * Test that the result without differences has only the message.
+	 */
+	@Test
+	public void testEncodeWithoutDifferencesNegative() throws IOException {
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(expected);
+		data.writeByte(0xA1);
+		writeText(data, Utils.RESULT);
+		writeText(data, Utils.RESULT_ARE_EQUAL);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new CborDiffResultEncoder().encode(DiffResult.equal(), output);
+		Assert.assertArrayEquals(expected.toByteArray(), output.toByteArray());
+	}
+
+	/**
+	 * Writes a CBOR text string shorter than 256 bytes.
+	 */
+	private void writeText(DataOutputStream data, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length < 24) {
+			data.writeByte(0x60 | bytes.length);
+		} else {
+			data.writeByte(0x78);
+			data.writeByte(bytes.length);
+		}
+		data.write(bytes);
+	}
+}
@@ -0,0 +1,48 @@
+package com.assignment.format.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for JsonDiffResultEncoder class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class JsonDiffResultEncoderTest {
+
+	/**
+	 * Test that the result has the message, the differences and the next offset.
+	 */
+	@Test
+	public void testEncodeDifferencesPositive() throws IOException {
+		DifferenceList differences = new DifferenceList();
+		differences.add(1, 2);
+		differences.add(0x100000000L, 4);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new JsonDiffResultEncoder().encode(DiffResult.of(differences, 400), output);
+		Assert.assertEquals("{\"Result\":\"" + Utils.RESULT_SAME_LENGTH_WITH_DIFFS + "\",\"Differences\":["
+				+ "{\"Offset\":1,\"Length\":2},{\"Offset\":4294967296,\"Length\":4}],\"Next\":400}",
+				new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test that the result without differences has only the message, in an array.
+	 */
+	@Test
+	public void testEncodeWithoutDifferencesNegative() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new JsonDiffResultEncoder().encode(DiffResult.notSameLength(), output);
+		Assert.assertEquals("{\"Result\":[\"" + Utils.RESULT_NOT_SAME_LENGTH + "\"]}", 
+				new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,103 @@
+package com.assignment.format.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for MessagePackDiffResultEncoder class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class MessagePackDiffResultEncoderTest {
+
+	/**
+	 * Test that the result is a map with the message, the flat array of differences and the next offset.
+	 */
+	@Test
+	public void testEncodeDifferencesPositive() throws IOException {
+		DifferenceList differences = new DifferenceList();
+		differences.add(1, 200);
+		differences.add(300, 70000);
+		DiffResult result = DiffResult.of(differences, 100);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(expected);
+		data.writeByte(0x83);
+		writeString(data, Utils.RESULT);
+		writeString(data, Utils.RESULT_SAME_LENGTH_WITH_DIFFS);
+		writeString(data, Utils.DIFFERENCES);
+		data.write(new byte[] {(byte) 0x94, 1, (byte) 0xCC, (byte) 200, (byte) 0xCD, 0x01, 0x2C, 
+				(byte) 0xCE, 0x00, 0x01, 0x11, 0x70});
+		writeString(data, Utils.NEXT);
+		data.writeByte(100);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new MessagePackDiffResultEncoder().encode(result, output);
+		Assert.assertArrayEquals(expected.toByteArray(), output.toByteArray());
+	}
+
+	/**
+	 * Test that the offsets after 4 GB are written as 64-bit integers (uint64).
+	 */
+	@Test
+	public void testEncodeLargeOffsetPositive() throws IOException {
+		DifferenceList differences = new DifferenceList();
+		differences.add(0x100000000L, 1);
+		DiffResult result = DiffResult.of(differences, DiffResult.NO_NEXT);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(expected);
+		data.writeByte(0x82);
+		writeString(data, Utils.RESULT);
+		writeString(data, Utils.RESULT_SAME_LENGTH_WITH_DIFFS);
+		writeString(data, Utils.DIFFERENCES);
+		data.writeByte(0x92);
+		data.writeByte(0xCF);
+		data.writeLong(0x100000000L);
+		data.writeByte(1);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new MessagePackDiffResultEncoder().encode(result, output);
+		Assert.assertArrayEquals(expected.toByteArray(), output.toByteArray());
+	}
+
+	/**
+	 * Test that the result without differences has only the message.
+	 */
+	@Test
+	public void testEncodeWithoutDifferencesNegative() throws IOException {
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(expected);
+		data.writeByte(0x81);
+		writeString(data, Utils.RESULT);
+		writeString(data, Utils.RESULT_NOT_SAME_LENGTH);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new MessagePackDiffResultEncoder().encode(DiffResult.notSameLength(), output);
+		Assert.assertArrayEquals(expected.toByteArray(), output.toByteArray());
+	}
+
+	/**
+	 * Writes a MessagePack string shorter than 256 bytes.
+	 */
+	private void writeString(DataOutputStream data, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length < 32) {
+			data.writeByte(0xA0 | bytes.length);
+		} else {
+			data.writeByte(0xD9);
+			data.writeByte(bytes.length);
+		}
+		data.write(bytes);
+	}
+}
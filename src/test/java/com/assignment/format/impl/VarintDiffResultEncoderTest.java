@@ -0,0 +1,51 @@
+package com.assignment.format.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+
+/**
+ * Unit Test class for VarintDiffResultEncoder class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class VarintDiffResultEncoderTest {
+
+	/**
+	 * Test that the differences are written as distances from the previous difference, 
+	 * followed by the next offset.
+	 */
+	@Test
+	public void testEncodeDifferencesPositive() throws IOException {
+		DifferenceList differences = new DifferenceList();
+		differences.add(1, 2);
+		differences.add(300, 4);
+		DiffResult result = DiffResult.of(differences, 400);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new VarintDiffResultEncoder().encode(result, output);
+
+		// 300 - 3 = 297 (0xA9 0x02) and 400 + 1 = 401 (0x91 0x03).
+		Assert.assertArrayEquals(new byte[] {2, 2, 1, 2, (byte) 0xA9, 0x02, 4, (byte) 0x91, 0x03}, output.toByteArray());
+	}
+
+	/**
+	 * Test the results without differences.
+	 */
+	@Test
+	public void testEncodeNegative() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new VarintDiffResultEncoder().encode(DiffResult.equal(), output);
+		Assert.assertArrayEquals(new byte[] {0, 0, 0}, output.toByteArray());
+
+		output.reset();
+		new VarintDiffResultEncoder().encode(DiffResult.notSameLength(), output);
+		Assert.assertArrayEquals(new byte[] {1, 0, 0}, output.toByteArray());
+	}
+}
@@ -0,0 +1,71 @@
+package com.assignment.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.BufferPool;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for Base64StreamDecoder class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * The results are compared with Utils.decodeBase64, which decodes the whole String at once.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class Base64StreamDecoderTest {
+
+	private InMemoryDataStore dataStore = new InMemoryDataStore();
+	private BufferPool bufferPool = new BufferPool(1024 * 1024, true);
+
+	/**
+	 * Decodes the text split in chunks of the given size, and returns the decoded bytes.
+	 */
+	private ByteBuffer decodeInChunks(String text, int chunkSize) throws IOException {
+		try (DataWriter writer = dataStore.openWriter("1", DataEnum.LEFT);
+				Base64StreamDecoder decoder = new Base64StreamDecoder(writer, bufferPool)) {
+			char[] chars = text.toCharArray();
+			for (int offset = 0; offset < chars.length; offset += chunkSize) {
+				decoder.decode(chars, offset, Math.min(chunkSize, chars.length - offset));
+			}
+			decoder.finish();
+			writer.commit();
+		}
+		// the buffer of the decoder is returned to the pool.
+		Assert.assertTrue(bufferPool.getLeaks().isEmpty());
+		return dataStore.read("1", DataEnum.LEFT);
+	}
+
+	/**
+	 * Test that data of every padding size, split in chunks not aligned with the 
+	 * Base64 quantum, is decoded like the whole String.
+	 */
+	@Test
+	public void testDecodeInChunksPositive() throws IOException {
+		Utils utils = new Utils();
+		Random random = new Random(1);
+		for (int size = 0; size < 40; size++) {
+			byte[] data = new byte[size + Base64StreamDecoder.BUFFER_SIZE];
+			random.nextBytes(data);
+			String text = utils.encodeBase64(data);
+			for (int chunkSize : new int[] {1, 3, 5, 4096}) {
+				Assert.assertEquals(ByteBuffer.wrap(data), decodeInChunks(text, chunkSize));
+			}
+		}
+	}
+
+	/**
+	 * Test that characters out of the Base64 alphabet are ignored.
+	 */
+	@Test
+	public void testDecodeIgnoresInvalidCharactersNegative() throws IOException {
+		Assert.assertEquals(ByteBuffer.wrap("Lucas".getBytes()), decodeInChunks("TH Vj\nYX-M=", 2));
+	}
+}
@@ -0,0 +1,67 @@
+package com.assignment.ingest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for JsonBatchReader class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class JsonBatchReaderTest {
+
+	/**
+	 * Test that the records are decoded to the batch, with the data as a string or as chunks.
+	 */
+	@Test
+	public void testReadPositive() throws IOException {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		String json = "[ { \"Id\":\"1\", \"Side\":\"left\", \"Data\":\"AQID\" },"
+				+ " { \"Side\":\"RIGHT\", \"Id\":\"2\", \"Data\":[ \"AQ\", \"ID\" ] } ]";
+
+		try (DataBatch batch = dataStore.openBatch()) {
+			Assert.assertEquals(Arrays.asList("1", "2"), new JsonBatchReader().read(toStream(json), batch));
+			batch.commit();
+		}
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("2", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that the invalid records are rejected: not an array, the data before the id, 
+	 * an unknown side and a record without data.
+	 */
+	@Test
+	public void testReadInvalidNegative() {
+		String[] invalid = {
+				"{ \"Id\":\"1\" }",
+				"[ { \"Data\":\"AQID\", \"Id\":\"1\", \"Side\":\"LEFT\" } ]",
+				"[ { \"Id\":\"1\", \"Side\":\"UP\", \"Data\":\"AQID\" } ]",
+				"[ { \"Id\":\"1\", \"Side\":\"LEFT\" } ]",
+				"[ { \"Id\":\"1\", \"Side\":\"LEFT\", \"Data\":1 } ]",
+				"[ \"AQID\" ]"};
+		for (String json : invalid) {
+			try (DataBatch batch = new InMemoryDataStore().openBatch()) {
+				new JsonBatchReader().read(toStream(json), batch);
+				Assert.fail("The JSON must be rejected: " + json);
+			} catch (IOException exc) {
+				// expected.
+			}
+		}
+	}
+
+	private ByteArrayInputStream toStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
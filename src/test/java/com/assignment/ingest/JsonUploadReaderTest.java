@@ -0,0 +1,70 @@
+package com.assignment.ingest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for JsonUploadReader class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class JsonUploadReaderTest {
+
+	private InMemoryDataStore dataStore = new InMemoryDataStore();
+	private JsonUploadReader reader = new JsonUploadReader();
+
+	/**
+	 * Reads the JSON and commits the decoded data, returning the number of decoded bytes.
+	 */
+	private long read(String json) throws IOException {
+		try (DataWriter writer = dataStore.openWriter("1", DataEnum.RIGHT)) {
+			long length = reader.read(new ByteArrayInputStream(json.getBytes("UTF-8")), writer);
+			writer.commit();
+			return length;
+		}
+	}
+
+	/**
+	 * Test that the chunks of the array are concatenated and decoded.
+	 */
+	@Test
+	public void testReadChunksPositive() throws IOException {
+		// "Lucas Reginato" split in chunks that are not aligned with the Base64 quantum
+		long length = read(" [ \"THVjYX\" , \"MgUmVn\", \"aW5hdG8=\" ] ");
+		Assert.assertEquals(14, length);
+		Assert.assertEquals(ByteBuffer.wrap("Lucas Reginato".getBytes()), dataStore.read("1", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that an empty array is valid and saves empty data.
+	 */
+	@Test
+	public void testReadEmptyArrayPositive() throws IOException {
+		Assert.assertEquals(0, read("[]"));
+	}
+
+	/**
+	 * Test that invalid JSON arrays fail, and that nothing is saved.
+	 */
+	@Test
+	public void testReadInvalidJSONNegative() {
+		String[] invalidInputs = {"", "{\"a\":\"b\"}", "[\"AAAA\" \"BBBB\"]", "[\"AAAA\"", "[[\"AAAA\"]]", "[\"AAAA\"] x"};
+		for (String invalidInput : invalidInputs) {
+			try {
+				read(invalidInput);
+				Assert.fail("JSON should be invalid: " + invalidInput);
+			} catch (IOException exc) {
+				Assert.assertFalse(dataStore.exists("1", DataEnum.RIGHT));
+			}
+		}
+	}
+}
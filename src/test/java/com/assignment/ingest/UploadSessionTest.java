@@ -0,0 +1,199 @@
+package com.assignment.ingest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.codehaus.jettison.json.JSONException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for UploadSession class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class UploadSessionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path file;
+	private UploadSession session;
+
+	/**
+	 * Creates a session with chunks of 3 bytes before each test.
+	 */
+	@Before
+	public void setup() throws IOException {
+		file = folder.getRoot().toPath().resolve("1.upload");
+		session = new UploadSession("upload", "1", DataEnum.LEFT, 3, file);
+	}
+
+	/**
+	 * Test that the chunks sent in any order (and sent again) are written at their offsets.
+	 */
+	@Test
+	public void testChunksInAnyOrderPositive() throws IOException, JSONException {
+		Assert.assertEquals(2, session.writeChunk(2, stream("[\"Bwg=\"]")));
+		Assert.assertEquals(3, session.writeChunk(0, stream("[\"CQkJ\"]")));
+		Assert.assertEquals(3, session.writeChunk(1, stream("[\"BAUG\"]")));
+		Assert.assertEquals(3, session.writeChunk(0, stream("[\"AQ\", \"ID\"]")));
+		Assert.assertEquals(3, session.getStatus().getJSONArray(Utils.CHUNKS).length());
+
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		try (DataWriter writer = dataStore.openWriter("1", DataEnum.LEFT)) {
+			Assert.assertEquals(8, session.transferTo(writer));
+			writer.commit();
+		}
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}), dataStore.read("1", DataEnum.LEFT));
+
+		session.delete();
+		Assert.assertFalse(Files.exists(file));
+	}
+
+	/**
+	 * Test that the data is not transferred while a chunk is missing or not complete.
+	 */
+	@Test(expected = IOException.class)
+	public void testMissingChunkNegative() throws IOException {
+		session.writeChunk(0, stream("[\"AQID\"]"));
+		session.writeChunk(2, stream("[\"Bwg=\"]"));
+		session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the session is opened again when a chunk is missing, so the chunk can be sent.
+	 */
+	@Test
+	public void testMissingChunkSentLaterPositive() throws IOException {
+		session.writeChunk(1, stream("[\"BA==\"]"));
+		try {
+			session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT));
+			Assert.fail();
+		} catch (IOException exc) {
+			session.writeChunk(0, stream("[\"AQID\"]"));
+		}
+		Assert.assertEquals(4, session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT)));
+	}
+
+	/**
+	 * Test that no chunk is written, and the data is not transferred again, after the data was transferred.
+	 */
+	@Test
+	public void testWriteAfterTransferNegative() throws IOException {
+		session.writeChunk(0, stream("[\"AQID\"]"));
+		session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT));
+		try {
+			session.writeChunk(1, stream("[\"BA==\"]"));
+			Assert.fail();
+		} catch (IOException exc) {
+			Assert.assertTrue(exc.getMessage().contains("closed"));
+		}
+		try {
+			session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT));
+			Assert.fail();
+		} catch (IOException exc) {
+			Assert.assertTrue(exc.getMessage().contains("closed"));
+		}
+	}
+
+	/**
+	 * Test that a chunk is not written while the same chunk is being written by another request.
+	 */
+	@Test
+	public void testSameChunkWrittenTwiceNegative() throws IOException {
+		final IOException[] failure = new IOException[1];
+		// the stream of the first request writes the same chunk before it ends.
+		InputStream input = new SequenceInputStream(stream("[\"AQID\""), new InputStream() {
+			private boolean written = false;
+
+			@Override
+			public int read() throws IOException {
+				if (!written) {
+					written = true;
+					try {
+						session.writeChunk(0, stream("[\"BAUG\"]"));
+					} catch (IOException exc) {
+						failure[0] = exc;
+					}
+				}
+				return -1;
+			}
+		});
+		try {
+			session.writeChunk(0, input);
+		} catch (IOException exc) {
+			// the first request ends with an incomplete JSON array.
+		}
+		Assert.assertNotNull(failure[0]);
+		Assert.assertTrue(failure[0].getMessage().contains("is being written"));
+	}
+
+	/**
+	 * Test that a chunk that is not the last one must have the chunk size.
+	 */
+	@Test(expected = IOException.class)
+	public void testIncompleteChunkNegative() throws IOException {
+		session.writeChunk(0, stream("[\"AQ==\"]"));
+		session.writeChunk(1, stream("[\"BAUG\"]"));
+		session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that a chunk larger than the chunk size is not accepted.
+	 */
+	@Test
+	public void testChunkTooLargeNegative() throws IOException, JSONException {
+		try {
+			session.writeChunk(0, stream("[\"AQIDBA==\"]"));
+			Assert.fail();
+		} catch (IOException exc) {
+			Assert.assertEquals(0, session.getStatus().getJSONArray(Utils.CHUNKS).length());
+		}
+	}
+
+	/**
+	 * Test that a session without chunks is not transferred, and it is still open.
+	 */
+	@Test
+	public void testEmptySessionNegative() throws IOException {
+		try {
+			session.transferTo(new InMemoryDataStore().openWriter("1", DataEnum.LEFT));
+			Assert.fail("The session without data must not be transferred");
+		} catch (IOException exc) {
+			Assert.assertTrue(exc.getMessage().contains("has no data"));
+		}
+		Assert.assertEquals(3, session.writeChunk(0, stream("[\"AQID\"]")));
+	}
+
+	/**
+	 * Test that no chunk is written after the session is deleted.
+	 */
+	@Test(expected = IOException.class)
+	public void testWriteAfterDeleteNegative() throws IOException {
+		session.delete();
+		session.writeChunk(0, stream("[\"AQID\"]"));
+	}
+
+	/**
+	 * Returns the stream with the JSON array.
+	 */
+	private InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,75 @@
+package com.assignment.ingest.impl;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.assignment.ingest.UploadSession;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for FileUploadSessionManager class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class FileUploadSessionManagerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Test that an opened session is found until it is removed.
+	 */
+	@Test
+	public void testOpenAndRemovePositive() throws IOException {
+		FileUploadSessionManager manager = new FileUploadSessionManager(folder.getRoot().toPath().resolve("uploads"), 60000);
+		UploadSession session = manager.open("1", DataEnum.RIGHT, 1024);
+
+		Assert.assertSame(session, manager.get(session.getUploadId()));
+		Assert.assertEquals("1", session.getId());
+		Assert.assertEquals(DataEnum.RIGHT, session.getSide());
+		Assert.assertTrue(manager.remove(session.getUploadId()));
+		Assert.assertNull(manager.get(session.getUploadId()));
+		Assert.assertEquals(0, folder.getRoot().toPath().resolve("uploads").toFile().list().length);
+	}
+
+	/**
+	 * Test that unknown sessions are not found, and that expired sessions are removed.
+	 */
+	@Test
+	public void testUnknownAndExpiredSessionNegative() throws IOException, InterruptedException {
+		FileUploadSessionManager manager = new FileUploadSessionManager(folder.getRoot().toPath(), 1);
+		Assert.assertNull(manager.get("unknown"));
+		Assert.assertFalse(manager.remove("unknown"));
+
+		UploadSession session = manager.open("1", DataEnum.LEFT, 1024);
+		Thread.sleep(10);
+		manager.open("2", DataEnum.LEFT, 1024);
+
+		Assert.assertNull(manager.get(session.getUploadId()));
+	}
+
+	/**
+	 * Test that the sweep removes the expired sessions, without a new session being opened.
+	 */
+	@Test
+	public void testSweepExpiredSessionPositive() throws IOException, InterruptedException {
+		FileUploadSessionManager manager = new FileUploadSessionManager(folder.getRoot().toPath(), 1);
+		UploadSession session = manager.open("1", DataEnum.LEFT, 1024);
+		manager.startSweep(5);
+		try {
+			for (int i = 0; i < 200 && manager.get(session.getUploadId()) != null; i++) {
+				Thread.sleep(10);
+			}
+		} finally {
+			manager.stopSweep();
+		}
+
+		Assert.assertNull(manager.get(session.getUploadId()));
+		Assert.assertEquals(0, folder.getRoot().list().length);
+	}
+}
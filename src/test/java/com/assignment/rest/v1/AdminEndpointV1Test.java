@@ -0,0 +1,74 @@
+package com.assignment.rest.v1;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.utils.Metrics;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for AdminEndpointV1 class. <br/>
+ * It contains JerseyTests to test all the methods, positive and
+ * negative scenarios from the AdminEndpointV1 class.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class AdminEndpointV1Test extends JerseyTest {
+
+	/***
+	 * Configure the Application instance to run JerseyTest tests
+	 */
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(EndpointV1.class, AdminEndpointV1.class);
+    }
+
+	/**
+     * Executes a GET command for the statistics of the diff cache.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandForCacheStatistics() throws Exception {
+		Response responseStatistics = target("v1/admin/cache/statistics").request().buildGet().invoke();
+		Assert.assertEquals(responseStatistics.getStatus(), 200);
+		Assert.assertTrue(responseStatistics.readEntity(String.class).contains("\"Hits\""));
+	}
+
+	/**
+     * Executes a GET command for the metrics, after a diff.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandForMetrics() throws Exception {
+		target("v1/diff/15").request().buildGet().invoke();
+		Response responseMetrics = target("v1/admin/metrics").request().buildGet().invoke();
+		Assert.assertEquals(responseMetrics.getStatus(), 200);
+		String metrics = responseMetrics.readEntity(String.class);
+		Assert.assertTrue(metrics.contains("\"timers\""));
+		Assert.assertTrue(metrics.contains("\"" + Metrics.ENDPOINT_DIFF + "\""));
+	}
+
+	/**
+     * Executes POST commands and then a GET command for the id "metrics", which is not
+     * shadowed by the metrics endpoint.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsForIdNamedMetrics() throws Exception {
+		Response responseLeft = target("v1/diff/metrics/left").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 204);
+
+		Response responseRight = target("v1/diff/metrics/right").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 204);
+
+		Response responseDiff = target("v1/diff/metrics").queryParam("mode", "byte").request().buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains(Utils.RESULT_ARE_EQUAL));
+	}
+}
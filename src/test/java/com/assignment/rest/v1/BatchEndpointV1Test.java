@@ -0,0 +1,84 @@
+package com.assignment.rest.v1;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.utils.TaskStatusEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for BatchEndpointV1 class. <br/>
+ * It contains JerseyTests to test all the methods, positive and
+ * negative scenarios from the BatchEndpointV1 class.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BatchEndpointV1Test extends JerseyTest {
+
+	/***
+	 * Configure the Application instance to run JerseyTest tests
+	 */
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(EndpointV1.class, BatchEndpointV1.class);
+    }
+
+	/**
+     * Executes a batch upload command and then a GET command over the saved data.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithBatchUpload() throws Exception {
+		Response responseUpload = target("v1/batch/upload").request().buildPost(Entity.json(
+				"[ { \"Id\":\"14\", \"Side\":\"LEFT\", \"Data\":\"AAECAwQF\" }, "
+				+ "{ \"Id\":\"14\", \"Side\":\"RIGHT\", \"Data\":[ \"AAEJ\", \"CQQF\" ] } ]")).invoke();
+		Assert.assertEquals(responseUpload.getStatus(), 200);
+		Assert.assertEquals(2, new JSONObject(responseUpload.readEntity(String.class)).getInt(Utils.RECORDS));
+
+		Response responseDiff = target("v1/diff/14").queryParam("mode", "byte").request().buildGet().invoke();
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains("{\"Offset\":2,\"Length\":2}"));
+
+		Response responseInvalid = target("v1/batch/upload").request().buildPost(Entity.json("[ { \"Id\":\"15\" } ]")).invoke();
+		Assert.assertEquals(responseInvalid.getStatus(), 500);
+	}
+
+	/**
+     * Executes POST commands and then a batch diff command with a known and an unknown id.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithBatchDiff() throws Exception {
+		Response responseLeft = target("v1/diff/13/left").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 204);
+
+		Response responseRight = target("v1/diff/13/right").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 204);
+
+		Response responseDiff = target("v1/batch").queryParam("mode", "byte").request()
+				.buildPost(Entity.json("[\"13\", \"unknown-batch-id\"]")).invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		JSONArray results = new JSONArray(responseDiff.readEntity(String.class));
+		Assert.assertEquals(2, results.length());
+		for (int i = 0; i < results.length(); i++) {
+			JSONObject result = results.getJSONObject(i);
+			if ("13".equals(result.getString(Utils.ID))) {
+				Assert.assertTrue(result.getJSONObject(Utils.RESULT).toString().contains(Utils.RESULT_ARE_EQUAL));
+			} else {
+				Assert.assertEquals(TaskStatusEnum.FAILED.name(), result.getString(Utils.STATUS));
+			}
+		}
+
+		Response responseInvalid = target("v1/batch").request().buildPost(Entity.json("[]")).invoke();
+		Assert.assertEquals(responseInvalid.getStatus(), 500);
+		responseInvalid = target("v1/batch").request().buildPost(Entity.json("{}")).invoke();
+		Assert.assertEquals(responseInvalid.getStatus(), 500);
+	}
+}
@@ -2,17 +2,23 @@ package com.assignment.rest.v1;
 
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.util.List;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import org.codehaus.jettison.json.JSONObject;
+import org.glassfish.jersey.client.HttpUrlConnectorProvider;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.test.JerseyTest;
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.assignment.rest.v1.EndpointV1;
+import com.assignment.utils.BufferPool;
+import com.assignment.utils.Utils;
 
 /**
  * Unit Test class for EndpointV1 class. <br/>
@@ -30,6 +36,16 @@ public class EndpointV1Test extends JerseyTest {
     protected Application configure() {
         return new ResourceConfig(EndpointV1.class);
     }
+
+	/**
+	 * Checks that the buffers of the pool were returned after each test, also by the failed uploads.
+	 */
+	@Override
+	public void tearDown() throws Exception {
+		super.tearDown();
+		List<Throwable> leaks = BufferPool.getInstance().getLeaks();
+		Assert.assertTrue("Buffers not released: " + leaks, leaks.isEmpty());
+	}
 	
     /**
      * Executes POST commands and then a GET command which generates the equals result.
@@ -79,6 +95,123 @@ public class EndpointV1Test extends JerseyTest {
 		Assert.assertEquals(responseDiff.getStatus(), 200);
 	}
 	
+	/**
+     * Executes POST commands and then a GET command in the BYTE mode.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsInByteMode() throws Exception {
+		Response responseLeft = target("v1/diff/2/left").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 204);
+
+		Response responseRight = target("v1/diff/2/right").request().buildPost(Entity.json("[\"AAEJCQQF\"]")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 204);
+
+		Response responseDiff = target("v1/diff/2").queryParam("mode", "byte").request().buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains("{\"Offset\":2,\"Length\":2}"));
+	}
+
+	/**
+     * Executes POST commands and then a GET command with the streamed result.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithStream() throws Exception {
+		Response responseLeft = target("v1/diff/3/left").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 204);
+
+		Response responseRight = target("v1/diff/3/right").request().buildPost(Entity.json("[\"AAEJCQQF\"]")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 204);
+
+		Response responseDiff = target("v1/diff/3").queryParam("mode", "parallel").queryParam("stream", "true")
+				.request().buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		Assert.assertEquals("{\"Differences\":[{\"Offset\":2,\"Length\":2}],\"Result\":\"" 
+				+ Utils.RESULT_SAME_LENGTH_WITH_DIFFS + "\"}", responseDiff.readEntity(String.class));
+	}
+
+	/**
+     * Executes POST commands and then GET commands that accept the compact formats of the result.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithCompactFormat() throws Exception {
+		Response responseLeft = target("v1/diff/12/left").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 204);
+
+		Response responseRight = target("v1/diff/12/right").request().buildPost(Entity.json("[\"AAEJCQQF\"]")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 204);
+
+		Response responseDiff = target("v1/diff/12").queryParam("mode", "byte")
+				.request(Utils.APPLICATION_DIFF_VARINT).buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		Assert.assertEquals(Utils.APPLICATION_DIFF_VARINT, responseDiff.getMediaType().toString());
+		Assert.assertArrayEquals(new byte[] {2, 1, 2, 2, 0}, responseDiff.readEntity(byte[].class));
+
+		responseDiff = target("v1/diff/12").queryParam("mode", "byte")
+				.request().header("Accept", "application/json;q=0.5, " + Utils.APPLICATION_CBOR).buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		Assert.assertEquals(Utils.APPLICATION_CBOR, responseDiff.getMediaType().toString());
+		Assert.assertEquals((byte) 0xA2, responseDiff.readEntity(byte[].class)[0]);
+
+		responseDiff = target("v1/diff/12").queryParam("mode", "byte").request().buildGet().invoke();
+		Assert.assertEquals(MediaType.APPLICATION_JSON, responseDiff.getMediaType().toString());
+	}
+
+	/**
+     * Executes POST commands and then a GET command limited to the first difference.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithLimit() throws Exception {
+		Response responseLeft = target("v1/diff/4/left").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 204);
+
+		Response responseRight = target("v1/diff/4/right").request().buildPost(Entity.json("[\"CQECCQQF\"]")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 204);
+
+		Response responseDiff = target("v1/diff/4").queryParam("mode", "byte").queryParam("limit", "1")
+				.request().buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 200);
+		JSONObject jsonObject = new JSONObject(responseDiff.readEntity(String.class));
+		Assert.assertEquals(1, jsonObject.getJSONArray(Utils.DIFFERENCES).length());
+		Assert.assertEquals(3, jsonObject.getInt(Utils.NEXT));
+	}
+
+	/**
+     * Executes a GET command with an invalid window, which generates an error.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandWithInvalidWindow() throws Exception {
+		Response responseDiff = target("v1/diff/4").queryParam("from", "5").queryParam("to", "2").request().buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 500);
+	}
+
+	/**
+     * Executes a POST command with an invalid JSON array, which generates an error.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandWithInvalidJSON() throws Exception {
+		Response responseLeft = target("v1/diff/3/left").request().buildPost(Entity.json("[\"AAAA\" \"BBBB\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 500);
+
+		Response responseRight = target("v1/diff/3/right").request().buildPost(Entity.json("")).invoke();
+		Assert.assertEquals(responseRight.getStatus(), 500);
+	}
+
+	/**
+     * Executes a GET command with an unknown mode, which generates an error.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandWithInvalidMode() throws Exception {
+		Response responseDiff = target("v1/diff/2").queryParam("mode", "unknown").request().buildGet().invoke();
+		Assert.assertEquals(responseDiff.getStatus(), 500);
+	}
+
 	/**
 	 * Test if the input parameters (id and inputData) are valid, which means id
 	 * is not null and is not empty, and that JSON is a valid JSON array.
@@ -151,4 +284,31 @@ public class EndpointV1Test extends JerseyTest {
 		serverSocket.close();
 		return port;
 	}
+
+	/**
+	 * Executes POST commands, a PATCH command that updates a range of the right data, 
+	 * and then a GET command which generates the equals result.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithPatch() throws Exception {
+		Response responseLeft = target("v1/diff/patch/left").request().buildPost(Entity.json("[\"AQIDBA==\"]")).invoke();
+		Assert.assertEquals(204, responseLeft.getStatus());
+
+		Response responseRight = target("v1/diff/patch/right").request().buildPost(Entity.json("[\"AQIAAA==\"]")).invoke();
+		Assert.assertEquals(204, responseRight.getStatus());
+
+		Response responsePatch = target("v1/diff/patch/right").queryParam("offset", 2).request()
+				.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true).method("PATCH", Entity.json("[\"AwQ=\"]"));
+		Assert.assertEquals(204, responsePatch.getStatus());
+
+		Response responseDiff = target("v1/diff/patch").queryParam("mode", "BYTE").request().buildGet().invoke();
+		Assert.assertEquals(200, responseDiff.getStatus());
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains(Utils.RESULT_ARE_EQUAL));
+
+		// the range is not inside the data.
+		responsePatch = target("v1/diff/patch/right").queryParam("offset", 3).request()
+				.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true).method("PATCH", Entity.json("[\"AwQ=\"]"));
+		Assert.assertEquals(500, responsePatch.getStatus());
+	}
 }
@@ -0,0 +1,78 @@
+package com.assignment.rest.v1;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.utils.TaskStatusEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for OperationEndpointV1 class. <br/>
+ * It contains JerseyTests to test all the methods, positive and
+ * negative scenarios from the OperationEndpointV1 class.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class OperationEndpointV1Test extends JerseyTest {
+
+	/***
+	 * Configure the Application instance to run JerseyTest tests
+	 */
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(EndpointV1.class, OperationEndpointV1.class);
+    }
+
+	/**
+     * Executes an asynchronous POST command, then polls the status of the operation until it completes.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsAsync() throws Exception {
+		Response responseLeft = target("v1/diff/4/left").queryParam("async", "true").request().buildPost(Entity.json("[\"AAECAwQF\"]")).invoke();
+		Assert.assertEquals(responseLeft.getStatus(), 202);
+		String operationId = new JSONObject(responseLeft.readEntity(String.class)).getString(Utils.OPERATION);
+		Assert.assertTrue(responseLeft.getLocation().getPath().endsWith("/v1/operations/" + operationId));
+
+		String status = null;
+		for (int i = 0; (i < 500) && !TaskStatusEnum.COMPLETED.name().equals(status); i++) {
+			Response responseStatus = target("v1/operations/" + operationId).request().buildGet().invoke();
+			Assert.assertEquals(responseStatus.getStatus(), 200);
+			status = new JSONObject(responseStatus.readEntity(String.class)).getString(Utils.STATUS);
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(TaskStatusEnum.COMPLETED.name(), status);
+	}
+
+	/**
+     * Executes a GET command for an unknown operation, which generates not found.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandWithUnknownOperation() throws Exception {
+		Response responseStatus = target("v1/operations/unknown").request().buildGet().invoke();
+		Assert.assertEquals(responseStatus.getStatus(), 404);
+	}
+
+	/**
+     * Executes a POST command over the id "operations", which is not shadowed by the operations.
+     * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithOperationsId() throws Exception {
+		Response responseLeft = target("v1/diff/operations/left").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(204, responseLeft.getStatus());
+		Response responseRight = target("v1/diff/operations/right").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(204, responseRight.getStatus());
+
+		Response responseDiff = target("v1/diff/operations").request().buildGet().invoke();
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains(Utils.RESULT_ARE_EQUAL));
+	}
+}
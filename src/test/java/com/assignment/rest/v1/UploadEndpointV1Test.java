@@ -0,0 +1,111 @@
+package com.assignment.rest.v1;
+
+import java.util.List;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.glassfish.jersey.client.HttpUrlConnectorProvider;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.utils.BufferPool;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for UploadEndpointV1 class. <br/>
+ * It contains JerseyTests to test all the methods, positive and
+ * negative scenarios from the UploadEndpointV1 class.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class UploadEndpointV1Test extends JerseyTest {
+
+	/***
+	 * Configure the Application instance to run JerseyTest tests
+	 */
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(EndpointV1.class, UploadEndpointV1.class);
+    }
+
+	/**
+	 * Checks that the buffers of the pool were returned after each test, also by the failed uploads.
+	 */
+	@Override
+	public void tearDown() throws Exception {
+		super.tearDown();
+		List<Throwable> leaks = BufferPool.getInstance().getLeaks();
+		Assert.assertTrue("Buffers not released: " + leaks, leaks.isEmpty());
+	}
+
+	/**
+	 * Opens an upload session, sends the chunks out of order, checks the status, commits it,
+	 * and then a GET command which generates the equals result.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithUploadSession() throws Exception {
+		Response responseLeft = target("v1/diff/upload/left").request().buildPost(Entity.json("[\"AQIDBA==\"]")).invoke();
+		Assert.assertEquals(204, responseLeft.getStatus());
+
+		Response responseOpen = target("v1/diff/upload/right/uploads").queryParam("chunkSize", 3).request().buildPost(null).invoke();
+		Assert.assertEquals(200, responseOpen.getStatus());
+		String uploadId = new JSONObject(responseOpen.readEntity(String.class)).getString(Utils.UPLOAD);
+
+		Response responseChunk = target("v1/uploads/" + uploadId + "/chunks/1").request().buildPut(Entity.json("[\"BA==\"]")).invoke();
+		Assert.assertEquals(204, responseChunk.getStatus());
+		// the chunk 0 is missing.
+		Response responseCommit = target("v1/uploads/" + uploadId + "/commit").request().buildPost(null).invoke();
+		Assert.assertEquals(500, responseCommit.getStatus());
+		responseChunk = target("v1/uploads/" + uploadId + "/chunks/0").request().buildPut(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(204, responseChunk.getStatus());
+
+		Response responseStatus = target("v1/uploads/" + uploadId).request().buildGet().invoke();
+		Assert.assertEquals(200, responseStatus.getStatus());
+		Assert.assertEquals(2, new JSONObject(responseStatus.readEntity(String.class)).getJSONArray(Utils.CHUNKS).length());
+
+		responseCommit = target("v1/uploads/" + uploadId + "/commit").request().buildPost(null).invoke();
+		Assert.assertEquals(204, responseCommit.getStatus());
+		Assert.assertEquals(404, target("v1/uploads/" + uploadId).request().buildGet().invoke().getStatus());
+
+		Response responseDiff = target("v1/diff/upload").queryParam("mode", "BYTE").request().buildGet().invoke();
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains(Utils.RESULT_ARE_EQUAL));
+	}
+
+	/**
+	 * Aborts an upload session, and the session is no longer found.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsToAbortUpload() throws Exception {
+		Response responseOpen = target("v1/diff/abort/left/uploads").request().buildPost(null).invoke();
+		String uploadId = new JSONObject(responseOpen.readEntity(String.class)).getString(Utils.UPLOAD);
+
+		Assert.assertEquals(204, target("v1/uploads/" + uploadId).request().buildDelete().invoke().getStatus());
+		Assert.assertEquals(404, target("v1/uploads/" + uploadId).request().buildDelete().invoke().getStatus());
+		Assert.assertEquals(500, target("v1/diff/abort/middle/uploads").request().buildPost(null).invoke().getStatus());
+	}
+
+	/**
+	 * Executes POST and PATCH commands over the id "uploads", which is not shadowed by the upload sessions.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeHttpCommandsWithUploadsId() throws Exception {
+		Response responseLeft = target("v1/diff/uploads/left").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(204, responseLeft.getStatus());
+		Response responseRight = target("v1/diff/uploads/right").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(204, responseRight.getStatus());
+		Response responsePatch = target("v1/diff/uploads/right").request()
+				.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true).method("PATCH", Entity.json("[\"BA==\"]"));
+		Assert.assertEquals(204, responsePatch.getStatus());
+
+		Response responseDiff = target("v1/diff/uploads").queryParam("mode", "BYTE").request().buildGet().invoke();
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains("{\"Offset\":0,\"Length\":1}"));
+	}
+}
@@ -0,0 +1,87 @@
+package com.assignment.rest.v2;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.rest.v1.EndpointV1;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for EndpointV2 class. <br/>
+ * It contains JerseyTests to test all the methods, positive and
+ * negative scenarios from the EndpointV2 class.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class EndpointV2Test extends JerseyTest {
+
+	/***
+	 * Configure the Application instance to run JerseyTest tests
+	 */
+	@Override
+	protected Application configure() {
+		return new ResourceConfig(EndpointV1.class, EndpointV2.class);
+	}
+
+	/**
+	 * Executes binary POST commands, downloads the data, and then a GET command which 
+	 * generates the differences in bytes.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeBinaryCommandsAndResultIsSameWithDiffs() throws Exception {
+		Response responseLeft = target("v2/diff/binary/left").request()
+				.buildPost(Entity.entity(new byte[] {1, 2, 3, 4}, MediaType.APPLICATION_OCTET_STREAM)).invoke();
+		Assert.assertEquals(204, responseLeft.getStatus());
+
+		Response responseRight = target("v2/diff/binary/right").request()
+				.buildPost(Entity.entity(new byte[] {1, 0, 0, 4}, MediaType.APPLICATION_OCTET_STREAM)).invoke();
+		Assert.assertEquals(204, responseRight.getStatus());
+
+		Response responseData = target("v2/diff/binary/right").request(MediaType.APPLICATION_OCTET_STREAM).buildGet().invoke();
+		Assert.assertEquals(200, responseData.getStatus());
+		Assert.assertArrayEquals(new byte[] {1, 0, 0, 4}, responseData.readEntity(byte[].class));
+
+		Response responseDiff = target("v2/diff/binary").request().buildGet().invoke();
+		Assert.assertEquals(200, responseDiff.getStatus());
+		JSONObject jsonObject = new JSONObject(responseDiff.readEntity(String.class));
+		Assert.assertEquals(1, jsonObject.getJSONArray(Utils.DIFFERENCES).getJSONObject(0).getInt(Utils.OFFSET));
+		Assert.assertEquals(2, jsonObject.getJSONArray(Utils.DIFFERENCES).getJSONObject(0).getInt(Utils.LENGTH));
+	}
+
+	/**
+	 * Executes a binary POST command and a V1 POST command with the same data, and then
+	 * a V1 GET command which generates the equals result.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeBinaryAndJsonCommandsAndResultIsEqual() throws Exception {
+		Response responseLeft = target("v2/diff/mixed/left").request()
+				.buildPost(Entity.entity(new byte[] {1, 2, 3}, MediaType.APPLICATION_OCTET_STREAM)).invoke();
+		Assert.assertEquals(204, responseLeft.getStatus());
+
+		Response responseRight = target("v1/diff/mixed/right").request().buildPost(Entity.json("[\"AQID\"]")).invoke();
+		Assert.assertEquals(204, responseRight.getStatus());
+
+		Response responseDiff = target("v1/diff/mixed").request().buildGet().invoke();
+		Assert.assertTrue(responseDiff.readEntity(String.class).contains(Utils.RESULT_ARE_EQUAL));
+	}
+
+	/**
+	 * Executes a GET command for data that was not saved.
+	 * @throws Exception Thrown to the upper layers
+	 */
+	@Test
+	public void executeBinaryCommandForUnknownData() throws Exception {
+		Response responseData = target("v2/diff/unknown/left").request(MediaType.APPLICATION_OCTET_STREAM).buildGet().invoke();
+		Assert.assertEquals(404, responseData.getStatus());
+	}
+}
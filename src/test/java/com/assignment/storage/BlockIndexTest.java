@@ -0,0 +1,90 @@
+package com.assignment.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit Test class for BlockIndex class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BlockIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Test that the index built from pieces of any size is the same as the index built at once,
+	 * and that the last block can be smaller.
+	 */
+	@Test
+	public void testBuildFromPiecesPositive() {
+		byte[] data = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+		BlockIndex.Builder builder = new BlockIndex.Builder(4);
+		builder.update(ByteBuffer.wrap(data, 0, 3));
+		builder.update(ByteBuffer.wrap(data, 3, 6));
+		builder.update(ByteBuffer.wrap(data, 9, 1));
+		BlockIndex blocks = builder.build();
+
+		BlockIndex expected = DataMetadata.of(data, 4).getBlocks();
+		Assert.assertEquals(3, blocks.getBlockCount());
+		Assert.assertTrue(blocks.isComparable(expected));
+		for (int i = 0; i < 3; i++) {
+			Assert.assertTrue(blocks.sameBlock(expected, i));
+		}
+	}
+
+	/**
+	 * Test that the index mapped from a file, with the hashes taken from the builder while
+	 * the data is written, is the same as the index built at once.
+	 */
+	@Test
+	public void testMapPositive() throws IOException {
+		byte[] data = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+		BlockIndex.Builder builder = new BlockIndex.Builder(4);
+		Path file = folder.newFile().toPath();
+		// the file has a header of 3 bytes before the hashes.
+		Files.write(file, new byte[] {0, 0, 0});
+		builder.update(ByteBuffer.wrap(data, 0, 5));
+		Files.write(file, builder.takeHashes(), StandardOpenOption.APPEND);
+		builder.update(ByteBuffer.wrap(data, 5, 5));
+		builder.finish();
+		Files.write(file, builder.takeHashes(), StandardOpenOption.APPEND);
+
+		BlockIndex blocks;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			blocks = BlockIndex.map(4, channel, 3, 3);
+		}
+		BlockIndex expected = DataMetadata.of(data, 4).getBlocks();
+		Assert.assertEquals(3, blocks.getBlockCount());
+		Assert.assertTrue(blocks.isComparable(expected));
+		for (long i = 0; i < 3; i++) {
+			Assert.assertTrue(blocks.sameBlock(expected, i));
+		}
+	}
+
+	/**
+	 * Test that only the blocks with differences have different hashes, and that indexes
+	 * with other block sizes cannot be compared.
+	 */
+	@Test
+	public void testSameBlockNegative() {
+		BlockIndex left = DataMetadata.of(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}, 4).getBlocks();
+		BlockIndex right = DataMetadata.of(new byte[] {1, 2, 3, 4, 5, 6, 0, 8}, 4).getBlocks();
+
+		Assert.assertTrue(left.sameBlock(right, 0));
+		Assert.assertFalse(left.sameBlock(right, 1));
+		Assert.assertFalse(left.isComparable(DataMetadata.of(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}, 2).getBlocks()));
+		Assert.assertFalse(left.isComparable(null));
+	}
+}
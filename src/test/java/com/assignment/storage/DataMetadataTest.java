@@ -0,0 +1,36 @@
+package com.assignment.storage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Test class for DataMetadata class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class DataMetadataTest {
+
+	/**
+	 * Test that the metadata of the same data has the same length and hash.
+	 */
+	@Test
+	public void testSameContentPositive() {
+		DataMetadata metadata = DataMetadata.of(new byte[] {1, 2, 3});
+
+		Assert.assertEquals(3, metadata.getLength());
+		Assert.assertEquals(DataMetadata.HASH_LENGTH, metadata.getHash().length);
+		Assert.assertTrue(metadata.sameContent(DataMetadata.of(new byte[] {1, 2, 3})));
+	}
+
+	/**
+	 * Test that the metadata of different data with the same length does not have the same content.
+	 */
+	@Test
+	public void testSameContentNegative() {
+		DataMetadata metadata = DataMetadata.of(new byte[] {1, 2, 3});
+
+		Assert.assertFalse(metadata.sameContent(DataMetadata.of(new byte[] {1, 2, 4})));
+		Assert.assertFalse(metadata.sameContent(new DataMetadata(4, metadata.getHash())));
+	}
+}
@@ -0,0 +1,53 @@
+package com.assignment.storage.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.utils.DataStoreEnum;
+
+/**
+ * Unit Test class for DataStoreFactoryImpl class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class DataStoreFactoryImplTest {
+
+	/**
+	 * Test that the configured data store is returned, and always the same instance.
+	 */
+	@Test
+	public void testConfiguredDataStorePositive() {
+		System.setProperty(DataStoreFactoryImpl.TYPE_KEY, "memory");
+		try {
+			DataStoreFactoryImpl factory = new DataStoreFactoryImpl();
+			Assert.assertTrue(factory.getDataStore() instanceof InMemoryDataStore);
+			Assert.assertSame(factory.getDataStore(), new DataStoreFactoryImpl().getDataStore());
+		} finally {
+			System.clearProperty(DataStoreFactoryImpl.TYPE_KEY);
+		}
+	}
+
+	/**
+	 * Test that each type returns its own data store.
+	 */
+	@Test
+	public void testDataStoreByTypePositive() {
+		DataStoreFactoryImpl factory = new DataStoreFactoryImpl();
+		Assert.assertTrue(factory.getDataStore(DataStoreEnum.MAPPED_FILE) instanceof MappedFileDataStore);
+		Assert.assertTrue(factory.getDataStore(DataStoreEnum.PROPERTIES_FILE) instanceof PropertiesFileDataStore);
+	}
+
+	/**
+	 * Test that an invalid configuration falls back to the default data store.
+	 */
+	@Test
+	public void testInvalidConfigurationNegative() {
+		System.setProperty(DataStoreFactoryImpl.TYPE_KEY, "unknown");
+		try {
+			Assert.assertTrue(new DataStoreFactoryImpl().getDataStore() instanceof MappedFileDataStore);
+		} finally {
+			System.clearProperty(DataStoreFactoryImpl.TYPE_KEY);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.assignment.storage.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for H2DataStore class.<br/>
+ * Test all methods, positive and negative scenarios, using an in-memory H2 database.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class H2DataStoreTest {
+
+	private H2DataStore dataStore;
+
+	/**
+	 * Creates the data store in a new in-memory database before each test.
+	 */
+	@Before
+	public void setup() {
+		dataStore = new H2DataStore("jdbc:h2:mem:" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+	}
+
+	/**
+	 * Test that the data written is read back, and that a new write replaces it.
+	 */
+	@Test
+	public void testWriteAndReadPositive() throws IOException {
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1, 2, 3});
+		dataStore.write("1", DataEnum.RIGHT, new byte[] {4, 5});
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.LEFT));
+
+		dataStore.write("1", DataEnum.LEFT, new byte[] {7});
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {7}), dataStore.read("1", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {4, 5}), dataStore.read("1", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that a side that was not saved does not exist and is read as null.
+	 */
+	@Test
+	public void testReadNotSavedNegative() throws IOException {
+		dataStore.write("2", DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertTrue(dataStore.exists("2", DataEnum.LEFT));
+		Assert.assertFalse(dataStore.exists("2", DataEnum.RIGHT));
+		Assert.assertNull(dataStore.read("2", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that the version of a side changes on each save, and it is -1 when not saved.
+	 */
+	@Test
+	public void testVersionChangesOnWritePositive() throws IOException {
+		Assert.assertEquals(-1, dataStore.getVersion("3", DataEnum.LEFT));
+
+		dataStore.write("3", DataEnum.LEFT, new byte[] {1});
+		long version = dataStore.getVersion("3", DataEnum.LEFT);
+		dataStore.write("3", DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertNotEquals(version, dataStore.getVersion("3", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the metadata of a side is replaced on each save, and it is null when not saved.
+	 */
+	@Test
+	public void testMetadataPositive() throws IOException {
+		Assert.assertNull(dataStore.getMetadata("4", DataEnum.LEFT));
+
+		dataStore.write("4", DataEnum.LEFT, new byte[] {1, 2});
+		dataStore.write("4", DataEnum.LEFT, new byte[] {3, 4, 5});
+
+		Assert.assertTrue(DataMetadata.of(new byte[] {3, 4, 5}).sameContent(dataStore.getMetadata("4", DataEnum.LEFT)));
+	}
+
+	/**
+	 * Test that the sides saved in a batch are visible only after the commit.
+	 */
+	@Test
+	public void testBatchPositive() throws IOException {
+		try (DataBatch batch = dataStore.openBatch()) {
+			try (DataWriter writer = batch.openWriter("5", DataEnum.LEFT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+				writer.commit();
+			}
+			try (DataWriter writer = batch.openWriter("6", DataEnum.RIGHT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {3}));
+				writer.commit();
+			}
+			Assert.assertFalse(dataStore.exists("5", DataEnum.LEFT));
+			batch.commit();
+		}
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2}), dataStore.read("5", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {3}), dataStore.read("6", DataEnum.RIGHT));
+		Assert.assertTrue(DataMetadata.of(new byte[] {3}).sameContent(dataStore.getMetadata("6", DataEnum.RIGHT)));
+	}
+}
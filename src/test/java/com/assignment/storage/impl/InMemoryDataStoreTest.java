@@ -0,0 +1,141 @@
+package com.assignment.storage.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.BufferPool;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for InMemoryDataStore class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class InMemoryDataStoreTest {
+
+	/**
+	 * Test that the data written is read back, and that changing the written
+	 * array later does not change the stored data.
+	 */
+	@Test
+	public void testWriteAndReadPositive() {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		byte[] data = {1, 2, 3};
+		dataStore.write("1", DataEnum.LEFT, data);
+		data[0] = 9;
+
+		Assert.assertTrue(dataStore.exists("1", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that a side that was not saved does not exist and is read as null.
+	 */
+	@Test
+	public void testReadNotSavedNegative() {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertFalse(dataStore.exists("1", DataEnum.RIGHT));
+		Assert.assertNull(dataStore.read("1", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that the version of a side changes on each save, and it is -1 when not saved.
+	 */
+	@Test
+	public void testVersionChangesOnWritePositive() {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		Assert.assertEquals(-1, dataStore.getVersion("1", DataEnum.LEFT));
+
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1});
+		long version = dataStore.getVersion("1", DataEnum.LEFT);
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertNotEquals(version, dataStore.getVersion("1", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the metadata of a side is kept on each save, and it is null when not saved.
+	 */
+	@Test
+	public void testMetadataPositive() {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		Assert.assertNull(dataStore.getMetadata("1", DataEnum.LEFT));
+
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1, 2});
+
+		Assert.assertTrue(DataMetadata.of(new byte[] {1, 2}).sameContent(dataStore.getMetadata("1", DataEnum.LEFT)));
+	}
+
+	/**
+	 * Test that the data written in pieces (heap and direct buffers, and from a channel), 
+	 * larger than the pooled buffers, is saved on commit, and that the buffers are returned 
+	 * to the pool when the writer is closed.
+	 */
+	@Test
+	public void testBufferedWriterPositive() throws IOException {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		BufferPool bufferPool = new BufferPool(1024 * 1024, true);
+		byte[] data = new byte[200 * 1024];
+		new Random(1).nextBytes(data);
+		try (DataWriter writer = new BufferedDataWriter(dataStore, "1", DataEnum.LEFT, bufferPool)) {
+			writer.write(ByteBuffer.wrap(data, 0, 1000));
+			ByteBuffer direct = ByteBuffer.allocateDirect(100 * 1024);
+			direct.put(data, 1000, direct.capacity()).flip();
+			writer.write(direct);
+			writer.transferFrom(Channels.newChannel(new ByteArrayInputStream(data, 1000 + direct.capacity(), data.length)));
+			writer.commit();
+			Assert.assertFalse(bufferPool.getLeaks().isEmpty());
+		}
+		Assert.assertEquals(ByteBuffer.wrap(data), dataStore.read("1", DataEnum.LEFT));
+		Assert.assertTrue(bufferPool.getLeaks().isEmpty());
+	}
+
+	/**
+	 * Test that the data of a writer closed without commit is not saved, and its buffers
+	 * are returned to the pool.
+	 */
+	@Test
+	public void testBufferedWriterWithoutCommitNegative() throws IOException {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		BufferPool bufferPool = new BufferPool(1024 * 1024, true);
+		try (DataWriter writer = new BufferedDataWriter(dataStore, "1", DataEnum.LEFT, bufferPool)) {
+			writer.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+		}
+		Assert.assertFalse(dataStore.exists("1", DataEnum.LEFT));
+		Assert.assertTrue(bufferPool.getLeaks().isEmpty());
+	}
+
+	/**
+	 * Test that the range writer writes the range over the data, and fails when the range
+	 * is not inside the data.
+	 */
+	@Test
+	public void testRangeWriterPositive() throws IOException {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1, 2, 3, 4});
+		try (DataWriter writer = dataStore.openRangeWriter("1", DataEnum.LEFT, 1)) {
+			writer.write(ByteBuffer.wrap(new byte[] {8, 9}));
+			writer.commit();
+		}
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 8, 9, 4}), dataStore.read("1", DataEnum.LEFT));
+
+		try (DataWriter writer = dataStore.openRangeWriter("1", DataEnum.LEFT, 3)) {
+			writer.write(ByteBuffer.wrap(new byte[] {8, 9}));
+			writer.commit();
+			Assert.fail("The range is not inside the data");
+		} catch (IOException exc) {
+			Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 8, 9, 4}), dataStore.read("1", DataEnum.LEFT));
+		}
+	}
+}
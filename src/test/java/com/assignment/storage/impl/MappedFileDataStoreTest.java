@@ -0,0 +1,374 @@
+package com.assignment.storage.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.assignment.storage.BlockIndex;
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataReader;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for MappedFileDataStore class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class MappedFileDataStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private MappedFileDataStore dataStore;
+
+	/**
+	 * Creates the data store in a temporary folder before each test.
+	 */
+	@Before
+	public void setup() {
+		dataStore = new MappedFileDataStore(folder.getRoot().toPath().resolve("data"));
+	}
+
+	/**
+	 * Test that the data written is read back, and each side is kept in its own file.
+	 */
+	@Test
+	public void testWriteAndReadPositive() throws IOException {
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1, 2, 3});
+		dataStore.write("1", DataEnum.RIGHT, new byte[] {4, 5});
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {4, 5}), dataStore.read("1", DataEnum.RIGHT));
+
+		Path directory = folder.getRoot().toPath().resolve("data");
+		Assert.assertEquals(3, Files.size(directory.resolve("1.left")));
+		Assert.assertEquals(2, Files.size(directory.resolve("1.right")));
+	}
+
+	/**
+	 * Test that a new write replaces the previous data, without temporary files left behind.
+	 */
+	@Test
+	public void testOverwritePositive() throws IOException {
+		dataStore.write("2", DataEnum.LEFT, new byte[] {1, 2, 3, 4});
+		dataStore.write("2", DataEnum.LEFT, new byte[] {9});
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {9}), dataStore.read("2", DataEnum.LEFT));
+		// the data file and its metadata file.
+		Assert.assertEquals(2, folder.getRoot().toPath().resolve("data").toFile().list().length);
+	}
+
+	/**
+	 * Test that a side that was not saved does not exist and is read as null.
+	 */
+	@Test
+	public void testReadNotSavedNegative() throws IOException {
+		dataStore.write("3", DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertTrue(dataStore.exists("3", DataEnum.LEFT));
+		Assert.assertFalse(dataStore.exists("3", DataEnum.RIGHT));
+		Assert.assertNull(dataStore.read("3", DataEnum.RIGHT));
+		Assert.assertNull(dataStore.openReader("3", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that the reader reads regions of the data (the last one is cut at the end of the data),
+	 * and keeps reading the data it was opened with after the side is saved again.
+	 */
+	@Test
+	public void testOpenReaderPositive() throws IOException {
+		dataStore.write("4", DataEnum.LEFT, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+		try (DataReader reader = dataStore.openReader("4", DataEnum.LEFT)) {
+			dataStore.write("4", DataEnum.LEFT, new byte[] {0});
+
+			Assert.assertEquals(10, reader.getLength());
+			Assert.assertEquals(ByteBuffer.wrap(new byte[] {4, 5, 6, 7}), reader.read(3, 4));
+			Assert.assertEquals(ByteBuffer.wrap(new byte[] {9, 10}), reader.read(8, 4));
+		}
+	}
+
+	/**
+	 * Test that the data written incrementally is visible only after the commit.
+	 */
+	@Test
+	public void testWriterCommitPositive() throws IOException {
+		try (DataWriter writer = dataStore.openWriter("4", DataEnum.RIGHT)) {
+			writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+			writer.write(ByteBuffer.wrap(new byte[] {3}));
+			Assert.assertFalse(dataStore.exists("4", DataEnum.RIGHT));
+			writer.commit();
+		}
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("4", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that closing a writer without commit keeps the previous data.
+	 */
+	@Test
+	public void testWriterWithoutCommitNegative() throws IOException {
+		dataStore.write("5", DataEnum.RIGHT, new byte[] {7});
+		try (DataWriter writer = dataStore.openWriter("5", DataEnum.RIGHT)) {
+			writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+		}
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {7}), dataStore.read("5", DataEnum.RIGHT));
+		// the data file and its metadata file.
+		Assert.assertEquals(2, folder.getRoot().toPath().resolve("data").toFile().list().length);
+	}
+
+	/**
+	 * Test that the version of a side changes on each save, and it is -1 when not saved.
+	 */
+	@Test
+	public void testVersionChangesOnWritePositive() throws IOException {
+		Assert.assertEquals(-1, dataStore.getVersion("3", DataEnum.LEFT));
+
+		dataStore.write("3", DataEnum.LEFT, new byte[] {1});
+		long version = dataStore.getVersion("3", DataEnum.LEFT);
+		dataStore.write("3", DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertNotEquals(version, dataStore.getVersion("3", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the version does not change between reads, and changes when a range is written.
+	 */
+	@Test
+	public void testVersionChangesOnRangeWritePositive() throws IOException {
+		dataStore.write("13", DataEnum.LEFT, new byte[] {1, 2, 3});
+		long version = dataStore.getVersion("13", DataEnum.LEFT);
+		Assert.assertEquals(version, dataStore.getVersion("13", DataEnum.LEFT));
+
+		try (DataWriter writer = dataStore.openRangeWriter("13", DataEnum.LEFT, 1)) {
+			writer.write(ByteBuffer.wrap(new byte[] {2}));
+			writer.commit();
+		}
+
+		long rangeVersion = dataStore.getVersion("13", DataEnum.LEFT);
+		Assert.assertTrue(rangeVersion > version);
+		Assert.assertEquals(rangeVersion, dataStore.getVersion("13", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the metadata of a side is written together with the data, also by the incremental writer.
+	 */
+	@Test
+	public void testMetadataPositive() throws IOException {
+		Assert.assertNull(dataStore.getMetadata("4", DataEnum.LEFT));
+
+		try (DataWriter writer = dataStore.openWriter("4", DataEnum.LEFT)) {
+			writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+			writer.write(ByteBuffer.wrap(new byte[] {3}));
+			writer.commit();
+		}
+
+		Assert.assertTrue(DataMetadata.of(new byte[] {1, 2, 3}).sameContent(dataStore.getMetadata("4", DataEnum.LEFT)));
+	}
+
+	/**
+	 * Test that the metadata is not used when it does not describe the data file.
+	 */
+	@Test
+	public void testMetadataOfChangedFileNegative() throws IOException {
+		dataStore.write("5", DataEnum.LEFT, new byte[] {1, 2});
+		Files.write(folder.getRoot().toPath().resolve("data").resolve("5.left"), new byte[] {1, 2, 3});
+
+		Assert.assertNull(dataStore.getMetadata("5", DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the index of the blocks is written with the metadata, and read back.
+	 */
+	@Test
+	public void testBlockIndexPositive() throws IOException {
+		dataStore.setBlockSize(2);
+		dataStore.write("6", DataEnum.LEFT, new byte[] {1, 2, 3, 4, 5});
+
+		BlockIndex blocks = dataStore.getMetadata("6", DataEnum.LEFT).getBlocks();
+		BlockIndex expected = DataMetadata.of(new byte[] {1, 2, 3, 4, 5}, 2).getBlocks();
+		Assert.assertEquals(3, blocks.getBlockCount());
+		Assert.assertTrue(blocks.isComparable(expected));
+		Assert.assertTrue(blocks.sameBlock(expected, 2));
+	}
+
+	/**
+	 * Test that the data transferred from a channel is written after the data already written,
+	 * with its metadata.
+	 */
+	@Test
+	public void testTransferFromChannelPositive() throws IOException {
+		dataStore.setBlockSize(2);
+		try (DataWriter writer = dataStore.openWriter("7", DataEnum.RIGHT)) {
+			writer.write(ByteBuffer.wrap(new byte[] {1}));
+			Assert.assertEquals(4, writer.transferFrom(Channels.newChannel(new ByteArrayInputStream(new byte[] {2, 3, 4, 5}))));
+			writer.write(ByteBuffer.wrap(new byte[] {6}));
+			writer.commit();
+		}
+
+		byte[] expected = {1, 2, 3, 4, 5, 6};
+		Assert.assertEquals(ByteBuffer.wrap(expected), dataStore.read("7", DataEnum.RIGHT));
+		DataMetadata metadata = dataStore.getMetadata("7", DataEnum.RIGHT);
+		Assert.assertTrue(DataMetadata.of(expected).sameContent(metadata));
+		Assert.assertTrue(metadata.getBlocks().sameBlock(DataMetadata.of(expected, 2).getBlocks(), 1));
+	}
+
+	/**
+	 * Test that the data of a batch is visible only when the batch is committed.
+	 */
+	@Test
+	public void testBatchPositive() throws IOException {
+		dataStore.write("8", DataEnum.LEFT, new byte[] {9});
+		try (DataBatch batch = dataStore.openBatch()) {
+			try (DataWriter writer = batch.openWriter("8", DataEnum.LEFT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+				writer.commit();
+			}
+			try (DataWriter writer = batch.openWriter("9", DataEnum.RIGHT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {3}));
+				writer.commit();
+			}
+			Assert.assertEquals(ByteBuffer.wrap(new byte[] {9}), dataStore.read("8", DataEnum.LEFT));
+			Assert.assertFalse(dataStore.exists("9", DataEnum.RIGHT));
+			batch.commit();
+		}
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2}), dataStore.read("8", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {3}), dataStore.read("9", DataEnum.RIGHT));
+		Assert.assertTrue(DataMetadata.of(new byte[] {3}).sameContent(dataStore.getMetadata("9", DataEnum.RIGHT)));
+	}
+
+	/**
+	 * Test that a batch that fails while its sides are published restores the sides already 
+	 * published, and that the batch is rolled back again when the store starts, if the rollback 
+	 * did not finish.
+	 */
+	@Test
+	public void testBatchRollbackNegative() throws IOException {
+		dataStore.write("14", DataEnum.LEFT, new byte[] {9});
+		// a directory that is not empty cannot be replaced (or deleted) by the right side.
+		Path data = folder.getRoot().toPath().resolve("data");
+		Path other = Files.createDirectories(data.resolve("14.right").resolve("other"));
+		try (DataBatch batch = dataStore.openBatch()) {
+			try (DataWriter writer = batch.openWriter("14", DataEnum.LEFT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+				writer.commit();
+			}
+			try (DataWriter writer = batch.openWriter("15", DataEnum.LEFT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {3}));
+				writer.commit();
+			}
+			try (DataWriter writer = batch.openWriter("14", DataEnum.RIGHT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {4}));
+				writer.commit();
+			}
+			batch.commit();
+			Assert.fail("The batch must not be published");
+		} catch (IOException exc) {
+			// the directory cannot be deleted by the rollback either.
+			Assert.assertEquals(1, exc.getSuppressed().length);
+		}
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {9}), dataStore.read("14", DataEnum.LEFT));
+		Assert.assertTrue(DataMetadata.of(new byte[] {9}).sameContent(dataStore.getMetadata("14", DataEnum.LEFT)));
+		Assert.assertFalse(dataStore.exists("15", DataEnum.LEFT));
+
+		Files.delete(other);
+		MappedFileDataStore restarted = new MappedFileDataStore(data);
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {9}), restarted.read("14", DataEnum.LEFT));
+		Assert.assertTrue(DataMetadata.of(new byte[] {9}).sameContent(restarted.getMetadata("14", DataEnum.LEFT)));
+		// only the data file and its metadata file, the journal and the backups are deleted.
+		Assert.assertEquals(2, data.toFile().list().length);
+	}
+
+	/**
+	 * Test that a batch closed without commit saves nothing and leaves no temporary files.
+	 */
+	@Test
+	public void testBatchNotCommittedNegative() throws IOException {
+		try (DataBatch batch = dataStore.openBatch()) {
+			try (DataWriter writer = batch.openWriter("10", DataEnum.LEFT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+				writer.commit();
+			}
+			try (DataWriter writer = batch.openWriter("10", DataEnum.RIGHT)) {
+				writer.write(ByteBuffer.wrap(new byte[] {3}));
+			}
+		}
+
+		Assert.assertFalse(dataStore.exists("10", DataEnum.LEFT));
+		Assert.assertFalse(dataStore.exists("10", DataEnum.RIGHT));
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(folder.getRoot().toPath().resolve("data"))) {
+			Assert.assertFalse(files.iterator().hasNext());
+		}
+	}
+
+	/**
+	 * Test that the range is written without changing the data already read or opened, and that 
+	 * only the hashes of the blocks it touches change in the metadata, whose hash of the whole 
+	 * data becomes unknown.
+	 */
+	@Test
+	public void testRangeWriterPositive() throws IOException {
+		dataStore.setBlockSize(2);
+		dataStore.write("11", DataEnum.LEFT, new byte[] {1, 2, 3, 4, 5, 6, 7});
+		ByteBuffer previous = dataStore.read("11", DataEnum.LEFT);
+		try (DataReader reader = dataStore.openReader("11", DataEnum.LEFT)) {
+			try (DataWriter writer = dataStore.openRangeWriter("11", DataEnum.LEFT, 3)) {
+				writer.write(ByteBuffer.wrap(new byte[] {8}));
+				writer.transferFrom(Channels.newChannel(new ByteArrayInputStream(new byte[] {9})));
+				writer.commit();
+			}
+			Assert.assertEquals(ByteBuffer.wrap(new byte[] {4, 5}), reader.read(3, 2));
+		}
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7}), previous);
+
+		byte[] expected = {1, 2, 3, 8, 9, 6, 7};
+		Assert.assertEquals(ByteBuffer.wrap(expected), dataStore.read("11", DataEnum.LEFT));
+		DataMetadata metadata = dataStore.getMetadata("11", DataEnum.LEFT);
+		Assert.assertEquals(7, metadata.getLength());
+		Assert.assertNull(metadata.getHash());
+		Assert.assertFalse(metadata.sameContent(DataMetadata.of(expected)));
+		BlockIndex blocks = DataMetadata.of(expected, 2).getBlocks();
+		for (int block = 0; block < 4; block++) {
+			Assert.assertTrue(metadata.getBlocks().sameBlock(blocks, block));
+		}
+		// the data file and its metadata file.
+		Assert.assertEquals(2, folder.getRoot().toPath().resolve("data").toFile().list().length);
+	}
+
+	/**
+	 * Test that a range that is not inside the data, or of a side that was not saved, is not written.
+	 */
+	@Test
+	public void testRangeWriterOutsideDataNegative() throws IOException {
+		dataStore.write("12", DataEnum.LEFT, new byte[] {1, 2, 3});
+		try (DataWriter writer = dataStore.openRangeWriter("12", DataEnum.LEFT, 2)) {
+			writer.write(ByteBuffer.wrap(new byte[] {8, 9}));
+			writer.commit();
+			Assert.fail("The range is not inside the data");
+		} catch (IOException exc) {
+			Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("12", DataEnum.LEFT));
+			Assert.assertTrue(DataMetadata.of(new byte[] {1, 2, 3}).sameContent(dataStore.getMetadata("12", DataEnum.LEFT)));
+		}
+		try (DataWriter writer = dataStore.openRangeWriter("12", DataEnum.RIGHT, 0)) {
+			writer.write(ByteBuffer.wrap(new byte[] {8}));
+			writer.commit();
+			Assert.fail("The side was not saved");
+		} catch (IOException exc) {
+			Assert.assertFalse(dataStore.exists("12", DataEnum.RIGHT));
+		}
+	}
+}
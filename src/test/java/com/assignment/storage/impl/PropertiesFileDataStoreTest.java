@@ -0,0 +1,144 @@
+package com.assignment.storage.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.assignment.storage.DataBatch;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataWriter;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for PropertiesFileDataStore class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class PropertiesFileDataStoreTest {
+
+	// the temp file, named with the id.
+	private String id = UUID.randomUUID().toString();
+
+	/**
+	 * Deletes the temp file, and its metadata file, after each test.
+	 */
+	@After
+	public void cleanup() {
+		new File(id).delete();
+		new File(".meta", id).delete();
+	}
+
+	/**
+	 * Test that the data written is read back, and that the side not saved yet is empty.
+	 */
+	@Test
+	public void testWriteAndReadPositive() throws IOException {
+		PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1, 2, 3});
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read(id, DataEnum.LEFT));
+		Assert.assertEquals(0, dataStore.read(id, DataEnum.RIGHT).limit());
+	}
+
+	/**
+	 * Test that an id that was not saved does not exist and is read as null.
+	 */
+	@Test
+	public void testReadNotSavedNegative() throws IOException {
+		PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+
+		Assert.assertFalse(dataStore.exists(id, DataEnum.LEFT));
+		Assert.assertNull(dataStore.read(id, DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the metadata of a side is kept in the file, and it is null when not saved.
+	 */
+	@Test
+	public void testMetadataPositive() throws IOException {
+		PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+		Assert.assertNull(dataStore.getMetadata(id, DataEnum.LEFT));
+
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1, 2});
+
+		Assert.assertTrue(DataMetadata.of(new byte[] {1, 2}).sameContent(dataStore.getMetadata(id, DataEnum.LEFT)));
+		Assert.assertNull(dataStore.getMetadata(id, DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that the metadata is read without loading the data file, and that the data saved
+	 * without its metadata file has no metadata and a new version on each read.
+	 */
+	@Test
+	public void testMetadataWithoutDataNegative() throws IOException {
+		PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1, 2});
+
+		Utils utils = Mockito.spy(new Utils());
+		dataStore.setUtils(utils);
+		Assert.assertEquals(2, dataStore.getMetadata(id, DataEnum.LEFT).getLength());
+		Mockito.verify(utils, Mockito.never()).loadPropertiesFile(id);
+		Mockito.verify(utils, Mockito.never()).getData(Mockito.eq(id), Mockito.any(DataEnum.class));
+
+		Assert.assertTrue(new File(".meta", id).delete());
+		Assert.assertNull(dataStore.getMetadata(id, DataEnum.LEFT));
+		Assert.assertNotEquals(dataStore.getVersion(id, DataEnum.LEFT), dataStore.getVersion(id, DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2}), dataStore.read(id, DataEnum.LEFT));
+	}
+
+	/**
+	 * Test that the version of a side changes on each save, also within the same time of the file,
+	 * and it is -1 when not saved.
+	 */
+	@Test
+	public void testVersionChangesOnWritePositive() throws IOException {
+		PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+		Assert.assertEquals(-1, dataStore.getVersion(id, DataEnum.LEFT));
+
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1});
+		long version = dataStore.getVersion(id, DataEnum.LEFT);
+		Assert.assertEquals(version, dataStore.getVersion(id, DataEnum.LEFT));
+		long rightVersion = dataStore.getVersion(id, DataEnum.RIGHT);
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1});
+
+		Assert.assertTrue(dataStore.getVersion(id, DataEnum.LEFT) > version);
+		// the version of the other side is kept.
+		Assert.assertEquals(rightVersion, dataStore.getVersion(id, DataEnum.RIGHT));
+		// a new instance (a restart) keeps the version, and the next save increases it.
+		version = dataStore.getVersion(id, DataEnum.LEFT);
+		PropertiesFileDataStore restarted = new PropertiesFileDataStore();
+		Assert.assertEquals(version, restarted.getVersion(id, DataEnum.LEFT));
+		restarted.write(id, DataEnum.LEFT, new byte[] {2});
+		Assert.assertTrue(restarted.getVersion(id, DataEnum.LEFT) > version);
+	}
+
+	/**
+	 * Test that both sides of an id saved in a batch are in its file, after the commit.
+	 */
+	@Test
+	public void testBatchPositive() throws IOException {
+		PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+		try (DataBatch batch = dataStore.openBatch()) {
+			for (DataEnum side : DataEnum.values()) {
+				try (DataWriter writer = batch.openWriter(id, side)) {
+					writer.write(ByteBuffer.wrap(new byte[] {1, (byte) side.ordinal()}));
+					writer.commit();
+				}
+			}
+			Assert.assertFalse(dataStore.exists(id, DataEnum.LEFT));
+			batch.commit();
+		}
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, (byte) DataEnum.LEFT.ordinal()}), dataStore.read(id, DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, (byte) DataEnum.RIGHT.ordinal()}), dataStore.read(id, DataEnum.RIGHT));
+		Assert.assertEquals(2, dataStore.getMetadata(id, DataEnum.RIGHT).getLength());
+	}
+}
@@ -0,0 +1,107 @@
+package com.assignment.task.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.task.DiffTask;
+import com.assignment.task.TaskFactory;
+import com.assignment.utils.DiffModeEnum;
+import com.assignment.utils.TaskStatusEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for BatchDiffTask class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class BatchDiffTaskTest {
+
+	private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Test that the result of each id is written, with the failed ids, using a window 
+	 * smaller than the batch.
+	 */
+	@Test
+	public void testBatchDiffPositive() throws IOException, JSONException {
+		TaskFactory taskFactory = Mockito.mock(TaskFactory.class);
+		for (String id : Arrays.asList("1", "2", "3")) {
+			DifferenceList differences = new DifferenceList();
+			differences.add(0, Long.parseLong(id));
+			DiffTask task = Mockito.mock(DiffTask.class);
+			Mockito.when(task.executeDiff()).thenReturn(DiffResult.of(differences, DiffResult.NO_NEXT));
+			Mockito.when(taskFactory.createGetDiffTask(id, DiffModeEnum.BYTE)).thenReturn(task);
+		}
+		Mockito.when(taskFactory.createGetDiffTask("4", DiffModeEnum.BYTE)).thenReturn(Mockito.mock(DiffTask.class));
+
+		BatchDiffTask task = new BatchDiffTask(Arrays.asList("1", "2", "3", "4"), DiffModeEnum.BYTE);
+		task.setTaskFactory(taskFactory);
+		task.setExecutor(executor, 2);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		task.executeStreamingTask().write(output);
+
+		JSONArray results = new JSONArray(new String(output.toByteArray(), StandardCharsets.UTF_8));
+		Assert.assertEquals(4, results.length());
+		for (int i = 0; i < results.length(); i++) {
+			JSONObject result = results.getJSONObject(i);
+			String id = result.getString(Utils.ID);
+			if ("4".equals(id)) {
+				Assert.assertEquals(TaskStatusEnum.FAILED.name(), result.getString(Utils.STATUS));
+				Assert.assertFalse(result.has(Utils.RESULT));
+			} else {
+				Assert.assertEquals(TaskStatusEnum.COMPLETED.name(), result.getString(Utils.STATUS));
+				Assert.assertEquals(Long.parseLong(id), result.getJSONObject(Utils.RESULT)
+						.getJSONArray(Utils.DIFFERENCES).getJSONObject(0).getLong(Utils.LENGTH));
+			}
+		}
+	}
+
+	/**
+	 * Test that the diffs are stopped when the results cannot be written.
+	 */
+	@Test
+	public void testBatchDiffWriteFailureNegative() throws IOException {
+		TaskFactory taskFactory = Mockito.mock(TaskFactory.class);
+		DiffTask diffTask = Mockito.mock(DiffTask.class);
+		Mockito.when(taskFactory.createGetDiffTask(Mockito.anyString(), Mockito.eq(DiffModeEnum.STRING))).thenReturn(diffTask);
+
+		BatchDiffTask task = new BatchDiffTask(Arrays.asList("1", "2", "3"), DiffModeEnum.STRING);
+		task.setTaskFactory(taskFactory);
+		task.setExecutor(executor, 1);
+		OutputStream output = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Closed by the client");
+			}
+		};
+		try {
+			task.executeStreamingTask().write(output);
+			Assert.fail("The failure of the output must be thrown.");
+		} catch (IOException exc) {
+			// expected.
+		}
+		// with a window of one diff, the failure happens before the last ids are submitted.
+		Mockito.verify(taskFactory, Mockito.never()).createGetDiffTask("3", DiffModeEnum.STRING);
+	}
+}
@@ -0,0 +1,70 @@
+package com.assignment.task.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.assignment.cache.DiffCache;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.StripedLock;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for BatchUploadTask class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class BatchUploadTaskTest {
+
+	/**
+	 * Test that all the records are saved, and the cached results of their ids are removed.
+	 */
+	@Test
+	public void testBatchUploadPositive() throws IOException, JSONException {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		DiffCache diffCache = Mockito.mock(DiffCache.class);
+		String json = "[ { \"Id\":\"1\", \"Side\":\"LEFT\", \"Data\":\"AQID\" },"
+				+ " { \"Id\":\"1\", \"Side\":\"RIGHT\", \"Data\":\"AQIE\" },"
+				+ " { \"Id\":\"2\", \"Side\":\"LEFT\", \"Data\":\"BQ==\" } ]";
+
+		BatchUploadTask task = new BatchUploadTask(toStream(json));
+		task.setDataStore(dataStore);
+		task.setDiffCache(diffCache);
+		task.setStripedLock(new StripedLock(4));
+		JSONObject result = task.executeTask();
+
+		Assert.assertEquals(3, result.getInt(Utils.RECORDS));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.LEFT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 4}), dataStore.read("1", DataEnum.RIGHT));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {5}), dataStore.read("2", DataEnum.LEFT));
+		Mockito.verify(diffCache).invalidate("1");
+		Mockito.verify(diffCache).invalidate("2");
+	}
+
+	/**
+	 * Test that no record is saved when the stream is not valid.
+	 */
+	@Test
+	public void testBatchUploadInvalidNegative() {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		String json = "[ { \"Id\":\"1\", \"Side\":\"LEFT\", \"Data\":\"AQID\" }, { \"Id\":\"2\" ";
+
+		BatchUploadTask task = new BatchUploadTask(toStream(json));
+		task.setDataStore(dataStore);
+		Assert.assertNull(task.executeTask());
+		Assert.assertFalse(dataStore.exists("1", DataEnum.LEFT));
+	}
+
+	private ByteArrayInputStream toStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
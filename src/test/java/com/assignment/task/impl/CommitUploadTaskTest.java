@@ -0,0 +1,155 @@
+package com.assignment.task.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.assignment.cache.DiffCache;
+import com.assignment.ingest.UploadSession;
+import com.assignment.ingest.impl.FileUploadSessionManager;
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.BufferPool;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for CommitUploadTask and UploadChunkTask classes.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * The unit tests validates that the tasks are able to:<br/>
+ * 1) write the chunks of an upload session;<br/>
+ * 2) save the data of a complete session and delete the session;<br/>
+ * 3) keep the data and the session when the session is not complete, is empty, or cannot be saved.
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class CommitUploadTaskTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private FileUploadSessionManager sessionManager;
+	private InMemoryDataStore dataStore;
+	private DiffCache mockDiffCache;
+	private UploadSession session;
+
+	/**
+	 * Opens a session with chunks of 2 bytes before each test.
+	 */
+	@Before
+	public void setup() throws IOException {
+		sessionManager = new FileUploadSessionManager(folder.getRoot().toPath(), 60000);
+		dataStore = new InMemoryDataStore();
+		mockDiffCache = Mockito.mock(DiffCache.class);
+		session = sessionManager.open("1", DataEnum.RIGHT, 2);
+	}
+
+	/**
+	 * Checks that the buffers of the pool were returned after each test, also by the failed chunks and commits.
+	 */
+	@After
+	public void checkLeaks() {
+		List<Throwable> leaks = BufferPool.getInstance().getLeaks();
+		Assert.assertTrue("Buffers not released: " + leaks, leaks.isEmpty());
+	}
+
+	/**
+	 * Test that a complete session is saved in the data store and deleted.
+	 */
+	@Test
+	public void testCommitPositive() throws JSONException {
+		Assert.assertEquals(1, uploadChunk(1, "[\"Aw==\"]").getLong(Utils.LENGTH));
+		Assert.assertEquals(2, uploadChunk(0, "[\"AQI=\"]").getLong(Utils.LENGTH));
+
+		Assert.assertEquals(3, createCommitUploadTask().executeTask().getLong(Utils.LENGTH));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.RIGHT));
+		Assert.assertNull(sessionManager.get(session.getUploadId()));
+		Mockito.verify(mockDiffCache).invalidate("1");
+	}
+
+	/**
+	 * Test that a session with a missing chunk is not saved, and it can still be completed.
+	 */
+	@Test
+	public void testCommitMissingChunkNegative() {
+		Assert.assertNotNull(uploadChunk(1, "[\"Aw==\"]"));
+
+		Assert.assertNull(createCommitUploadTask().executeTask());
+		Assert.assertFalse(dataStore.exists("1", DataEnum.RIGHT));
+		Assert.assertSame(session, sessionManager.get(session.getUploadId()));
+
+		CommitUploadTask commitTask = new CommitUploadTask("unknown");
+		commitTask.setSessionManager(sessionManager);
+		Assert.assertNull(commitTask.executeTask());
+		UploadChunkTask task = new UploadChunkTask("unknown", 0, new ByteArrayInputStream(new byte[0]));
+		task.setSessionManager(sessionManager);
+		Assert.assertNull(task.executeTask());
+	}
+
+	/**
+	 * Test that a session whose data cannot be saved is kept open, and that the commit can be retried.
+	 */
+	@Test
+	public void testCommitFailedAndRetriedNegative() throws IOException, JSONException {
+		Assert.assertNotNull(uploadChunk(0, "[\"AQI=\"]"));
+		DataWriter failedWriter = Mockito.mock(DataWriter.class);
+		Mockito.when(failedWriter.transferFrom(Mockito.any(ReadableByteChannel.class))).thenReturn(2L);
+		Mockito.doThrow(new IOException("failure")).when(failedWriter).commit();
+		InMemoryDataStore failedDataStore = Mockito.spy(dataStore);
+		Mockito.doReturn(failedWriter).when(failedDataStore).openWriter("1", DataEnum.RIGHT);
+		CommitUploadTask task = createCommitUploadTask();
+		task.setDataStore(failedDataStore);
+
+		Assert.assertNull(task.executeTask());
+		Assert.assertSame(session, sessionManager.get(session.getUploadId()));
+		Assert.assertNotNull(uploadChunk(1, "[\"Aw==\"]"));
+
+		Assert.assertEquals(3, createCommitUploadTask().executeTask().getLong(Utils.LENGTH));
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read("1", DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test that a session without chunks (the only chunk sent is not valid) is not saved as an empty side.
+	 */
+	@Test
+	public void testCommitEmptySessionNegative() {
+		Assert.assertNull(uploadChunk(0, "[\"AQ"));
+		Assert.assertNull(createCommitUploadTask().executeTask());
+		Assert.assertFalse(dataStore.exists("1", DataEnum.RIGHT));
+		Assert.assertSame(session, sessionManager.get(session.getUploadId()));
+	}
+
+	/**
+	 * Writes one chunk of the session.
+	 */
+	private JSONObject uploadChunk(int chunk, String json) {
+		UploadChunkTask task = new UploadChunkTask(session.getUploadId(), chunk, 
+				new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		task.setSessionManager(sessionManager);
+		return task.executeTask();
+	}
+
+	/**
+	 * Creates the task that commits the session.
+	 */
+	private CommitUploadTask createCommitUploadTask() {
+		CommitUploadTask task = new CommitUploadTask(session.getUploadId());
+		task.setSessionManager(sessionManager);
+		task.setDataStore(dataStore);
+		task.setDiffCache(mockDiffCache);
+		return task;
+	}
+}
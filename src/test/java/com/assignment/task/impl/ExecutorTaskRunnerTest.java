@@ -0,0 +1,119 @@
+package com.assignment.task.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.assignment.task.Task;
+import com.assignment.utils.TaskStatusEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for ExecutorTaskRunner class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ExecutorTaskRunnerTest {
+
+	/**
+	 * Task that waits for the latch before returning its result.
+	 */
+	private static class BlockingTask implements Task {
+		private CountDownLatch latch;
+		private JSONObject result;
+
+		BlockingTask(CountDownLatch latch, JSONObject result) {
+			this.latch = latch;
+			this.result = result;
+		}
+
+		@Override
+		public JSONObject executeTask() {
+			try {
+				latch.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException exc) {
+				Thread.currentThread().interrupt();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Waits until the operation is finished and returns its status.
+	 */
+	private String waitForStatus(ExecutorTaskRunner runner, String operationId) throws Exception {
+		for (int i = 0; i < 500; i++) {
+			String status = runner.getStatus(operationId).getString(Utils.STATUS);
+			if (status.equals(TaskStatusEnum.COMPLETED.name()) || status.equals(TaskStatusEnum.FAILED.name())) {
+				return status;
+			}
+			Thread.sleep(10);
+		}
+		return null;
+	}
+
+	/**
+	 * Test that the tasks are executed and their status is available (COMPLETED or FAILED).
+	 */
+	@Test
+	public void testSubmitAndStatusPositive() throws Exception {
+		ExecutorTaskRunner runner = new ExecutorTaskRunner(1, 1, 10, 10);
+		CountDownLatch latch = new CountDownLatch(1);
+		String completedId = runner.submit(new BlockingTask(latch, new JSONObject()));
+		String failedId = runner.submit(new BlockingTask(latch, null));
+
+		Assert.assertEquals(TaskStatusEnum.PENDING.name(), runner.getStatus(failedId).getString(Utils.STATUS));
+		latch.countDown();
+
+		Assert.assertEquals(TaskStatusEnum.COMPLETED.name(), waitForStatus(runner, completedId));
+		Assert.assertEquals(TaskStatusEnum.FAILED.name(), waitForStatus(runner, failedId));
+		Assert.assertEquals(completedId, runner.getStatus(completedId).getString(Utils.OPERATION));
+	}
+
+	/**
+	 * Test that new tasks are rejected when the threads are busy and the queue is full.
+	 */
+	@Test
+	public void testSaturationNegative() throws InterruptedException {
+		ExecutorTaskRunner runner = new ExecutorTaskRunner(1, 1, 1, 10);
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			runner.submit(new BlockingTask(latch, new JSONObject()));
+			runner.submit(new BlockingTask(latch, new JSONObject()));
+			try {
+				runner.submit(new BlockingTask(latch, new JSONObject()));
+				Assert.fail("The task should be rejected");
+			} catch (RejectedExecutionException exc) {
+				// the first task may take a moment to be seen as active.
+				for (int i = 0; (i < 100) && !runner.isSaturated(); i++) {
+					Thread.sleep(10);
+				}
+				Assert.assertTrue(runner.isSaturated());
+			}
+		} finally {
+			latch.countDown();
+		}
+	}
+
+	/**
+	 * Test that only the last finished operations are kept, and unknown operations have no status.
+	 */
+	@Test
+	public void testHistoryNegative() throws Exception {
+		ExecutorTaskRunner runner = new ExecutorTaskRunner(1, 1, 10, 1);
+		CountDownLatch latch = new CountDownLatch(0);
+		String firstId = runner.submit(new BlockingTask(latch, new JSONObject()));
+		waitForStatus(runner, firstId);
+		String secondId = runner.submit(new BlockingTask(latch, new JSONObject()));
+		waitForStatus(runner, secondId);
+
+		Assert.assertNull(runner.getStatus(firstId));
+		Assert.assertNotNull(runner.getStatus(secondId));
+		Assert.assertNull(runner.getStatus("unknown"));
+	}
+}
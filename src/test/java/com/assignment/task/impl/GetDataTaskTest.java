@@ -0,0 +1,52 @@
+package com.assignment.task.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.assignment.storage.DataStore;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.DataEnum;
+
+/**
+ * Unit Test class for GetDataTask class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class GetDataTaskTest {
+
+	/**
+	 * Test that the raw bytes of the side are written to the output.
+	 */
+	@Test
+	public void testGetDataPositive() throws IOException {
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		dataStore.write("1", DataEnum.LEFT, new byte[] {1, 2, 3});
+
+		GetDataTask task = new GetDataTask("1", DataEnum.LEFT);
+		task.setDataStore(dataStore);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		task.executeStreamingTask().write(output);
+
+		Assert.assertArrayEquals(new byte[] {1, 2, 3}, output.toByteArray());
+	}
+
+	/**
+	 * Test that there is no output when the side was not saved or cannot be read.
+	 */
+	@Test
+	public void testGetDataNotFoundNegative() throws IOException {
+		GetDataTask task = new GetDataTask("1", DataEnum.RIGHT);
+		task.setDataStore(new InMemoryDataStore());
+		Assert.assertNull(task.executeStreamingTask());
+
+		DataStore mockDataStore = Mockito.mock(DataStore.class);
+		Mockito.when(mockDataStore.read("1", DataEnum.RIGHT)).thenThrow(new IOException());
+		task.setDataStore(mockDataStore);
+		Assert.assertNull(task.executeStreamingTask());
+	}
+}
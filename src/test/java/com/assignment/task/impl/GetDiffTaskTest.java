@@ -1,5 +1,9 @@
 package com.assignment.task.impl;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
@@ -8,8 +12,18 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.diff.DiffEngine;
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.impl.ByteDiffEngine;
+import com.assignment.storage.DataMetadata;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.impl.BufferedDataReader;
+import com.assignment.storage.impl.InMemoryDataStore;
 import com.assignment.task.impl.GetDiffTask;
 import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
 import com.assignment.utils.Utils;
 
 
@@ -20,7 +34,9 @@ import com.assignment.utils.Utils;
  * for 3 scenarios:<br/>
  * 1) when the data are equals;<br/>
  * 2) when the data are not equals in size;<br/>
- * 3) when the data have the same length but differences.
+ * 3) when the data have the same length but differences.<br/>
+ * In the STRING mode the stored bytes are encoded again (mocked), so the 
+ * expected offsets are in Base64 characters.
  *
  * @author lucas.reginato@gmail.com
  */
@@ -28,6 +44,7 @@ public class GetDiffTaskTest {
 
 	// global variables of this unit test class
 	private Utils mockUtils = null;
+	private DataStore mockDataStore = null;
 	private String id = null;
 	private String left = null;
 	private String right = null;
@@ -37,26 +54,38 @@ public class GetDiffTaskTest {
 	 */
 	@Before
 	public void setup() {
-		// mocking the Utils class
+		// mocking the Utils and DataStore classes
 		mockUtils = Mockito.mock(Utils.class);
+		mockDataStore = Mockito.mock(DataStore.class);
+	}
+
+	/**
+	 * Mocks the data store to return the stored bytes of both sides, and the Utils 
+	 * to encode these bytes to the left and right strings.
+	 */
+	private void mockData(byte[] leftBytes, byte[] rightBytes) throws IOException {
+		Mockito.when(mockDataStore.read(id, DataEnum.LEFT)).thenReturn(ByteBuffer.wrap(leftBytes));
+		Mockito.when(mockDataStore.read(id, DataEnum.RIGHT)).thenReturn(ByteBuffer.wrap(rightBytes));
+		Mockito.when(mockUtils.encodeBase64(leftBytes)).thenReturn(left);
+		Mockito.when(mockUtils.encodeBase64(rightBytes)).thenReturn(right);
 	}
 	
 	/**
 	 * Test for when the data are equals
 	 */
 	@Test
-	public void testDataAreEqualPositive() {
+	public void testDataAreEqualPositive() throws IOException {
 		id = "123";
 		left  = "AAAAA-BBBBB-CCCCC=";
 		right = "AAAAA-BBBBB-CCCCC=";
 
-		// mocking Utils calls
-		Mockito.when(mockUtils.getData(id, DataEnum.LEFT)).thenReturn(left);
-		Mockito.when(mockUtils.getData(id, DataEnum.RIGHT)).thenReturn(right);
+		// mocking DataStore and Utils calls
+		mockData(new byte[] {1}, new byte[] {2});
 
-		// creating task and setting Utils mock class
+		// creating task and setting Utils and DataStore mock classes
 		GetDiffTask task = new GetDiffTask(id);
 		task.setUtils(mockUtils);
+		task.setDataStore(mockDataStore);
 		
 		// executing task
 		JSONObject jsonObject = task.executeTask();
@@ -75,18 +104,18 @@ public class GetDiffTaskTest {
 	 * Test for when the data does not have the same length.
 	 */
 	@Test
-	public void testDataNotSameLengthPositive() {
+	public void testDataNotSameLengthPositive() throws IOException {
 		id = "456";
 		left  = "AAAAA-BBBB-CCCCCCCCCCC=";
 		right = "AAAAA-BBBBB-CCCCC=";
 
-		// mocking Utils calls
-		Mockito.when(mockUtils.getData(id, DataEnum.LEFT)).thenReturn(left);
-		Mockito.when(mockUtils.getData(id, DataEnum.RIGHT)).thenReturn(right);
+		// mocking DataStore and Utils calls
+		mockData(new byte[] {1}, new byte[] {2});
 
-		// creating task and setting Utils mock class
+		// creating task and setting Utils and DataStore mock classes
 		GetDiffTask task = new GetDiffTask(id);
 		task.setUtils(mockUtils);
+		task.setDataStore(mockDataStore);
 		
 		// executing task
 		JSONObject jsonObject = task.executeTask();
@@ -105,7 +134,7 @@ public class GetDiffTaskTest {
 	 * Test for when the data have the same length but with diffs.
 	 */
 	@Test
-	public void testDataSameLenghtButWithDiffsPositive() {
+	public void testDataSameLenghtButWithDiffsPositive() throws IOException {
 		id = "789";
 		left  = "ABCDEFGH-IJKLMNOP-QRSTUVZ=";
 		right = "AAADEFGH-IIIIIIIP-QRSTUUUU";
@@ -113,13 +142,13 @@ public class GetDiffTaskTest {
 		int[] expectedOffsets = {1, 10, 23};
 		int[] expectedLength = {2, 6, 3};
 		
-		// mocking Utils calls
-		Mockito.when(mockUtils.getData(id, DataEnum.LEFT)).thenReturn(left);
-		Mockito.when(mockUtils.getData(id, DataEnum.RIGHT)).thenReturn(right);
+		// mocking DataStore and Utils calls
+		mockData(new byte[] {1}, new byte[] {2});
 
-		// creating task and setting Utils mock class
+		// creating task and setting Utils and DataStore mock classes
 		GetDiffTask task = new GetDiffTask(id);
 		task.setUtils(mockUtils);
+		task.setDataStore(mockDataStore);
 
 		// executing task
 		JSONObject jsonObject = task.executeTask();
@@ -144,4 +173,333 @@ public class GetDiffTaskTest {
 			Assert.fail();
 		}
 	}
+
+	/**
+	 * Test for when the data have the same length but with diffs, in the BYTE mode.<br/>
+	 * The offsets and lengths are in bytes of the stored (decoded) data.
+	 */
+	@Test
+	public void testDataSameLenghtButWithDiffsInByteModePositive() throws IOException {
+		id = "987";
+		byte[] leftBytes  = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+		byte[] rightBytes = {0, 9, 9, 3, 4, 5, 6, 7, 9};
+
+		int[] expectedOffsets = {1, 8};
+		int[] expectedLength = {2, 1};
+
+		// mocking DataStore calls
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(leftBytes)));
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(rightBytes)));
+
+		// creating task and setting DataStore mock class
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+
+		// executing task
+		JSONObject jsonObject = task.executeTask();
+
+		try {
+			// checking results from task
+			String actual = jsonObject.get(Utils.RESULT).toString();
+			Assert.assertEquals(Utils.RESULT_SAME_LENGTH_WITH_DIFFS, actual);
+
+			// getting the differences (offsets and length information)
+			JSONArray jsonArray = new JSONArray(jsonObject.getString(Utils.DIFFERENCES));
+			Assert.assertEquals(expectedOffsets.length, jsonArray.length());
+			for(int i=0; i<jsonArray.length(); i++) {
+				JSONObject auxJsonObject = jsonArray.getJSONObject(i);
+				Assert.assertEquals(expectedOffsets[i], auxJsonObject.getInt(Utils.OFFSET));
+				Assert.assertEquals(expectedLength[i], auxJsonObject.getInt(Utils.LENGTH));
+			}
+		} catch (JSONException exc) {
+			Assert.fail();
+		}
+	}
+
+	/**
+	 * Test for when the data are equal, in the BYTE mode.
+	 */
+	@Test
+	public void testDataAreEqualInByteModePositive() throws IOException, JSONException {
+		id = "654";
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 2, 3})));
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 2, 3})));
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		String actual = new JSONArray(jsonObject.get(Utils.RESULT).toString()).get(0).toString();
+		Assert.assertEquals(Utils.RESULT_ARE_EQUAL, actual);
+	}
+
+	/**
+	 * Test for when only one side was saved, the other side is empty.
+	 */
+	@Test
+	public void testOneSideNotSavedPositive() throws IOException, JSONException {
+		id = "321";
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 2, 3})));
+		Mockito.when(mockDataStore.exists(id, DataEnum.LEFT)).thenReturn(true);
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(null);
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		String actual = new JSONArray(jsonObject.get(Utils.RESULT).toString()).get(0).toString();
+		Assert.assertEquals(Utils.RESULT_NOT_SAME_LENGTH, actual);
+	}
+
+	/**
+	 * Test for when no side was saved, the result is null.
+	 */
+	@Test
+	public void testDataNotFoundNegative() throws IOException {
+		id = "322";
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(null);
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(null);
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+
+		Assert.assertNull(task.executeTask());
+	}
+
+	/**
+	 * Test for a repeated diff of unchanged data, it is served from the cache.<br/>
+	 * Once the version of a side changes, the diff is executed again.
+	 */
+	@Test
+	public void testRepeatedDiffFromCachePositive() throws IOException {
+		id = "655";
+		Mockito.when(mockDataStore.getVersion(id, DataEnum.LEFT)).thenReturn(1L);
+		Mockito.when(mockDataStore.getVersion(id, DataEnum.RIGHT)).thenReturn(1L);
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 2, 3})));
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 2, 4})));
+		LruDiffCache diffCache = new LruDiffCache(10, 1024 * 1024);
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+		task.setDiffCache(diffCache);
+
+		DiffResult first = task.executeDiff();
+		Assert.assertSame(first, task.executeDiff());
+		Mockito.verify(mockDataStore, Mockito.times(1)).openReader(id, DataEnum.LEFT);
+
+		// the right side was saved again
+		Mockito.when(mockDataStore.getVersion(id, DataEnum.RIGHT)).thenReturn(2L);
+		Assert.assertNotSame(first, task.executeDiff());
+		Mockito.verify(mockDataStore, Mockito.times(2)).openReader(id, DataEnum.LEFT);
+	}
+
+	/**
+	 * Test for the streamed diff in the BYTE mode, the differences are written 
+	 * before the result.
+	 */
+	@Test
+	public void testStreamingDiffInByteModePositive() throws IOException, JSONException {
+		id = "656";
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 2, 3, 4})));
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {1, 9, 3, 9})));
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+		task.setDiffCache(new LruDiffCache(0, 0));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		task.executeStreamingTask().write(output);
+		JSONObject jsonObject = new JSONObject(output.toString("UTF-8"));
+		Assert.assertEquals(Utils.RESULT_SAME_LENGTH_WITH_DIFFS, jsonObject.getString(Utils.RESULT));
+		Assert.assertEquals("[{\"Offset\":1,\"Length\":1},{\"Offset\":3,\"Length\":1}]", 
+				jsonObject.getJSONArray(Utils.DIFFERENCES).toString());
+	}
+
+	/**
+	 * Test for the streamed diff when no side was saved, there is no output.
+	 */
+	@Test
+	public void testStreamingDataNotFoundNegative() throws IOException {
+		id = "657";
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+
+		Assert.assertNull(task.executeStreamingTask());
+	}
+
+	/**
+	 * Test for a diff limited to a window and to a number of differences, in the BYTE mode.<br/>
+	 * The offset of the first difference after the limit is returned as the next one.
+	 */
+	@Test
+	public void testDiffWithWindowAndLimitInByteModePositive() throws IOException, JSONException {
+		id = "658";
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9})));
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(new byte[] {9, 1, 9, 3, 9, 5, 9, 7, 9, 9})));
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE, 1, GetDiffTask.END, 2);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		Assert.assertEquals(Utils.RESULT_SAME_LENGTH_WITH_DIFFS, jsonObject.getString(Utils.RESULT));
+		Assert.assertEquals("[{\"Offset\":2,\"Length\":1},{\"Offset\":4,\"Length\":1}]", 
+				jsonObject.getJSONArray(Utils.DIFFERENCES).toString());
+		Assert.assertEquals(6, jsonObject.getInt(Utils.NEXT));
+	}
+
+	/**
+	 * Test for a diff of data compared in segments, in the BYTE mode.<br/>
+	 * The difference that crosses the end of a segment is reported only once, in the full,
+	 * the streamed and the limited diffs.
+	 */
+	@Test
+	public void testDiffInSegmentsInByteModePositive() throws IOException, JSONException {
+		id = "661";
+		byte[] leftBytes  = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+		byte[] rightBytes = {0, 0, 0, 1, 1, 1, 0, 0, 0, 1};
+		Mockito.when(mockDataStore.openReader(id, DataEnum.LEFT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(leftBytes)));
+		Mockito.when(mockDataStore.openReader(id, DataEnum.RIGHT)).thenReturn(new BufferedDataReader(ByteBuffer.wrap(rightBytes)));
+		String expected = "[{\"Offset\":3,\"Length\":3},{\"Offset\":9,\"Length\":1}]";
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+		task.setDiffCache(new LruDiffCache(0, 0));
+		task.setSegmentSize(4);
+		Assert.assertEquals(expected, task.executeTask().getJSONArray(Utils.DIFFERENCES).toString());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		task.executeStreamingTask().write(output);
+		Assert.assertEquals(expected, new JSONObject(output.toString("UTF-8")).getJSONArray(Utils.DIFFERENCES).toString());
+
+		task = new GetDiffTask(id, DiffModeEnum.BYTE, 0, GetDiffTask.END, 1);
+		task.setDataStore(mockDataStore);
+		task.setSegmentSize(4);
+		JSONObject jsonObject = task.executeTask();
+		Assert.assertEquals("[{\"Offset\":3,\"Length\":3}]", jsonObject.getJSONArray(Utils.DIFFERENCES).toString());
+		Assert.assertEquals(9, jsonObject.getLong(Utils.NEXT));
+	}
+
+	/**
+	 * Test for a diff limited to a window without differences, in the STRING mode.
+	 */
+	@Test
+	public void testDiffWithWindowWithoutDiffsNegative() throws IOException, JSONException {
+		id = "659";
+		left  = "AAAAA-BBBBB-CCCCC=";
+		right = "AAAAA-BBBBB-CCCCD=";
+		mockData(new byte[] {1}, new byte[] {2});
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.STRING, 0, 10, GetDiffTask.NO_LIMIT);
+		task.setUtils(mockUtils);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		Assert.assertEquals(Utils.RESULT_ARE_EQUAL, jsonObject.getJSONArray(Utils.RESULT).getString(0));
+		Assert.assertFalse(jsonObject.has(Utils.DIFFERENCES));
+	}
+
+	/**
+	 * Test for a diff limited to the first difference, in the STRING mode.
+	 */
+	@Test
+	public void testDiffWithLimitPositive() throws IOException, JSONException {
+		id = "660";
+		left  = "AAAAA-BBBBB-CCCCC=";
+		right = "ABAAA-BBBBB-CDCCC=";
+		mockData(new byte[] {1}, new byte[] {2});
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.STRING, 0, GetDiffTask.END, 1);
+		task.setUtils(mockUtils);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		Assert.assertEquals(1, jsonObject.getJSONArray(Utils.DIFFERENCES).length());
+		Assert.assertEquals(13, jsonObject.getInt(Utils.NEXT));
+	}
+
+	/**
+	 * Test for equal data, the result is known from the metadata and the data is not read.
+	 */
+	@Test
+	public void testDataAreEqualFromMetadataPositive() throws IOException, JSONException {
+		id = "700";
+		Mockito.when(mockDataStore.getMetadata(id, DataEnum.LEFT)).thenReturn(DataMetadata.of(new byte[] {1, 2, 3}));
+		Mockito.when(mockDataStore.getMetadata(id, DataEnum.RIGHT)).thenReturn(DataMetadata.of(new byte[] {1, 2, 3}));
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		Assert.assertEquals(Utils.RESULT_ARE_EQUAL, jsonObject.getJSONArray(Utils.RESULT).get(0));
+		Mockito.verify(mockDataStore, Mockito.never()).openReader(Mockito.anyString(), Mockito.any(DataEnum.class));
+	}
+
+	/**
+	 * Test for data that does not have the same length, the result is known from the metadata
+	 * and the data is not read.
+	 */
+	@Test
+	public void testDataNotSameLengthFromMetadataPositive() throws IOException, JSONException {
+		id = "701";
+		Mockito.when(mockDataStore.getMetadata(id, DataEnum.LEFT)).thenReturn(DataMetadata.of(new byte[] {1, 2, 3}));
+		Mockito.when(mockDataStore.getMetadata(id, DataEnum.RIGHT)).thenReturn(DataMetadata.of(new byte[] {1, 2, 3, 4}));
+
+		GetDiffTask task = new GetDiffTask(id);
+		task.setDataStore(mockDataStore);
+
+		JSONObject jsonObject = task.executeTask();
+		Assert.assertEquals(Utils.RESULT_NOT_SAME_LENGTH, jsonObject.getJSONArray(Utils.RESULT).get(0));
+		Mockito.verify(mockDataStore, Mockito.never()).read(Mockito.anyString(), Mockito.any(DataEnum.class));
+	}
+
+	/**
+	 * Test for data with the same Base64 length but different byte lengths, in the STRING mode
+	 * the data must be read and compared.
+	 */
+	@Test
+	public void testDifferentHashFromMetadataNegative() throws IOException {
+		id = "702";
+		left  = "AQ==";
+		right = "AQI=";
+		Mockito.when(mockDataStore.getMetadata(id, DataEnum.LEFT)).thenReturn(DataMetadata.of(new byte[] {1}));
+		Mockito.when(mockDataStore.getMetadata(id, DataEnum.RIGHT)).thenReturn(DataMetadata.of(new byte[] {1, 2}));
+		mockData(new byte[] {1}, new byte[] {1, 2});
+
+		GetDiffTask task = new GetDiffTask(id);
+		task.setUtils(mockUtils);
+		task.setDataStore(mockDataStore);
+
+		Assert.assertNotNull(task.executeTask());
+		Mockito.verify(mockDataStore).read(id, DataEnum.LEFT);
+	}
+
+	/**
+	 * Test for data indexed by blocks, only the blocks with differences are compared, and
+	 * a difference that crosses blocks is reported once.
+	 */
+	@Test
+	public void testDiffOfIndexedBlocksPositive() throws IOException, JSONException {
+		id = "703";
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+		dataStore.setBlockSize(4);
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+		dataStore.write(id, DataEnum.RIGHT, new byte[] {1, 2, 3, 4, 5, 6, 0, 0, 0, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 0});
+		DiffEngine diffEngine = Mockito.spy(new ByteDiffEngine());
+
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(dataStore);
+		task.setDiffEngine(diffEngine);
+		task.setDiffCache(new LruDiffCache(0, 0));
+
+		JSONArray differences = task.executeTask().getJSONArray(Utils.DIFFERENCES);
+		Assert.assertEquals(2, differences.length());
+		Assert.assertEquals(6, differences.getJSONObject(0).getInt(Utils.OFFSET));
+		Assert.assertEquals(3, differences.getJSONObject(0).getInt(Utils.LENGTH));
+		Assert.assertEquals(19, differences.getJSONObject(1).getInt(Utils.OFFSET));
+		// the first and the fourth blocks are equal, so they are not compared (or read),
+		// the segments of [4, 12) and [16, 20) are compared.
+		Mockito.verify(diffEngine).diff(Mockito.any(ByteBuffer.class), Mockito.any(ByteBuffer.class), Mockito.eq(0), Mockito.eq(8), Mockito.any(DiffListener.class));
+		Mockito.verify(diffEngine).diff(Mockito.any(ByteBuffer.class), Mockito.any(ByteBuffer.class), Mockito.eq(0), Mockito.eq(4), Mockito.any(DiffListener.class));
+		Mockito.verifyNoMoreInteractions(diffEngine);
+	}
 }
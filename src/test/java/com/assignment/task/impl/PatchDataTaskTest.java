@@ -0,0 +1,168 @@
+package com.assignment.task.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.diff.DiffEngine;
+import com.assignment.diff.DiffListener;
+import com.assignment.diff.DiffResult;
+import com.assignment.diff.DifferenceList;
+import com.assignment.diff.impl.ByteDiffEngine;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
+import com.assignment.utils.Utils;
+
+/**
+ * Unit Test class for PatchDataTask class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * The unit tests validates that the task is able to:<br/>
+ * 1) replace a range of one side of the data;<br/>
+ * 2) update the cached diff comparing only the range and the differences around it;<br/>
+ * 3) keep the data when the range is not inside it;<br/>
+ * 4) save the range when the cached diff cannot be updated (a cache miss).
+ *
+ * @author lucas.reginato@gmail.com
+ */
+public class PatchDataTaskTest {
+
+	private String id = "patch";
+	private InMemoryDataStore dataStore;
+	private LruDiffCache diffCache;
+
+	/**
+	 * Saves both sides in a new data store before each test.
+	 */
+	@Before
+	public void setup() {
+		dataStore = new InMemoryDataStore();
+		dataStore.write(id, DataEnum.LEFT, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+		dataStore.write(id, DataEnum.RIGHT, new byte[] {0, 2, 3, 4, 5, 0, 0, 8, 9, 10, 11, 12, 13, 14, 15, 0});
+		diffCache = new LruDiffCache(10, 1024 * 1024);
+	}
+
+	/**
+	 * Test that the range is replaced and the cached diff is updated around the range only.
+	 */
+	@Test
+	public void testPatchUpdatesCachedDiffPositive() throws IOException, JSONException {
+		GetDiffTask getDiffTask = createGetDiffTask();
+		Assert.assertEquals(3, getDiffTask.executeTask().getJSONArray(Utils.DIFFERENCES).length());
+
+		// the bytes 6 and 7 of the right side become {7, 0}: the byte 6 is now equal,
+		// and the byte 7 is now different.
+		DiffEngine diffEngine = Mockito.spy(new ByteDiffEngine());
+		PatchDataTask task = createPatchDataTask(6, "[\"BwA=\"]");
+		task.setDiffEngine(diffEngine);
+		Assert.assertNotNull(task.executeTask());
+
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {0, 2, 3, 4, 5, 0, 7, 0, 9, 10, 11, 12, 13, 14, 15, 0}), 
+				dataStore.read(id, DataEnum.RIGHT));
+		// the range (6, 8) touches the difference (5, 7), so only (5, 8) is read and compared again.
+		Mockito.verify(diffEngine).diff(Mockito.any(ByteBuffer.class), Mockito.any(ByteBuffer.class), 
+				Mockito.eq(0), Mockito.eq(3), Mockito.any(DiffListener.class));
+
+		DiffResult cachedResult = diffCache.get(id, DiffModeEnum.BYTE, dataStore.getVersion(id, DataEnum.LEFT), 
+				dataStore.getVersion(id, DataEnum.RIGHT));
+		DifferenceList differences = cachedResult.getDifferences();
+		Assert.assertEquals(4, differences.size());
+		Assert.assertEquals(5, differences.getOffset(1));
+		Assert.assertEquals(1, differences.getLength(1));
+		Assert.assertEquals(7, differences.getOffset(2));
+		Assert.assertEquals(15, differences.getOffset(3));
+
+		// the updated result is the same as a new diff.
+		GetDiffTask newDiffTask = createGetDiffTask();
+		newDiffTask.setDiffCache(new LruDiffCache(0, 0));
+		Assert.assertEquals(newDiffTask.executeTask().toString(), createGetDiffTask().executeTask().toString());
+	}
+
+	/**
+	 * Test that the cached diff becomes equal once the last differences are fixed.
+	 */
+	@Test
+	public void testPatchToEqualDataPositive() throws IOException, JSONException {
+		dataStore.write(id, DataEnum.RIGHT, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 0});
+		createGetDiffTask().executeTask();
+
+		Assert.assertNotNull(createPatchDataTask(15, "[\"EA==\"]").executeTask());
+
+		JSONObject result = createGetDiffTask().executeTask();
+		Assert.assertEquals(Utils.RESULT_ARE_EQUAL, result.getJSONArray(Utils.RESULT).get(0));
+		// the patch and the last diff found the result in the cache.
+		Assert.assertEquals(2, diffCache.getStatistics().getLong(LruDiffCache.HITS));
+	}
+
+	/**
+	 * Test that the range is saved when the cached diff cannot be updated, and the diff is 
+	 * not put in the cache.
+	 */
+	@Test
+	public void testPatchWithFailedDiffUpdatePositive() throws IOException, JSONException {
+		createGetDiffTask().executeTask();
+
+		DiffEngine diffEngine = Mockito.mock(DiffEngine.class);
+		Mockito.doThrow(new IOException("failure")).when(diffEngine).diff(Mockito.any(ByteBuffer.class), 
+				Mockito.any(ByteBuffer.class), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(DiffListener.class));
+		PatchDataTask task = createPatchDataTask(0, "[\"AQ==\"]");
+		task.setDiffEngine(diffEngine);
+		Assert.assertNotNull(task.executeTask());
+
+		Assert.assertEquals(1, dataStore.read(id, DataEnum.RIGHT).get(0));
+		Assert.assertNull(diffCache.get(id, DiffModeEnum.BYTE, dataStore.getVersion(id, DataEnum.LEFT), 
+				dataStore.getVersion(id, DataEnum.RIGHT)));
+		Assert.assertEquals(2, createGetDiffTask().executeTask().getJSONArray(Utils.DIFFERENCES).length());
+	}
+
+	/**
+	 * Test that a range that is not inside the data fails, and the data is not changed.
+	 */
+	@Test
+	public void testPatchOutsideDataNegative() {
+		Assert.assertNull(createPatchDataTask(15, "[\"AQID\"]").executeTask());
+		Assert.assertNull(createPatchDataTask(17, "[\"AQ==\"]").executeTask());
+		PatchDataTask task = new PatchDataTask("other", DataEnum.LEFT, 0, stream("[\"AQ==\"]"));
+		task.setDataStore(dataStore);
+		Assert.assertNull(task.executeTask());
+
+		Assert.assertEquals(0, dataStore.read(id, DataEnum.RIGHT).get(15));
+	}
+
+	/**
+	 * Creates the task that updates the right side.
+	 */
+	private PatchDataTask createPatchDataTask(long offset, String json) {
+		PatchDataTask task = new PatchDataTask(id, DataEnum.RIGHT, offset, stream(json));
+		task.setDataStore(dataStore);
+		task.setDiffCache(diffCache);
+		return task;
+	}
+
+	/**
+	 * Creates the task that executes the diff in the BYTE mode.
+	 */
+	private GetDiffTask createGetDiffTask() {
+		GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+		task.setDataStore(dataStore);
+		task.setDiffCache(diffCache);
+		return task;
+	}
+
+	/**
+	 * Returns the stream with the JSON array.
+	 */
+	private InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
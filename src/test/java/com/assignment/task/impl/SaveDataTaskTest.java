@@ -1,124 +1,312 @@
 package com.assignment.task.impl;
 
-import java.util.Properties;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.codehaus.jettison.json.JSONObject;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.assignment.cache.DiffCache;
+import com.assignment.cache.impl.LruDiffCache;
+import com.assignment.storage.DataStore;
+import com.assignment.storage.DataWriter;
+import com.assignment.storage.impl.InMemoryDataStore;
+import com.assignment.storage.impl.PropertiesFileDataStore;
 import com.assignment.task.impl.SaveDataTask;
+import com.assignment.utils.BufferPool;
 import com.assignment.utils.DataEnum;
+import com.assignment.utils.DiffModeEnum;
 import com.assignment.utils.Utils;
 
 /**
  * Unit Test class for SaveDataTask class.<br/>
  * Test all methods, positive and negative scenarios.<br/>
  * The unit tests validates that the task is able to:<br/>
- * 1) create new properties files;<br/>
- * 2) load existing properties files;<br/>
- * 3) save changes in a property file.
- * 
+ * 1) decode the value and save it in the data store;<br/>
+ * 2) save each side (right and left) separately;<br/>
+ * 3) decode a stream while it is read and commit it only when valid;<br/>
+ * 4) remove the cached diff results of the id;<br/>
+ * 5) save the right and left data of the same id concurrently, without lost updates;<br/>
+ * 6) return null when the data store fails.
+ *
  * @author lucas.reginato@gmail.com
  */
 public class SaveDataTaskTest {
 
 	// global variables of this unit test
-	private Properties properties = null;
 	private Utils mockUtils = null;
-	
+	private DataStore mockDataStore = null;
+
 	/**
 	 * Creates the instances before each test.
 	 */
 	@Before
 	public void setup() {
-		// the properties instance that will hold the right attribute
-		properties = new Properties();
-		// mocking the Utils class
+		// mocking the Utils and DataStore classes
 		mockUtils = Mockito.mock(Utils.class);
+		mockDataStore = Mockito.mock(DataStore.class);
+	}
+
+	/**
+	 * Checks that the buffers of the pool were returned after each test, also by the failed saves.
+	 */
+	@After
+	public void checkLeaks() {
+		List<Throwable> leaks = BufferPool.getInstance().getLeaks();
+		Assert.assertTrue("Buffers not released: " + leaks, leaks.isEmpty());
 	}
-	
+
 	/**
-	 * Test the creation of a new properties file and 
-	 * adding the new property (key:value) inside it.
+	 * Test the saving of the right data in the data store.
 	 * The expected result is a JSONObject.
 	 */
 	@Test
-	public void testCreatingNewPropertiesFilePositive() {
+	public void testSavingRightDataPositive() throws IOException {
 		// define variables to be used in the test:
-		//  - id is the name of the filename that should be created.
-		//  - key is the attribute name where we will save the value.
+		//  - id is the identification of the data in the data store.
+		//  - key is the side where we will save the value.
 		//  - value is the base64 string that will be saved.
 		String id = "123";
 		String key = DataEnum.RIGHT.name();
-		String value = "ABCDE"; 
-		
+		String value = "ABCDE";
+		byte[] data = {1, 2, 3};
+
 		// mocking Utils calls
-		Mockito.when(mockUtils.fileExists(id)).thenReturn(false);
-		Mockito.when(mockUtils.createPropertiesFile(id)).thenReturn(properties);
-		
+		Mockito.when(mockUtils.decodeBase64(value)).thenReturn(data);
+
 		// creating SaveDataTask with initial parameters
-		// and seeting the mocked Utils to the SaveDataTask instance
+		// and setting the mocked Utils and DataStore to the SaveDataTask instance
 		SaveDataTask task = new SaveDataTask(id, key, value);
 		task.setUtils(mockUtils);
-		
+		task.setDataStore(mockDataStore);
+
 		JSONObject jsonObject = task.executeTask();
 		Assert.assertNotNull(jsonObject);
+		Mockito.verify(mockDataStore).write(id, DataEnum.RIGHT, data);
 	}
 
 	/**
-	 * Test the loading of an existing properties file and 
-	 * adding the new property (key:value) inside it.
+	 * Test the saving of the left data in the data store.
 	 * The expected result is a JSONObject.
 	*/
 	@Test
-	public void testLoadingExistingPropertiesFilePositive() {
+	public void testSavingLeftDataPositive() throws IOException {
 		// define variables to be used in the test:
-		//  - id is the name of the filename that should be created.
-		//  - key is the attribute name where we will save the value.
+		//  - id is the identification of the data in the data store.
+		//  - key is the side where we will save the value.
 		//  - value is the base64 string that will be saved.
 		String id = "321";
-		String key = DataEnum.RIGHT.name();
-		String value = "EDCBA"; 
-		
+		String key = DataEnum.LEFT.name();
+		String value = "EDCBA";
+		byte[] data = {3, 2, 1};
+
 		// mocking Utils calls
-		Mockito.when(mockUtils.fileExists(id)).thenReturn(true);
-		Mockito.when(mockUtils.loadPropertiesFile(id)).thenReturn(properties);
-		
+		Mockito.when(mockUtils.decodeBase64(value)).thenReturn(data);
+
 		// creating SaveDataTask with initial parameters
-		// and seeting the mocked Utils to the SaveDataTask instance
+		// and setting the mocked Utils and DataStore to the SaveDataTask instance
 		SaveDataTask task = new SaveDataTask(id, key, value);
 		task.setUtils(mockUtils);
-		
+		task.setDataStore(mockDataStore);
+
 		JSONObject jsonObject = task.executeTask();
 		Assert.assertNotNull(jsonObject);
+		Mockito.verify(mockDataStore).write(id, DataEnum.LEFT, data);
 	}
-	
+
 	/**
-	 * Test the failure on creating a new proeprties file.
+	 * Test the failure on saving the data in the data store.
 	 * THe expected result is null.
 	 */
 	@Test
-	public void testExceptionDuringTaskExecutionNegative() {
+	public void testExceptionDuringTaskExecutionNegative() throws IOException {
 		// define variables to be used in the test:
-		//  - id is the name of the filename that should be created.
-		//  - key is the attribute name where we will save the value.
+		//  - id is the identification of the data in the data store.
+		//  - key is the side where we will save the value.
 		//  - value is the base64 string that will be saved.
 		String id = "111";
 		String key = DataEnum.RIGHT.name();
-		String value = "AAAAA"; 
-		
-		// mocking Utils calls
-		Mockito.when(mockUtils.fileExists(id)).thenReturn(false);
-		Mockito.when(mockUtils.createPropertiesFile(id)).thenReturn(null);
-		
+		String value = "AAAAA";
+		byte[] data = {0, 0, 0};
+
+		// mocking Utils and DataStore calls
+		Mockito.when(mockUtils.decodeBase64(value)).thenReturn(data);
+		Mockito.doThrow(new IOException("disk full")).when(mockDataStore).write(id, DataEnum.RIGHT, data);
+
 		// creating SaveDataTask with initial parameters
-		// and seeting the mocked Utils to the SaveDataTask instance
+		// and setting the mocked Utils and DataStore to the SaveDataTask instance
 		SaveDataTask task = new SaveDataTask(id, key, value);
 		task.setUtils(mockUtils);
-		
+		task.setDataStore(mockDataStore);
+
 		JSONObject jsonObject = task.executeTask();
 		Assert.assertNull(jsonObject);
 	}
+
+	/**
+	 * Test the saving of data read from a stream with a JSON array.
+	 * The decoded data is written and committed.
+	 */
+	@Test
+	public void testSavingStreamPositive() throws IOException {
+		String id = "222";
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+
+		SaveDataTask task = new SaveDataTask(id, DataEnum.LEFT.name(), new ByteArrayInputStream("[\"AQ\", \"ID\"]".getBytes()));
+		task.setDataStore(dataStore);
+
+		Assert.assertNotNull(task.executeTask());
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), dataStore.read(id, DataEnum.LEFT));
+	}
+
+	/**
+	 * Test the saving of raw data read from a channel (binary upload).
+	 * The data is transferred, without decoding, and committed.
+	 */
+	@Test
+	public void testSavingChannelPositive() throws IOException {
+		String id = "224";
+		InMemoryDataStore dataStore = new InMemoryDataStore();
+
+		SaveDataTask task = new SaveDataTask(id, DataEnum.RIGHT.name(), 
+				Channels.newChannel(new ByteArrayInputStream(new byte[] {7, 8, 9})));
+		task.setDataStore(dataStore);
+
+		Assert.assertNotNull(task.executeTask());
+		Assert.assertEquals(ByteBuffer.wrap(new byte[] {7, 8, 9}), dataStore.read(id, DataEnum.RIGHT));
+	}
+
+	/**
+	 * Test the saving of an invalid JSON read from a stream.
+	 * The expected result is null, and the data is not committed.
+	 */
+	@Test
+	public void testSavingInvalidStreamNegative() throws IOException {
+		String id = "333";
+		DataWriter mockWriter = Mockito.mock(DataWriter.class);
+		Mockito.when(mockDataStore.openWriter(id, DataEnum.LEFT)).thenReturn(mockWriter);
+
+		SaveDataTask task = new SaveDataTask(id, DataEnum.LEFT.name(), new ByteArrayInputStream("[\"AQID\"".getBytes()));
+		task.setDataStore(mockDataStore);
+
+		Assert.assertNull(task.executeTask());
+		Mockito.verify(mockWriter, Mockito.never()).commit();
+		Mockito.verify(mockWriter).close();
+	}
+
+	/**
+	 * Test that the cached diff results of the id are removed once the data is saved.
+	 */
+	@Test
+	public void testSavingInvalidatesCachePositive() throws IOException {
+		String id = "444";
+		DiffCache mockDiffCache = Mockito.mock(DiffCache.class);
+
+		SaveDataTask task = new SaveDataTask(id, DataEnum.RIGHT.name(), new ByteArrayInputStream("[\"AQID\"]".getBytes()));
+		task.setDataStore(new InMemoryDataStore());
+		task.setDiffCache(mockDiffCache);
+
+		Assert.assertNotNull(task.executeTask());
+		Mockito.verify(mockDiffCache).invalidate(id);
+	}
+
+	/**
+	 * Stress test of concurrent saves and diffs, over the properties file data store, 
+	 * which rewrites the whole file (both sides) on each save.<br/>
+	 * The right and left data of each id are saved at the same time by different threads,
+	 * while other threads execute the diff of the same ids. In the end both sides of every 
+	 * id must have the last saved data (no lost update), and no diff can read a file that 
+	 * is being saved.
+	 */
+	@Test
+	public void testConcurrentSavesPositive() throws Exception {
+		final int numberOfIds = 50;
+		final int rounds = 10;
+		final String prefix = UUID.randomUUID().toString();
+		final PropertiesFileDataStore dataStore = new PropertiesFileDataStore();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+
+		try {
+			for (int i = 0; i < numberOfIds; i++) {
+				dataStore.write(prefix + i, DataEnum.LEFT, new byte[] {0});
+				dataStore.write(prefix + i, DataEnum.RIGHT, new byte[] {0});
+			}
+			for (int i = 0; i < numberOfIds; i++) {
+				final String id = prefix + i;
+				for (final DataEnum side : DataEnum.values()) {
+					futures.add(executor.submit(new Callable<Boolean>() {
+						@Override
+						public Boolean call() throws Exception {
+							start.await();
+							boolean saved = true;
+							for (int round = 1; round <= rounds; round++) {
+								SaveDataTask task = new SaveDataTask(id, side.name(), "");
+								task.setUtils(getUtils(new byte[] {(byte) round}));
+								task.setDataStore(dataStore);
+								saved &= task.executeTask() != null;
+							}
+							return saved;
+						}
+					}));
+				}
+				futures.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() throws Exception {
+						start.await();
+						boolean read = true;
+						for (int round = 1; round <= rounds; round++) {
+							GetDiffTask task = new GetDiffTask(id, DiffModeEnum.BYTE);
+							task.setDataStore(dataStore);
+							task.setDiffCache(new LruDiffCache(0, 0));
+							read &= task.executeTask() != null;
+						}
+						return read;
+					}
+				}));
+			}
+			start.countDown();
+			for (Future<Boolean> future : futures) {
+				Assert.assertTrue(future.get());
+			}
+
+			for (int i = 0; i < numberOfIds; i++) {
+				Assert.assertEquals(ByteBuffer.wrap(new byte[] {rounds}), dataStore.read(prefix + i, DataEnum.LEFT));
+				Assert.assertEquals(ByteBuffer.wrap(new byte[] {rounds}), dataStore.read(prefix + i, DataEnum.RIGHT));
+			}
+		} finally {
+			executor.shutdownNow();
+			for (int i = 0; i < numberOfIds; i++) {
+				new File(prefix + i).delete();
+			}
+		}
+	}
+
+	/**
+	 * Returns a Utils instance that decodes any value to the given data.
+	 */
+	private Utils getUtils(final byte[] data) {
+		return new Utils() {
+			@Override
+			public byte[] decodeBase64(String value) {
+				return data;
+			}
+		};
+	}
 }
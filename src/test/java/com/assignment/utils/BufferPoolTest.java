@@ -0,0 +1,97 @@
+package com.assignment.utils;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Unit Test class for BufferPool class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class BufferPoolTest {
+
+	/**
+	 * Test that a released buffer is reused by the next request of its size class,
+	 * and that the buffers are direct and limited to the requested size.
+	 */
+	@Test
+	public void testAcquireReusesReleasedBufferPositive() {
+		BufferPool bufferPool = new BufferPool(1024 * 1024, true);
+		ByteBuffer buffer = bufferPool.acquire(5000);
+		Assert.assertTrue(buffer.isDirect());
+		Assert.assertEquals(8192, buffer.capacity());
+		Assert.assertEquals(5000, buffer.limit());
+		Assert.assertEquals(1, bufferPool.getBorrowed());
+		Assert.assertEquals(8192, bufferPool.getBorrowedBytes());
+
+		bufferPool.release(buffer);
+		Assert.assertEquals(0, bufferPool.getBorrowed());
+		Assert.assertEquals(8192, bufferPool.getPooledBytes());
+		Assert.assertSame(buffer, bufferPool.acquire(8000));
+		Assert.assertEquals(0, bufferPool.getPooledBytes());
+		Assert.assertNotSame(buffer, bufferPool.acquire(100));
+	}
+
+	/**
+	 * Test that the pool keeps at most max bytes, and does not keep the buffers
+	 * larger than the largest size class.
+	 */
+	@Test
+	public void testReleaseOverMaxBytesNegative() {
+		BufferPool bufferPool = new BufferPool(BufferPool.MIN_SIZE, false);
+		ByteBuffer first = bufferPool.acquire(BufferPool.MIN_SIZE);
+		ByteBuffer second = bufferPool.acquire(BufferPool.MIN_SIZE);
+		ByteBuffer large = bufferPool.acquire(BufferPool.MAX_SIZE + 1);
+		bufferPool.release(first);
+		bufferPool.release(second);
+		bufferPool.release(large);
+
+		Assert.assertEquals(BufferPool.MIN_SIZE, bufferPool.getPooledBytes());
+		Assert.assertEquals(0, bufferPool.getBorrowedBytes());
+		Assert.assertSame(first, bufferPool.acquire(1));
+		Assert.assertNotSame(second, bufferPool.acquire(1));
+	}
+
+	/**
+	 * Test that the leak detection reports the buffers not released.
+	 */
+	@Test
+	public void testLeakDetectionPositive() {
+		BufferPool bufferPool = new BufferPool(1024 * 1024, true);
+		bufferPool.release(bufferPool.acquire(10));
+		Assert.assertTrue(bufferPool.getLeaks().isEmpty());
+
+		bufferPool.acquire(10);
+		Assert.assertEquals(1, bufferPool.getLeaks().size());
+		Assert.assertTrue(bufferPool.getLeaks().get(0).getMessage().contains("10 bytes"));
+	}
+
+	/**
+	 * Test that, with leak detection, a buffer released twice fails.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testReleaseTwiceNegative() {
+		BufferPool bufferPool = new BufferPool(1024 * 1024, true);
+		ByteBuffer buffer = bufferPool.acquire(10);
+		bufferPool.release(buffer);
+		bufferPool.release(buffer);
+	}
+
+	/**
+	 * Test that the gauges of the pool are in the metrics.
+	 */
+	@Test
+	public void testRegisterMetricsPositive() throws Exception {
+		BufferPool bufferPool = new BufferPool(1024 * 1024, false);
+		Metrics metrics = new Metrics(new MetricRegistry());
+		bufferPool.registerMetrics(metrics);
+		bufferPool.acquire(10);
+
+		Assert.assertEquals(1, metrics.getSnapshot().getJSONObject("gauges").getLong(Metrics.BUFFER_POOL_BORROWED));
+	}
+}
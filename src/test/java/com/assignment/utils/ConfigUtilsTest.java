@@ -0,0 +1,51 @@
+package com.assignment.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Test class of the ConfigUtils class.<br/>
+ * Test all methods, positive and negative scenarios.
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class ConfigUtilsTest {
+
+	/**
+	 * Test that a value from the configuration file is loaded.
+	 */
+	@Test
+	public void getValueFromConfigFilePositive() {
+		ConfigUtils configUtils = new ConfigUtils();
+		Assert.assertEquals(1048576, configUtils.getInt("diff.parallel.threshold", 0));
+	}
+
+	/**
+	 * Test that a system property overrides the configuration file.
+	 */
+	@Test
+	public void getValueFromSystemPropertyPositive() {
+		System.setProperty("diff.parallel.threshold", "2048");
+		try {
+			Assert.assertEquals(2048, new ConfigUtils().getInt("diff.parallel.threshold", 0));
+		} finally {
+			System.clearProperty("diff.parallel.threshold");
+		}
+	}
+
+	/**
+	 * Test that the default value is returned for unknown keys and invalid numbers.
+	 */
+	@Test
+	public void getDefaultValueNegative() {
+		ConfigUtils configUtils = new ConfigUtils();
+		Assert.assertEquals("default", configUtils.getString("unknown.key", "default"));
+
+		System.setProperty("unknown.number", "abc");
+		try {
+			Assert.assertEquals(10L, configUtils.getLong("unknown.number", 10L));
+		} finally {
+			System.clearProperty("unknown.number");
+		}
+	}
+}
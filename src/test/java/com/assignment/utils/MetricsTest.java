@@ -0,0 +1,53 @@
+package com.assignment.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Unit Test class for Metrics class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class MetricsTest {
+
+	/**
+	 * Test that the snapshot has the values recorded in the timers, histograms and meters.
+	 */
+	@Test
+	public void testGetSnapshotPositive() throws JSONException {
+		Metrics metrics = new Metrics(new MetricRegistry());
+		metrics.timer(Metrics.DIFF_COMPARE).update(2, TimeUnit.MILLISECONDS);
+		metrics.timer(Metrics.DIFF_COMPARE).update(4, TimeUnit.MILLISECONDS);
+		metrics.histogram(Metrics.DIFF_DIFFERENCES).update(7);
+		metrics.meter(Metrics.STORAGE_BYTES_READ).mark(1024);
+
+		JSONObject snapshot = metrics.getSnapshot();
+		JSONObject timer = snapshot.getJSONObject("timers").getJSONObject(Metrics.DIFF_COMPARE);
+		Assert.assertEquals(2, timer.getLong("count"));
+		Assert.assertEquals(4.0, timer.getDouble("max"), 0.001);
+		Assert.assertEquals(3.0, timer.getDouble("mean"), 0.001);
+		JSONObject histogram = snapshot.getJSONObject("histograms").getJSONObject(Metrics.DIFF_DIFFERENCES);
+		Assert.assertEquals(1, histogram.getLong("count"));
+		Assert.assertEquals(7.0, histogram.getDouble("p99"), 0.001);
+		JSONObject meter = snapshot.getJSONObject("meters").getJSONObject(Metrics.STORAGE_BYTES_READ);
+		Assert.assertEquals(1024, meter.getLong("count"));
+	}
+
+	/**
+	 * Test that the snapshot of an empty registry has no metrics.
+	 */
+	@Test
+	public void testGetSnapshotNegative() throws JSONException {
+		JSONObject snapshot = new Metrics(new MetricRegistry()).getSnapshot();
+		Assert.assertEquals(0, snapshot.getJSONObject("timers").length());
+		Assert.assertEquals(0, snapshot.getJSONObject("histograms").length());
+		Assert.assertEquals(0, snapshot.getJSONObject("meters").length());
+	}
+}
@@ -0,0 +1,89 @@
+package com.assignment.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit Test class for StripedLock class.<br/>
+ * Test all methods, positive and negative scenarios.<br/>
+ * 
+ * @author lucas.reginato@gmail.com
+ */
+public class StripedLockTest {
+
+	/**
+	 * Test that the same id always gets the same lock.
+	 */
+	@Test
+	public void testSameIdSameLockPositive() {
+		StripedLock stripedLock = new StripedLock(64);
+		Assert.assertSame(stripedLock.get("1"), stripedLock.get(new String("1")));
+	}
+
+	/**
+	 * Test that the write lock of an id blocks the saves of the same id, 
+	 * but not the saves of an id in another stripe.
+	 */
+	@Test
+	public void testWriteLockSerializesSameIdNegative() throws InterruptedException {
+		final StripedLock stripedLock = new StripedLock(2);
+		stripedLock.get("a").writeLock().lock();
+		try {
+			final CountDownLatch done = new CountDownLatch(2);
+			final boolean[] acquired = new boolean[2];
+			// "a" and "b" have consecutive hashes, so they are in different stripes.
+			final String[] ids = {"a", "b"};
+			for (int i = 0; i < ids.length; i++) {
+				final int index = i;
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						Lock lock = stripedLock.get(ids[index]).writeLock();
+						acquired[index] = lock.tryLock();
+						if (acquired[index]) {
+							lock.unlock();
+						}
+						done.countDown();
+					}
+				}).start();
+			}
+			Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+			Assert.assertFalse(acquired[0]);
+			Assert.assertTrue(acquired[1]);
+		} finally {
+			stripedLock.get("a").writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Test that the number of stripes is rounded up to a power of two, and 
+	 * that a single stripe is shared by all the ids.
+	 */
+	@Test
+	public void testSingleStripePositive() {
+		StripedLock stripedLock = new StripedLock(1);
+		Assert.assertSame(stripedLock.get("a"), stripedLock.get("b"));
+		stripedLock = new StripedLock(3);
+		Assert.assertNotSame(stripedLock.get("a"), stripedLock.get("b"));
+	}
+
+	/**
+	 * Test that the write locks of many ids have each stripe once, in the order of the stripes.
+	 */
+	@Test
+	public void testGetWriteLocksPositive() {
+		StripedLock stripedLock = new StripedLock(2);
+		List<Lock> locks = stripedLock.getWriteLocks(Arrays.asList("b", "a", "b"));
+
+		Assert.assertEquals(2, locks.size());
+		Assert.assertEquals(stripedLock.getWriteLocks(Arrays.asList("a", "b")), locks);
+		Assert.assertTrue(locks.contains(stripedLock.get("a").writeLock()));
+		Assert.assertTrue(locks.contains(stripedLock.get("b").writeLock()));
+	}
+}